@@ -42,6 +42,9 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-json")
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("net.logstash.logback:logstash-logback-encoder:8.0")
+    // Metrics (InventoryMetrics), scraped from /actuator/prometheus on the management port
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 
     // PostgreSQL driver
@@ -56,6 +59,9 @@ dependencies {
     implementation(platform("software.amazon.awssdk:bom:2.31.59"))
     implementation("software.amazon.awssdk:s3")
 
+    // In-process caches (ownership checks); version managed by Spring Boot
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.6")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
@@ -88,11 +94,66 @@ dependencies {
     testRuntimeOnly("com.h2database:h2")
 }
 
+// JMH benchmarks for the hot paths of the domain: src/jmh/java, against the main classes. Not
+// part of build — run them with ./gradlew jmh, or ./gradlew jmh -Pjmh.includes=StockLedger to pick
+// benchmarks by regex. Results go to build/results/jmh/results.json, for comparing runs.
+val jmh: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+	// The throwaway PostgreSQL the database benchmarks run against; see BenchmarkDatabase.
+	"jmhImplementation"("org.testcontainers:testcontainers-postgresql")
+}
+
+tasks.register<JavaExec>("jmh") {
+	description = "Runs the JMH benchmarks and writes their results as JSON."
+	group = "verification"
+	classpath = jmh.runtimeClasspath
+	mainClass = "org.openjdk.jmh.Main"
+	val results = layout.buildDirectory.file("results/jmh/results.json")
+	outputs.file(results)
+	outputs.upToDateWhen { false }
+	doFirst { results.get().asFile.parentFile.mkdirs() }
+	// -foe: a benchmark whose setup fails fails the run, rather than going missing from it.
+	args("-foe", "true", "-rf", "json", "-rff", results.get().asFile.path)
+	// ./gradlew jmh -Djmh.db.url=... sets them on Gradle's JVM; passed on to JMH's, whose forks
+	// inherit its arguments.
+	System.getProperties().stringPropertyNames()
+		.filter { it.startsWith("jmh.db.") }
+		.forEach { systemProperty(it, System.getProperty(it)) }
+	providers.gradleProperty("jmh.includes").orNull?.let { args(it) }
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 	finalizedBy(tasks.jacocoTestReport)
 }
 
+// Tests tagged bounded-memory show that something stays within a small heap, which they can only
+// show when the heap is small. They run in a JVM of their own, with 64 MB, as part of check.
+val boundedMemoryTest by tasks.registering(Test::class) {
+	description = "Runs the tests that must pass within a small heap."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	maxHeapSize = "64m"
+	useJUnitPlatform { includeTags("bounded-memory") }
+}
+
+tasks.test {
+	useJUnitPlatform { excludeTags("bounded-memory") }
+}
+
+tasks.check {
+	dependsOn(boundedMemoryTest)
+}
+
 jacoco {
 	toolVersion = "0.8.14"
 }
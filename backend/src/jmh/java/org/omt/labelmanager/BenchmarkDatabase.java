@@ -0,0 +1,79 @@
+package org.omt.labelmanager;
+
+import org.flywaydb.core.Flyway;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The PostgreSQL a database benchmark runs against: by default a throwaway one in a container,
+ * started for the trial, migrated, and stopped with it. {@code -Djmh.db.url}, with {@code
+ * jmh.db.username} and {@code jmh.db.password}, names another instead — which is then migrated and
+ * written to as well, so it should not be one whose data matters.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private BenchmarkDatabase(
+            PostgreSQLContainer<?> container, String url, String username, String password) {
+        this.container = container;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /** Starts the database, or connects to the one named, and migrates it. */
+    public static BenchmarkDatabase start() {
+        String url = System.getProperty("jmh.db.url");
+        BenchmarkDatabase database;
+        if (url != null) {
+            database =
+                    new BenchmarkDatabase(
+                            null,
+                            url,
+                            System.getProperty("jmh.db.username", "dev"),
+                            System.getProperty("jmh.db.password", "dev"));
+        } else {
+            // The image the integration tests use.
+            PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+            database =
+                    new BenchmarkDatabase(
+                            container,
+                            container.getJdbcUrl(),
+                            container.getUsername(),
+                            container.getPassword());
+        }
+        Flyway.configure()
+                .dataSource(database.url, database.username, database.password)
+                .load()
+                .migrate();
+        return database;
+    }
+
+    /** Whether it goes away with the trial, so what the benchmark wrote need not be cleaned. */
+    public boolean isThrowaway() {
+        return container != null;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.omt.labelmanager.catalog.release.infrastructure;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.omt.labelmanager.BenchmarkDatabase;
+import org.omt.labelmanager.catalog.release.domain.TrackDuration;
+import org.omt.labelmanager.catalog.release.domain.TrackInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creating a release with its tracks, against a real PostgreSQL: the statements {@code
+ * CreateTracksUseCase} used to issue one at a time — each track inserted and its id read back, as
+ * an IDENTITY save does, then one insert per artist and remixer link — against {@link
+ * TrackBatchInserter}. Round trips are the cost, so this needs a database, not stubs.
+ *
+ * <p>Runs against a {@link BenchmarkDatabase}: a throwaway container unless {@code -Djmh.db.url}
+ * names another. Each release is rolled back, so the database does not grow; only the sequences
+ * move on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TrackWritesBenchmark {
+
+    private static final String INSERT_RELEASE =
+            "INSERT INTO release (name, release_date, label_id) VALUES (?, ?, ?) RETURNING id";
+
+    private static final String INSERT_TRACK =
+            """
+            INSERT INTO track (name, duration_seconds, position, release_id)
+            VALUES (?, ?, ?, ?)
+            RETURNING id
+            """;
+
+    @Param({"1", "10", "30"})
+    int tracks;
+
+    /** Artists credited on each track; every track also has one remixer. */
+    @Param({"1", "3"})
+    int artistsPerTrack;
+
+    private BenchmarkDatabase database;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TrackBatchInserter batchInserter;
+    private Long labelId;
+    private List<Long> artistIds;
+    private List<TrackInput> release;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        dataSource =
+                new SingleConnectionDataSource(
+                        database.url(), database.username(), database.password(), true);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        batchInserter = new TrackBatchInserter(jdbcTemplate);
+
+        // Committed, unlike the releases: the tracks' links need artists to reference.
+        labelId =
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO label (name) VALUES ('Benchmark Label') RETURNING id",
+                        Long.class);
+        artistIds = new ArrayList<>();
+        for (int i = 0; i <= artistsPerTrack; i++) {
+            artistIds.add(
+                    jdbcTemplate.queryForObject(
+                            "INSERT INTO artist (artist_name) VALUES (?) RETURNING id",
+                            Long.class,
+                            "Benchmark Artist " + i));
+        }
+
+        release = new ArrayList<>();
+        for (int position = 1; position <= tracks; position++) {
+            release.add(
+                    new TrackInput(
+                            artistIds.subList(0, artistsPerTrack),
+                            "Track " + position,
+                            TrackDuration.ofSeconds(240),
+                            position,
+                            List.of(artistIds.get(artistsPerTrack))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!database.isThrowaway()) {
+            jdbcTemplate.update("DELETE FROM label WHERE id = ?", labelId);
+            jdbcTemplate.update(
+                    "DELETE FROM artist WHERE id = ANY(?)", artistIds.toArray(Long[]::new));
+        }
+        dataSource.destroy();
+        database.close();
+    }
+
+    @Benchmark
+    public Long rowByRow() {
+        return inRolledBackTransaction(
+                () -> {
+                    Long releaseId = insertRelease();
+                    for (TrackInput track : release) {
+                        Long trackId =
+                                jdbcTemplate.queryForObject(
+                                        INSERT_TRACK,
+                                        Long.class,
+                                        track.name(),
+                                        track.duration().totalSeconds(),
+                                        track.position(),
+                                        releaseId);
+                        for (Long artistId : track.artistIds()) {
+                            jdbcTemplate.update(
+                                    "INSERT INTO track_artist (track_id, artist_id) VALUES (?, ?)",
+                                    trackId,
+                                    artistId);
+                        }
+                        for (Long remixerId : track.remixerIds()) {
+                            jdbcTemplate.update(
+                                    "INSERT INTO track_remixer (track_id, artist_id) VALUES (?, ?)",
+                                    trackId,
+                                    remixerId);
+                        }
+                    }
+                    return releaseId;
+                });
+    }
+
+    @Benchmark
+    public Long batched() {
+        return inRolledBackTransaction(
+                () -> {
+                    Long releaseId = insertRelease();
+                    batchInserter.insert(releaseId, release);
+                    return releaseId;
+                });
+    }
+
+    private Long insertRelease() {
+        return jdbcTemplate.queryForObject(
+                INSERT_RELEASE,
+                Long.class,
+                "Benchmark Release",
+                Date.valueOf(LocalDate.of(2026, 1, 1)),
+                labelId);
+    }
+
+    private Long inRolledBackTransaction(Supplier<Long> work) {
+        return transactionTemplate.execute(
+                status -> {
+                    Long releaseId = work.get();
+                    status.setRollbackOnly();
+                    return releaseId;
+                });
+    }
+}
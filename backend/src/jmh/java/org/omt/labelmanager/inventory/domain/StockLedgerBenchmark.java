@@ -0,0 +1,102 @@
+package org.omt.labelmanager.inventory.domain;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StockLedger} on the sale path: built once per locked key, then drawn from and reduced once
+ * per line item.
+ *
+ * <p>{@code pressings} is how many production runs the location holds of the release — one for
+ * most, dozens for a catalogue staple repressed every year. {@code lineItems} is how many line
+ * items of a sale draw from the same ledger, each rebuilding it through {@link
+ * StockLedger#minus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StockLedgerBenchmark {
+
+    @Param({"1", "10", "50"})
+    int pressings;
+
+    @Param({"1", "20", "200"})
+    int lineItems;
+
+    private List<RunStock> unsorted;
+    private StockLedger ledger;
+    private int halfOnHand;
+    private List<RunDraw> halfDrawn;
+
+    @Setup
+    public void setUp() {
+        unsorted = new ArrayList<>();
+        for (int i = 0; i < pressings; i++) {
+            // Enough in every pressing for every line item to draw from the oldest alone.
+            LocalDate manufacturedOn = LocalDate.of(2000, 1, 1).plusMonths(i);
+            unsorted.add(new RunStock(1000L + i, manufacturedOn, lineItems));
+        }
+        // Ledgers are read in id order, not manufacturing order; the constructor sorts them.
+        Collections.shuffle(unsorted, new Random(42));
+        ledger = StockLedger.of(unsorted);
+        halfOnHand = Math.max(1, ledger.onHand() / 2);
+        halfDrawn = ledger.drawFifo(halfOnHand);
+    }
+
+    /** Building a ledger from balances as the database returns them. */
+    @Benchmark
+    public StockLedger of() {
+        return StockLedger.of(unsorted);
+    }
+
+    /** One draw spanning half the pressings. */
+    @Benchmark
+    public List<RunDraw> drawFifo() {
+        return ledger.drawFifo(halfOnHand);
+    }
+
+    /** Taking that draw off the ledger. */
+    @Benchmark
+    public StockLedger minus() {
+        return ledger.minus(halfDrawn);
+    }
+
+    /** A whole sale: a unit per line item, each drawn from what the line items before it left. */
+    @Benchmark
+    public StockLedger sale() {
+        StockLedger remaining = ledger;
+        for (int i = 0; i < lineItems; i++) {
+            remaining = remaining.minus(remaining.drawFifo(1));
+        }
+        return remaining;
+    }
+
+    /** The same sale through {@link MutableStockLedger}, as the sale path now draws. */
+    @Benchmark
+    public DrawBuffer saleInPlace() {
+        MutableStockLedger remaining = MutableStockLedger.of(ledger);
+        DrawBuffer draws = new DrawBuffer(lineItems);
+        for (int i = 0; i < lineItems; i++) {
+            remaining.draw(1, draws);
+        }
+        return draws;
+    }
+}
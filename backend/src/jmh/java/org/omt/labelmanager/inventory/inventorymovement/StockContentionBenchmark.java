@@ -0,0 +1,244 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.omt.labelmanager.BenchmarkDatabase;
+import org.omt.labelmanager.LabelManagerApplication;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Sales racing for stock, against a real PostgreSQL, in each concurrency mode: one-line sales
+ * through {@link SaleCommandApi#registerSale}, in an application context of their own — so
+ * pessimistically through {@code lockedLedgersAt}, optimistically through {@code
+ * versionedLedgersAt}, {@code claimBalances} and {@code StockConcurrency.retryOnConflict}, as the
+ * application runs them, sale and line item rows included.
+ *
+ * <p>{@code conflictRate} is the chance that a sale is of the one pressing every thread sells;
+ * otherwise it sells a pressing only its own thread does. At 0 nothing contends, which is the case
+ * optimistic mode is for; at 1 every sale wants the same balance. Throughput counts sales,
+ * refused ones included; the {@code conflicts} counter, read from {@code
+ * inventory.optimistic.conflicts}, says how many attempts were thrown away, and {@code refused}
+ * how many sales got the 409 — having conflicted on every attempt, or, pessimistically, waited out
+ * the lock budget.
+ *
+ * <p>Runs against a {@link BenchmarkDatabase}: a throwaway container unless {@code -Djmh.db.url}
+ * names another. Sales commit — a version only moves on commit — so the pressings are allocated
+ * more than a run can sell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StockContentionBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int ALLOCATED = 1_000_000_000;
+    private static final LocalDate SOLD_ON = LocalDate.of(2026, 2, 1);
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC"})
+    InventoryConcurrencyProperties.Mode mode;
+
+    @Param({"0", "0.1", "0.5", "1"})
+    double conflictRate;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private SaleCommandApi saleCommandApi;
+    private Counter conflicts;
+    private Long labelId;
+    private Long distributorId;
+    private Long shared;
+    private final List<Long> ownReleases = new ArrayList<>();
+    private final AtomicInteger threadsSeated = new AtomicInteger();
+
+    /** Per thread: which release is its own, and how its sales went. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Seller {
+
+        /**
+         * Attempts rolled back because another sale had the balance. Counted once for all threads,
+         * by the first seated, since the meter does not say whose attempts they were.
+         */
+        public long conflicts;
+
+        /** Sales refused as retryable — a 409 in the application. */
+        public long refused;
+
+        int seat;
+        Long own;
+        double conflictsBefore;
+
+        @Setup(Level.Trial)
+        public void takeASeat(StockContentionBenchmark benchmark) {
+            seat = benchmark.threadsSeated.getAndIncrement();
+            own = benchmark.ownReleases.get(seat % THREADS);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset(StockContentionBenchmark benchmark) {
+            conflicts = 0;
+            refused = 0;
+            conflictsBefore = benchmark.conflicts.count();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        context =
+                new SpringApplicationBuilder(LabelManagerApplication.class)
+                        .web(WebApplicationType.NONE)
+                        // Arguments rather than default properties, which application.yaml
+                        // would override.
+                        .run(
+                                "--spring.main.banner-mode=off",
+                                "--spring.datasource.url=" + database.url(),
+                                "--spring.datasource.username=" + database.username(),
+                                "--spring.datasource.password=" + database.password(),
+                                "--spring.datasource.hikari.maximum-pool-size=" + THREADS,
+                                "--inventory.concurrency.mode=" + mode,
+                                "--inventory.stock-balance.reconcile-cron=-",
+                                "--inventory.stock-snapshot.cron=-",
+                                "--management.server.port=-1",
+                                // Required, though no sale calls the parser.
+                                "--invoice.parser.url=http://localhost",
+                                "--invoice.parser.api-key=unused");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        saleCommandApi = context.getBean(SaleCommandApi.class);
+        conflicts =
+                context.getBean(MeterRegistry.class)
+                        .get("inventory.optimistic.conflicts")
+                        .tag("operation", "sale")
+                        .counter();
+
+        labelId =
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO label (name) VALUES ('Benchmark Label') RETURNING id",
+                        Long.class);
+        distributorId =
+                jdbcTemplate.queryForObject(
+                        """
+                        INSERT INTO distributor (label_id, name, channel_type)
+                        VALUES (?, 'Benchmark Distributor', 'DISTRIBUTOR')
+                        RETURNING id
+                        """,
+                        Long.class,
+                        labelId);
+        var movements = context.getBean(InventoryMovementCommandApi.class);
+        shared = allocatedRelease("Shared", movements);
+        for (int i = 0; i < THREADS; i++) {
+            ownReleases.add(allocatedRelease("Own " + i, movements));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!database.isThrowaway()) {
+            // Sales, releases, pressings, their movements and balances all cascade from the label.
+            jdbcTemplate.update("DELETE FROM label WHERE id = ?", labelId);
+        }
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public Sale sell(Seller seller) {
+        Long releaseId =
+                ThreadLocalRandom.current().nextDouble() < conflictRate ? shared : seller.own;
+        try {
+            return saleCommandApi.registerSale(
+                    labelId,
+                    SOLD_ON,
+                    ChannelType.DISTRIBUTOR,
+                    null,
+                    distributorId,
+                    List.of(
+                            new SaleLineItemInput(
+                                    releaseId,
+                                    Format.VINYL,
+                                    1,
+                                    Money.of(new BigDecimal("15.00")))));
+        } catch (StockLockTimeoutException e) {
+            seller.refused++;
+            return null;
+        } finally {
+            if (seller.seat == 0) {
+                seller.conflicts = (long) (conflicts.count() - seller.conflictsBefore);
+            }
+        }
+    }
+
+    private Long allocatedRelease(String name, InventoryMovementCommandApi movements) {
+        Long releaseId =
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO release (name, release_date, label_id) VALUES (?, ?, ?)"
+                                + " RETURNING id",
+                        Long.class,
+                        "Benchmark Release " + name,
+                        Date.valueOf(LocalDate.of(2026, 1, 1)),
+                        labelId);
+        Long runId =
+                jdbcTemplate.queryForObject(
+                        """
+                        INSERT INTO production_run (release_id, format, manufacturer,
+                                                    manufacturing_date, quantity)
+                        VALUES (?, 'VINYL', 'Benchmark Plant', ?, ?)
+                        RETURNING id
+                        """,
+                        Long.class,
+                        releaseId,
+                        Date.valueOf(LocalDate.of(2026, 1, 1)),
+                        ALLOCATED);
+        movements.recordManufacture(runId, ALLOCATED, LocalDate.of(2026, 1, 1));
+        movements.recordMovement(
+                runId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(distributorId),
+                ALLOCATED,
+                MovementType.ALLOCATION,
+                null);
+        return releaseId;
+    }
+}
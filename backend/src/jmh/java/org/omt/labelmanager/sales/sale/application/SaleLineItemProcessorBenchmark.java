@@ -0,0 +1,248 @@
+package org.omt.labelmanager.sales.sale.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Release;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockConcurrency;
+import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.RunStock;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.NewMovement;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.api.VersionedLedgers;
+import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SaleLineItemProcessor#validateAndAdd} without a database: the query APIs are stubs
+ * that answer from memory, so what is measured is the processor's own work — release checks,
+ * FIFO draws, the ledger rebuilt per line item, and the entity's running total.
+ *
+ * <p>Every line item is for the same release and format, so all of them draw from one ledger —
+ * the case where rebuilding it per line item costs the most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SaleLineItemProcessorBenchmark {
+
+    private static final long LABEL_ID = 1L;
+    private static final long RELEASE_ID = 10L;
+    private static final InventoryLocation FROM = InventoryLocation.distributor(200L);
+
+    @Param({"1", "10", "50"})
+    int pressings;
+
+    @Param({"1", "20", "200"})
+    int lineItems;
+
+    private SaleLineItemProcessor processor;
+    private List<SaleLineItemInput> sale;
+
+    @Setup
+    public void setUp() {
+        List<RunStock> runs = new ArrayList<>();
+        for (int i = 0; i < pressings; i++) {
+            runs.add(new RunStock(1000L + i, LocalDate.of(2000, 1, 1).plusMonths(i), lineItems));
+        }
+        var ledgers = Map.of(new StockKey(RELEASE_ID, Format.VINYL), StockLedger.of(runs));
+        var release =
+                new Release(
+                        RELEASE_ID,
+                        "Benchmark Album",
+                        LocalDate.of(2000, 1, 1),
+                        LABEL_ID,
+                        List.of(),
+                        List.of(),
+                        Set.of(Format.VINYL));
+        var metrics = new InventoryMetrics(new SimpleMeterRegistry());
+        processor =
+                new SaleLineItemProcessor(
+                        new StubReleaseQueryApi(release),
+                        new StubProductionRunQueryApi(ledgers),
+                        new StubInventoryMovementCommandApi(),
+                        new StockConcurrency(
+                                new InventoryConcurrencyProperties(
+                                        InventoryConcurrencyProperties.Mode.PESSIMISTIC, 1),
+                                new InventoryLockProperties(
+                                        Duration.ZERO, false, Duration.ofSeconds(1)),
+                                metrics),
+                        metrics);
+
+        sale = new ArrayList<>();
+        for (int i = 0; i < lineItems; i++) {
+            sale.add(
+                    new SaleLineItemInput(
+                            RELEASE_ID, Format.VINYL, 1, Money.of(new BigDecimal("15.00"))));
+        }
+    }
+
+    @Benchmark
+    public List<RunDraw> validateAndAdd() {
+        var saleEntity =
+                new SaleEntity(
+                        LABEL_ID,
+                        200L,
+                        LocalDate.of(2026, 1, 1),
+                        ChannelType.DISTRIBUTOR,
+                        null,
+                        "EUR");
+        return processor.validateAndAdd(sale, LABEL_ID, FROM, saleEntity);
+    }
+
+    /** Knows one release. */
+    private record StubReleaseQueryApi(Release release) implements ReleaseQueryApi {
+
+        @Override
+        public Optional<Release> findById(Long id) {
+            return release.id().equals(id) ? Optional.of(release) : Optional.empty();
+        }
+
+        @Override
+        public List<Release> findByIds(Collection<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Long, String> namesByIds(Collection<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Release> getReleasesForLabel(Long labelId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean exists(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean belongsToLabel(Long releaseId, Long labelId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Records nothing. Pessimistic mode never claims, so nothing should reach it anyway. */
+    private static final class StubInventoryMovementCommandApi
+            implements InventoryMovementCommandApi {
+
+        @Override
+        public void recordManufacture(
+                Long productionRunId, int quantity, LocalDate manufacturedOn) {}
+
+        @Override
+        public void recordMovement(
+                Long productionRunId,
+                InventoryLocation from,
+                InventoryLocation to,
+                int quantity,
+                MovementType movementType,
+                Long referenceId) {}
+
+        @Override
+        public void recordMovements(List<NewMovement> movements) {}
+
+        @Override
+        public void lockBalances(Collection<RunLocation> locations) {}
+
+        @Override
+        public void claimBalances(
+                Collection<VersionedBalance> balances, InventoryLocation to) {}
+
+        @Override
+        public void deleteMovementsByReference(MovementType movementType, Long referenceId) {}
+
+        @Override
+        public void deleteMovementsByReference(
+                MovementType movementType, Long referenceId, Collection<Long> productionRunIds) {}
+    }
+
+    /** Hands out the same ledgers every time, without locking anything. */
+    private record StubProductionRunQueryApi(Map<StockKey, StockLedger> ledgers)
+            implements ProductionRunQueryApi {
+
+        @Override
+        public Map<StockKey, StockLedger> lockedLedgersAt(
+                Collection<StockKey> stock, InventoryLocation from, InventoryLocation to) {
+            return ledgers;
+        }
+
+        @Override
+        public Optional<ProductionRun> findById(Long productionRunId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean belongsToRelease(Long productionRunId, Long releaseId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ProductionRun> findByReleaseId(Long releaseId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ProductionRun> findByReleaseIds(Collection<Long> releaseIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<InventoryLocation, Map<StockKey, StockLedger>> lockedLedgersAt(
+                Map<InventoryLocation, ? extends Collection<StockKey>> stockBySource,
+                InventoryLocation to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public VersionedLedgers versionedLedgersAt(
+                Collection<StockKey> stock, InventoryLocation from) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void lockStock(
+                Collection<StockKey> stock, InventoryLocation from, InventoryLocation to) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
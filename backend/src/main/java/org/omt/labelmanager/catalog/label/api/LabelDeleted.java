@@ -0,0 +1,9 @@
+package org.omt.labelmanager.catalog.label.api;
+
+/**
+ * Published when a label has been deleted, and everything the database cascades with it: its
+ * releases and distributors. Subscribers holding anything keyed by those drop it.
+ *
+ * @param labelId the id of the deleted label
+ */
+public record LabelDeleted(Long labelId) {}
@@ -1,6 +1,7 @@
 /**
  * Catalog's published surface for labels: the command and query APIs, the {@code LabelCreated}
- * event, and the exceptions they throw. Everything else in {@code catalog} is internal.
+ * and {@code LabelDeleted} events, and the exceptions they throw. Everything else in {@code
+ * catalog} is internal.
  */
 @NamedInterface("api")
 package org.omt.labelmanager.catalog.label.api;
@@ -1,9 +1,11 @@
 package org.omt.labelmanager.catalog.label.application;
 
 import jakarta.transaction.Transactional;
+import org.omt.labelmanager.catalog.label.api.LabelDeleted;
 import org.omt.labelmanager.catalog.label.infrastructure.LabelRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,14 +14,17 @@ class DeleteLabelUseCase {
     private static final Logger log = LoggerFactory.getLogger(DeleteLabelUseCase.class);
 
     private final LabelRepository repository;
+    private final ApplicationEventPublisher events;
 
-    DeleteLabelUseCase(LabelRepository repository) {
+    DeleteLabelUseCase(LabelRepository repository, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.events = events;
     }
 
     @Transactional
     public void execute(Long id) {
         log.info("Deleting label with id {}", id);
         repository.deleteById(id);
+        events.publishEvent(new LabelDeleted(id));
     }
 }
@@ -0,0 +1,9 @@
+package org.omt.labelmanager.catalog.release.api;
+
+/**
+ * Published when a release has been deleted, and with it its production runs. Subscribers holding
+ * anything keyed by the release drop it.
+ *
+ * @param releaseId the id of the deleted release
+ */
+public record ReleaseDeleted(Long releaseId) {}
@@ -1,6 +1,8 @@
 package org.omt.labelmanager.catalog.release.api;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.omt.labelmanager.catalog.release.domain.Release;
 
@@ -8,6 +10,28 @@ public interface ReleaseQueryApi {
 
     Optional<Release> findById(Long id);
 
+    /**
+     * Loads many releases at once, in a fixed number of queries however many are asked for.
+     *
+     * <p>For callers that would otherwise call {@link #findById} in a loop.
+     *
+     * @param ids the release ids; duplicates are ignored
+     * @return the releases that exist, in the order their ids were given
+     */
+    List<Release> findByIds(Collection<Long> ids);
+
+    /**
+     * Looks up release names alone, in one query — no artists, no tracks.
+     *
+     * <p>For views that show a name per line item: assembling each whole release to read its name
+     * cost six queries a line.
+     *
+     * @param ids the release ids
+     * @return name by release id; ids of releases that do not exist are left out
+     */
+    Map<Long, String> namesByIds(Collection<Long> ids);
+
+    /** Loads every release of the label, in a fixed number of queries however many there are. */
     List<Release> getReleasesForLabel(Long labelId);
 
     boolean exists(Long id);
@@ -1,6 +1,7 @@
 /**
- * Catalog's published surface for releases: the command and query APIs and the exceptions they
- * throw. Everything else in {@code catalog} is internal.
+ * Catalog's published surface for releases: the command and query APIs, the {@code
+ * ReleaseDeleted} event, and the exceptions they throw. Everything else in {@code catalog} is
+ * internal.
  */
 @NamedInterface("api")
 package org.omt.labelmanager.catalog.release.api;
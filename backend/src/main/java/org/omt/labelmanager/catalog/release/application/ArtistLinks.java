@@ -0,0 +1,22 @@
+package org.omt.labelmanager.catalog.release.application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Groups the {@code (owner_id, artist_id)} rows of a batched artist lookup by owner. */
+final class ArtistLinks {
+
+    private ArtistLinks() {}
+
+    static Map<Long, List<Long>> byOwner(List<Object[]> rows) {
+        Map<Long, List<Long>> artistIds = new HashMap<>();
+        for (Object[] row : rows) {
+            artistIds
+                    .computeIfAbsent(((Number) row[0]).longValue(), owner -> new ArrayList<>())
+                    .add(((Number) row[1]).longValue());
+        }
+        return artistIds;
+    }
+}
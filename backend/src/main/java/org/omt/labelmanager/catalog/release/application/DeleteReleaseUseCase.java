@@ -1,8 +1,10 @@
 package org.omt.labelmanager.catalog.release.application;
 
+import org.omt.labelmanager.catalog.release.api.ReleaseDeleted;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,14 +14,17 @@ class DeleteReleaseUseCase {
     private static final Logger log = LoggerFactory.getLogger(DeleteReleaseUseCase.class);
 
     private final ReleaseRepository releaseRepository;
+    private final ApplicationEventPublisher events;
 
-    DeleteReleaseUseCase(ReleaseRepository releaseRepository) {
+    DeleteReleaseUseCase(ReleaseRepository releaseRepository, ApplicationEventPublisher events) {
         this.releaseRepository = releaseRepository;
+        this.events = events;
     }
 
     @Transactional
     public void execute(Long id) {
         log.info("Deleting release with id {}", id);
         releaseRepository.deleteById(id);
+        events.publishEvent(new ReleaseDeleted(id));
     }
 }
@@ -0,0 +1,60 @@
+package org.omt.labelmanager.catalog.release.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import org.omt.labelmanager.catalog.label.api.LabelDeleted;
+import org.omt.labelmanager.catalog.release.api.ReleaseDeleted;
+import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Which label each release belongs to, cached.
+ *
+ * <p>Nearly every request under {@code /api/labels/{labelId}/releases/{releaseId}} starts by
+ * checking exactly that, and it used to load the whole release with its eager format collection to
+ * compare one column. A release never moves to another label, so the answer only goes stale when
+ * the release is deleted — and deletes evict it, through {@link ReleaseDeleted} or, for a label's
+ * releases, {@link LabelDeleted}. The TTL bounds what a delete that went around those events
+ * leaves behind.
+ *
+ * <p>Only releases that exist are cached. An id that does not exist yet may be created, and a
+ * cached "no" would then hide it.
+ */
+@Component
+class ReleaseOwnership {
+
+    private final ReleaseRepository repository;
+    private final Cache<Long, Long> labelByRelease;
+
+    ReleaseOwnership(
+            ReleaseRepository repository,
+            @Value("${ownership-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ownership-cache.ttl:10m}") Duration ttl) {
+        this.repository = repository;
+        this.labelByRelease =
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    /** The label the release belongs to, or empty if there is no such release. */
+    Optional<Long> labelOf(Long releaseId) {
+        return Optional.ofNullable(
+                labelByRelease.get(releaseId, id -> repository.findLabelIdById(id).orElse(null)));
+    }
+
+    // AFTER_COMMIT: evicting before the delete commits would let a concurrent check load the
+    // release again from the snapshot that still has it.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onReleaseDeleted(ReleaseDeleted event) {
+        labelByRelease.invalidate(event.releaseId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onLabelDeleted(LabelDeleted event) {
+        labelByRelease.asMap().values().removeIf(event.labelId()::equals);
+    }
+}
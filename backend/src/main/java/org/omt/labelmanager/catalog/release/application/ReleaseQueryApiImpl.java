@@ -1,7 +1,13 @@
 package org.omt.labelmanager.catalog.release.application;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.ReleaseMapper;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
@@ -23,16 +29,19 @@ class ReleaseQueryApiImpl implements ReleaseQueryApi {
     private final LabelQueryApi labelQueryFacade;
     private final ReleaseArtistRepository releaseArtistRepository;
     private final BuildTracksUseCase buildTracks;
+    private final ReleaseOwnership ownership;
 
     ReleaseQueryApiImpl(
             ReleaseRepository releaseRepository,
             LabelQueryApi labelQueryFacade,
             ReleaseArtistRepository releaseArtistRepository,
-            BuildTracksUseCase buildTracks) {
+            BuildTracksUseCase buildTracks,
+            ReleaseOwnership ownership) {
         this.releaseRepository = releaseRepository;
         this.labelQueryFacade = labelQueryFacade;
         this.releaseArtistRepository = releaseArtistRepository;
         this.buildTracks = buildTracks;
+        this.ownership = ownership;
     }
 
     public Optional<Release> findById(Long id) {
@@ -42,7 +51,28 @@ class ReleaseQueryApiImpl implements ReleaseQueryApi {
             return Optional.empty();
         }
 
-        return Optional.of(buildRelease(releaseEntity.get()));
+        return Optional.of(buildReleases(List.of(releaseEntity.get())).getFirst());
+    }
+
+    @Override
+    public List<Release> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Release> releases =
+                buildReleases(releaseRepository.findWithFormatsByIdIn(distinctIds)).stream()
+                        .collect(Collectors.toMap(Release::id, Function.identity()));
+        return distinctIds.stream().map(releases::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Map<Long, String> namesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return releaseRepository.findNamesByIdIn(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (String) row[1]));
     }
 
     public List<Release> getReleasesForLabel(Long labelId) {
@@ -50,31 +80,43 @@ class ReleaseQueryApiImpl implements ReleaseQueryApi {
             throw new IllegalArgumentException("Label not found");
         }
 
-        List<ReleaseEntity> releaseEntities = releaseRepository.findByLabelId(labelId);
-        List<Release> releases = releaseEntities.stream().map(this::buildRelease).toList();
+        List<ReleaseEntity> releaseEntities = releaseRepository.findWithFormatsByLabelId(labelId);
+        List<Release> releases = buildReleases(releaseEntities);
 
         log.debug("Retrieved {} releases for label {}", releases.size(), labelId);
         return releases;
     }
 
     public boolean exists(Long id) {
-        return releaseRepository.existsById(id);
+        return ownership.labelOf(id).isPresent();
     }
 
     @Override
     public boolean belongsToLabel(Long releaseId, Long labelId) {
-        return releaseRepository
-                .findById(releaseId)
-                .map(release -> release.getLabelId().equals(labelId))
-                .orElse(false);
+        return ownership.labelOf(releaseId).map(labelId::equals).orElse(false);
     }
 
-    private Release buildRelease(ReleaseEntity releaseEntity) {
-        List<Long> artistIds =
-                releaseArtistRepository.findArtistIdsByReleaseId(releaseEntity.getId());
-
-        List<Track> tracks = buildTracks.buildTracksForRelease(releaseEntity.getId());
+    /**
+     * Assembles releases from their entities in a fixed number of queries — the release artists,
+     * then the tracks with theirs — rather than several per release, and stitches the rows
+     * together here.
+     */
+    private List<Release> buildReleases(List<ReleaseEntity> releaseEntities) {
+        if (releaseEntities.isEmpty()) {
+            return List.of();
+        }
+        List<Long> releaseIds = releaseEntities.stream().map(ReleaseEntity::getId).toList();
+        Map<Long, List<Long>> artistIds =
+                ArtistLinks.byOwner(releaseArtistRepository.findArtistIdsByReleaseIdIn(releaseIds));
+        Map<Long, List<Track>> tracks = buildTracks.buildTracksForReleases(releaseIds);
 
-        return ReleaseMapper.fromEntity(releaseEntity, artistIds, tracks);
+        return releaseEntities.stream()
+                .map(
+                        releaseEntity ->
+                                ReleaseMapper.fromEntity(
+                                        releaseEntity,
+                                        artistIds.getOrDefault(releaseEntity.getId(), List.of()),
+                                        tracks.getOrDefault(releaseEntity.getId(), List.of())))
+                .toList();
     }
 }
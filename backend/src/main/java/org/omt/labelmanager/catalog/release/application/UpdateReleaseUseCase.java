@@ -2,9 +2,11 @@ package org.omt.labelmanager.catalog.release.application;
 
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import org.omt.labelmanager.catalog.release.domain.TrackInput;
+import org.omt.labelmanager.catalog.release.infrastructure.ReleaseArtistBatchInserter;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseArtistRepository;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseEntity;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
@@ -21,18 +23,18 @@ class UpdateReleaseUseCase {
 
     private final ReleaseRepository releaseRepository;
     private final ReleaseArtistRepository releaseArtistRepository;
-    private final CreateTracksUseCase createTracks;
-    private final DeleteTracksUseCase deleteTracks;
+    private final ReleaseArtistBatchInserter releaseArtistBatchInserter;
+    private final UpdateTracksUseCase updateTracks;
 
     UpdateReleaseUseCase(
             ReleaseRepository releaseRepository,
             ReleaseArtistRepository releaseArtistRepository,
-            CreateTracksUseCase createTracks,
-            DeleteTracksUseCase deleteTracks) {
+            ReleaseArtistBatchInserter releaseArtistBatchInserter,
+            UpdateTracksUseCase updateTracks) {
         this.releaseRepository = releaseRepository;
         this.releaseArtistRepository = releaseArtistRepository;
-        this.createTracks = createTracks;
-        this.deleteTracks = deleteTracks;
+        this.releaseArtistBatchInserter = releaseArtistBatchInserter;
+        this.updateTracks = updateTracks;
     }
 
     @Transactional
@@ -57,16 +59,26 @@ class UpdateReleaseUseCase {
 
         release.setName(name);
         release.setReleaseDate(releaseDate);
-        release.setFormats(new HashSet<>(formats));
+        // Edited in place: a new set would have Hibernate delete and reinsert every format row.
+        release.getFormats().retainAll(formats);
+        release.getFormats().addAll(formats);
         releaseRepository.save(release);
 
-        releaseArtistRepository.deleteAllByReleaseId(id);
-        for (Long artistId : artistIds) {
-            releaseArtistRepository.addArtistToRelease(id, artistId);
-        }
+        updateArtists(id, artistIds);
+        updateTracks.updateTracksForRelease(tracks, id);
+    }
 
-        deleteTracks.deleteTracksForRelease(id);
-        createTracks.createTracksForRelease(tracks, id);
+    private void updateArtists(Long releaseId, List<Long> artistIds) {
+        Set<Long> persisted =
+                new HashSet<>(releaseArtistRepository.findArtistIdsByReleaseId(releaseId));
+        Set<Long> removed = new HashSet<>(persisted);
+        removed.removeAll(artistIds);
+        if (!removed.isEmpty()) {
+            releaseArtistRepository.removeArtistsFromRelease(releaseId, removed);
+        }
+        Set<Long> added = new LinkedHashSet<>(artistIds);
+        added.removeAll(persisted);
+        releaseArtistBatchInserter.insert(releaseId, added);
     }
 
     private void requireAtLeastOneTrack(List<TrackInput> tracks, String releaseIdentifier) {
@@ -0,0 +1,41 @@
+package org.omt.labelmanager.catalog.release.application;
+
+import java.util.List;
+import org.omt.labelmanager.catalog.release.domain.TrackDiff;
+import org.omt.labelmanager.catalog.release.domain.TrackInput;
+import org.omt.labelmanager.catalog.release.infrastructure.TrackBatchUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+class UpdateTracksUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateTracksUseCase.class);
+
+    private final TrackBatchUpdater trackBatchUpdater;
+
+    UpdateTracksUseCase(TrackBatchUpdater trackBatchUpdater) {
+        this.trackBatchUpdater = trackBatchUpdater;
+    }
+
+    /**
+     * Brings the release's tracks in line with the submitted ones, writing only the difference.
+     * Deleting every track and recreating it rewrote every row on each edit of the release — a
+     * corrected typo in its name included — and gave every track a new id.
+     */
+    public void updateTracksForRelease(List<TrackInput> tracks, Long releaseId) {
+        TrackDiff diff = TrackDiff.between(trackBatchUpdater.findTracks(releaseId), tracks);
+        if (diff.isEmpty()) {
+            log.debug("Tracks of release {} unchanged", releaseId);
+            return;
+        }
+        log.debug(
+                "Tracks of release {}: {} added, {} changed, {} removed",
+                releaseId,
+                diff.added().size(),
+                diff.changed().size(),
+                diff.removed().size());
+        trackBatchUpdater.apply(releaseId, diff);
+    }
+}
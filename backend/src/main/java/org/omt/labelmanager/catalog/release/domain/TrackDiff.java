@@ -0,0 +1,123 @@
+package org.omt.labelmanager.catalog.release.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * What it takes to turn a release's persisted tracks into the ones an edit submits. Tracks are
+ * matched by position: a persisted track keeps its id for as long as its position is submitted,
+ * whatever else about it changes, and only what differs is written.
+ *
+ * @param added submitted tracks at a position no persisted track holds
+ * @param changed persisted tracks whose name or duration differs, carrying the submitted values
+ * @param removed ids of persisted tracks at a position no longer submitted
+ * @param artistsAdded artist links a kept track gains
+ * @param artistsRemoved artist links a kept track loses
+ * @param remixersAdded remixer links a kept track gains
+ * @param remixersRemoved remixer links a kept track loses
+ */
+public record TrackDiff(
+        List<TrackInput> added,
+        List<Track> changed,
+        List<Long> removed,
+        List<TrackLink> artistsAdded,
+        List<TrackLink> artistsRemoved,
+        List<TrackLink> remixersAdded,
+        List<TrackLink> remixersRemoved) {
+
+    /** An artist credited on a track. */
+    public record TrackLink(Long trackId, Long artistId) {}
+
+    public static TrackDiff between(List<Track> persisted, List<TrackInput> submitted) {
+        List<Long> removed = new ArrayList<>();
+        Map<Integer, Track> byPosition = new HashMap<>();
+        for (Track track : persisted) {
+            // Two tracks at one position: the first is matched, the other goes.
+            if (byPosition.putIfAbsent(track.position(), track) != null) {
+                removed.add(track.id());
+            }
+        }
+
+        List<TrackInput> added = new ArrayList<>();
+        List<Track> changed = new ArrayList<>();
+        List<TrackLink> artistsAdded = new ArrayList<>();
+        List<TrackLink> artistsRemoved = new ArrayList<>();
+        List<TrackLink> remixersAdded = new ArrayList<>();
+        List<TrackLink> remixersRemoved = new ArrayList<>();
+        for (TrackInput input : submitted) {
+            Track match = byPosition.remove(input.position());
+            if (match == null) {
+                added.add(input);
+                continue;
+            }
+            if (!Objects.equals(match.name(), input.name())
+                    || !Objects.equals(match.duration(), input.duration())) {
+                changed.add(
+                        new Track(
+                                match.id(),
+                                input.artistIds(),
+                                input.name(),
+                                input.duration(),
+                                input.position(),
+                                input.remixerIds()));
+            }
+            diffLinks(
+                    match.id(), match.artistIds(), input.artistIds(), artistsAdded, artistsRemoved);
+            diffLinks(
+                    match.id(),
+                    match.remixerIds(),
+                    input.remixerIds(),
+                    remixersAdded,
+                    remixersRemoved);
+        }
+        for (Track track : persisted) {
+            if (byPosition.get(track.position()) == track) {
+                removed.add(track.id());
+            }
+        }
+
+        return new TrackDiff(
+                added,
+                changed,
+                removed,
+                artistsAdded,
+                artistsRemoved,
+                remixersAdded,
+                remixersRemoved);
+    }
+
+    private static void diffLinks(
+            Long trackId,
+            List<Long> persisted,
+            List<Long> submitted,
+            List<TrackLink> added,
+            List<TrackLink> removed) {
+        Set<Long> before = new LinkedHashSet<>(persisted);
+        Set<Long> after = new LinkedHashSet<>(submitted);
+        for (Long artistId : after) {
+            if (!before.contains(artistId)) {
+                added.add(new TrackLink(trackId, artistId));
+            }
+        }
+        for (Long artistId : before) {
+            if (!after.contains(artistId)) {
+                removed.add(new TrackLink(trackId, artistId));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty()
+                && changed.isEmpty()
+                && removed.isEmpty()
+                && artistsAdded.isEmpty()
+                && artistsRemoved.isEmpty()
+                && remixersAdded.isEmpty()
+                && remixersRemoved.isEmpty();
+    }
+}
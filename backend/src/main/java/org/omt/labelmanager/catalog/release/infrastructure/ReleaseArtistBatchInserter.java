@@ -0,0 +1,36 @@
+package org.omt.labelmanager.catalog.release.infrastructure;
+
+import java.util.Collection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Links artists to a release as one JDBC batch, where {@link
+ * ReleaseArtistRepository#addArtistToRelease} is a statement per artist.
+ */
+@Repository
+public class ReleaseArtistBatchInserter {
+
+    private static final String INSERT_RELEASE_ARTIST =
+            "INSERT INTO release_artist (release_id, artist_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReleaseArtistBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(Long releaseId, Collection<Long> artistIds) {
+        if (artistIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                INSERT_RELEASE_ARTIST,
+                artistIds,
+                TrackBatchInserter.BATCH_SIZE,
+                (statement, artistId) -> {
+                    statement.setLong(1, releaseId);
+                    statement.setLong(2, artistId);
+                });
+    }
+}
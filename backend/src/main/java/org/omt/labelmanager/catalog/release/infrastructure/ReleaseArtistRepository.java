@@ -1,5 +1,6 @@
 package org.omt.labelmanager.catalog.release.infrastructure;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +20,21 @@ public interface ReleaseArtistRepository extends Repository<ReleaseEntity, Long>
             nativeQuery = true)
     List<Long> findArtistIdsByReleaseId(@Param("releaseId") Long releaseId);
 
+    /**
+     * The artists of many releases in one query.
+     *
+     * @return rows of {@code (release_id, artist_id)}
+     */
+    @Query(
+            value =
+                    """
+            SELECT ra.release_id, a.id FROM artist a
+            INNER JOIN release_artist ra ON ra.artist_id = a.id
+            WHERE ra.release_id IN (:releaseIds)
+            """,
+            nativeQuery = true)
+    List<Object[]> findArtistIdsByReleaseIdIn(@Param("releaseIds") Collection<Long> releaseIds);
+
     @Modifying
     @Query(
             value =
@@ -34,8 +50,9 @@ public interface ReleaseArtistRepository extends Repository<ReleaseEntity, Long>
             value =
                     """
             DELETE FROM release_artist
-            WHERE release_id = :releaseId
+            WHERE release_id = :releaseId AND artist_id IN (:artistIds)
             """,
             nativeQuery = true)
-    void deleteAllByReleaseId(@Param("releaseId") Long releaseId);
+    void removeArtistsFromRelease(
+            @Param("releaseId") Long releaseId, @Param("artistIds") Collection<Long> artistIds);
 }
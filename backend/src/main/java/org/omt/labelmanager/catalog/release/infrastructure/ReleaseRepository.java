@@ -1,12 +1,50 @@
 package org.omt.labelmanager.catalog.release.infrastructure;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ReleaseRepository extends JpaRepository<ReleaseEntity, Long> {
 
     List<ReleaseEntity> findByLabelId(Long labelId);
 
     Optional<ReleaseEntity> findByName(String name);
+
+    /**
+     * The label's releases with their formats fetched in the same query. The derived {@code
+     * findByLabelId} loads each release's eager format collection with a select of its own.
+     */
+    @Query(
+            """
+            SELECT DISTINCT r FROM ReleaseEntity r
+            LEFT JOIN FETCH r.formats
+            WHERE r.labelId = :labelId
+            ORDER BY r.id
+            """)
+    List<ReleaseEntity> findWithFormatsByLabelId(@Param("labelId") Long labelId);
+
+    /** As {@link #findWithFormatsByLabelId}, for releases picked by id. */
+    @Query(
+            """
+            SELECT DISTINCT r FROM ReleaseEntity r
+            LEFT JOIN FETCH r.formats
+            WHERE r.id IN :ids
+            ORDER BY r.id
+            """)
+    List<ReleaseEntity> findWithFormatsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Just the names, for views that label a release and need nothing else of it.
+     *
+     * @return rows of {@code (id, name)}
+     */
+    @Query("SELECT r.id, r.name FROM ReleaseEntity r WHERE r.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Just the owning label, for ownership checks: no entity, no eager format collection. */
+    @Query("SELECT r.labelId FROM ReleaseEntity r WHERE r.id = :id")
+    Optional<Long> findLabelIdById(@Param("id") Long id);
 }
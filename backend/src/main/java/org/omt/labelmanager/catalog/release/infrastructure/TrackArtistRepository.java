@@ -1,5 +1,6 @@
 package org.omt.labelmanager.catalog.release.infrastructure;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +20,21 @@ public interface TrackArtistRepository extends Repository<TrackEntity, Long> {
             nativeQuery = true)
     List<Long> findArtistIdsByTrackId(@Param("trackId") Long trackId);
 
+    /**
+     * The artists of many tracks in one query.
+     *
+     * @return rows of {@code (track_id, artist_id)}
+     */
+    @Query(
+            value =
+                    """
+            SELECT ta.track_id, a.id FROM artist a
+            INNER JOIN track_artist ta ON ta.artist_id = a.id
+            WHERE ta.track_id IN (:trackIds)
+            """,
+            nativeQuery = true)
+    List<Object[]> findArtistIdsByTrackIdIn(@Param("trackIds") Collection<Long> trackIds);
+
     @Modifying
     @Query(
             value =
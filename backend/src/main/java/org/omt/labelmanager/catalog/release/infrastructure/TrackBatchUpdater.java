@@ -0,0 +1,120 @@
+package org.omt.labelmanager.catalog.release.infrastructure;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.omt.labelmanager.catalog.release.domain.Track;
+import org.omt.labelmanager.catalog.release.domain.TrackDiff;
+import org.omt.labelmanager.catalog.release.domain.TrackDiff.TrackLink;
+import org.omt.labelmanager.catalog.release.domain.TrackDuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Applies a {@link TrackDiff} to a release's tracks as JDBC batches: one per kind of change, and
+ * none for a kind the edit does not make. Removed tracks take their artist and remixer links with
+ * them through the foreign keys' {@code ON DELETE CASCADE}.
+ *
+ * <p>Reads the tracks it diffs against with JDBC too. Loaded as {@link TrackEntity}s they would sit
+ * in the persistence context, stale once the batches below had changed their rows.
+ */
+@Repository
+public class TrackBatchUpdater {
+
+    private static final String SELECT_TRACKS =
+            """
+            SELECT t.id, t.name, t.duration_seconds, t.position,
+                   ARRAY(SELECT ta.artist_id FROM track_artist ta
+                         WHERE ta.track_id = t.id ORDER BY ta.artist_id) AS artist_ids,
+                   ARRAY(SELECT tr.artist_id FROM track_remixer tr
+                         WHERE tr.track_id = t.id ORDER BY tr.artist_id) AS remixer_ids
+            FROM track t
+            WHERE t.release_id = ?
+            ORDER BY t.position, t.id
+            """;
+
+    private static final String UPDATE_TRACK =
+            "UPDATE track SET name = ?, duration_seconds = ? WHERE id = ?";
+
+    private static final String DELETE_TRACK = "DELETE FROM track WHERE id = ?";
+
+    private static final String INSERT_TRACK_ARTIST =
+            "INSERT INTO track_artist (track_id, artist_id) VALUES (?, ?)";
+
+    private static final String DELETE_TRACK_ARTIST =
+            "DELETE FROM track_artist WHERE track_id = ? AND artist_id = ?";
+
+    private static final String INSERT_TRACK_REMIXER =
+            "INSERT INTO track_remixer (track_id, artist_id) VALUES (?, ?)";
+
+    private static final String DELETE_TRACK_REMIXER =
+            "DELETE FROM track_remixer WHERE track_id = ? AND artist_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackBatchInserter trackBatchInserter;
+
+    public TrackBatchUpdater(JdbcTemplate jdbcTemplate, TrackBatchInserter trackBatchInserter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackBatchInserter = trackBatchInserter;
+    }
+
+    /** The release's tracks with their artists and remixers, in position order, in one query. */
+    public List<Track> findTracks(Long releaseId) {
+        return jdbcTemplate.query(
+                SELECT_TRACKS,
+                (row, i) ->
+                        new Track(
+                                row.getLong("id"),
+                                ids(row.getArray("artist_ids")),
+                                row.getString("name"),
+                                TrackDuration.ofSeconds(row.getInt("duration_seconds")),
+                                row.getInt("position"),
+                                ids(row.getArray("remixer_ids"))),
+                releaseId);
+    }
+
+    public void apply(Long releaseId, TrackDiff diff) {
+        updateLinks(DELETE_TRACK_ARTIST, diff.artistsRemoved());
+        updateLinks(DELETE_TRACK_REMIXER, diff.remixersRemoved());
+        if (!diff.removed().isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    DELETE_TRACK,
+                    diff.removed(),
+                    TrackBatchInserter.BATCH_SIZE,
+                    (statement, trackId) -> statement.setLong(1, trackId));
+        }
+        if (!diff.changed().isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    UPDATE_TRACK,
+                    diff.changed(),
+                    TrackBatchInserter.BATCH_SIZE,
+                    (statement, track) -> {
+                        statement.setString(1, track.name());
+                        statement.setInt(2, track.duration().totalSeconds());
+                        statement.setLong(3, track.id());
+                    });
+        }
+        updateLinks(INSERT_TRACK_ARTIST, diff.artistsAdded());
+        updateLinks(INSERT_TRACK_REMIXER, diff.remixersAdded());
+        trackBatchInserter.insert(releaseId, diff.added());
+    }
+
+    private void updateLinks(String sql, List<TrackLink> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                sql,
+                links,
+                TrackBatchInserter.BATCH_SIZE,
+                (statement, link) -> {
+                    statement.setLong(1, link.trackId());
+                    statement.setLong(2, link.artistId());
+                });
+    }
+
+    private static List<Long> ids(Array array) throws SQLException {
+        return Arrays.asList((Long[]) array.getArray());
+    }
+}
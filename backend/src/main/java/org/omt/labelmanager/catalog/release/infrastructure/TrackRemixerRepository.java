@@ -1,5 +1,6 @@
 package org.omt.labelmanager.catalog.release.infrastructure;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +20,21 @@ public interface TrackRemixerRepository extends Repository<TrackEntity, Long> {
             nativeQuery = true)
     List<Long> findRemixerIdsByTrackId(@Param("trackId") Long trackId);
 
+    /**
+     * The remixers of many tracks in one query.
+     *
+     * @return rows of {@code (track_id, artist_id)}
+     */
+    @Query(
+            value =
+                    """
+            SELECT tr.track_id, a.id FROM artist a
+            INNER JOIN track_remixer tr ON tr.artist_id = a.id
+            WHERE tr.track_id IN (:trackIds)
+            """,
+            nativeQuery = true)
+    List<Object[]> findRemixerIdsByTrackIdIn(@Param("trackIds") Collection<Long> trackIds);
+
     @Modifying
     @Query(
             value =
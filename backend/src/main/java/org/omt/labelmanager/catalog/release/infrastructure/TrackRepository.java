@@ -1,9 +1,12 @@
 package org.omt.labelmanager.catalog.release.infrastructure;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface TrackRepository extends JpaRepository<TrackEntity, Long> {
 
     List<TrackEntity> findByReleaseIdOrderByPosition(Long releaseId);
+
+    List<TrackEntity> findByReleaseIdInOrderByReleaseIdAscPositionAsc(Collection<Long> releaseIds);
 }
@@ -20,6 +20,7 @@ import org.omt.labelmanager.catalog.release.domain.TrackDuration;
 import org.omt.labelmanager.catalog.release.domain.TrackInput;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
 import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.QueryBudget;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -134,11 +135,13 @@ public class ReleaseController {
             Set<Format> formats) {}
 
     /** The label's releases. Replaces the list that {@code GET /api/labels/{labelId}} bundled. */
+    @QueryBudget(8)
     @GetMapping
     public List<Release> releases(@PathVariable Long labelId) {
         return releaseQueryApi.getReleasesForLabel(labelId);
     }
 
+    @QueryBudget(8)
     @GetMapping("/{releaseId}")
     public ReleaseDetailResponse release(
             @AuthenticationPrincipal AppUserDetails user,
@@ -3,10 +3,12 @@ package org.omt.labelmanager.distribution.distributor;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.Distributor;
 import org.omt.labelmanager.distribution.distributor.api.DistributorCommandApi;
+import org.omt.labelmanager.distribution.distributor.api.DistributorDeleted;
 import org.omt.labelmanager.distribution.distributor.persistence.DistributorEntity;
 import org.omt.labelmanager.distribution.distributor.persistence.DistributorRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,9 +18,11 @@ class DistributorCommandService implements DistributorCommandApi {
     private static final Logger log = LoggerFactory.getLogger(DistributorCommandService.class);
 
     private final DistributorRepository repository;
+    private final ApplicationEventPublisher events;
 
-    DistributorCommandService(DistributorRepository repository) {
+    DistributorCommandService(DistributorRepository repository, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.events = events;
     }
 
     @Override
@@ -38,6 +42,7 @@ class DistributorCommandService implements DistributorCommandApi {
             return false;
         }
         repository.deleteById(id);
+        events.publishEvent(new DistributorDeleted(id));
         log.info("Deleted distributor with id {}", id);
         return true;
     }
@@ -0,0 +1,51 @@
+package org.omt.labelmanager.distribution.distributor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import org.omt.labelmanager.catalog.label.api.LabelDeleted;
+import org.omt.labelmanager.distribution.distributor.api.DistributorDeleted;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Which label each distributor belongs to, cached — the check every sale, return and agreement
+ * endpoint starts with. A distributor never changes label; deleting it, or its label, evicts it.
+ * Only distributors that exist are cached.
+ */
+@Component
+class DistributorOwnership {
+
+    private final DistributorRepository repository;
+    private final Cache<Long, Long> labelByDistributor;
+
+    DistributorOwnership(
+            DistributorRepository repository,
+            @Value("${ownership-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ownership-cache.ttl:10m}") Duration ttl) {
+        this.repository = repository;
+        this.labelByDistributor =
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    /** The label the distributor belongs to, or empty if there is no such distributor. */
+    Optional<Long> labelOf(Long distributorId) {
+        return Optional.ofNullable(
+                labelByDistributor.get(
+                        distributorId, id -> repository.findLabelIdById(id).orElse(null)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onDistributorDeleted(DistributorDeleted event) {
+        labelByDistributor.invalidate(event.distributorId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onLabelDeleted(LabelDeleted event) {
+        labelByDistributor.asMap().values().removeIf(event.labelId()::equals);
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.stereotype.Service;
 class DistributorQueryService implements DistributorQueryApi {
 
     private final DistributorRepository repository;
+    private final DistributorOwnership ownership;
 
-    DistributorQueryService(DistributorRepository repository) {
+    DistributorQueryService(DistributorRepository repository, DistributorOwnership ownership) {
         this.repository = repository;
+        this.ownership = ownership;
     }
 
     @Override
@@ -37,9 +39,6 @@ class DistributorQueryService implements DistributorQueryApi {
 
     @Override
     public boolean belongsToLabel(Long distributorId, Long labelId) {
-        return repository
-                .findById(distributorId)
-                .map(distributor -> distributor.getLabelId().equals(labelId))
-                .orElse(false);
+        return ownership.labelOf(distributorId).map(labelId::equals).orElse(false);
     }
 }
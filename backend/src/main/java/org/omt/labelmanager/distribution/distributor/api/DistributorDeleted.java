@@ -0,0 +1,8 @@
+package org.omt.labelmanager.distribution.distributor.api;
+
+/**
+ * Published when a distributor has been deleted.
+ *
+ * @param distributorId the id of the deleted distributor
+ */
+public record DistributorDeleted(Long distributorId) {}
@@ -4,10 +4,16 @@ import java.util.List;
 import java.util.Optional;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DistributorRepository extends JpaRepository<DistributorEntity, Long> {
 
     List<DistributorEntity> findByLabelId(Long labelId);
 
     Optional<DistributorEntity> findByLabelIdAndChannelType(Long labelId, ChannelType channelType);
+
+    /** Just the owning label, for ownership checks. */
+    @Query("SELECT d.labelId FROM DistributorEntity d WHERE d.id = :id")
+    Optional<Long> findLabelIdById(@Param("id") Long id);
 }
@@ -1,5 +1,6 @@
 package org.omt.labelmanager.finance.cost.api;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.Optional;
 import org.omt.labelmanager.finance.cost.domain.CostOwner;
@@ -55,5 +56,15 @@ public interface CostCommandApi {
 
     boolean deleteCost(Long costId);
 
-    Optional<RetrievedDocument> retrieveDocument(Long costId);
+    /**
+     * The cost's document, or the single byte range of it {@code range} names, unless the caller's
+     * copy tagged {@code ifNoneMatch} is still current. Either argument may be {@code null}.
+     */
+    Optional<RetrievedDocument> retrieveDocument(Long costId, String range, String ifNoneMatch);
+
+    /**
+     * A short-lived URL the cost's document can be fetched from directly. Empty if the cost has no
+     * document or the storage backend does not hand out URLs.
+     */
+    Optional<URI> findDocumentUrl(Long costId, boolean attachment);
 }
@@ -1,5 +1,6 @@
 package org.omt.labelmanager.finance.cost.application;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.Optional;
 import org.omt.labelmanager.finance.cost.api.CostCommandApi;
@@ -124,7 +125,13 @@ class CostCommandApiImpl implements CostCommandApi {
     }
 
     @Override
-    public Optional<RetrievedDocument> retrieveDocument(Long costId) {
-        return retrieveCostDocumentUseCase.retrieveDocument(costId);
+    public Optional<RetrievedDocument> retrieveDocument(
+            Long costId, String range, String ifNoneMatch) {
+        return retrieveCostDocumentUseCase.retrieveDocument(costId, range, ifNoneMatch);
+    }
+
+    @Override
+    public Optional<URI> findDocumentUrl(Long costId, boolean attachment) {
+        return retrieveCostDocumentUseCase.findDocumentUrl(costId, attachment);
     }
 }
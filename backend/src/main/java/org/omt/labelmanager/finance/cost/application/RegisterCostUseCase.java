@@ -104,7 +104,10 @@ class RegisterCostUseCase {
             return null;
         }
         return documentStorage.store(
-                document.filename(), document.contentType(), document.content());
+                document.filename(),
+                document.contentType(),
+                document.content(),
+                document.contentLength());
     }
 
     private void validateOwnerExists(CostOwner owner) {
@@ -1,7 +1,9 @@
 package org.omt.labelmanager.finance.cost.application;
 
+import java.net.URI;
 import java.util.Optional;
 import org.omt.labelmanager.finance.cost.CostMapper;
+import org.omt.labelmanager.finance.cost.domain.Cost;
 import org.omt.labelmanager.finance.cost.infrastructure.CostRepository;
 import org.omt.labelmanager.finance.shared.DocumentStoragePort;
 import org.omt.labelmanager.finance.shared.RetrievedDocument;
@@ -19,11 +21,21 @@ class RetrieveCostDocumentUseCase {
         this.documentStorage = documentStorage;
     }
 
-    public Optional<RetrievedDocument> retrieveDocument(Long costId) {
+    public Optional<RetrievedDocument> retrieveDocument(
+            Long costId, String range, String ifNoneMatch) {
+        return findStorageKey(costId)
+                .map(storageKey -> documentStorage.retrieve(storageKey, range, ifNoneMatch));
+    }
+
+    public Optional<URI> findDocumentUrl(Long costId, boolean attachment) {
+        return findStorageKey(costId)
+                .flatMap(storageKey -> documentStorage.presignRetrieval(storageKey, attachment));
+    }
+
+    private Optional<String> findStorageKey(Long costId) {
         return costRepository
                 .findById(costId)
                 .map(CostMapper::fromEntity)
-                .filter(cost -> cost.documentStorageKey() != null)
-                .map(cost -> documentStorage.retrieve(cost.documentStorageKey()));
+                .map(Cost::documentStorageKey);
     }
 }
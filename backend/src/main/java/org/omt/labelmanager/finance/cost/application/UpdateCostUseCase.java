@@ -94,7 +94,10 @@ class UpdateCostUseCase {
         // Store new document
         String newKey =
                 documentStorage.store(
-                        newDocument.filename(), newDocument.contentType(), newDocument.content());
+                        newDocument.filename(),
+                        newDocument.contentType(),
+                        newDocument.content(),
+                        newDocument.contentLength());
         cost.setDocumentStorageKey(newKey);
         log.info("New document stored with key '{}'", newKey);
     }
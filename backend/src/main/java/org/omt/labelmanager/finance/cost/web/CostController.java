@@ -2,8 +2,12 @@ package org.omt.labelmanager.finance.cost.web;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.finance.cost.api.CostCommandApi;
 import org.omt.labelmanager.finance.cost.api.CostQueryApi;
@@ -11,21 +15,26 @@ import org.omt.labelmanager.finance.cost.api.DocumentNotFoundException;
 import org.omt.labelmanager.finance.cost.api.InvalidDocumentTypeException;
 import org.omt.labelmanager.finance.cost.domain.Cost;
 import org.omt.labelmanager.finance.cost.domain.CostOwner;
+import org.omt.labelmanager.finance.shared.DocumentRangeNotSatisfiableException;
 import org.omt.labelmanager.finance.shared.DocumentUpload;
 import org.omt.labelmanager.finance.shared.RetrievedDocument;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -49,6 +58,9 @@ public class CostController {
                     "application/vnd.ms-excel",
                     "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
 
+    /** {@code bytes=first-[last]} or {@code bytes=-suffix}: one range, which storage can serve. */
+    private static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("bytes=(\\d+-\\d*|-\\d+)");
+
     private final CostCommandApi costCommandApi;
     private final CostQueryApi costQueryApi;
     private final ReleaseQueryApi releaseQueryApi;
@@ -134,30 +146,91 @@ public class CostController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Redirects to a presigned storage URL when the backend hands them out, after the same
+     * ownership check; the client then fetches, ranges and caches against storage directly.
+     * Otherwise the document is proxied, honouring a single byte {@code Range} for viewers that
+     * fetch pages incrementally and {@code If-None-Match} against the stored entity tag.
+     */
     @GetMapping("/{costId}/document")
     public ResponseEntity<InputStreamResource> getDocument(
             @PathVariable Long labelId,
             @PathVariable Long costId,
-            @RequestParam(defaultValue = "view") String action) {
+            @RequestParam(defaultValue = "view") String action,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            WebRequest request) {
         requireCostOfLabel(labelId, costId);
+        boolean attachment = "download".equals(action);
+
+        Optional<URI> url = costCommandApi.findDocumentUrl(costId, attachment);
+        if (url.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(url.get()).build();
+        }
 
+        if (range != null && !SINGLE_BYTE_RANGE.matcher(range).matches()) {
+            throw new DocumentRangeNotSatisfiableException(range);
+        }
         RetrievedDocument document =
                 costCommandApi
-                        .retrieveDocument(costId)
+                        .retrieveDocument(costId, range, ifNoneMatch)
                         .orElseThrow(() -> new DocumentNotFoundException(costId));
 
+        if (document.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(document.eTag()).build();
+        }
+        // Storage compares tags literally; this also covers weak and listed ones. The stream is
+        // closed here because nothing else will read it.
+        if (document.eTag() != null && request.checkNotModified(document.eTag())) {
+            closeQuietly(document.content());
+            return null;
+        }
+
         String disposition =
-                "download".equals(action)
+                attachment
                         ? "attachment; filename=\"" + document.filename() + "\""
                         : "inline; filename=\"" + document.filename() + "\"";
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+        ResponseEntity.BodyBuilder response =
+                document.isPartial()
+                        ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                                .header(HttpHeaders.CONTENT_RANGE, document.contentRange())
+                        : ResponseEntity.ok();
+        return response.header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                .eTag(document.eTag())
                 .contentType(MediaType.parseMediaType(document.contentType()))
                 .contentLength(document.contentLength())
                 .body(new InputStreamResource(document.content()));
     }
 
+    /**
+     * Only single ranges go to storage; a multi-range or malformed header is refused rather than
+     * answered with the whole document, which Spring would otherwise try to slice itself. When
+     * storage refused the range it also told us the document's length, which goes back as {@code
+     * Content-Range: bytes *}{@code /length} so the client can ask again within it.
+     */
+    @ExceptionHandler(DocumentRangeNotSatisfiableException.class)
+    public ResponseEntity<ProblemDetail> handleRangeNotSatisfiable(
+            DocumentRangeNotSatisfiableException exception) {
+        ResponseEntity.BodyBuilder response =
+                ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        exception
+                .documentLength()
+                .ifPresent(
+                        length -> response.header(HttpHeaders.CONTENT_RANGE, "bytes */" + length));
+        return response.body(
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, exception.getMessage()));
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            // Nothing was read from it; there is nothing to lose.
+        }
+    }
+
     private CostOwner toOwner(Long labelId, Long releaseId) {
         if (releaseId == null) {
             return CostOwner.label(labelId);
@@ -201,6 +274,7 @@ public class CostController {
             throw new InvalidDocumentTypeException(contentType);
         }
 
-        return new DocumentUpload(file.getOriginalFilename(), contentType, file.getInputStream());
+        return new DocumentUpload(
+                file.getOriginalFilename(), contentType, file.getInputStream(), file.getSize());
     }
 }
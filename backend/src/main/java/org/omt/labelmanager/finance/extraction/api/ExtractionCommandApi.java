@@ -2,19 +2,46 @@ package org.omt.labelmanager.finance.extraction.api;
 
 import java.io.InputStream;
 import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
 
 /** Command API for invoice data extraction operations. */
 public interface ExtractionCommandApi {
 
     /**
-     * Extracts invoice data from a document.
+     * Extracts invoice data from a document, waiting for the parser. A document the parser has
+     * read before — the same bytes, by SHA-256 — is answered from the result cache without
+     * calling it.
      *
      * @param content the document content stream
      * @param contentType the MIME type of the document
+     * @param bypassCache parse the document even if it has been parsed before, replacing the
+     *     cached result
      * @return the extracted data, or {@link ExtractedInvoiceData#empty()} when the parser ran and
      *     found nothing
      * @throws InvoiceParserUnavailableException if the parser could not be reached, answered with
      *     an error status, or returned something that could not be read
      */
-    ExtractedInvoiceData extract(InputStream content, String contentType);
+    ExtractedInvoiceData extract(InputStream content, String contentType, boolean bypassCache);
+
+    /**
+     * Stores a document and queues it for extraction, without waiting for the parser. Poll the
+     * returned job with {@link ExtractionQueryApi}. A document the parser has read before
+     * completes at once, from the result cache.
+     *
+     * @param userId the uploading user; the job is theirs alone
+     * @param filename the document's original filename
+     * @param contentType the MIME type of the document
+     * @param content the document content stream
+     * @param bypassCache parse the document even if it has been parsed before, replacing the
+     *     cached result
+     * @return the new job: {@code QUEUED}, or {@code COMPLETED} from the cache
+     * @throws org.omt.labelmanager.finance.shared.DocumentStorageException if the document could
+     *     not be stored
+     */
+    ExtractionJob submit(
+            Long userId,
+            String filename,
+            String contentType,
+            InputStream content,
+            boolean bypassCache);
 }
@@ -0,0 +1,28 @@
+package org.omt.labelmanager.finance.extraction.api;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+
+/** Query API for invoice extraction jobs. */
+public interface ExtractionQueryApi {
+
+    /**
+     * Find an extraction job by ID, as it stands.
+     *
+     * @param jobId the job ID
+     * @return the job, if found
+     */
+    Optional<ExtractionJob> findJob(Long jobId);
+
+    /**
+     * The job once it has finished, or as it stands after {@code wait}, whichever comes first.
+     * Holds no thread while waiting.
+     *
+     * @param jobId the ID of a job known to exist
+     * @param wait the longest to wait; capped at {@code invoice.extraction.max-wait}
+     * @return a future completed with the job
+     */
+    CompletableFuture<ExtractionJob> awaitFinished(Long jobId, Duration wait);
+}
@@ -5,14 +5,29 @@ package org.omt.labelmanager.finance.extraction.api;
  *
  * <p>Distinct from a parse that succeeded and found nothing: this one means the integration is
  * broken and someone should look at it, so it surfaces as 502 rather than an empty 200.
+ *
+ * <p>{@link #isRetryable()} tells a parser that is down or overloaded for now — unreachable, a 5xx
+ * or a 429 — from one that refused this document or answered unreadably, which the same call
+ * again will not fix.
  */
 public class InvoiceParserUnavailableException extends RuntimeException {
 
+    private final boolean retryable;
+
     public InvoiceParserUnavailableException(String message) {
-        super(message);
+        this(message, null, false);
     }
 
     public InvoiceParserUnavailableException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public InvoiceParserUnavailableException(String message, Throwable cause, boolean retryable) {
         super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
     }
 }
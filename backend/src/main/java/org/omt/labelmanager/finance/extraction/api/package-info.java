@@ -1,6 +1,6 @@
 /**
- * Finance's published surface for invoice extraction: the query API and the records it returns.
- * Everything else in {@code finance} is internal.
+ * Finance's published surface for invoice extraction: the command and query APIs and the records
+ * they return. Everything else in {@code finance} is internal.
  */
 @NamedInterface("api")
 package org.omt.labelmanager.finance.extraction.api;
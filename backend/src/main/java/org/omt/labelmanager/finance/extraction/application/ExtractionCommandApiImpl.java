@@ -1,22 +1,156 @@
 package org.omt.labelmanager.finance.extraction.application;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
 import org.omt.labelmanager.finance.extraction.api.ExtractionCommandApi;
 import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
 import org.omt.labelmanager.finance.extraction.infrastructure.ExternalInvoiceParserAdapter;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobEntity;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobRepository;
+import org.omt.labelmanager.finance.shared.DocumentStorageException;
+import org.omt.labelmanager.finance.shared.DocumentStoragePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 class ExtractionCommandApiImpl implements ExtractionCommandApi {
 
+    private static final Logger log = LoggerFactory.getLogger(ExtractionCommandApiImpl.class);
+
     private final ExternalInvoiceParserAdapter externalInvoiceParser;
+    private final ParserCircuitBreaker circuitBreaker;
+    private final ExtractionResultCache resultCache;
+    private final DocumentStoragePort documentStorage;
+    private final ExtractionJobRepository jobRepository;
+    private final ExtractionJobRunner jobRunner;
+    private final ExtractionJobConverter converter;
 
-    ExtractionCommandApiImpl(ExternalInvoiceParserAdapter externalInvoiceParser) {
+    ExtractionCommandApiImpl(
+            ExternalInvoiceParserAdapter externalInvoiceParser,
+            ParserCircuitBreaker circuitBreaker,
+            ExtractionResultCache resultCache,
+            DocumentStoragePort documentStorage,
+            ExtractionJobRepository jobRepository,
+            ExtractionJobRunner jobRunner,
+            ExtractionJobConverter converter) {
         this.externalInvoiceParser = externalInvoiceParser;
+        this.circuitBreaker = circuitBreaker;
+        this.resultCache = resultCache;
+        this.documentStorage = documentStorage;
+        this.jobRepository = jobRepository;
+        this.jobRunner = jobRunner;
+        this.converter = converter;
+    }
+
+    /**
+     * Spooled to a temporary file on the way in, hashed as it goes, so the cache can be asked
+     * before the parser is called without holding the document in memory. The file is the
+     * parser's input on a miss, and is deleted either way.
+     */
+    @Override
+    public ExtractedInvoiceData extract(
+            InputStream content, String contentType, boolean bypassCache) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("extraction-", ".upload");
+            MessageDigest digest = ContentHash.newDigest();
+            try (OutputStream out = Files.newOutputStream(spooled)) {
+                new DigestInputStream(content, digest).transferTo(out);
+            }
+            String contentSha256 = ContentHash.hex(digest.digest());
+
+            Optional<ExtractedInvoiceData> cached = cached(contentSha256, bypassCache);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            Path document = spooled;
+            ExtractedInvoiceData data =
+                    circuitBreaker.call(() -> extractFrom(document, contentType));
+            resultCache.put(contentSha256, data);
+            return data;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the uploaded document", e);
+        } finally {
+            deleteSpooled(spooled);
+        }
+    }
+
+    private ExtractedInvoiceData extractFrom(Path document, String contentType) {
+        try (InputStream in = Files.newInputStream(document)) {
+            return externalInvoiceParser.extract(in, contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the uploaded document", e);
+        }
+    }
+
+    private static void deleteSpooled(Path spooled) {
+        if (spooled == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.warn("Could not delete the spooled upload {}", spooled, e);
+        }
     }
 
+    /** Not transactional: the job row must be committed before the runner's thread reads it. */
     @Override
-    public ExtractedInvoiceData extract(InputStream content, String contentType) {
-        return externalInvoiceParser.extract(content, contentType);
+    public ExtractionJob submit(
+            Long userId,
+            String filename,
+            String contentType,
+            InputStream content,
+            boolean bypassCache) {
+        // Hashed on its way into storage, in the one pass that reads it.
+        MessageDigest digest = ContentHash.newDigest();
+        String storageKey =
+                documentStorage.store(
+                        filename, contentType, new DigestInputStream(content, digest));
+        String contentSha256 = ContentHash.hex(digest.digest());
+
+        Optional<ExtractedInvoiceData> cached = cached(contentSha256, bypassCache);
+        if (cached.isPresent()) {
+            ExtractionJobEntity job =
+                    new ExtractionJobEntity(userId, null, contentType, contentSha256);
+            job.complete(cached.get());
+            job = jobRepository.save(job);
+            log.info("Extraction job {} for '{}' answered from cache", job.getId(), filename);
+            deleteStored(storageKey);
+            return converter.toExtractionJob(job);
+        }
+
+        ExtractionJobEntity job =
+                jobRepository.save(
+                        new ExtractionJobEntity(userId, storageKey, contentType, contentSha256));
+        log.info("Queued extraction job {} for '{}'", job.getId(), filename);
+
+        jobRunner.enqueue(job.getId());
+        return converter.toExtractionJob(job);
+    }
+
+    private Optional<ExtractedInvoiceData> cached(String contentSha256, boolean bypassCache) {
+        if (bypassCache) {
+            resultCache.bypassed();
+            return Optional.empty();
+        }
+        return resultCache.find(contentSha256);
+    }
+
+    private void deleteStored(String storageKey) {
+        try {
+            documentStorage.delete(storageKey);
+        } catch (DocumentStorageException e) {
+            log.warn("Could not delete the stored copy of a cached document", e);
+        }
     }
 }
@@ -0,0 +1,8 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ExtractionJobProperties.class)
+class ExtractionJobConfiguration {}
@@ -0,0 +1,21 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobEntity;
+import org.springframework.stereotype.Service;
+
+@Service
+class ExtractionJobConverter {
+
+    ExtractionJob toExtractionJob(ExtractionJobEntity entity) {
+        return new ExtractionJob(
+                entity.getId(),
+                entity.getUserId(),
+                entity.getStatus(),
+                entity.getAttempts(),
+                entity.getData(),
+                entity.getLastError(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt());
+    }
+}
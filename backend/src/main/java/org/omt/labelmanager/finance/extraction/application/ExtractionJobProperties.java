@@ -0,0 +1,32 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param maxConcurrent parser calls in flight at once, across every job. Jobs past it wait their
+ *     turn; the parser is never asked for more.
+ * @param maxAttempts parser calls per job, the first included. Only failures the parser might
+ *     recover from — unreachable, 5xx, 429 — are retried.
+ * @param retryBackoff the wait before the first retry; each later one waits twice the one before
+ * @param breakerFailureThreshold consecutive retryable failures that open the circuit breaker
+ * @param breakerOpenFor how long an open breaker refuses calls before letting one through to see
+ *     whether the parser is back
+ * @param maxWait the longest a poll may wait for a job to finish before answering with the job as
+ *     it stands. Kept under the servlet container's async timeout.
+ * @param resultCacheSize parser results held in memory, by document hash, in front of the
+ *     {@code extraction_result} table. The table keeps every result regardless.
+ */
+@ConfigurationProperties("invoice.extraction")
+@Validated
+record ExtractionJobProperties(
+        @DefaultValue("4") @Min(1) int maxConcurrent,
+        @DefaultValue("3") @Min(1) int maxAttempts,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("5") @Min(1) int breakerFailureThreshold,
+        @DefaultValue("30s") Duration breakerOpenFor,
+        @DefaultValue("20s") Duration maxWait,
+        @DefaultValue("1000") @Min(0) int resultCacheSize) {}
@@ -0,0 +1,196 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.omt.labelmanager.finance.extraction.api.InvoiceParserUnavailableException;
+import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJobStatus;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExternalInvoiceParserAdapter;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobEntity;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobRepository;
+import org.omt.labelmanager.finance.shared.DocumentStorageException;
+import org.omt.labelmanager.finance.shared.DocumentStoragePort;
+import org.omt.labelmanager.finance.shared.RetrievedDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs extraction jobs in the background.
+ *
+ * <p>Each job gets a virtual thread, so a queue of them costs no pool. What is bounded is the
+ * parser: a job takes one of {@code maxConcurrent} permits before calling it and holds it through
+ * its retries, so a parser in trouble gets fewer calls, not more. Jobs past the limit wait for a
+ * permit in {@link ExtractionJobStatus#QUEUED}.
+ *
+ * <p>The job row is the queue's source of truth. A job still QUEUED or RUNNING when the
+ * application stopped is started again when it next comes up.
+ */
+@Component
+class ExtractionJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionJobRunner.class);
+
+    private final ExtractionJobRepository repository;
+    private final DocumentStoragePort documentStorage;
+    private final ExternalInvoiceParserAdapter parser;
+    private final ParserCircuitBreaker circuitBreaker;
+    private final ExtractionResultCache resultCache;
+    private final ExtractionJobWaiters waiters;
+    private final ExtractionJobConverter converter;
+    private final ExtractionJobProperties properties;
+    private final Semaphore parserPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    ExtractionJobRunner(
+            ExtractionJobRepository repository,
+            DocumentStoragePort documentStorage,
+            ExternalInvoiceParserAdapter parser,
+            ParserCircuitBreaker circuitBreaker,
+            ExtractionResultCache resultCache,
+            ExtractionJobWaiters waiters,
+            ExtractionJobConverter converter,
+            ExtractionJobProperties properties) {
+        this.repository = repository;
+        this.documentStorage = documentStorage;
+        this.parser = parser;
+        this.circuitBreaker = circuitBreaker;
+        this.resultCache = resultCache;
+        this.waiters = waiters;
+        this.converter = converter;
+        this.properties = properties;
+        this.parserPermits = new Semaphore(properties.maxConcurrent(), true);
+    }
+
+    /** Starts the job. Call once its row is committed: the job's thread reads it from there. */
+    void enqueue(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumeUnfinished() {
+        List<ExtractionJobEntity> unfinished =
+                repository.findByStatusInOrderById(
+                        List.of(ExtractionJobStatus.QUEUED, ExtractionJobStatus.RUNNING));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished extraction jobs", unfinished.size());
+        }
+        unfinished.forEach(job -> enqueue(job.getId()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted jobs stay QUEUED or RUNNING and are resumed on the next start.
+        executor.shutdownNow();
+    }
+
+    private void run(Long jobId) {
+        try {
+            parserPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            process(jobId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Extraction job {} could not be run", jobId, e);
+        } finally {
+            parserPermits.release();
+        }
+    }
+
+    private void process(Long jobId) throws InterruptedException {
+        ExtractionJobEntity job = repository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus().isFinished()) {
+            return;
+        }
+        job.start();
+        job = repository.save(job);
+
+        try {
+            ExtractedInvoiceData data =
+                    extractWithRetries(jobId, job.getStorageKey(), job.getContentType());
+            if (job.getContentSha256() != null) {
+                resultCache.put(job.getContentSha256(), data);
+            }
+            job = update(jobId, finished -> finished.complete(data));
+        } catch (InvoiceParserUnavailableException e) {
+            log.warn("Extraction job {} failed: {}", jobId, e.getMessage());
+            job = update(jobId, failed -> failed.fail(e.getMessage()));
+        } catch (DocumentStorageException e) {
+            log.error("Extraction job {} could not read its document", jobId, e);
+            job = update(jobId, failed -> failed.fail("The uploaded document could not be read"));
+        }
+
+        deleteDocument(job);
+        waiters.finished(converter.toExtractionJob(job));
+    }
+
+    private ExtractedInvoiceData extractWithRetries(
+            Long jobId, String storageKey, String contentType) throws InterruptedException {
+        Duration backoff = properties.retryBackoff();
+        for (int attempt = 1; ; attempt++) {
+            update(jobId, ExtractionJobEntity::recordAttempt);
+            try {
+                return extract(storageKey, contentType);
+            } catch (InvoiceParserUnavailableException e) {
+                if (!e.isRetryable() || attempt >= properties.maxAttempts()) {
+                    throw e;
+                }
+                log.info(
+                        "Extraction job {} attempt {} failed, retrying in {}: {}",
+                        jobId,
+                        attempt,
+                        backoff,
+                        e.getMessage());
+            }
+            Thread.sleep(backoff);
+            backoff = backoff.multipliedBy(2);
+        }
+    }
+
+    /**
+     * One parser call, on a fresh read of the document: the last call consumed its stream. The
+     * document is fetched before the breaker is asked, so that only the parser's answer counts.
+     */
+    private ExtractedInvoiceData extract(String storageKey, String contentType) {
+        RetrievedDocument document = documentStorage.retrieve(storageKey);
+        try (InputStream content = document.content()) {
+            return circuitBreaker.call(() -> parser.extract(content, contentType));
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to read document: " + storageKey, e);
+        }
+    }
+
+    private void deleteDocument(ExtractionJobEntity job) {
+        String storageKey = job.getStorageKey();
+        if (storageKey == null) {
+            return;
+        }
+        try {
+            documentStorage.delete(storageKey);
+            update(job.getId(), ExtractionJobEntity::documentDeleted);
+        } catch (DocumentStorageException e) {
+            // The result is saved either way; an orphaned upload is only storage.
+            log.warn("Could not delete the document of extraction job {}", job.getId(), e);
+        }
+    }
+
+    private ExtractionJobEntity update(Long jobId, Consumer<ExtractionJobEntity> change) {
+        ExtractionJobEntity job = repository.findById(jobId).orElseThrow();
+        change.accept(job);
+        return repository.save(job);
+    }
+}
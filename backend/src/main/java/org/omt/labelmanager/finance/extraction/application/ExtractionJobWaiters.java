@@ -0,0 +1,58 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls waiting for a job to finish, so that a long poll holds a future rather than a thread.
+ *
+ * <p>In memory, so a poll is only woken by a job run in the same instance. One served elsewhere
+ * waits out its timeout and answers with the job as stored — later than it could have, never
+ * wrong.
+ *
+ * <p>A job that finishes here takes its future with it. One that finishes elsewhere, or never,
+ * would leave it behind, so a future nobody has asked for in {@code maxWait} — by when every poll
+ * holding it has timed out — is dropped.
+ */
+@Component
+class ExtractionJobWaiters {
+
+    private final Cache<Long, CompletableFuture<ExtractionJob>> waiting;
+
+    @Autowired
+    ExtractionJobWaiters(ExtractionJobProperties properties) {
+        this(properties.maxWait(), Ticker.systemTicker());
+    }
+
+    ExtractionJobWaiters(Duration maxWait, Ticker ticker) {
+        this.waiting = Caffeine.newBuilder().expireAfterAccess(maxWait).ticker(ticker).build();
+    }
+
+    /** Completes with the job once it has finished. Shared by every poll of the same job. */
+    CompletableFuture<ExtractionJob> finishing(Long jobId) {
+        return waiting.get(jobId, id -> new CompletableFuture<>());
+    }
+
+    void finished(ExtractionJob job) {
+        CompletableFuture<ExtractionJob> polls = waiting.asMap().remove(job.id());
+        if (polls != null) {
+            polls.complete(job);
+        }
+    }
+
+    /** For a poll of a job that does not exist: there is nothing for its future to wait on. */
+    void forget(Long jobId) {
+        waiting.invalidate(jobId);
+    }
+
+    long size() {
+        waiting.cleanUp();
+        return waiting.estimatedSize();
+    }
+}
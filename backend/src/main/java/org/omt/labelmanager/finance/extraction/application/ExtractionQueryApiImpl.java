@@ -0,0 +1,70 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.omt.labelmanager.finance.extraction.api.ExtractionQueryApi;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionJobRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+class ExtractionQueryApiImpl implements ExtractionQueryApi {
+
+    private final ExtractionJobRepository jobRepository;
+    private final ExtractionJobWaiters waiters;
+    private final ExtractionJobConverter converter;
+    private final ExtractionJobProperties properties;
+
+    ExtractionQueryApiImpl(
+            ExtractionJobRepository jobRepository,
+            ExtractionJobWaiters waiters,
+            ExtractionJobConverter converter,
+            ExtractionJobProperties properties) {
+        this.jobRepository = jobRepository;
+        this.waiters = waiters;
+        this.converter = converter;
+        this.properties = properties;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ExtractionJob> findJob(Long jobId) {
+        return jobRepository.findById(jobId).map(converter::toExtractionJob);
+    }
+
+    @Override
+    public CompletableFuture<ExtractionJob> awaitFinished(Long jobId, Duration wait) {
+        CompletableFuture<ExtractionJob> finishing = waiters.finishing(jobId);
+
+        // Registered first, read second: a job that finished in between is seen here rather than
+        // waited on until the timeout.
+        Optional<ExtractionJob> found = findJob(jobId);
+        if (found.isEmpty()) {
+            waiters.forget(jobId);
+            throw notFound(jobId);
+        }
+        ExtractionJob current = found.get();
+        if (current.status().isFinished()) {
+            waiters.finished(current);
+            return CompletableFuture.completedFuture(current);
+        }
+
+        long waitMillis = Math.min(wait.toMillis(), properties.maxWait().toMillis());
+        return finishing
+                .copy()
+                .completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS)
+                .thenApply(job -> job != null ? job : requireJob(jobId));
+    }
+
+    private ExtractionJob requireJob(Long jobId) {
+        return findJob(jobId).orElseThrow(() -> notFound(jobId));
+    }
+
+    private static EntityNotFoundException notFound(Long jobId) {
+        return new EntityNotFoundException("Extraction job not found: " + jobId);
+    }
+}
@@ -0,0 +1,91 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionResultEntity;
+import org.omt.labelmanager.finance.extraction.infrastructure.ExtractionResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parser results by document hash: the {@code extraction_result} table, with the most recently
+ * used entries held in memory in front of it.
+ *
+ * <p>Lookups are counted in {@code invoice.extraction.cache}, tagged {@code outcome}: {@code
+ * memory} and {@code database} for hits by where they were found, {@code miss}, and {@code
+ * bypass} for uploads that asked to be parsed again.
+ */
+@Component
+class ExtractionResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionResultCache.class);
+
+    private final ExtractionResultRepository repository;
+    private final Cache<String, ExtractedInvoiceData> recent;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    ExtractionResultCache(
+            ExtractionResultRepository repository,
+            ExtractionJobProperties properties,
+            MeterRegistry registry) {
+        this.repository = repository;
+        this.recent = Caffeine.newBuilder().maximumSize(properties.resultCacheSize()).build();
+        this.memoryHits = lookups(registry, "memory");
+        this.databaseHits = lookups(registry, "database");
+        this.misses = lookups(registry, "miss");
+        this.bypasses = lookups(registry, "bypass");
+    }
+
+    /** The parser's earlier answer for these bytes, if it has been asked before. */
+    Optional<ExtractedInvoiceData> find(String contentSha256) {
+        ExtractedInvoiceData data = recent.getIfPresent(contentSha256);
+        if (data != null) {
+            memoryHits.increment();
+            return Optional.of(data);
+        }
+        Optional<ExtractedInvoiceData> stored =
+                repository
+                        .findById(contentSha256)
+                        .map(ExtractionResultEntity::toExtractedInvoiceData);
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            recent.put(contentSha256, stored.get());
+        } else {
+            misses.increment();
+        }
+        return stored;
+    }
+
+    /** Counts an upload that skipped the cache to be parsed again. */
+    void bypassed() {
+        bypasses.increment();
+    }
+
+    /** Files the parser's answer for these bytes, replacing any earlier one. */
+    void put(String contentSha256, ExtractedInvoiceData data) {
+        try {
+            repository.save(new ExtractionResultEntity(contentSha256, data));
+        } catch (DataIntegrityViolationException e) {
+            // The same document was parsed at the same time and filed first; both answers are
+            // the parser's for the same bytes, so either will do.
+            log.debug("Extraction result {} was filed concurrently", contentSha256);
+        }
+        recent.put(contentSha256, data);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String outcome) {
+        return Counter.builder("invoice.extraction.cache")
+                .description("Extraction result cache lookups")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
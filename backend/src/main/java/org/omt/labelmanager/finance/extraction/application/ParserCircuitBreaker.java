@@ -0,0 +1,132 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.omt.labelmanager.finance.extraction.api.InvoiceParserUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops calling the invoice parser while it is down.
+ *
+ * <p>After {@code breakerFailureThreshold} retryable failures in a row the breaker opens: calls
+ * fail at once, without a request, for {@code breakerOpenFor}. Then one call is let through. If it
+ * succeeds the breaker closes; if not, it opens for another period. A parser that answers — even
+ * with a 400 for one bad document — is up, so only {@link
+ * InvoiceParserUnavailableException#isRetryable() retryable} failures count. A trial that fails
+ * some other way has not tested the parser, so the next call is let through in its place.
+ *
+ * <p>Shared by every extraction, synchronous or queued, so that a parser outage costs one timeout
+ * per period rather than one per upload.
+ */
+@Component
+class ParserCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(ParserCircuitBreaker.class);
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openForNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    @Autowired
+    ParserCircuitBreaker(ExtractionJobProperties properties) {
+        this(properties.breakerFailureThreshold(), properties.breakerOpenFor(), System::nanoTime);
+    }
+
+    ParserCircuitBreaker(int failureThreshold, Duration openFor, LongSupplier nanoTime) {
+        this.failureThreshold = failureThreshold;
+        this.openForNanos = openFor.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Makes the call, unless the breaker is open.
+     *
+     * @throws InvoiceParserUnavailableException retryable, without calling, while the breaker is
+     *     open; or whatever the call threw
+     */
+    <T> T call(Supplier<T> parserCall) {
+        admit();
+        T result;
+        try {
+            result = parserCall.get();
+        } catch (InvoiceParserUnavailableException e) {
+            if (e.isRetryable()) {
+                failed();
+            } else {
+                succeeded();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            // Says nothing about the parser either way, but a trial must not stay out for good.
+            inconclusive();
+            throw e;
+        }
+        succeeded();
+        return result;
+    }
+
+    synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private synchronized void admit() {
+        switch (state) {
+            case CLOSED -> {}
+            case OPEN -> {
+                if (nanoTime.getAsLong() - openedAt < openForNanos) {
+                    throw refused();
+                }
+                // The trial call. Everyone else is refused until it has answered.
+                state = State.HALF_OPEN;
+            }
+            case HALF_OPEN -> throw refused();
+        }
+    }
+
+    private synchronized void succeeded() {
+        if (state != State.CLOSED) {
+            log.info("Invoice parser answered again; circuit breaker closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void failed() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state == State.CLOSED) {
+                log.warn(
+                        "Invoice parser failed {} times in a row; circuit breaker open",
+                        consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+
+    /** Back to open, with the period already over, so the next call is the trial instead. */
+    private synchronized void inconclusive() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    private static InvoiceParserUnavailableException refused() {
+        return new InvoiceParserUnavailableException(
+                "Invoice parser is failing; calls to it are paused", null, true);
+    }
+}
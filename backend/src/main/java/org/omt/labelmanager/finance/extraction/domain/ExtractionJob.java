@@ -0,0 +1,24 @@
+package org.omt.labelmanager.finance.extraction.domain;
+
+import java.time.Instant;
+
+/**
+ * One uploaded invoice waiting for, or done with, the external parser.
+ *
+ * @param id the job id
+ * @param userId the user who uploaded the document; only they can see the job
+ * @param status where the job stands
+ * @param attempts parser calls made so far, retries included
+ * @param data what the parser read, once {@link ExtractionJobStatus#COMPLETED}; null before, and
+ *     for a job that failed
+ * @param lastError why the job failed, if it did
+ */
+public record ExtractionJob(
+        Long id,
+        Long userId,
+        ExtractionJobStatus status,
+        int attempts,
+        ExtractedInvoiceData data,
+        String lastError,
+        Instant createdAt,
+        Instant updatedAt) {}
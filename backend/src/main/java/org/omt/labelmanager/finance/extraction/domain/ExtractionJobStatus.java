@@ -0,0 +1,16 @@
+package org.omt.labelmanager.finance.extraction.domain;
+
+public enum ExtractionJobStatus {
+    /** The document is stored; waiting for a free parser slot. */
+    QUEUED,
+    /** The parser is being called, or waited on between retries. */
+    RUNNING,
+    /** The parser answered; the job carries what it read, which may be nothing. */
+    COMPLETED,
+    /** The parser could not be used, even after retrying; see lastError. */
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
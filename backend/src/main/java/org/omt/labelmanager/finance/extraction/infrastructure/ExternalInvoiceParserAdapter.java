@@ -11,11 +11,13 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
@@ -37,10 +39,16 @@ public class ExternalInvoiceParserAdapter {
         } catch (HttpStatusCodeException e) {
             logHttpError(e);
             throw new InvoiceParserUnavailableException(
-                    "Invoice parser answered with status " + e.getStatusCode(), e);
+                    "Invoice parser answered with status " + e.getStatusCode(),
+                    e,
+                    e.getStatusCode().is5xxServerError()
+                            || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS));
         } catch (RestClientException e) {
             log.warn("External invoice parser could not be called: {}", e.getMessage());
-            throw new InvoiceParserUnavailableException("Invoice parser could not be reached", e);
+            // Only an I/O failure is worth retrying; a reply that could not be decoded will not
+            // decode any better the second time.
+            throw new InvoiceParserUnavailableException(
+                    "Invoice parser could not be reached", e, e instanceof ResourceAccessException);
         }
 
         if (response == null) {
@@ -0,0 +1,172 @@
+package org.omt.labelmanager.finance.extraction.infrastructure;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJobStatus;
+
+@Entity
+@Table(name = "extraction_job")
+public class ExtractionJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ExtractionJobStatus status = ExtractionJobStatus.QUEUED;
+
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "content_sha256")
+    private String contentSha256;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "net_amount")
+    private BigDecimal netAmount;
+
+    @Column(name = "vat_amount")
+    private BigDecimal vatAmount;
+
+    @Column(name = "vat_rate")
+    private BigDecimal vatRate;
+
+    @Column(name = "gross_amount")
+    private BigDecimal grossAmount;
+
+    @Column(name = "invoice_date")
+    private LocalDate invoiceDate;
+
+    @Column(name = "invoice_reference")
+    private String invoiceReference;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = createdAt;
+
+    protected ExtractionJobEntity() {}
+
+    public ExtractionJobEntity(
+            Long userId, String storageKey, String contentType, String contentSha256) {
+        this.userId = userId;
+        this.storageKey = storageKey;
+        this.contentType = contentType;
+        this.contentSha256 = contentSha256;
+    }
+
+    public void start() {
+        this.status = ExtractionJobStatus.RUNNING;
+        this.updatedAt = Instant.now();
+    }
+
+    public void recordAttempt() {
+        this.attempts++;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete(ExtractedInvoiceData data) {
+        this.status = ExtractionJobStatus.COMPLETED;
+        this.netAmount = data.netAmount();
+        this.vatAmount = data.vatAmount();
+        this.vatRate = data.vatRate();
+        this.grossAmount = data.grossAmount();
+        this.invoiceDate = data.invoiceDate();
+        this.invoiceReference = data.invoiceReference();
+        this.currency = data.currency();
+        this.lastError = null;
+        this.updatedAt = Instant.now();
+    }
+
+    public void fail(String error) {
+        this.status = ExtractionJobStatus.FAILED;
+        this.lastError = error;
+        this.updatedAt = Instant.now();
+    }
+
+    /** The document has been deleted from storage; the job no longer points at it. */
+    public void documentDeleted() {
+        this.storageKey = null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ExtractionJobStatus getStatus() {
+        return status;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /** What the parser read; null unless the job completed. */
+    public ExtractedInvoiceData getData() {
+        if (status != ExtractionJobStatus.COMPLETED) {
+            return null;
+        }
+        return new ExtractedInvoiceData(
+                netAmount,
+                vatAmount,
+                vatRate,
+                grossAmount,
+                invoiceDate,
+                invoiceReference,
+                currency);
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,10 @@
+package org.omt.labelmanager.finance.extraction.infrastructure;
+
+import java.util.List;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExtractionJobRepository extends JpaRepository<ExtractionJobEntity, Long> {
+
+    List<ExtractionJobEntity> findByStatusInOrderById(List<ExtractionJobStatus> statuses);
+}
@@ -0,0 +1,80 @@
+package org.omt.labelmanager.finance.extraction.infrastructure;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+
+/**
+ * What the parser read from one document, under the SHA-256 of its bytes. The id is the hash, so
+ * saving a result for a document parsed before replaces the earlier one.
+ */
+@Entity
+@Table(name = "extraction_result")
+public class ExtractionResultEntity {
+
+    @Id
+    @Column(name = "content_sha256")
+    private String contentSha256;
+
+    @Column(name = "net_amount")
+    private BigDecimal netAmount;
+
+    @Column(name = "vat_amount")
+    private BigDecimal vatAmount;
+
+    @Column(name = "vat_rate")
+    private BigDecimal vatRate;
+
+    @Column(name = "gross_amount")
+    private BigDecimal grossAmount;
+
+    @Column(name = "invoice_date")
+    private LocalDate invoiceDate;
+
+    @Column(name = "invoice_reference")
+    private String invoiceReference;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "parsed_at", nullable = false)
+    private Instant parsedAt;
+
+    protected ExtractionResultEntity() {}
+
+    public ExtractionResultEntity(String contentSha256, ExtractedInvoiceData data) {
+        this.contentSha256 = contentSha256;
+        this.netAmount = data.netAmount();
+        this.vatAmount = data.vatAmount();
+        this.vatRate = data.vatRate();
+        this.grossAmount = data.grossAmount();
+        this.invoiceDate = data.invoiceDate();
+        this.invoiceReference = data.invoiceReference();
+        this.currency = data.currency();
+        this.parsedAt = Instant.now();
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public ExtractedInvoiceData toExtractedInvoiceData() {
+        return new ExtractedInvoiceData(
+                netAmount,
+                vatAmount,
+                vatRate,
+                grossAmount,
+                invoiceDate,
+                invoiceReference,
+                currency);
+    }
+
+    public Instant getParsedAt() {
+        return parsedAt;
+    }
+}
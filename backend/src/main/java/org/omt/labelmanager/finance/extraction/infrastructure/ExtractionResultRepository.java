@@ -0,0 +1,6 @@
+package org.omt.labelmanager.finance.extraction.infrastructure;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExtractionResultRepository
+        extends JpaRepository<ExtractionResultEntity, String> {}
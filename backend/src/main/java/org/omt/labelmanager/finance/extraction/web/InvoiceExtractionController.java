@@ -1,18 +1,31 @@
 package org.omt.labelmanager.finance.extraction.web;
 
+import jakarta.persistence.EntityNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.omt.labelmanager.finance.extraction.api.ExtractionCommandApi;
+import org.omt.labelmanager.finance.extraction.api.ExtractionQueryApi;
 import org.omt.labelmanager.finance.extraction.api.InvalidDocumentTypeException;
 import org.omt.labelmanager.finance.extraction.api.InvoiceParserUnavailableException;
 import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJobStatus;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -28,9 +41,12 @@ public class InvoiceExtractionController {
     private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("application/pdf");
 
     private final ExtractionCommandApi extractionCommandApi;
+    private final ExtractionQueryApi extractionQueryApi;
 
-    public InvoiceExtractionController(ExtractionCommandApi extractionCommandApi) {
+    public InvoiceExtractionController(
+            ExtractionCommandApi extractionCommandApi, ExtractionQueryApi extractionQueryApi) {
         this.extractionCommandApi = extractionCommandApi;
+        this.extractionQueryApi = extractionQueryApi;
     }
 
     /**
@@ -62,9 +78,104 @@ public class InvoiceExtractionController {
         }
     }
 
+    /**
+     * An extraction job as a client polls it. {@code result} is set once the job is COMPLETED,
+     * {@code error} once it is FAILED.
+     */
+    record ExtractionJobResponse(
+            Long id,
+            ExtractionJobStatus status,
+            int attempts,
+            ExtractionResponse result,
+            String error,
+            Instant createdAt,
+            Instant updatedAt) {
+
+        static ExtractionJobResponse of(ExtractionJob job) {
+            return new ExtractionJobResponse(
+                    job.id(),
+                    job.status(),
+                    job.attempts(),
+                    job.data() != null ? ExtractionResponse.of(job.data()) : null,
+                    job.lastError(),
+                    job.createdAt(),
+                    job.updatedAt());
+        }
+    }
+
+    /**
+     * Extracts while the client waits. Holds a request thread for the whole parser call; prefer
+     * {@code POST /api/costs/extraction-jobs}.
+     *
+     * <p>A document parsed before is answered from the result cache; {@code bypassCache} parses it
+     * again regardless.
+     */
     @PostMapping("/extract")
-    public ExtractionResponse extractInvoiceData(@RequestParam("document") MultipartFile document)
+    public ExtractionResponse extractInvoiceData(
+            @RequestParam("document") MultipartFile document,
+            @RequestParam(defaultValue = "false") boolean bypassCache)
+            throws IOException {
+        String contentType = requirePdf(document);
+
+        log.info("Extracting invoice data from document: {}", document.getOriginalFilename());
+
+        ExtractedInvoiceData result =
+                extractionCommandApi.extract(document.getInputStream(), contentType, bypassCache);
+
+        return ExtractionResponse.of(result);
+    }
+
+    /**
+     * Stores the document and queues it for the parser, answering at once with the job. A
+     * document parsed before comes back already COMPLETED, unless {@code bypassCache} is set.
+     */
+    @PostMapping("/extraction-jobs")
+    public ResponseEntity<ExtractionJobResponse> submitExtraction(
+            @AuthenticationPrincipal AppUserDetails user,
+            @RequestParam("document") MultipartFile document,
+            @RequestParam(defaultValue = "false") boolean bypassCache)
             throws IOException {
+        String contentType = requirePdf(document);
+        String filename =
+                document.getOriginalFilename() != null
+                        ? document.getOriginalFilename()
+                        : "invoice.pdf";
+
+        ExtractionJob job =
+                extractionCommandApi.submit(
+                        user.getId(),
+                        filename,
+                        contentType,
+                        document.getInputStream(),
+                        bypassCache);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/costs/extraction-jobs/" + job.id()))
+                .body(ExtractionJobResponse.of(job));
+    }
+
+    /**
+     * The job. With {@code waitSeconds}, a long poll: answers as soon as the job finishes, or with
+     * the job as it stands once the wait is up. The wait holds no request thread.
+     */
+    @GetMapping("/extraction-jobs/{jobId}")
+    public CompletableFuture<ExtractionJobResponse> extractionJob(
+            @AuthenticationPrincipal AppUserDetails user,
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+        if (waitSeconds < 0) {
+            throw new IllegalArgumentException("waitSeconds must not be negative");
+        }
+        ExtractionJob job = requireOwnJob(user, jobId);
+        if (waitSeconds == 0 || job.status().isFinished()) {
+            return CompletableFuture.completedFuture(ExtractionJobResponse.of(job));
+        }
+        return extractionQueryApi
+                .awaitFinished(jobId, Duration.ofSeconds(waitSeconds))
+                .thenApply(ExtractionJobResponse::of);
+    }
+
+    private String requirePdf(MultipartFile document) {
         if (document.isEmpty()) {
             throw new IllegalArgumentException("No document was provided for extraction");
         }
@@ -74,13 +185,16 @@ public class InvoiceExtractionController {
             log.warn("Unsupported document type for extraction: {}", contentType);
             throw new InvalidDocumentTypeException(contentType);
         }
+        return contentType;
+    }
 
-        log.info("Extracting invoice data from document: {}", document.getOriginalFilename());
-
-        ExtractedInvoiceData result =
-                extractionCommandApi.extract(document.getInputStream(), contentType);
-
-        return ExtractionResponse.of(result);
+    /** Another user's job is reported as missing, not forbidden: its id tells them nothing. */
+    private ExtractionJob requireOwnJob(AppUserDetails user, Long jobId) {
+        return extractionQueryApi
+                .findJob(jobId)
+                .filter(job -> job.userId().equals(user.getId()))
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Extraction job not found: " + jobId));
     }
 
     @ExceptionHandler(InvoiceParserUnavailableException.class)
@@ -0,0 +1,28 @@
+package org.omt.labelmanager.finance.shared;
+
+import java.util.OptionalLong;
+
+/**
+ * A byte range asked of a stored document that it cannot serve, such as one past its end.
+ *
+ * <p>Carries the document's length when storage told us, so the 416 can say which ranges would
+ * have been satisfiable ({@code Content-Range: bytes *}{@code /length}).
+ */
+public class DocumentRangeNotSatisfiableException extends RuntimeException {
+
+    private final Long documentLength;
+
+    /** For a range refused before storage was asked, whose document's length is not known. */
+    public DocumentRangeNotSatisfiableException(String range) {
+        this(range, null);
+    }
+
+    public DocumentRangeNotSatisfiableException(String range, Long documentLength) {
+        super("Range not satisfiable: " + range);
+        this.documentLength = documentLength;
+    }
+
+    public OptionalLong documentLength() {
+        return documentLength == null ? OptionalLong.empty() : OptionalLong.of(documentLength);
+    }
+}
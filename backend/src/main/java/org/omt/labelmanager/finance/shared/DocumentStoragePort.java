@@ -1,6 +1,8 @@
 package org.omt.labelmanager.finance.shared;
 
 import java.io.InputStream;
+import java.net.URI;
+import java.util.Optional;
 
 /**
  * Port for storing and retrieving the documents that back financial records — invoices and
@@ -9,25 +11,67 @@ import java.io.InputStream;
  */
 public interface DocumentStoragePort {
 
+    /** The {@code contentLength} to pass when the size of a document is not known up front. */
+    long UNKNOWN_LENGTH = -1;
+
     /**
-     * Stores a document and returns a reference key for later retrieval.
+     * Stores a document of unknown length and returns a reference key for later retrieval.
+     *
+     * @see #store(String, String, InputStream, long)
+     */
+    default String store(String filename, String contentType, InputStream content) {
+        return store(filename, contentType, content, UNKNOWN_LENGTH);
+    }
+
+    /**
+     * Stores a document and returns a reference key for later retrieval. The content is streamed
+     * to the backend, never held in memory whole; a known length lets it go in a single request.
      *
      * @param filename the original filename
      * @param contentType the MIME type of the document
-     * @param content the document content stream
+     * @param content the document content stream, read to its end but not closed
+     * @param contentLength the exact size of {@code content} in bytes, or {@link #UNKNOWN_LENGTH}
      * @return a storage key that can be used to retrieve the document
      * @throws DocumentStorageException if the storage backend rejects or fails the write
      */
-    String store(String filename, String contentType, InputStream content);
+    String store(String filename, String contentType, InputStream content, long contentLength);
+
+    /**
+     * Retrieves a whole document from storage.
+     *
+     * @see #retrieve(String, String, String)
+     */
+    default RetrievedDocument retrieve(String storageKey) {
+        return retrieve(storageKey, null, null);
+    }
 
     /**
-     * Retrieves a document from storage.
+     * Retrieves a document from storage, or part of it.
      *
      * @param storageKey the key returned from a previous store() call
+     * @param range a single HTTP byte range, e.g. {@code bytes=0-1023}, or {@code null} for the
+     *     whole document
+     * @param ifNoneMatch an entity tag the caller already holds the document under, or {@code
+     *     null}; if it still matches, the result {@link RetrievedDocument#isNotModified() is not
+     *     modified} and carries no content
      * @return the retrieved document with content stream and metadata
+     * @throws DocumentRangeNotSatisfiableException if the range starts past the end of the document
      * @throws DocumentStorageException if the document cannot be read from the storage backend
      */
-    RetrievedDocument retrieve(String storageKey);
+    RetrievedDocument retrieve(String storageKey, String range, String ifNoneMatch);
+
+    /**
+     * A short-lived URL the client can fetch the document from directly, without it passing
+     * through this application. Empty if this backend does not hand out such URLs, in which case
+     * the document is served through {@link #retrieve}.
+     *
+     * @param storageKey the key returned from a previous store() call
+     * @param attachment whether the URL should serve the document for download rather than inline
+     * @throws DocumentStorageException if the storage backend fails to sign the URL
+     */
+    default Optional<URI> presignRetrieval(String storageKey, boolean attachment) {
+        return Optional.empty();
+    }
 
     /**
      * Deletes a document from storage.
@@ -2,5 +2,11 @@ package org.omt.labelmanager.finance.shared;
 
 import java.io.InputStream;
 
-/** Represents a document to be uploaded and stored. */
-public record DocumentUpload(String filename, String contentType, InputStream content) {}
+/**
+ * Represents a document to be uploaded and stored.
+ *
+ * @param contentLength the size of {@code content} in bytes, or {@link
+ *     DocumentStoragePort#UNKNOWN_LENGTH} if the caller does not know it
+ */
+public record DocumentUpload(
+        String filename, String contentType, InputStream content, long contentLength) {}
@@ -2,6 +2,38 @@ package org.omt.labelmanager.finance.shared;
 
 import java.io.InputStream;
 
-/** Represents a document retrieved from storage. */
+/**
+ * Represents a document retrieved from storage.
+ *
+ * @param content the document, or the requested range of it; {@code null} if not modified
+ * @param contentLength the length of {@code content}, which for a range is the range's length
+ * @param eTag the stored document's entity tag, quoted, or {@code null} if the backend has none
+ * @param contentRange the {@code Content-Range} of a partial document, e.g. {@code bytes
+ *     0-1023/52000}, or {@code null} if the whole document was retrieved
+ */
 public record RetrievedDocument(
-        InputStream content, String contentType, String filename, long contentLength) {}
+        InputStream content,
+        String contentType,
+        String filename,
+        long contentLength,
+        String eTag,
+        String contentRange) {
+
+    public RetrievedDocument(
+            InputStream content, String contentType, String filename, long contentLength) {
+        this(content, contentType, filename, contentLength, null, null);
+    }
+
+    /** The answer to a conditional retrieval whose entity tag still matches: no content. */
+    public static RetrievedDocument notModified(String filename, String eTag) {
+        return new RetrievedDocument(null, null, filename, 0, eTag, null);
+    }
+
+    public boolean isNotModified() {
+        return content == null;
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+}
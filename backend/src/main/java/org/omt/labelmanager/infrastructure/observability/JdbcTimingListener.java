@@ -0,0 +1,37 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import org.hibernate.SessionEventListener;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
+
+/**
+ * Charges every statement Hibernate executes to the current request.
+ *
+ * <p>Registered through {@code hibernate.session.events.auto}, so Hibernate creates one per
+ * session. It sees everything that goes through a repository — derived, JPQL and native queries
+ * alike — but not {@code JdbcTemplate}, which the bulk inserters use.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.record(Segment.DB, System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.record(Segment.DB, System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,37 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Charges every call made through a {@link RestClient} bean to the current request — today that
+ * is the invoice parser. The time runs until the response headers arrive; reading the body is the
+ * caller's.
+ *
+ * <p>A post-processor rather than an interceptor each client adds for itself: the clients live in
+ * modules that {@code infrastructure} depends on, and must not depend back on it.
+ */
+@Component
+class OutboundHttpTiming implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof RestClient restClient)) {
+            return bean;
+        }
+        return restClient
+                .mutate()
+                .requestInterceptor(
+                        (request, body, execution) -> {
+                            long start = System.nanoTime();
+                            try {
+                                return execution.execute(request, body);
+                            } finally {
+                                RequestTimings.record(Segment.HTTP, System.nanoTime() - start);
+                            }
+                        })
+                .build();
+    }
+}
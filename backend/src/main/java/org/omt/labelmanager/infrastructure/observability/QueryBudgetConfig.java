@@ -0,0 +1,21 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+class QueryBudgetConfig implements WebMvcConfigurer {
+
+    private final boolean enforce;
+
+    QueryBudgetConfig(@Value("${observability.query-budget.enforce:false}") boolean enforce) {
+        this.enforce = enforce;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(enforce));
+    }
+}
@@ -0,0 +1,74 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
+import org.omt.labelmanager.shared.QueryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Holds endpoints to their {@link QueryBudget}.
+ *
+ * <p>Checked in {@code postHandle}, which for a {@code @ResponseBody} handler runs after the body
+ * is written, so lazy loads during serialization count too. A handler that threw is not checked:
+ * its count says nothing about the happy path the budget is for.
+ *
+ * <p>With {@code enforce} on — the test profile — an overrun throws an {@link AssertionError}.
+ * An error rather than an exception so that no {@code @ExceptionHandler} turns it into a 400 the
+ * test might not look at; it escapes {@code MockMvc.perform} instead.
+ */
+class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private final boolean enforce;
+
+    QueryBudgetInterceptor(boolean enforce) {
+        this.enforce = enforce;
+    }
+
+    @Override
+    public void postHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            ModelAndView modelAndView) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+        RequestTimings timings = RequestTimings.current();
+        if (budget == null || timings == null) {
+            return;
+        }
+
+        long statements = timings.count(Segment.DB);
+        if (statements <= budget.value()) {
+            return;
+        }
+        String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        if (enforce) {
+            throw new AssertionError(
+                    endpoint
+                            + " issued "
+                            + statements
+                            + " SQL statements for "
+                            + request.getMethod()
+                            + " "
+                            + request.getRequestURI()
+                            + "; its budget is "
+                            + budget.value());
+        }
+        log.warn(
+                "{} issued {} SQL statements for {} {}, over its budget of {}",
+                endpoint,
+                statements,
+                request.getMethod(),
+                request.getRequestURI(),
+                budget.value());
+    }
+}
@@ -0,0 +1,160 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gives every request an id and an account of where its time went.
+ *
+ * <p>The id is the caller's {@code X-Request-Id} when it sends a plausible one, so a trace that
+ * started upstream keeps its id, and a fresh UUID otherwise. It is echoed back and put in the
+ * MDC as {@code requestId}, with the signed-in user's id as {@code userId} — the two keys the JSON
+ * log encoder already emits.
+ *
+ * <p>The breakdown goes out twice: as a {@code Server-Timing} header, which browser dev tools
+ * show next to the request, and as one {@code access} log line carrying the full figures. The
+ * header is set just before the response commits, so it covers the handler but not the writing of
+ * the body; the log line covers everything.
+ *
+ * <p>Runs inside the security filter chain — at the default, lowest precedence — so the user is
+ * known by the time it looks.
+ */
+@Component
+class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final Pattern PLAUSIBLE_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        String requestId = requestIdOf(request);
+        MDC.put("requestId", requestId);
+        Long userId = currentUserId();
+        if (userId != null) {
+            MDC.put("userId", userId.toString());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        RequestTimings timings = RequestTimings.begin();
+        var timed =
+                new ServerTimingResponse(
+                        response, () -> timings.serverTiming(System.nanoTime() - start));
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            timed.addServerTiming();
+            long elapsed = System.nanoTime() - start;
+            accessLog.info(
+                    "{} {} {} {} {} {} {} {} {}",
+                    kv("method", request.getMethod()),
+                    kv("path", request.getRequestURI()),
+                    kv("status", response.getStatus()),
+                    kv("durationMs", RequestTimings.millis(elapsed)),
+                    kv("dbMs", RequestTimings.millis(timings.nanos(Segment.DB))),
+                    kv("dbStatements", timings.count(Segment.DB)),
+                    kv("s3Ms", RequestTimings.millis(timings.nanos(Segment.S3))),
+                    kv("httpMs", RequestTimings.millis(timings.nanos(Segment.HTTP))),
+                    kv("httpCalls", timings.count(Segment.HTTP)));
+            RequestTimings.end();
+            MDC.remove("requestId");
+            MDC.remove("userId");
+        }
+    }
+
+    private static String requestIdOf(HttpServletRequest request) {
+        String offered = request.getHeader(REQUEST_ID_HEADER);
+        if (offered != null && PLAUSIBLE_REQUEST_ID.matcher(offered).matches()) {
+            return offered;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                        && authentication.getPrincipal() instanceof AppUserDetails user
+                ? user.getId()
+                : null;
+    }
+
+    /** Sets {@code Server-Timing} at the last moment it can: just before the response commits. */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final Supplier<String> serverTiming;
+        private boolean added;
+
+        ServerTimingResponse(HttpServletResponse response, Supplier<String> serverTiming) {
+            super(response);
+            this.serverTiming = serverTiming;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                setHeader("Server-Timing", serverTiming.get());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Where the current request's time went: JDBC, S3 and outbound HTTP, each as a total and a count.
+ *
+ * <p>Bound to the request thread by {@link RequestTimingFilter}. Work done off that thread — a
+ * scheduled job, an async task — records nothing, because there is no request to charge it to.
+ */
+public final class RequestTimings {
+
+    /** One kind of work a request waits on, named as it appears in {@code Server-Timing}. */
+    public enum Segment {
+        DB("db"),
+        S3("s3"),
+        HTTP("http");
+
+        private final String metricName;
+
+        Segment(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final Map<Segment, long[]> totals = new EnumMap<>(Segment.class);
+
+    private RequestTimings() {}
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** The current request's timings, or null off a request thread. */
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /** Charges {@code nanos} of {@code segment} to the current request, if there is one. */
+    public static void record(Segment segment, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            long[] total = timings.totals.computeIfAbsent(segment, s -> new long[2]);
+            total[0] += nanos;
+            total[1]++;
+        }
+    }
+
+    /** Runs {@code call} and charges its duration to {@code segment}, whether or not it throws. */
+    public static <T> T time(Segment segment, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            record(segment, System.nanoTime() - start);
+        }
+    }
+
+    long nanos(Segment segment) {
+        long[] total = totals.get(segment);
+        return total == null ? 0 : total[0];
+    }
+
+    long count(Segment segment) {
+        long[] total = totals.get(segment);
+        return total == null ? 0 : total[1];
+    }
+
+    /**
+     * The {@code Server-Timing} header value: one entry per segment that saw any work, plus the
+     * request's total. Durations are milliseconds; {@code desc} carries the count.
+     */
+    String serverTiming(long totalNanos) {
+        StringJoiner header = new StringJoiner(", ");
+        totals.forEach(
+                (segment, total) ->
+                        header.add(
+                                segment.metricName
+                                        + ";dur="
+                                        + millis(total[0])
+                                        + ";desc=\""
+                                        + total[1]
+                                        + "\""));
+        header.add("total;dur=" + millis(totalNanos));
+        return header.toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,12 @@
+package org.omt.labelmanager.infrastructure.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled}. Kept out of {@code LabelManagerApplication} so a test slice that
+ * does not load this package does not start background jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -36,6 +36,10 @@ public class SecurityConfig {
                                                 "/swagger-ui/**",
                                                 "/v3/api-docs/**")
                                         .permitAll()
+                                        // Served only on the management port, which the
+                                        // Prometheus scraper reaches and the public does not.
+                                        .requestMatchers("/actuator/health", "/actuator/prometheus")
+                                        .permitAll()
                                         .anyRequest()
                                         .authenticated())
                 .formLogin(
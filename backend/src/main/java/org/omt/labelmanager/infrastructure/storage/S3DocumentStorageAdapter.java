@@ -1,50 +1,78 @@
 package org.omt.labelmanager.infrastructure.storage;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.omt.labelmanager.finance.shared.DocumentRangeNotSatisfiableException;
 import org.omt.labelmanager.finance.shared.DocumentStorageException;
 import org.omt.labelmanager.finance.shared.DocumentStoragePort;
 import org.omt.labelmanager.finance.shared.RetrievedDocument;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 @Component
 public class S3DocumentStorageAdapter implements DocumentStoragePort {
 
     private static final Logger log = LoggerFactory.getLogger(S3DocumentStorageAdapter.class);
 
+    // The SDK reports both conditional outcomes of a GetObject as an S3Exception.
+    private static final int NOT_MODIFIED = 304;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
     private final S3Client s3Client;
+    private final S3Presigner presigner;
     private final S3Properties properties;
 
-    public S3DocumentStorageAdapter(S3Client s3Client, S3Properties properties) {
+    public S3DocumentStorageAdapter(
+            S3Client s3Client, S3Presigner presigner, S3Properties properties) {
         this.s3Client = s3Client;
+        this.presigner = presigner;
         this.properties = properties;
     }
 
+    /**
+     * Streams the content to S3 without holding it in memory. A known length goes up in one {@code
+     * PutObject}; otherwise the content is cut into parts of {@link S3Properties#partSize()}, and
+     * at most one part of it is in memory at a time. Content that fits in a single part skips the
+     * multipart round trips.
+     */
     @Override
-    public String store(String filename, String contentType, InputStream content) {
+    public String store(
+            String filename, String contentType, InputStream content, long contentLength) {
         String key = generateKey(filename);
         log.info("Storing document '{}' with key '{}'", filename, key);
 
         try {
-            byte[] bytes = content.readAllBytes();
-
-            PutObjectRequest request =
-                    PutObjectRequest.builder()
-                            .bucket(properties.bucket())
-                            .key(key)
-                            .contentType(contentType)
-                            .build();
-
-            s3Client.putObject(request, RequestBody.fromBytes(bytes));
+            if (contentLength >= 0) {
+                put(key, contentType, RequestBody.fromInputStream(content, contentLength));
+            } else {
+                storeInParts(key, contentType, content);
+            }
             log.debug("Document stored successfully");
 
             return key;
@@ -54,28 +82,204 @@ public class S3DocumentStorageAdapter implements DocumentStoragePort {
         }
     }
 
+    private void put(String key, String contentType, RequestBody body) {
+        PutObjectRequest request =
+                PutObjectRequest.builder()
+                        .bucket(properties.bucket())
+                        .key(key)
+                        .contentType(contentType)
+                        .checksumAlgorithm(properties.checksumAlgorithm())
+                        .build();
+
+        RequestTimings.time(Segment.S3, () -> s3Client.putObject(request, body));
+    }
+
+    private void storeInParts(String key, String contentType, InputStream content)
+            throws IOException {
+        int partSize = (int) properties.partSize().toBytes();
+        // Sized to what the stream holds, so a small document does not cost a whole part.
+        byte[] buffer = content.readNBytes(partSize);
+        if (buffer.length < partSize) {
+            put(key, contentType, partBody(buffer, buffer.length));
+            return;
+        }
+
+        CreateMultipartUploadRequest createRequest =
+                CreateMultipartUploadRequest.builder()
+                        .bucket(properties.bucket())
+                        .key(key)
+                        .contentType(contentType)
+                        .checksumAlgorithm(properties.checksumAlgorithm())
+                        .build();
+        String uploadId =
+                RequestTimings.time(
+                                Segment.S3, () -> s3Client.createMultipartUpload(createRequest))
+                        .uploadId();
+
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int length = buffer.length;
+            while (length > 0) {
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, buffer, length));
+                length = content.readNBytes(buffer, 0, partSize);
+            }
+
+            CompleteMultipartUploadRequest completeRequest =
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(properties.bucket())
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(upload -> upload.parts(parts))
+                            .build();
+            RequestTimings.time(
+                    Segment.S3, () -> s3Client.completeMultipartUpload(completeRequest));
+            log.debug("Document stored in {} parts", parts.size());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, e);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPart(
+            String key, String uploadId, int partNumber, byte[] buffer, int length) {
+        UploadPartRequest request =
+                UploadPartRequest.builder()
+                        .bucket(properties.bucket())
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .checksumAlgorithm(properties.checksumAlgorithm())
+                        .build();
+        UploadPartResponse response =
+                RequestTimings.time(
+                        Segment.S3, () -> s3Client.uploadPart(request, partBody(buffer, length)));
+
+        // S3 wants each part's checksum back on completion when the upload was created with one.
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .checksumCRC32(response.checksumCRC32())
+                .checksumCRC32C(response.checksumCRC32C())
+                .checksumCRC64NVME(response.checksumCRC64NVME())
+                .checksumSHA1(response.checksumSHA1())
+                .checksumSHA256(response.checksumSHA256())
+                .build();
+    }
+
+    /** A body over the buffer, not a copy of it; the SDK resets the stream to retry. */
+    private static RequestBody partBody(byte[] buffer, int length) {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length);
+    }
+
+    /** Parts of an upload that is never completed are stored, and billed, until aborted. */
+    private void abort(String key, String uploadId, Exception cause) {
+        try {
+            s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(properties.bucket())
+                            .key(key)
+                            .uploadId(uploadId)
+                            .build());
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     @Override
-    public RetrievedDocument retrieve(String storageKey) {
+    public RetrievedDocument retrieve(String storageKey, String range, String ifNoneMatch) {
         log.info("Retrieving document with key '{}'", storageKey);
+        String filename = extractFilename(storageKey);
 
         try {
             GetObjectRequest request =
-                    GetObjectRequest.builder().bucket(properties.bucket()).key(storageKey).build();
+                    GetObjectRequest.builder()
+                            .bucket(properties.bucket())
+                            .key(storageKey)
+                            .range(range)
+                            .ifNoneMatch(ifNoneMatch)
+                            .build();
 
-            ResponseInputStream<GetObjectResponse> response = s3Client.getObject(request);
+            // Timed to the response headers; the body streams to the client afterwards.
+            ResponseInputStream<GetObjectResponse> response =
+                    RequestTimings.time(Segment.S3, () -> s3Client.getObject(request));
             GetObjectResponse metadata = response.response();
 
-            String filename = extractFilename(storageKey);
             log.debug(
-                    "Document retrieved: filename='{}', contentType='{}'",
+                    "Document retrieved: filename='{}', contentType='{}', range='{}'",
                     filename,
-                    metadata.contentType());
+                    metadata.contentType(),
+                    metadata.contentRange());
 
             return new RetrievedDocument(
-                    response, metadata.contentType(), filename, metadata.contentLength());
+                    response,
+                    metadata.contentType(),
+                    filename,
+                    metadata.contentLength(),
+                    metadata.eTag(),
+                    metadata.contentRange());
+        } catch (S3Exception e) {
+            if (e.statusCode() == NOT_MODIFIED) {
+                log.debug("Document '{}' not modified", storageKey);
+                return RetrievedDocument.notModified(filename, ifNoneMatch);
+            }
+            if (e.statusCode() == RANGE_NOT_SATISFIABLE) {
+                throw new DocumentRangeNotSatisfiableException(range, lengthOf(storageKey));
+            }
+            throw retrievalFailed(storageKey, e);
+        } catch (Exception e) {
+            throw retrievalFailed(storageKey, e);
+        }
+    }
+
+    /**
+     * The object's length, for the {@code Content-Range} of a 416: the exception the SDK raises for
+     * it carries none, so it is asked for with a HEAD. Null if that fails too — the 416 stands
+     * without it.
+     */
+    private Long lengthOf(String storageKey) {
+        HeadObjectRequest request =
+                HeadObjectRequest.builder().bucket(properties.bucket()).key(storageKey).build();
+        try {
+            return RequestTimings.time(Segment.S3, () -> s3Client.headObject(request))
+                    .contentLength();
+        } catch (RuntimeException e) {
+            log.debug("Could not read the length of document '{}'", storageKey, e);
+            return null;
+        }
+    }
+
+    private static DocumentStorageException retrievalFailed(String storageKey, Exception e) {
+        log.error("Failed to retrieve document '{}': {}", storageKey, e.getMessage());
+        return new DocumentStorageException("Failed to retrieve document: " + storageKey, e);
+    }
+
+    @Override
+    public Optional<URI> presignRetrieval(String storageKey, boolean attachment) {
+        if (!properties.presignedDownloads()) {
+            return Optional.empty();
+        }
+
+        try {
+            String disposition =
+                    (attachment ? "attachment" : "inline")
+                            + "; filename=\""
+                            + extractFilename(storageKey)
+                            + "\"";
+            GetObjectPresignRequest request =
+                    GetObjectPresignRequest.builder()
+                            .signatureDuration(properties.presignedDownloadTtl())
+                            .getObjectRequest(
+                                    get ->
+                                            get.bucket(properties.bucket())
+                                                    .key(storageKey)
+                                                    .responseContentDisposition(disposition))
+                            .build();
+
+            // Signed locally; no request leaves for S3.
+            return Optional.of(URI.create(presigner.presignGetObject(request).url().toString()));
         } catch (Exception e) {
-            log.error("Failed to retrieve document '{}': {}", storageKey, e.getMessage());
-            throw new DocumentStorageException("Failed to retrieve document: " + storageKey, e);
+            log.error("Failed to presign document '{}': {}", storageKey, e.getMessage());
+            throw new DocumentStorageException("Failed to presign document: " + storageKey, e);
         }
     }
 
@@ -90,7 +294,7 @@ public class S3DocumentStorageAdapter implements DocumentStoragePort {
                             .key(storageKey)
                             .build();
 
-            s3Client.deleteObject(request);
+            RequestTimings.time(Segment.S3, () -> s3Client.deleteObject(request));
             log.debug("Document deleted successfully");
         } catch (Exception e) {
             log.error("Failed to delete document '{}': {}", storageKey, e.getMessage());
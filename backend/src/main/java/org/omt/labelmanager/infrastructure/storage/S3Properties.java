@@ -1,7 +1,46 @@
 package org.omt.labelmanager.infrastructure.storage;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
 
+/**
+ * @param partSize the part size for multipart uploads of documents whose length is not known up
+ *     front; also the most of any one such document held in memory at once. S3 refuses parts under
+ *     5 MB other than the last.
+ * @param checksumAlgorithm a checksum for the SDK to compute as the content streams out and for
+ *     the store to verify, or {@code null} to leave it to the SDK's default
+ * @param presignedDownloads whether documents are downloaded from presigned S3 URLs rather than
+ *     proxied through the application. The endpoint must then be one clients can reach.
+ * @param presignedDownloadTtl how long a presigned URL stays valid; it only needs to outlive the
+ *     redirect
+ */
 @ConfigurationProperties(prefix = "storage.s3")
 public record S3Properties(
-        String endpoint, String bucket, String region, String accessKey, String secretKey) {}
+        String endpoint,
+        String bucket,
+        String region,
+        String accessKey,
+        String secretKey,
+        @DefaultValue("8MB") DataSize partSize,
+        ChecksumAlgorithm checksumAlgorithm,
+        @DefaultValue("false") boolean presignedDownloads,
+        @DefaultValue("5m") Duration presignedDownloadTtl) {
+
+    static final DataSize MIN_PART_SIZE = DataSize.ofMegabytes(5);
+    static final DataSize MAX_PART_SIZE = DataSize.ofMegabytes(512);
+
+    public S3Properties {
+        if (partSize.compareTo(MIN_PART_SIZE) < 0 || partSize.compareTo(MAX_PART_SIZE) > 0) {
+            throw new IllegalArgumentException(
+                    "storage.s3.part-size must be between "
+                            + MIN_PART_SIZE
+                            + " and "
+                            + MAX_PART_SIZE
+                            + ": "
+                            + partSize);
+        }
+    }
+}
@@ -3,10 +3,13 @@ package org.omt.labelmanager.infrastructure.web;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.format.DateTimeParseException;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -36,6 +39,24 @@ public class ApiExceptionHandler {
         return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
+    /**
+     * Another write held the stock for longer than the lock-wait budget allows. Nothing was
+     * written, so the request can be repeated as it is; a 409 says so, where the 500 a lock timeout
+     * would otherwise surface as says the opposite.
+     */
+    @ExceptionHandler(StockLockTimeoutException.class)
+    public ResponseEntity<ProblemDetail> handleStockLockTimeout(
+            StockLockTimeoutException exception) {
+        log.debug("Stock lock not granted in time: {}", exception.getMessage());
+        ProblemDetail problem =
+                ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+        problem.setTitle("Stock busy");
+        long retryAfterSeconds = Math.max(1, exception.getRetryAfter().plusMillis(999).toSeconds());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(problem);
+    }
+
     @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
     public ProblemDetail handleBadRequest(RuntimeException exception) {
         log.debug("Rejected request: {}", exception.getMessage());
@@ -0,0 +1,27 @@
+package org.omt.labelmanager.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param mode how sales and returns keep two writers from drawing the same units
+ * @param maxAttempts how many times an optimistic write is run, in all, before a conflict is
+ *     refused as a 409; at least 1. Ignored in pessimistic mode.
+ */
+@ConfigurationProperties("inventory.concurrency")
+public record InventoryConcurrencyProperties(
+        @DefaultValue("PESSIMISTIC") Mode mode, @DefaultValue("3") int maxAttempts) {
+
+    public enum Mode {
+        /** Lock every balance, wait for whoever holds it, then read. */
+        PESSIMISTIC,
+        /** Read unlocked, then claim the balances drawn from if nobody changed them meanwhile. */
+        OPTIMISTIC
+    }
+
+    public InventoryConcurrencyProperties {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("inventory.concurrency.max-attempts must be >= 1");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.omt.labelmanager.inventory;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+    InventoryLockProperties.class,
+    InventoryConcurrencyProperties.class
+})
+class InventoryLockConfiguration {}
@@ -0,0 +1,26 @@
+package org.omt.labelmanager.inventory;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param waitTimeout the longest any one stock lock wait may take before the write is refused. Zero
+ *     waits indefinitely, as PostgreSQL's {@code lock_timeout} does.
+ * @param failFast refuse a write at once if another one holds a stock balance it needs, rather than
+ *     waiting up to {@code waitTimeout} for it
+ * @param retryAfter how long a refused caller is told to wait before trying again
+ */
+@ConfigurationProperties("inventory.locks")
+public record InventoryLockProperties(
+        @DefaultValue("3s") Duration waitTimeout,
+        @DefaultValue("false") boolean failFast,
+        @DefaultValue("1s") Duration retryAfter) {
+
+    public InventoryLockProperties {
+        if (waitTimeout.isNegative() || retryAfter.isNegative()) {
+            throw new IllegalArgumentException(
+                    "inventory.locks.wait-timeout and retry-after cannot be negative");
+        }
+    }
+}
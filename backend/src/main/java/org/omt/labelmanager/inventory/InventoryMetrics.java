@@ -0,0 +1,157 @@
+package org.omt.labelmanager.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.omt.labelmanager.inventory.domain.DrawBuffer;
+import org.omt.labelmanager.inventory.domain.MutableStockLedger;
+import org.springframework.stereotype.Component;
+
+/**
+ * What the stock ledger costs: how long writers wait for the per-location locks and how often they
+ * run out of budget doing so, how often optimistic writers collide, how many pressings a ledger
+ * spans, how long balance reads take, and how often stock is drawn or refused. Published at {@code
+ * /actuator/prometheus} on the management port.
+ *
+ * <p>Lock waits and outcomes are tagged by {@link Operation} — the use case that took the lock — so
+ * contention between, say, sales and allocations of the same pressing shows up as which side
+ * waited. Tags are the enum's values only; ids never become tags.
+ */
+@Component
+public class InventoryMetrics {
+
+    /** The use case drawing on, or locking, stock. */
+    public enum Operation {
+        SALE,
+        RETURN,
+        ALLOCATION,
+        BANDCAMP_CANCELLATION;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Operation, Timer> lockWaits = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> lockTimeouts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> conflicts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> draws = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejections = new EnumMap<>(Operation.class);
+    private final DistributionSummary ledgerPressings;
+    private final Timer balanceQueries;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Operation operation : Operation.values()) {
+            lockWaits.put(
+                    operation,
+                    Timer.builder("inventory.lock.wait")
+                            .description("Time spent acquiring the stock locks a write needs")
+                            .tag("operation", operation.tag())
+                            .publishPercentileHistogram()
+                            .register(registry));
+            lockTimeouts.put(
+                    operation,
+                    Counter.builder("inventory.lock.timeouts")
+                            .description("Stock writes refused for want of a lock in time")
+                            .tag("operation", operation.tag())
+                            .register(registry));
+            conflicts.put(
+                    operation,
+                    Counter.builder("inventory.optimistic.conflicts")
+                            .description("Optimistic stock writes that found their stock changed")
+                            .tag("operation", operation.tag())
+                            .register(registry));
+            draws.put(
+                    operation,
+                    Counter.builder("inventory.draws")
+                            .description("Line items drawn from a stock ledger")
+                            .tag("operation", operation.tag())
+                            .register(registry));
+            rejections.put(
+                    operation,
+                    Counter.builder("inventory.insufficient")
+                            .description("Writes refused for insufficient inventory")
+                            .tag("operation", operation.tag())
+                            .register(registry));
+        }
+        this.ledgerPressings =
+                DistributionSummary.builder("inventory.ledger.pressings")
+                        .description("Pressings in each stock ledger read under lock")
+                        .publishPercentileHistogram()
+                        .register(registry);
+        this.balanceQueries =
+                Timer.builder("inventory.balance.query")
+                        .description("Location balance queries")
+                        .publishPercentileHistogram()
+                        .register(registry);
+    }
+
+    /** Starts timing a lock acquisition; hand the result to {@link #lockAcquired}. */
+    public Timer.Sample startLockWait() {
+        return Timer.start(registry);
+    }
+
+    public void lockAcquired(Timer.Sample sample, Operation operation) {
+        sample.stop(lockWaits.get(operation));
+    }
+
+    /**
+     * Ends a lock acquisition that ran out of budget: the wait is timed like any other, and counted
+     * as a timeout.
+     */
+    public void lockTimedOut(Timer.Sample sample, Operation operation) {
+        sample.stop(lockWaits.get(operation));
+        lockTimeouts.get(operation).increment();
+    }
+
+    /**
+     * Counts an optimistic write whose stock changed under it. If it was the last attempt, the
+     * write is refused, and that is counted as a timeout too: to the caller it is the same 409.
+     */
+    public void conflicted(Operation operation, boolean refused) {
+        conflicts.get(operation).increment();
+        if (refused) {
+            lockTimeouts.get(operation).increment();
+        }
+    }
+
+    public void ledgerRead(int pressings) {
+        ledgerPressings.record(pressings);
+    }
+
+    public <T> T timeBalanceQuery(Supplier<T> query) {
+        return balanceQueries.record(query);
+    }
+
+    /**
+     * {@link MutableStockLedger#draw}, counted as a draw or, if it throws, a rejection.
+     *
+     * @return the number of pressings the draw spanned
+     */
+    public int draw(MutableStockLedger ledger, int quantity, DrawBuffer into, Operation operation) {
+        int pressingsDrawn;
+        try {
+            pressingsDrawn = ledger.draw(quantity, into);
+        } catch (InsufficientInventoryException e) {
+            rejected(operation);
+            throw e;
+        }
+        drawn(operation);
+        return pressingsDrawn;
+    }
+
+    public void drawn(Operation operation) {
+        draws.get(operation).increment();
+    }
+
+    public void rejected(Operation operation) {
+        rejections.get(operation).increment();
+    }
+}
@@ -0,0 +1,106 @@
+package org.omt.labelmanager.inventory;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties.Mode;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Which of two ways sales and returns keep concurrent writers from drawing the same units.
+ *
+ * <p>Pessimistic, the default: lock every balance the write will touch, waiting for whoever holds
+ * it, and only then read. Every write pays the lock round trips and is serialised against every
+ * other write to the same pressing at the same location, conflict or not.
+ *
+ * <p>Optimistic: read the balances unlocked, draw from them, then claim the balances drawn from —
+ * which succeeds only if none of them changed since it was read and no other write holds one. A
+ * write that loses is rolled back and run again from the start against fresh balances. Cheaper when
+ * most writes touch stock nobody else is writing, as most sales do; worse when many writes fight
+ * over one pressing, since each retry repeats the whole use case. The claim takes the same
+ * per-location locks the pessimistic mode does — on the balances the write credits as well as
+ * those it draws from — so the two modes exclude each other correctly, and a deadlock between two
+ * writes, should one happen anyway, is retried like any other conflict. Edits, which lock what
+ * they reverse before they draw, deletes, bulk imports and allocations keep locking in either
+ * mode.
+ */
+@Component
+public class StockConcurrency {
+
+    private static final Logger log = LoggerFactory.getLogger(StockConcurrency.class);
+
+    private static final String DEADLOCK_DETECTED = "40P01";
+
+    private final InventoryConcurrencyProperties properties;
+    private final InventoryLockProperties lockProperties;
+    private final InventoryMetrics metrics;
+
+    public StockConcurrency(
+            InventoryConcurrencyProperties properties,
+            InventoryLockProperties lockProperties,
+            InventoryMetrics metrics) {
+        this.properties = properties;
+        this.lockProperties = lockProperties;
+        this.metrics = metrics;
+    }
+
+    /** Whether ledgers are read unlocked and the balances drawn from claimed afterwards. */
+    public boolean optimistic() {
+        return properties.mode() == Mode.OPTIMISTIC;
+    }
+
+    /**
+     * Runs {@code write} — a whole use case, with its own transaction — again each time it fails
+     * on a {@link StockConflictException} or a deadlock, up to the configured number of attempts.
+     *
+     * <p>Called outside the use case's transaction, since each attempt needs a fresh one: the
+     * failed one is rolled back, and its snapshot of the balances is what went stale. Called inside
+     * one — a write joining a transaction someone else began — it runs once, because retrying
+     * would re-run it in a transaction already marked for rollback. Pessimistic writes never
+     * conflict, so in that mode this only runs {@code write}.
+     *
+     * @throws StockLockTimeoutException once every attempt has conflicted, as the 409 a write
+     *     refused for want of a lock gets
+     */
+    public <T> T retryOnConflict(Operation operation, Supplier<T> write) {
+        if (!optimistic() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return write.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (RuntimeException e) {
+                StockConflictException conflict = asConflict(e);
+                if (conflict == null) {
+                    throw e;
+                }
+                boolean refused = attempt >= properties.maxAttempts();
+                metrics.conflicted(operation, refused);
+                if (refused) {
+                    throw new StockLockTimeoutException(lockProperties.retryAfter(), conflict);
+                }
+                log.debug("{} conflicted on attempt {}; retrying", operation, attempt);
+            }
+        }
+    }
+
+    /**
+     * The conflict {@code e} is, or null if it is some other failure. A deadlock counts: Postgres
+     * rolled the write back whole, and run again it will most likely not meet the other one the
+     * same way — whatever layer it surfaced through, Hibernate's or Spring's.
+     */
+    private static StockConflictException asConflict(RuntimeException e) {
+        if (e instanceof StockConflictException conflict) {
+            return conflict;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && DEADLOCK_DETECTED.equals(sql.getSQLState())) {
+                return new StockConflictException("Deadlocked with another write", e);
+            }
+        }
+        return null;
+    }
+}
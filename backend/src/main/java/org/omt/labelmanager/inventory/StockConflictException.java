@@ -0,0 +1,21 @@
+package org.omt.labelmanager.inventory;
+
+/**
+ * Thrown when an optimistic stock write finds that a balance it drew from changed after it read
+ * it, or is being changed by another write right now — or when Postgres ended it as one side of a
+ * deadlock, which {@link StockConcurrency#retryOnConflict} treats the same way.
+ *
+ * <p>Nothing has been written that the rollback will not undo, so the whole write can be run again
+ * against fresh balances — which {@link StockConcurrency#retryOnConflict} does, a bounded number
+ * of times, before giving up with a {@link StockLockTimeoutException}.
+ */
+public class StockConflictException extends RuntimeException {
+
+    public StockConflictException(String message) {
+        super(message);
+    }
+
+    public StockConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,94 @@
+package org.omt.labelmanager.inventory;
+
+import java.sql.SQLException;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds how long a stock write waits for its locks. Unbounded, a large sale holding a pressing's
+ * balances parks every other write to them on a servlet thread, and enough of those exhaust the
+ * pool and stall endpoints that never touch stock.
+ *
+ * <p>The budget is PostgreSQL's {@code lock_timeout}, set for the locking statements only and reset
+ * once they hold their locks. It bounds each wait — the share lock on the pressings, and each
+ * per-location advisory lock — not the statements that follow. In fail-fast mode the advisory
+ * locks are tried with {@code pg_try_advisory_xact_lock} instead, which does not wait at all.
+ *
+ * <p>A write refused either way has written nothing, and surfaces as {@link
+ * StockLockTimeoutException}: a 409 with {@code Retry-After}, not a 500.
+ */
+@Component
+public class StockLockBudget {
+
+    /** PostgreSQL's lock_not_available, raised when {@code lock_timeout} expires. */
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryLockProperties properties;
+    private final InventoryMetrics metrics;
+
+    public StockLockBudget(
+            JdbcTemplate jdbcTemplate,
+            InventoryLockProperties properties,
+            InventoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Runs {@code locking} — every lock one write needs, taken in one go — within the budget,
+     * timing the wait under {@code operation}. Call inside the transaction the locks protect.
+     *
+     * @throws StockLockTimeoutException if a lock was not granted in time, counted as a timeout
+     */
+    public void acquire(Operation operation, Runnable locking) {
+        boolean bounded = !properties.waitTimeout().isZero();
+        var lockWait = metrics.startLockWait();
+        try {
+            if (bounded) {
+                jdbcTemplate.queryForObject(
+                        "SELECT set_config('lock_timeout', ?, true)",
+                        String.class,
+                        properties.waitTimeout().toMillis() + "ms");
+            }
+            locking.run();
+        } catch (StockLockTimeoutException e) {
+            metrics.lockTimedOut(lockWait, operation);
+            throw e;
+        } catch (RuntimeException e) {
+            if (!isLockNotAvailable(e)) {
+                throw e;
+            }
+            metrics.lockTimedOut(lockWait, operation);
+            throw new StockLockTimeoutException(properties.retryAfter(), e);
+        }
+        if (bounded) {
+            jdbcTemplate.execute("SET LOCAL lock_timeout TO DEFAULT");
+        }
+        metrics.lockAcquired(lockWait, operation);
+    }
+
+    /** Whether the per-location locks are tried, and a held one refused, rather than waited for. */
+    public boolean failFast() {
+        return properties.failFast();
+    }
+
+    /** The refusal for a lock found held in fail-fast mode. */
+    public StockLockTimeoutException refused() {
+        return new StockLockTimeoutException(properties.retryAfter(), null);
+    }
+
+    // Matched on the SQL state rather than on an exception type: a timed-out share lock comes
+    // through Hibernate and a timed-out advisory lock through a native query, and the two are
+    // translated differently on the way out. Deadlocks (40P01) are deliberately not matched.
+    private static boolean isLockNotAvailable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package org.omt.labelmanager.inventory;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a stock write could not get the locks it needs within the lock-wait budget: another
+ * write to the same stock held them for longer or, in fail-fast mode, held them at all.
+ *
+ * <p>Nothing was written, so the caller may simply try again — after {@link #getRetryAfter()}.
+ */
+public class StockLockTimeoutException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public StockLockTimeoutException(Duration retryAfter, Throwable cause) {
+        super("The stock is being changed by another request; try again shortly", cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,67 @@
+package org.omt.labelmanager.inventory.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Draws collected across a whole sale, as two parallel primitive arrays.
+ *
+ * <p>{@link MutableStockLedger#draw} appends here instead of returning a list per line item, so a
+ * sale allocates one buffer however many line items it has. {@link #toRunDraws()} turns the result
+ * into records once, for the caller that records a movement per draw.
+ */
+public final class DrawBuffer {
+
+    private long[] runIds;
+    private int[] quantities;
+    private int size;
+
+    /** Room for {@code capacity} draws before growing — a line item's worth each is usual. */
+    public DrawBuffer(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.runIds = new long[initial];
+        this.quantities = new int[initial];
+    }
+
+    void add(long productionRunId, int quantity) {
+        if (size == runIds.length) {
+            runIds = Arrays.copyOf(runIds, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        runIds[size] = productionRunId;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long productionRunId(int index) {
+        return runIds[checkIndex(index)];
+    }
+
+    public int quantity(int index) {
+        return quantities[checkIndex(index)];
+    }
+
+    /** Empties the buffer for reuse, keeping its arrays. */
+    public void clear() {
+        size = 0;
+    }
+
+    /** Every draw so far, in the order drawn. */
+    public List<RunDraw> toRunDraws() {
+        List<RunDraw> draws = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            draws.add(new RunDraw(runIds[i], quantities[i]));
+        }
+        return List.copyOf(draws);
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+}
@@ -0,0 +1,107 @@
+package org.omt.labelmanager.inventory.domain;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.omt.labelmanager.inventory.InsufficientInventoryException;
+
+/**
+ * {@link StockLedger}'s draw rule, drawing in place.
+ *
+ * <p>A sale validates every line item against the ledger under the inventory lock, and the
+ * immutable ledger answers each one with a new list of draws and, through {@link
+ * StockLedger#minus}, a whole new ledger — a map, a list and a sort per line item, for a 200-line
+ * distributor sale tens of thousands of short-lived objects while the lock is held. This one keeps
+ * the balances in primitive arrays, in FIFO order from the start, and takes each draw straight off
+ * them into a {@link DrawBuffer} the caller reuses for the whole sale.
+ *
+ * <p>Not thread-safe, and not meant to be: one sale's validation owns it, and throws it away.
+ */
+public final class MutableStockLedger {
+
+    private final long[] runIds;
+    private final LocalDate[] manufacturedOn;
+    private final int[] onHand;
+    private int total;
+    // Pressings before this index are empty and stay empty: FIFO drains them front to back.
+    private int head;
+
+    private MutableStockLedger(long[] runIds, LocalDate[] manufacturedOn, int[] onHand) {
+        this.runIds = runIds;
+        this.manufacturedOn = manufacturedOn;
+        this.onHand = onHand;
+        for (int quantity : onHand) {
+            total += quantity;
+        }
+    }
+
+    /** A drawable copy of {@code ledger}, whose pressings are already in FIFO order. */
+    public static MutableStockLedger of(StockLedger ledger) {
+        List<RunStock> runs = ledger.runs();
+        int pressings = runs.size();
+        long[] runIds = new long[pressings];
+        LocalDate[] manufacturedOn = new LocalDate[pressings];
+        int[] onHand = new int[pressings];
+        for (int i = 0; i < pressings; i++) {
+            RunStock run = runs.get(i);
+            runIds[i] = run.productionRunId();
+            manufacturedOn[i] = run.manufacturedOn();
+            onHand[i] = run.onHand();
+        }
+        return new MutableStockLedger(runIds, manufacturedOn, onHand);
+    }
+
+    /** How many pressings the ledger covers, sold out or not. */
+    public int pressings() {
+        return runIds.length;
+    }
+
+    /** Everything still on hand, across every pressing. */
+    public int onHand() {
+        return total;
+    }
+
+    /**
+     * Takes {@code quantity} units out of the oldest pressings first, exactly as {@link
+     * StockLedger#drawFifo} would, and appends the split to {@code into}.
+     *
+     * <p>All or nothing: a draw that does not fit throws before anything is taken.
+     *
+     * @return how many entries were appended — one per pressing drawn from
+     * @throws InsufficientInventoryException if the ledger does not hold that many units
+     */
+    public int draw(int quantity, DrawBuffer into) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("A draw must be for at least one unit: " + quantity);
+        }
+        if (quantity > total) {
+            throw new InsufficientInventoryException(quantity, total);
+        }
+
+        int appended = 0;
+        int outstanding = quantity;
+        for (int i = head; outstanding > 0; i++) {
+            int taken = Math.min(onHand[i], outstanding);
+            if (taken > 0) {
+                onHand[i] -= taken;
+                outstanding -= taken;
+                into.add(runIds[i], taken);
+                appended++;
+            }
+        }
+        total -= quantity;
+        while (head < onHand.length && onHand[head] == 0) {
+            head++;
+        }
+        return appended;
+    }
+
+    /** The balances as they stand now, as an immutable ledger. */
+    public StockLedger toStockLedger() {
+        List<RunStock> runs = new ArrayList<>(runIds.length);
+        for (int i = 0; i < runIds.length; i++) {
+            runs.add(new RunStock(runIds[i], manufacturedOn[i], onHand[i]));
+        }
+        return new StockLedger(runs);
+    }
+}
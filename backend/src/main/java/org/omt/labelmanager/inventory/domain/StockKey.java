@@ -0,0 +1,9 @@
+package org.omt.labelmanager.inventory.domain;
+
+import org.omt.labelmanager.shared.Format;
+
+/**
+ * A release in one format — the stock a line item draws from. A release's vinyl and CD pressings
+ * are separate stock, so this, not the release, is what has a ledger.
+ */
+public record StockKey(Long releaseId, Format format) {}
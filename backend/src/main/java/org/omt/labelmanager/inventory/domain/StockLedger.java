@@ -18,6 +18,9 @@ import org.omt.labelmanager.inventory.InsufficientInventoryException;
  *
  * <p>Balances are supplied by the caller, already summed from the ledger. Nothing here touches a
  * database, so the rule is testable without one.
+ *
+ * <p>The sale and return paths draw through {@link MutableStockLedger} instead, which applies the
+ * same rule in place; {@link #drawFifo} delegates to it, so there is one implementation of FIFO.
  */
 public record StockLedger(List<RunStock> runs) {
 
@@ -60,28 +63,9 @@ public record StockLedger(List<RunStock> runs) {
      * @throws InsufficientInventoryException if the location does not hold that many units
      */
     public List<RunDraw> drawFifo(int quantity) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("A draw must be for at least one unit: " + quantity);
-        }
-
-        int onHand = onHand();
-        if (quantity > onHand) {
-            throw new InsufficientInventoryException(quantity, onHand);
-        }
-
-        List<RunDraw> draws = new ArrayList<>();
-        int outstanding = quantity;
-        for (RunStock run : runs) {
-            if (outstanding == 0) {
-                break;
-            }
-            int taken = Math.min(run.onHand(), outstanding);
-            if (taken > 0) {
-                draws.add(new RunDraw(run.productionRunId(), taken));
-                outstanding -= taken;
-            }
-        }
-        return List.copyOf(draws);
+        var draws = new DrawBuffer(runs.size());
+        MutableStockLedger.of(this).draw(quantity, draws);
+        return draws.toRunDraws();
     }
 
     /**
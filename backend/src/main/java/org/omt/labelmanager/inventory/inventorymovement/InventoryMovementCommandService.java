@@ -3,15 +3,27 @@ package org.omt.labelmanager.inventory.inventorymovement;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
 import org.omt.labelmanager.inventory.LocationType;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockConflictException;
+import org.omt.labelmanager.inventory.StockLockBudget;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.NewMovement;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementBatchInserter;
 import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementEntity;
 import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -21,9 +33,16 @@ class InventoryMovementCommandService implements InventoryMovementCommandApi {
             LoggerFactory.getLogger(InventoryMovementCommandService.class);
 
     private final InventoryMovementRepository repository;
+    private final InventoryMovementBatchInserter batchInserter;
+    private final StockLockBudget lockBudget;
 
-    InventoryMovementCommandService(InventoryMovementRepository repository) {
+    InventoryMovementCommandService(
+            InventoryMovementRepository repository,
+            InventoryMovementBatchInserter batchInserter,
+            StockLockBudget lockBudget) {
         this.repository = repository;
+        this.batchInserter = batchInserter;
+        this.lockBudget = lockBudget;
     }
 
     @Override
@@ -80,16 +99,179 @@ class InventoryMovementCommandService implements InventoryMovementCommandApi {
                 referenceId);
     }
 
+    @Override
+    @Transactional
+    public void recordMovements(List<NewMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        batchInserter.insert(movements, Instant.now());
+        log.debug("Recorded {} movements in batch", movements.size());
+    }
+
+    // MANDATORY, not REQUIRED: a lock is only worth taking if it is held until the caller's write
+    // commits. Called without a transaction, REQUIRED would open one, take the locks, and release
+    // them on return — no error, no lock, and the oversell back.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockBalances(Collection<RunLocation> locations) {
+        List<AdvisoryKey> keys =
+                locations.stream()
+                        .filter(location -> location.location().type() != LocationType.EXTERNAL)
+                        .map(AdvisoryKey::of)
+                        .distinct()
+                        .sorted()
+                        .toList();
+        if (lockBudget.failFast()) {
+            // Tried rather than waited for, so the order no longer matters: a held key refuses
+            // the write instead of queueing it.
+            for (AdvisoryKey key : keys) {
+                if (!repository.tryAdvisoryXactLock(key.runKey(), key.locationKey())) {
+                    throw lockBudget.refused();
+                }
+            }
+        } else {
+            keys.forEach(key -> repository.advisoryXactLock(key.runKey(), key.locationKey()));
+        }
+        log.debug("Locked {} stock balances", keys.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimBalances(Collection<VersionedBalance> balances, InventoryLocation to) {
+        List<VersionedBalance> claimed =
+                balances.stream()
+                        .filter(balance -> balance.location().type() != LocationType.EXTERNAL)
+                        .distinct()
+                        .toList();
+        Stream<RunLocation> credited =
+                to.type() == LocationType.EXTERNAL
+                        ? Stream.empty()
+                        : balances.stream()
+                                .map(balance -> new RunLocation(balance.productionRunId(), to));
+        List<AdvisoryKey> keys =
+                Stream.concat(claimed.stream().map(VersionedBalance::runLocation), credited)
+                        .map(AdvisoryKey::of)
+                        .distinct()
+                        .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (!repository.tryAdvisoryXactLocks(
+                keys.stream().mapToInt(AdvisoryKey::runKey).toArray(),
+                keys.stream().mapToInt(AdvisoryKey::locationKey).toArray())) {
+            throw new StockConflictException("Another write holds stock this one moves");
+        }
+
+        if (claimed.isEmpty()) {
+            return;
+        }
+        long unchanged =
+                repository.countUnchangedBalances(
+                        claimed.stream().mapToLong(VersionedBalance::productionRunId).toArray(),
+                        claimed.stream()
+                                .map(balance -> balance.location().type().name())
+                                .toArray(String[]::new),
+                        claimed.stream()
+                                .mapToLong(
+                                        balance ->
+                                                balance.location().id() == null
+                                                        ? 0
+                                                        : balance.location().id())
+                                .toArray(),
+                        claimed.stream().mapToLong(VersionedBalance::version).toArray());
+        if (unchanged != claimed.size()) {
+            throw new StockConflictException("Stock this write drew from changed after it read it");
+        }
+        log.debug("Claimed {} stock balances, {} locked in all", claimed.size(), keys.size());
+    }
+
     @Override
     @Transactional
     public void deleteMovementsByReference(MovementType movementType, Long referenceId) {
-        repository.deleteByMovementTypeAndReferenceId(movementType, referenceId);
+        deleteMovements(
+                movementType,
+                repository.findByMovementTypeAndReferenceId(movementType, referenceId));
+        log.debug("Deleted all {} movements with referenceId={}", movementType, referenceId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteMovementsByReference(
+            MovementType movementType, Long referenceId, Collection<Long> productionRunIds) {
+        if (productionRunIds.isEmpty()) {
+            return;
+        }
+        deleteMovements(
+                movementType,
+                repository.findByMovementTypeAndReferenceIdAndProductionRunIdIn(
+                        movementType, referenceId, productionRunIds));
+        log.debug(
+                "Deleted {} movements with referenceId={} for {} production runs",
+                movementType,
+                referenceId,
+                productionRunIds.size());
+    }
+
+    private void deleteMovements(
+            MovementType movementType, List<InventoryMovementEntity> movements) {
+        lockBudget.acquire(
+                movementType == MovementType.SALE ? Operation.SALE : Operation.RETURN,
+                () ->
+                        lockBalances(
+                                movements.stream()
+                                        .flatMap(InventoryMovementCommandService::balancesTouchedBy)
+                                        .toList()));
+        repository.deleteAll(movements);
         // Flushed deliberately, not left to the provider. Callers reverse a sale's movements and
         // then re-read the balances to revalidate the new line items, and those balances are
         // computed by a native query — which JPA does not promise to flush pending deletes before.
         // Without this, an edit that reuses the stock it just released can be rejected as
         // insufficient.
         repository.flush();
-        log.debug("Deleted all {} movements with referenceId={}", movementType, referenceId);
+    }
+
+    private static Stream<RunLocation> balancesTouchedBy(InventoryMovementEntity movement) {
+        return Stream.of(
+                new RunLocation(
+                        movement.getProductionRunId(),
+                        new InventoryLocation(
+                                movement.getFromLocationType(), movement.getFromLocationId())),
+                new RunLocation(
+                        movement.getProductionRunId(),
+                        new InventoryLocation(
+                                movement.getToLocationType(), movement.getToLocationId())));
+    }
+
+    /**
+     * The key a (run, location) is locked under, and the order locks are taken in.
+     *
+     * <p>Sorted on the keys themselves rather than on the run and location they came from: should
+     * two pairs ever map to the same key, they share a lock, and ordering by anything else could
+     * then take that lock at two different points in two transactions.
+     */
+    private record AdvisoryKey(int runKey, int locationKey) implements Comparable<AdvisoryKey> {
+
+        private static final Comparator<AdvisoryKey> LOCK_ORDER =
+                Comparator.comparingInt(AdvisoryKey::runKey)
+                        .thenComparingInt(AdvisoryKey::locationKey);
+
+        static AdvisoryKey of(RunLocation runLocation) {
+            InventoryLocation location = runLocation.location();
+            int locationKey =
+                    switch (location.type()) {
+                        case DISTRIBUTOR -> Long.hashCode(location.id());
+                        case WAREHOUSE -> -1;
+                        case BANDCAMP -> -2;
+                        case EXTERNAL -> -3;
+                    };
+            return new AdvisoryKey(Long.hashCode(runLocation.productionRunId()), locationKey);
+        }
+
+        @Override
+        public int compareTo(AdvisoryKey other) {
+            return LOCK_ORDER.compare(this, other);
+        }
     }
 }
@@ -1,23 +1,31 @@
 package org.omt.labelmanager.inventory.inventorymovement;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
 import org.omt.labelmanager.inventory.LocationType;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementCursor;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementFilter;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementPage;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
 import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
 class InventoryMovementQueryService implements InventoryMovementQueryApi {
 
     private final InventoryMovementRepository repository;
+    private final InventoryMetrics metrics;
 
-    InventoryMovementQueryService(InventoryMovementRepository repository) {
+    InventoryMovementQueryService(
+            InventoryMovementRepository repository, InventoryMetrics metrics) {
         this.repository = repository;
+        this.metrics = metrics;
     }
 
     @Override
@@ -28,14 +36,31 @@ class InventoryMovementQueryService implements InventoryMovementQueryApi {
     }
 
     @Override
-    public Map<Long, List<InventoryMovement>> findByProductionRunIds(
-            Collection<Long> productionRunIds) {
-        if (productionRunIds.isEmpty()) {
-            return Map.of();
+    public MovementPage findPageByProductionRunId(
+            Long productionRunId, MovementFilter filter, MovementCursor after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE + ", was " + limit);
         }
-        return repository.findByProductionRunIdInOrderByOccurredAtDesc(productionRunIds).stream()
-                .map(InventoryMovement::fromEntity)
-                .collect(Collectors.groupingBy(InventoryMovement::productionRunId));
+        // One row more than the page: if it comes back, there is a next page.
+        List<InventoryMovement> movements =
+                repository
+                        .findPageOfProductionRun(
+                                productionRunId,
+                                filter.movementType(),
+                                filter.locationType(),
+                                filter.locationId(),
+                                after.occurredAt(),
+                                after.id(),
+                                Limit.of(limit + 1))
+                        .stream()
+                        .map(InventoryMovement::fromEntity)
+                        .toList();
+        if (movements.size() <= limit) {
+            return new MovementPage(movements, null);
+        }
+        List<InventoryMovement> page = movements.subList(0, limit);
+        return new MovementPage(page, MovementCursor.after(page.getLast()));
     }
 
     @Override
@@ -43,11 +68,46 @@ class InventoryMovementQueryService implements InventoryMovementQueryApi {
         if (productionRunIds.isEmpty()) {
             return List.of();
         }
-        return repository.findLocationBalances(productionRunIds).stream()
+        return metrics.timeBalanceQuery(() -> repository.findLocationBalances(productionRunIds))
+                .stream()
                 .map(InventoryMovementQueryService::toLocationBalance)
                 .toList();
     }
 
+    @Override
+    public List<LocationBalance> balancesAsOf(Collection<Long> productionRunIds, Instant asOf) {
+        if (productionRunIds.isEmpty()) {
+            return List.of();
+        }
+        return repository.findLocationBalancesAsOf(productionRunIds, asOf).stream()
+                .map(InventoryMovementQueryService::toLocationBalance)
+                .toList();
+    }
+
+    @Override
+    public List<VersionedBalance> versionedBalancesAt(
+            Collection<Long> productionRunIds, InventoryLocation location) {
+        if (productionRunIds.isEmpty() || location.type() == LocationType.EXTERNAL) {
+            return List.of();
+        }
+        return metrics
+                .timeBalanceQuery(
+                        () ->
+                                repository.findVersionedBalances(
+                                        productionRunIds,
+                                        location.type().name(),
+                                        location.id() == null ? 0 : location.id()))
+                .stream()
+                .map(
+                        row ->
+                                new VersionedBalance(
+                                        ((Number) row[0]).longValue(),
+                                        location,
+                                        ((Number) row[1]).intValue(),
+                                        ((Number) row[2]).longValue()))
+                .toList();
+    }
+
     @Override
     public int getCurrentInventory(Long productionRunId, Long distributorId) {
         return onHandAt(productionRunId, InventoryLocation.distributor(distributorId));
@@ -0,0 +1,12 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import org.omt.labelmanager.inventory.InventoryLocation;
+
+/**
+ * A location where the {@code stock_balance} projection and the movement ledger disagree.
+ *
+ * @param projected what {@code stock_balance} says is on hand
+ * @param ledger what replaying every movement says is on hand — the correct figure
+ */
+record StockBalanceDrift(
+        Long productionRunId, InventoryLocation location, int projected, int ledger) {}
@@ -0,0 +1,72 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import java.util.List;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.LocationType;
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks the {@code stock_balance} projection against the ledger it is derived from, and rebuilds
+ * it when they disagree.
+ *
+ * <p>The V34 trigger keeps the two in step, so drift means something bypassed it — a trigger
+ * disabled for a bulk load, a balance row edited by hand. The ledger is the truth in every case.
+ */
+@Service
+class StockBalanceReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(StockBalanceReconciler.class);
+
+    private final InventoryMovementRepository repository;
+
+    StockBalanceReconciler(InventoryMovementRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Every location where the projection is wrong, without changing anything. */
+    @Transactional(readOnly = true)
+    public List<StockBalanceDrift> verify() {
+        return repository.findStockBalanceDrift().stream()
+                .map(StockBalanceReconciler::toDrift)
+                .toList();
+    }
+
+    /**
+     * Rewrites every drifted balance from the ledger.
+     *
+     * <p>Movement writes wait for the duration; reads do not. Cheap when nothing has drifted, and
+     * it only runs when {@link #verify()} found something.
+     *
+     * @return what was wrong before the rebuild
+     */
+    @Transactional
+    public List<StockBalanceDrift> rebuild() {
+        repository.lockAgainstWrites();
+        List<StockBalanceDrift> drift = verify();
+        if (drift.isEmpty()) {
+            return drift;
+        }
+        int rewritten = repository.rebuildStockBalancesFromLedger();
+        int zeroed = repository.zeroStockBalancesWithoutMovements();
+        log.info(
+                "Rebuilt stock balances from the ledger: {} rewritten, {} zeroed",
+                rewritten,
+                zeroed);
+        return drift;
+    }
+
+    /** Row shape: {@code (production_run_id, location_type, location_id, projected, ledger)}. */
+    private static StockBalanceDrift toDrift(Object[] row) {
+        return new StockBalanceDrift(
+                ((Number) row[0]).longValue(),
+                new InventoryLocation(
+                        LocationType.valueOf((String) row[1]),
+                        row[2] == null ? null : ((Number) row[2]).longValue()),
+                ((Number) row[3]).intValue(),
+                ((Number) row[4]).intValue());
+    }
+}
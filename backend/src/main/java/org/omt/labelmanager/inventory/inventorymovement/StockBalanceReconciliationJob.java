@@ -0,0 +1,47 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replays the ledger on a schedule and repairs {@code stock_balance} if it has drifted.
+ *
+ * <p>A separate bean from {@link StockBalanceReconciler} so each of verify and rebuild runs in its
+ * own transaction: the verify takes no lock, and the rebuild — which blocks movement writes — only
+ * runs when there is something to fix. Drift is logged at WARN per location because it always
+ * means a write went around the trigger, and someone should find out which.
+ *
+ * <p>Nightly by default; {@code inventory.stock-balance.reconcile-cron: "-"} turns it off.
+ */
+@Component
+class StockBalanceReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StockBalanceReconciliationJob.class);
+
+    private final StockBalanceReconciler reconciler;
+
+    StockBalanceReconciliationJob(StockBalanceReconciler reconciler) {
+        this.reconciler = reconciler;
+    }
+
+    @Scheduled(cron = "${inventory.stock-balance.reconcile-cron:0 30 3 * * *}")
+    void reconcile() {
+        if (reconciler.verify().isEmpty()) {
+            log.debug("Stock balances match the ledger");
+            return;
+        }
+        List<StockBalanceDrift> drift = reconciler.rebuild();
+        drift.forEach(
+                d ->
+                        log.warn(
+                                "Stock balance drift for production run {} at {}: projected {},"
+                                        + " ledger {}",
+                                d.productionRunId(),
+                                d.location(),
+                                d.projected(),
+                                d.ledger()));
+    }
+}
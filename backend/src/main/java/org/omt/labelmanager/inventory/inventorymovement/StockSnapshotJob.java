@@ -0,0 +1,26 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes a stock snapshot on a schedule.
+ *
+ * <p>Early on the first of every month by default, so that there is a snapshot just after each
+ * month end — and after each year end, the date a valuation asks about most.
+ * {@code inventory.stock-snapshot.cron: "-"} turns it off.
+ */
+@Component
+class StockSnapshotJob {
+
+    private final StockSnapshotter snapshotter;
+
+    StockSnapshotJob(StockSnapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    @Scheduled(cron = "${inventory.stock-snapshot.cron:0 15 3 1 * *}")
+    void takeSnapshot() {
+        snapshotter.takeSnapshot();
+    }
+}
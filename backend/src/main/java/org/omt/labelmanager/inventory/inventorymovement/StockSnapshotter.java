@@ -0,0 +1,50 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checkpoints every location balance into {@code stock_snapshot}, so that a balance at a past date
+ * starts from the nearest snapshot rather than from the first movement.
+ *
+ * <p>Each snapshot is the previous one plus the movements recorded since, so taking one costs a
+ * period's movements and a copy of the previous snapshot, never the whole ledger. The V39 trigger
+ * keeps every snapshot in step when an older movement is deleted or changed afterwards.
+ */
+@Service
+class StockSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(StockSnapshotter.class);
+
+    private final InventoryMovementRepository repository;
+
+    StockSnapshotter(InventoryMovementRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Takes a snapshot up to the newest movement, unless nothing has been recorded since the last
+     * one.
+     *
+     * <p>Movement writes wait for the duration, as for {@link StockBalanceReconciler#rebuild()}:
+     * ids are handed out before commit, so without the lock a movement with an id below the
+     * watermark could commit after the snapshot was taken and never be counted in it.
+     *
+     * @return the watermark of the latest snapshot, new or not; 0 if the ledger is empty
+     */
+    @Transactional
+    public long takeSnapshot() {
+        repository.lockAgainstWrites();
+        long previous = repository.findLatestSnapshotWatermark();
+        long watermark = repository.findLatestMovementId();
+        if (watermark == previous) {
+            return previous;
+        }
+        int rows = repository.insertStockSnapshot(previous, watermark);
+        log.info("Took stock snapshot at movement {}: {} balances", watermark, rows);
+        return watermark;
+    }
+}
@@ -1,6 +1,8 @@
 package org.omt.labelmanager.inventory.inventorymovement.api;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.MovementType;
 
@@ -50,14 +52,98 @@ public interface InventoryMovementCommandApi {
             MovementType movementType,
             Long referenceId);
 
+    /**
+     * Records many movements in a handful of round trips, for bulk imports.
+     *
+     * <p>The same as calling {@link #recordMovement} for each, all stamped with the same instant,
+     * except that the rows are written as JDBC batches. Takes no locks: the caller has validated
+     * these movements against balances it locked, and those locks are what keep them valid.
+     *
+     * @param movements the movements to record; an empty list records nothing
+     */
+    void recordMovements(List<NewMovement> movements);
+
+    /**
+     * Locks these (run, location) balances until the caller's transaction ends.
+     *
+     * <p>Stock is checked by reading a balance and then inserting the movement that consumes it —
+     * two statements — so two concurrent sales of the last 10 units would both read 10 and both
+     * succeed. Every writer therefore locks every balance it will change, source and destination,
+     * before reading any of them. A second writer for the same (run, location) waits until the
+     * first commits and then reads a balance that includes it; writers with disjoint locations do
+     * not wait at all.
+     *
+     * <p>Pass everything the transaction will write in a single call. The locks are taken in one
+     * fixed order — run, then location — whatever order they are given in, which is what keeps two
+     * writers from each holding what the other waits for. A second call that adds locations
+     * ordered before ones already held breaks that guarantee; re-locking a location already held
+     * is harmless and returns at once.
+     *
+     * <p>EXTERNAL is skipped: it has no stored balance to protect (V35), and nothing draws from it.
+     *
+     * <p>Call it under {@link org.omt.labelmanager.inventory.StockLockBudget#acquire}, which bounds
+     * how long each lock is waited for.
+     *
+     * @param locations every balance the caller will read to validate, or write
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
+     *     transaction, since a lock released on return is no lock at all
+     * @throws org.omt.labelmanager.inventory.StockLockTimeoutException in fail-fast mode, if
+     *     another writer holds one of the balances
+     */
+    void lockBalances(Collection<RunLocation> locations);
+
+    /**
+     * Claims these balances for the caller's transaction if none has changed since it read them —
+     * the optimistic counterpart of {@link #lockBalances}, taken after reading rather than before.
+     *
+     * <p>Tries the same per-location locks {@link #lockBalances} waits for, all in one statement,
+     * and then checks every version in another. Locks first, versions second: checked the other
+     * way round, a writer that committed between the two would have changed a balance the check
+     * had already passed. A held lock or a changed version is a conflict; either way the caller's
+     * reading is stale or about to be, and its transaction should be rolled back and the write
+     * run again. Once claimed, the balances are the caller's until it commits, exactly as if it
+     * had locked them to begin with, so writers in either mode exclude each other.
+     *
+     * <p>The balances the units go to are written too, so their locks are tried in the same
+     * statement — without a version check, since nothing was read from them. Unclaimed, two writers
+     * crediting the same pressings in opposite orders could each hold a row the other waits for,
+     * and Postgres would end one with a deadlock.
+     *
+     * <p>Claim before recording the movements: they change the balances, and with them the
+     * versions.
+     *
+     * @param balances the balances the caller drew from, as read; EXTERNAL is skipped, as it is
+     *     by {@link #lockBalances}
+     * @param to where the units go; its balance of every pressing drawn from is locked too
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
+     *     transaction
+     * @throws org.omt.labelmanager.inventory.StockConflictException if another writer holds one
+     *     of the balances, or has changed one drawn from since it was read
+     */
+    void claimBalances(Collection<VersionedBalance> balances, InventoryLocation to);
+
     /**
      * Deletes all movement records that were created for a specific sale or return.
      *
      * <p>Used when editing or deleting a sale/return to reverse the inventory changes before
-     * applying the new ones.
+     * applying the new ones. Locks the balances those movements touched first, as {@link
+     * #lockBalances} would; an edit that goes on to draw stock elsewhere should lock everything it
+     * will touch, old and new, before calling this.
      *
      * @param movementType the type of movement to delete (SALE or RETURN)
      * @param referenceId the ID of the sale or return whose movements should be deleted
      */
     void deleteMovementsByReference(MovementType movementType, Long referenceId);
+
+    /**
+     * {@link #deleteMovementsByReference(MovementType, Long)}, limited to the movements of these
+     * production runs. For an edit that changes what a sale takes of some releases and not others:
+     * the others keep their movements, and with them the pressings they were drawn from.
+     *
+     * @param movementType the type of movement to delete (SALE or RETURN)
+     * @param referenceId the ID of the sale or return whose movements should be deleted
+     * @param productionRunIds the runs whose movements go; an empty collection deletes nothing
+     */
+    void deleteMovementsByReference(
+            MovementType movementType, Long referenceId, Collection<Long> productionRunIds);
 }
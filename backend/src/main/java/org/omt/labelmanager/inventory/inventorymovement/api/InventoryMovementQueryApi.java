@@ -1,8 +1,9 @@
 package org.omt.labelmanager.inventory.inventorymovement.api;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
 
 /** Public API for inventory movement query operations. */
@@ -17,17 +18,32 @@ public interface InventoryMovementQueryApi {
      */
     List<InventoryMovement> findByProductionRunId(Long productionRunId);
 
+    /** Largest page {@link #findPageByProductionRunId} hands out. */
+    int MAX_PAGE_SIZE = 200;
+
     /**
-     * The same, for many runs in one query — for pages that show every pressing of a release.
+     * One page of a production run's movement history, newest first.
+     *
+     * <p>For display. Balances do not need the history — {@link #balancesFor} has them — so no
+     * screen should have to load all of it.
      *
-     * @param productionRunIds the production runs
-     * @return movements by production run, newest first within each; runs with no movements are
-     *     absent
+     * @param productionRunId the production run ID
+     * @param filter which movements to list; {@link MovementFilter#NONE} for all of them
+     * @param after where the previous page ended; {@link MovementCursor#START} for the first page
+     * @param limit page size, 1 to {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the page size is out of range
      */
-    Map<Long, List<InventoryMovement>> findByProductionRunIds(Collection<Long> productionRunIds);
+    MovementPage findPageByProductionRunId(
+            Long productionRunId, MovementFilter filter, MovementCursor after, int limit);
 
     /**
-     * Every non-zero location balance for these runs, summed in the database.
+     * Every non-zero location balance for these runs, read from the {@code stock_balance}
+     * projection.
+     *
+     * <p>The projection is maintained in the same transaction as each movement write, so it is as
+     * current as the ledger itself — a caller that has just recorded or deleted movements sees
+     * their effect.
      *
      * <p>The one call that answers "how much is where" — the per-location methods below are
      * conveniences over it. Callers needing several runs, or several locations of one run, should
@@ -38,6 +54,37 @@ public interface InventoryMovementQueryApi {
      */
     List<LocationBalance> balancesFor(Collection<Long> productionRunIds);
 
+    /**
+     * Every non-zero location balance for these runs as it stood at an instant: only movements
+     * that occurred before {@code asOf} count. For end-of-day figures, pass the start of the next
+     * day.
+     *
+     * <p>Counts occurrence dates, not recording order, so a pressing recorded in January but
+     * manufactured in December is in December's stock. Reads start from the latest stock snapshot
+     * taken by {@code asOf}, so the cost is the movements around it rather than the run's history.
+     *
+     * @param productionRunIds the production runs; an empty collection returns an empty list
+     * @param asOf the instant; later movements are left out
+     * @return one entry per (run, location) holding a non-zero quantity at {@code asOf}
+     */
+    List<LocationBalance> balancesAsOf(Collection<Long> productionRunIds, Instant asOf);
+
+    /**
+     * What one location holds of each of these runs, with the version of each balance, for a
+     * writer that draws without locking and claims afterwards through {@code
+     * InventoryMovementCommandApi.claimBalances}.
+     *
+     * <p>Balance and version come from one statement, so they belong together: a balance read in
+     * one query and its version in another could straddle a concurrent commit.
+     *
+     * @param productionRunIds the production runs; an empty collection returns an empty list
+     * @param location the location; EXTERNAL has no stored balance, so returns nothing
+     * @return one entry per run with a stored balance there, zero balances included; a run that
+     *     never held anything there has none
+     */
+    List<VersionedBalance> versionedBalancesAt(
+            Collection<Long> productionRunIds, InventoryLocation location);
+
     /**
      * Calculates the current inventory held by a specific distributor for a production run.
      *
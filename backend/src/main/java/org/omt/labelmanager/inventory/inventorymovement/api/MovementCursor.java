@@ -0,0 +1,56 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
+
+/**
+ * Where a page of movement history ends: the last movement's time and id.
+ *
+ * <p>History is listed newest first, the id breaking ties between movements recorded at the same
+ * instant, so the next page is every movement ordered strictly after this pair — an index range,
+ * however much history the run has behind it.
+ *
+ * <p>Clients get it as an opaque token.
+ */
+public record MovementCursor(Instant occurredAt, long id) {
+
+    /** After every movement ever recorded, so the page after it is the first. */
+    public static final MovementCursor START =
+            new MovementCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    /** The cursor a page ending with this movement hands out. */
+    public static MovementCursor after(InventoryMovement movement) {
+        return new MovementCursor(movement.occurredAt(), movement.id());
+    }
+
+    public String encode() {
+        String key = occurredAt.getEpochSecond() + ":" + occurredAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token {@link #encode} produced.
+     *
+     * @throws IllegalArgumentException if it is not one
+     */
+    public static MovementCursor decode(String token) {
+        try {
+            String[] parts =
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                            .split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new MovementCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import org.omt.labelmanager.inventory.LocationType;
+import org.omt.labelmanager.inventory.MovementType;
+
+/**
+ * Narrows a production run's movement history. Every field is optional; a null one matches every
+ * movement.
+ *
+ * @param locationType movements out of or into a location of this type
+ * @param locationId with {@code locationType}, only that one location — a distributor's id
+ */
+public record MovementFilter(
+        MovementType movementType, LocationType locationType, Long locationId) {
+
+    /** Matches every movement. */
+    public static final MovementFilter NONE = new MovementFilter(null, null, null);
+}
@@ -0,0 +1,11 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import java.util.List;
+import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
+
+/**
+ * One page of a production run's movement history, newest first.
+ *
+ * @param next where the following page starts; null on the last page
+ */
+public record MovementPage(List<InventoryMovement> movements, MovementCursor next) {}
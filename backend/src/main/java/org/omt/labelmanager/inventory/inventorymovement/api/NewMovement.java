@@ -0,0 +1,22 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+
+/**
+ * One movement to record as part of a batch — the arguments of {@code recordMovement}, as a value.
+ *
+ * @param productionRunId the production run the inventory belongs to
+ * @param from where inventory is coming from
+ * @param to where inventory is going to
+ * @param quantity number of units transferred (always positive)
+ * @param movementType the business event type
+ * @param referenceId optional ID of the sale or return that triggered this movement
+ */
+public record NewMovement(
+        Long productionRunId,
+        InventoryLocation from,
+        InventoryLocation to,
+        int quantity,
+        MovementType movementType,
+        Long referenceId) {}
@@ -0,0 +1,12 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import org.omt.labelmanager.inventory.InventoryLocation;
+
+/**
+ * One production run at one location — the unit inventory is locked in.
+ *
+ * <p>A balance belongs to exactly this pair, so two writers whose pairs are disjoint have nothing
+ * to wait for: two distributors selling the same pressing, or an allocation to Bandcamp alongside
+ * a return from a distributor of a different run.
+ */
+public record RunLocation(Long productionRunId, InventoryLocation location) {}
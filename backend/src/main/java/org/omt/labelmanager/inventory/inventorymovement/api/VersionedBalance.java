@@ -0,0 +1,19 @@
+package org.omt.labelmanager.inventory.inventorymovement.api;
+
+import org.omt.labelmanager.inventory.InventoryLocation;
+
+/**
+ * One stored balance as it was read, with the version it had — what an optimistic writer claims.
+ *
+ * @param productionRunId the run
+ * @param location where the units are
+ * @param onHand units in − units out, as read
+ * @param version bumped by the database (V42) every time {@code onHand} changes
+ */
+public record VersionedBalance(
+        Long productionRunId, InventoryLocation location, int onHand, long version) {
+
+    public RunLocation runLocation() {
+        return new RunLocation(productionRunId, location);
+    }
+}
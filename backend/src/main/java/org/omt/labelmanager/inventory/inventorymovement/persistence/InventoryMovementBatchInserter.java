@@ -0,0 +1,60 @@
+package org.omt.labelmanager.inventory.inventorymovement.persistence;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.omt.labelmanager.inventory.inventorymovement.api.NewMovement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts movements as JDBC batches rather than one {@code save} each.
+ *
+ * <p>{@link InventoryMovementEntity} takes its id from an IDENTITY column, and Hibernate cannot
+ * batch an insert whose generated id it has to read back — so through the repository, N movements
+ * are N round trips. Nothing here needs the ids, so the rows go out in batches and the column
+ * default assigns them. The V34 trigger fires per row as it does for any other insert, so the
+ * {@code stock_balance} projection stays in step.
+ */
+@Repository
+public class InventoryMovementBatchInserter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT =
+            """
+            INSERT INTO inventory_movement (production_run_id,
+                                            from_location_type, from_location_id,
+                                            to_location_type, to_location_id,
+                                            quantity, movement_type, occurred_at, reference_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryMovementBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Inserts every movement, all stamped with {@code occurredAt}. */
+    public void insert(List<NewMovement> movements, Instant occurredAt) {
+        OffsetDateTime stamp = occurredAt.atOffset(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(
+                INSERT,
+                movements,
+                BATCH_SIZE,
+                (statement, movement) -> {
+                    statement.setLong(1, movement.productionRunId());
+                    statement.setString(2, movement.from().type().name());
+                    statement.setObject(3, movement.from().id(), Types.BIGINT);
+                    statement.setString(4, movement.to().type().name());
+                    statement.setObject(5, movement.to().id(), Types.BIGINT);
+                    statement.setInt(6, movement.quantity());
+                    statement.setString(7, movement.movementType().name());
+                    statement.setObject(8, stamp);
+                    statement.setObject(9, movement.referenceId(), Types.BIGINT);
+                });
+    }
+}
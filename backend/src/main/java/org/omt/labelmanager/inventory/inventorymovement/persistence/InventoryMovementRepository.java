@@ -1,9 +1,13 @@
 package org.omt.labelmanager.inventory.inventorymovement.persistence;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import org.omt.labelmanager.inventory.LocationType;
 import org.omt.labelmanager.inventory.MovementType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,11 +15,43 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
 
     List<InventoryMovementEntity> findByProductionRunIdOrderByOccurredAtDesc(Long productionRunId);
 
-    List<InventoryMovementEntity> findByProductionRunIdInOrderByOccurredAtDesc(
-            Collection<Long> productionRunIds);
+    /**
+     * One page of a run's movements, newest first: those ordered after {@code (afterOccurredAt,
+     * afterId)}, as many as {@code limit} allows. A null filter parameter matches every movement.
+     *
+     * <p>The row comparison is a range on the {@code (production_run_id, occurred_at, id)} index
+     * (V38), so a page costs the same however much history lies behind it.
+     */
+    @Query(
+            """
+            SELECT m FROM InventoryMovementEntity m
+            WHERE m.productionRunId = :productionRunId
+              AND (m.occurredAt, m.id) < (:afterOccurredAt, :afterId)
+              AND (:movementType IS NULL OR m.movementType = :movementType)
+              AND (:locationType IS NULL
+                   OR (m.fromLocationType = :locationType
+                       AND (:locationId IS NULL OR m.fromLocationId = :locationId))
+                   OR (m.toLocationType = :locationType
+                       AND (:locationId IS NULL OR m.toLocationId = :locationId)))
+            ORDER BY m.occurredAt DESC, m.id DESC
+            """)
+    List<InventoryMovementEntity> findPageOfProductionRun(
+            @Param("productionRunId") Long productionRunId,
+            @Param("movementType") MovementType movementType,
+            @Param("locationType") LocationType locationType,
+            @Param("locationId") Long locationId,
+            @Param("afterOccurredAt") Instant afterOccurredAt,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    List<InventoryMovementEntity> findByMovementTypeAndReferenceId(
+            MovementType movementType, Long referenceId);
 
     void deleteByMovementTypeAndReferenceId(MovementType movementType, Long referenceId);
 
+    List<InventoryMovementEntity> findByMovementTypeAndReferenceIdAndProductionRunIdIn(
+            MovementType movementType, Long referenceId, Collection<Long> productionRunIds);
+
     @Query(
             """
             SELECT DISTINCT m.productionRunId
@@ -28,15 +64,105 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
             @Param("distributorId") Long distributorId);
 
     /**
-     * Every location balance for these runs, in one query.
+     * Σ in − Σ out per (run, location), replayed from the ledger itself.
      *
      * <p>Each movement contributes twice — plus to where it went, minus to where it came from — so
-     * summing the legs gives {@code Σ in − Σ out} per location without loading a single row into
-     * memory. This replaces reading every movement for a run and summing it in Java, which cost one
-     * query per run per location on a release page.
+     * summing the legs gives the balance without loading a single row into memory. Until V34 this
+     * was how every balance was read; it is now the reference {@code stock_balance} is checked
+     * against, and nothing on a request path should use it.
+     *
+     * <p>EXTERNAL is left out, as it is from the projection since V35.
+     */
+    String LEDGER_BALANCES =
+            """
+            SELECT leg.production_run_id, leg.location_type, leg.location_id,
+                   SUM(leg.delta) AS on_hand
+            FROM (SELECT production_run_id,
+                         to_location_type AS location_type,
+                         to_location_id   AS location_id,
+                         quantity         AS delta
+                  FROM inventory_movement
+                  UNION ALL
+                  SELECT production_run_id, from_location_type, from_location_id, -quantity
+                  FROM inventory_movement) leg
+            GROUP BY leg.production_run_id, leg.location_type, leg.location_id
+            HAVING leg.location_type <> 'EXTERNAL'
+            """;
+
+    /**
+     * Every location balance for these runs, in one query.
+     *
+     * <p>Reads the {@code stock_balance} projection, which the V34 trigger keeps in step with every
+     * insert and delete on {@code inventory_movement} in the writer's own transaction. One index
+     * lookup per location, however long the run's history — summing the ledger instead cost a scan
+     * of every movement the run ever had, paid on the sale path while holding the inventory lock.
+     *
+     * <p>EXTERNAL has no row (V35): every sale moves units there, so a row for it would be one
+     * that every sale of the run updates. It is derived instead — every movement nets to zero
+     * across its two legs, so EXTERNAL holds minus whatever every other location holds.
+     *
+     * <p>Native because the projection has no entity: it is written only by the database.
+     *
+     * @return rows of {@code (production_run_id, location_type, location_id, on_hand)}; locations
+     *     whose balance nets to zero are omitted
+     */
+    @Query(
+            value =
+                    """
+                    SELECT production_run_id, location_type, location_id, on_hand
+                    FROM stock_balance
+                    WHERE production_run_id IN (:productionRunIds)
+                      AND on_hand <> 0
+                    UNION ALL
+                    SELECT production_run_id, 'EXTERNAL', CAST(NULL AS BIGINT), -SUM(on_hand)
+                    FROM stock_balance
+                    WHERE production_run_id IN (:productionRunIds)
+                    GROUP BY production_run_id
+                    HAVING SUM(on_hand) <> 0
+                    """,
+            nativeQuery = true)
+    List<Object[]> findLocationBalances(
+            @Param("productionRunIds") Collection<Long> productionRunIds);
+
+    /**
+     * The stored balance and its version at one location, for each of these runs that has one.
+     *
+     * <p>Both from the same row in the same statement, so they are consistent with each other.
+     * Zero balances are included: unlike {@link #findLocationBalances}, this is read to be claimed,
+     * and a claim compares versions, not quantities.
+     *
+     * @param locationId the location's id, or 0 for a location type that has none — as the unique
+     *     index keys it
+     * @return rows of {@code (production_run_id, on_hand, version)}
+     */
+    @Query(
+            value =
+                    """
+                    SELECT production_run_id, on_hand, version
+                    FROM stock_balance
+                    WHERE production_run_id IN (:productionRunIds)
+                      AND location_type = :locationType
+                      AND COALESCE(location_id, 0) = :locationId
+                    """,
+            nativeQuery = true)
+    List<Object[]> findVersionedBalances(
+            @Param("productionRunIds") Collection<Long> productionRunIds,
+            @Param("locationType") String locationType,
+            @Param("locationId") long locationId);
+
+    /**
+     * Every location balance for these runs counting only movements that occurred before {@code
+     * asOf} — stock at a past date, for a year-end valuation.
      *
-     * <p>Native because JPQL has no {@code UNION}, and expressing the two legs any other way means
-     * one aggregate per location type.
+     * <p>Starts from the latest {@code stock_snapshot} taken by then, watermark W, rather than from
+     * the first movement. The snapshot counts every movement up to W; occurrence dates do not
+     * follow ids — a PRODUCTION movement is dated on its manufacturing day, whenever it is recorded
+     * — so the balance is the snapshot, plus movements after W that occurred before {@code asOf},
+     * minus movements up to W that did not. The first range is what was recorded since the
+     * snapshot, the second what is dated after {@code asOf} — neither is the run's whole history.
+     * With no snapshot W is 0 and the ledger is summed from the start.
+     *
+     * <p>EXTERNAL is derived as in {@link #findLocationBalances}.
      *
      * @return rows of {@code (production_run_id, location_type, location_id, on_hand)}; locations
      *     whose balance nets to zero are omitted
@@ -44,25 +170,247 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
     @Query(
             value =
                     """
+                    WITH checkpoint AS (SELECT COALESCE(MAX(as_of_movement_id), 0) AS watermark
+                                        FROM stock_snapshot
+                                        WHERE taken_at <= :asOf),
+                         leg AS (SELECT s.production_run_id, s.location_type, s.location_id,
+                                        s.on_hand AS delta
+                                 FROM stock_snapshot s
+                                          JOIN checkpoint c ON s.as_of_movement_id = c.watermark
+                                 WHERE s.production_run_id IN (:productionRunIds)
+                                 UNION ALL
+                                 SELECT m.production_run_id, m.to_location_type,
+                                        m.to_location_id, m.quantity
+                                 FROM inventory_movement m
+                                          JOIN checkpoint c ON m.id > c.watermark
+                                 WHERE m.production_run_id IN (:productionRunIds)
+                                   AND m.occurred_at < :asOf
+                                 UNION ALL
+                                 SELECT m.production_run_id, m.from_location_type,
+                                        m.from_location_id, -m.quantity
+                                 FROM inventory_movement m
+                                          JOIN checkpoint c ON m.id > c.watermark
+                                 WHERE m.production_run_id IN (:productionRunIds)
+                                   AND m.occurred_at < :asOf
+                                 UNION ALL
+                                 SELECT m.production_run_id, m.to_location_type,
+                                        m.to_location_id, -m.quantity
+                                 FROM inventory_movement m
+                                          JOIN checkpoint c ON m.id <= c.watermark
+                                 WHERE m.production_run_id IN (:productionRunIds)
+                                   AND m.occurred_at >= :asOf
+                                 UNION ALL
+                                 SELECT m.production_run_id, m.from_location_type,
+                                        m.from_location_id, m.quantity
+                                 FROM inventory_movement m
+                                          JOIN checkpoint c ON m.id <= c.watermark
+                                 WHERE m.production_run_id IN (:productionRunIds)
+                                   AND m.occurred_at >= :asOf),
+                         balance AS (SELECT production_run_id, location_type, location_id,
+                                            SUM(delta) AS on_hand
+                                     FROM leg
+                                     WHERE location_type <> 'EXTERNAL'
+                                     GROUP BY production_run_id, location_type, location_id)
+                    SELECT production_run_id, location_type, location_id, on_hand
+                    FROM balance
+                    WHERE on_hand <> 0
+                    UNION ALL
+                    SELECT production_run_id, 'EXTERNAL', CAST(NULL AS BIGINT), -SUM(on_hand)
+                    FROM balance
+                    GROUP BY production_run_id
+                    HAVING SUM(on_hand) <> 0
+                    """,
+            nativeQuery = true)
+    List<Object[]> findLocationBalancesAsOf(
+            @Param("productionRunIds") Collection<Long> productionRunIds,
+            @Param("asOf") Instant asOf);
+
+    /**
+     * Every (run, location) where the projection disagrees with the ledger.
+     *
+     * <p>One statement, so both sides are read at the same snapshot and a movement committed
+     * mid-check cannot show up as drift. A location missing from either side counts as zero.
+     *
+     * @return rows of {@code (production_run_id, location_type, location_id, projected, ledger)}
+     */
+    @Query(
+            value =
+                    "WITH ledger AS ("
+                            + LEDGER_BALANCES
+                            + """
+                            )
+                            SELECT COALESCE(b.production_run_id, l.production_run_id),
+                                   COALESCE(b.location_type, l.location_type),
+                                   COALESCE(b.location_id, l.location_id),
+                                   COALESCE(b.on_hand, 0),
+                                   COALESCE(l.on_hand, 0)
+                            FROM stock_balance b
+                                     FULL OUTER JOIN ledger l
+                                                     ON b.production_run_id = l.production_run_id
+                                                         AND b.location_type = l.location_type
+                                                         AND COALESCE(b.location_id, 0)
+                                                             = COALESCE(l.location_id, 0)
+                            WHERE COALESCE(b.on_hand, 0) <> COALESCE(l.on_hand, 0)
+                            """,
+            nativeQuery = true)
+    List<Object[]> findStockBalanceDrift();
+
+    /**
+     * Takes the transaction-scoped advisory lock for one (run, location) key pair, waiting for
+     * whoever holds it. Released when the transaction ends; taking it again in the same transaction
+     * returns at once.
+     *
+     * <p>The two-{@code int} form, whose key space PostgreSQL keeps apart from the single-{@code
+     * bigint} one Flyway uses for its own lock. Selected from rather than called because the
+     * function returns {@code void}, which Hibernate cannot map as a result.
+     */
+    @Query(
+            value = "SELECT 1 FROM pg_advisory_xact_lock(:runKey, :locationKey)",
+            nativeQuery = true)
+    Integer advisoryXactLock(@Param("runKey") int runKey, @Param("locationKey") int locationKey);
+
+    /**
+     * {@link #advisoryXactLock}, without the wait: takes the lock if it is free and returns whether
+     * it did. For fail-fast mode, where a held lock refuses the write.
+     */
+    @Query(
+            value = "SELECT pg_try_advisory_xact_lock(:runKey, :locationKey)",
+            nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("runKey") int runKey, @Param("locationKey") int locationKey);
+
+    /**
+     * Blocks movement writes until the calling transaction ends, while still allowing reads.
+     *
+     * <p>For a rebuild only: between reading the ledger and writing the corrected balance, a
+     * concurrent movement would otherwise update the row through the trigger and then be
+     * overwritten by the stale total.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE inventory_movement IN SHARE MODE", nativeQuery = true)
+    void lockAgainstWrites();
+
+    /** Overwrites every projected balance that differs from the ledger, creating missing rows. */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO stock_balance"
+                            + " (production_run_id, location_type, location_id, on_hand) "
+                            + LEDGER_BALANCES
+                            + """
+                            ON CONFLICT (production_run_id, location_type,
+                                         (COALESCE(location_id, 0)))
+                                DO UPDATE SET on_hand = EXCLUDED.on_hand
+                                WHERE stock_balance.on_hand <> EXCLUDED.on_hand
+                            """,
+            nativeQuery = true)
+    int rebuildStockBalancesFromLedger();
+
+    /** Zeroes projected balances for locations the ledger has no movement at all for. */
+    @Modifying
+    @Query(
+            value =
+                    """
+                    UPDATE stock_balance b
+                    SET on_hand = 0
+                    WHERE b.on_hand <> 0
+                      AND NOT EXISTS (SELECT 1
+                                      FROM inventory_movement m
+                                      WHERE m.production_run_id = b.production_run_id
+                                        AND ((m.to_location_type = b.location_type
+                                                  AND COALESCE(m.to_location_id, 0)
+                                                      = COALESCE(b.location_id, 0))
+                                             OR (m.from_location_type = b.location_type
+                                                  AND COALESCE(m.from_location_id, 0)
+                                                      = COALESCE(b.location_id, 0))))
+                    """,
+            nativeQuery = true)
+    int zeroStockBalancesWithoutMovements();
+
+    /** The watermark of the latest snapshot; 0 before the first one. */
+    @Query(
+            value = "SELECT COALESCE(MAX(as_of_movement_id), 0) FROM stock_snapshot",
+            nativeQuery = true)
+    long findLatestSnapshotWatermark();
+
+    /** The id of the newest movement; 0 while the ledger is empty. */
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM inventory_movement", nativeQuery = true)
+    long findLatestMovementId();
+
+    /**
+     * Writes a snapshot at {@code watermark}: the one at {@code previous}, plus every movement
+     * after it up to {@code watermark}. Zero balances are kept, so that the next snapshot carries
+     * every location forward.
+     *
+     * <p>Only exact if no movement at or below {@code watermark} can still commit — call it under
+     * {@link #lockAgainstWrites()}.
+     */
+    @Modifying
+    @Query(
+            value =
+                    """
+                    INSERT INTO stock_snapshot (production_run_id, location_type, location_id,
+                                                on_hand, as_of_movement_id, taken_at)
                     SELECT leg.production_run_id, leg.location_type, leg.location_id,
-                           SUM(leg.delta) AS on_hand
-                    FROM (SELECT production_run_id,
-                                 to_location_type AS location_type,
-                                 to_location_id   AS location_id,
-                                 quantity         AS delta
+                           SUM(leg.delta), :watermark, now()
+                    FROM (SELECT production_run_id, location_type, location_id, on_hand AS delta
+                          FROM stock_snapshot
+                          WHERE as_of_movement_id = :previous
+                          UNION ALL
+                          SELECT production_run_id, to_location_type, to_location_id, quantity
                           FROM inventory_movement
-                          WHERE production_run_id IN (:productionRunIds)
+                          WHERE id > :previous AND id <= :watermark
                           UNION ALL
-                          SELECT production_run_id,
-                                 from_location_type,
-                                 from_location_id,
+                          SELECT production_run_id, from_location_type, from_location_id,
                                  -quantity
                           FROM inventory_movement
-                          WHERE production_run_id IN (:productionRunIds)) leg
+                          WHERE id > :previous AND id <= :watermark) leg
+                    WHERE leg.location_type <> 'EXTERNAL'
                     GROUP BY leg.production_run_id, leg.location_type, leg.location_id
-                    HAVING SUM(leg.delta) <> 0
                     """,
             nativeQuery = true)
-    List<Object[]> findLocationBalances(
-            @Param("productionRunIds") Collection<Long> productionRunIds);
+    int insertStockSnapshot(@Param("previous") long previous, @Param("watermark") long watermark);
+
+    /**
+     * {@link #tryAdvisoryXactLock} for many key pairs in one round trip, pair by pair at the same
+     * index: tries every one and returns whether all of them were taken. Some may have been taken
+     * even if it returns false; they go when the transaction rolls back.
+     */
+    @Query(
+            value =
+                    """
+                    SELECT bool_and(pg_try_advisory_xact_lock(k.run_key, k.location_key))
+                    FROM unnest(CAST(:runKeys AS int[]), CAST(:locationKeys AS int[]))
+                             AS k(run_key, location_key)
+                    """,
+            nativeQuery = true)
+    boolean tryAdvisoryXactLocks(
+            @Param("runKeys") int[] runKeys, @Param("locationKeys") int[] locationKeys);
+
+    /**
+     * How many of these balances still have the version they were read with, matched index by
+     * index across the arrays. A balance whose row has gone — its run deleted — does not count.
+     *
+     * @param locationIds each location's id, or 0 for a location type that has none
+     */
+    @Query(
+            value =
+                    """
+                    SELECT count(*)
+                    FROM stock_balance b
+                             JOIN unnest(CAST(:productionRunIds AS bigint[]),
+                                         CAST(:locationTypes AS varchar[]),
+                                         CAST(:locationIds AS bigint[]),
+                                         CAST(:versions AS bigint[]))
+                                      AS c(production_run_id, location_type, location_id, version)
+                                  ON b.production_run_id = c.production_run_id
+                                      AND b.location_type = c.location_type
+                                      AND COALESCE(b.location_id, 0) = c.location_id
+                    WHERE b.version = c.version
+                    """,
+            nativeQuery = true)
+    long countUnchangedBalances(
+            @Param("productionRunIds") long[] productionRunIds,
+            @Param("locationTypes") String[] locationTypes,
+            @Param("locationIds") long[] locationIds,
+            @Param("versions") long[] versions);
 }
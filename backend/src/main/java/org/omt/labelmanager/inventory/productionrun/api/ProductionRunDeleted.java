@@ -0,0 +1,8 @@
+package org.omt.labelmanager.inventory.productionrun.api;
+
+/**
+ * Published when a production run has been deleted.
+ *
+ * @param productionRunId the id of the deleted production run
+ */
+public record ProductionRunDeleted(Long productionRunId) {}
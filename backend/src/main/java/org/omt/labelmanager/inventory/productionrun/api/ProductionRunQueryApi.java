@@ -2,16 +2,23 @@ package org.omt.labelmanager.inventory.productionrun.api;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.domain.StockLedger;
 import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
-import org.omt.labelmanager.shared.Format;
 
 public interface ProductionRunQueryApi {
 
     Optional<ProductionRun> findById(Long productionRunId);
 
+    /**
+     * Whether the production run exists and is a pressing of this release. Answered from a cache
+     * that deletes evict, so checking ownership on every request costs no query.
+     */
+    boolean belongsToRelease(Long productionRunId, Long releaseId);
+
     List<ProductionRun> findByReleaseId(Long releaseId);
 
     /**
@@ -23,25 +30,91 @@ public interface ProductionRunQueryApi {
     List<ProductionRun> findByReleaseIds(Collection<Long> releaseIds);
 
     /**
-     * What a location holds of a release in a given format, pressing by pressing, ready to draw
-     * from — with those pressings locked until the caller's transaction ends.
+     * What a location holds of each of these releases in a given format, pressing by pressing,
+     * ready to draw from — with every balance the draw will change locked until the caller's
+     * transaction ends.
      *
      * <p>This is how callers decide which pressing stock comes out of. It replaces picking the most
      * recent run and hoping it covers the quantity, which ignored every earlier pressing that still
      * had stock.
      *
-     * <p>Locking is not optional, which is why there is no unlocked variant to reach for. Checking
-     * stock and recording the movement that consumes it are two statements, so an unlocked reader
-     * that then writes lets two concurrent sales of the last units both succeed. A caller that only
-     * wants to display stock wants {@code InventoryMovementQueryApi.balancesFor}, which does not
-     * pretend to be drawable-from.
+     * <p>Locks are per (production run, location), for both ends of the movement the caller is
+     * about to record: {@code from} for every pressing, because that is the balance being checked,
+     * and {@code to} because it is written too. Two distributors selling the same pressing take
+     * disjoint locks and do not wait for each other. Everything is locked in one call, in one fixed
+     * order, which is why this takes every key at once rather than one key per call: callers
+     * locking key by key would take locks in whatever order their line items came in.
      *
-     * @param releaseId the release
-     * @param format the format — a release's vinyl and CD pressings are separate stock
-     * @param location where the stock is being taken from
-     * @return the ledger; empty if the release has no pressings in that format
+     * <p>Checking stock and recording the movement that consumes it are two statements, so an
+     * unlocked reader that then writes lets two concurrent sales of the last units both succeed.
+     * The one unlocked alternative, {@link #versionedLedgersAt}, makes its caller claim what it
+     * drew before writing. A caller that only wants to display stock wants {@code
+     * InventoryMovementQueryApi.balancesFor}, which does not pretend to be drawable-from.
+     *
+     * @param stock every release and format the caller will draw from
+     * @param from where the stock is being taken from
+     * @param to where it is going
+     * @return a ledger per key; empty for a key whose release has no pressings in that format
      * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
      *     transaction, since a lock released on return is no lock at all
      */
-    StockLedger lockedLedgerAt(Long releaseId, Format format, InventoryLocation location);
+    Map<StockKey, StockLedger> lockedLedgersAt(
+            Collection<StockKey> stock, InventoryLocation from, InventoryLocation to);
+
+    /**
+     * {@link #lockedLedgersAt(Collection, InventoryLocation, InventoryLocation)} for many source
+     * locations at once — for a batch of sales through several distributors.
+     *
+     * <p>One call rather than one per location for the same reason the single-location form takes
+     * every key at once: every lock the batch needs is taken in a single fixed order. Locking
+     * distributor by distributor would take them in batches, each ordered but not against the
+     * others, and two imports covering the same distributors could deadlock.
+     *
+     * @param stockBySource every release and format the caller will draw, by where it is drawn from
+     * @param to where all of it is going
+     * @return a ledger per key, per source location
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
+     *     transaction
+     */
+    Map<InventoryLocation, Map<StockKey, StockLedger>> lockedLedgersAt(
+            Map<InventoryLocation, ? extends Collection<StockKey>> stockBySource,
+            InventoryLocation to);
+
+    /**
+     * {@link #lockedLedgersAt(Collection, InventoryLocation, InventoryLocation)} without the
+     * per-location locks, for optimistic mode: the ledgers as they stand, and the version of every
+     * balance behind them.
+     *
+     * <p>Nothing stops another writer drawing the same units meanwhile, so the ledgers are only a
+     * proposal. Before recording any movement, the caller hands the balances it drew from — {@link
+     * VersionedLedgers#drawnBy} — to {@code InventoryMovementCommandApi.claimBalances}, which
+     * refuses if any changed; the caller's transaction is then rolled back and its write run again.
+     * Where the movements go needs no version check, since adding to a balance cannot oversell it,
+     * though the claim still locks it.
+     *
+     * <p>The pressings are still share-locked, as they are for a locked read. That lock does not
+     * make sellers wait for each other, only for a pressing being edited or deleted, and without
+     * it a pressing deleted between the read and the write would fail the movement's foreign key.
+     *
+     * @param stock every release and format the caller will draw from
+     * @param from where the stock is being taken from
+     * @return the ledgers and the versioned balances they were read from
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
+     *     transaction, since the claim that follows must be made in the same one
+     */
+    VersionedLedgers versionedLedgersAt(Collection<StockKey> stock, InventoryLocation from);
+
+    /**
+     * Takes the locks {@link #lockedLedgersAt} would, without reading anything.
+     *
+     * <p>For edits, which reverse old movements before drawing new ones and so touch two sets of
+     * stock. Both sets have to be locked in one call before either is touched: locking the old
+     * set, then the new, would take the locks in two batches, each ordered but not ordered
+     * against each other. The later {@code lockedLedgersAt} re-takes locks already held, which
+     * does not wait.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a
+     *     transaction
+     */
+    void lockStock(Collection<StockKey> stock, InventoryLocation from, InventoryLocation to);
 }
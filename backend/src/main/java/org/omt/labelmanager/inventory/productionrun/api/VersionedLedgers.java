@@ -0,0 +1,38 @@
+package org.omt.labelmanager.inventory.productionrun.api;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
+
+/**
+ * Ledgers read without locking, and the versioned balances they were read from — what an
+ * optimistic writer draws from, and then claims.
+ *
+ * @param ledgers a ledger per key, as {@code lockedLedgersAt} would return
+ * @param balanceByRun the balance each pressing's stock was read from, by run id; a pressing that
+ *     never held anything at the location has none, and nothing can be drawn from it
+ */
+public record VersionedLedgers(
+        Map<StockKey, StockLedger> ledgers, Map<Long, VersionedBalance> balanceByRun) {
+
+    public VersionedLedgers {
+        ledgers = Map.copyOf(ledgers);
+        balanceByRun = Map.copyOf(balanceByRun);
+    }
+
+    /**
+     * The balances these draws came out of, each once: what to hand {@code
+     * InventoryMovementCommandApi.claimBalances}. Only those — a pressing the draws skipped can
+     * change without invalidating them.
+     */
+    public List<VersionedBalance> drawnBy(Collection<RunDraw> draws) {
+        return draws.stream()
+                .map(draw -> balanceByRun.get(draw.productionRunId()))
+                .distinct()
+                .toList();
+    }
+}
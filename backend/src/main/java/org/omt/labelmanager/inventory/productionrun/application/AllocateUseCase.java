@@ -1,10 +1,15 @@
 package org.omt.labelmanager.inventory.productionrun.application;
 
+import java.util.List;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockBudget;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,24 +24,42 @@ class AllocateUseCase {
     private final ProductionRunRepository repository;
     private final InventoryMovementQueryApi inventoryMovementQueryApi;
     private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final InventoryMetrics metrics;
+    private final StockLockBudget lockBudget;
 
     AllocateUseCase(
             ProductionRunRepository repository,
             InventoryMovementQueryApi inventoryMovementQueryApi,
-            InventoryMovementCommandApi inventoryMovementCommandApi) {
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            InventoryMetrics metrics,
+            StockLockBudget lockBudget) {
         this.repository = repository;
         this.inventoryMovementQueryApi = inventoryMovementQueryApi;
         this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.metrics = metrics;
+        this.lockBudget = lockBudget;
     }
 
     @Transactional
     public void execute(Long productionRunId, InventoryLocation toLocation, int quantity) {
-        // Locked, not merely fetched: reading the warehouse balance and inserting the movement that
-        // consumes it are two statements, so two concurrent allocations of the last units would
-        // both see them free. Same mutex the sale path takes.
-        if (repository.lockById(productionRunId).isEmpty()) {
-            throw new IllegalArgumentException("Production run not found: " + productionRunId);
-        }
+        lockBudget.acquire(
+                Operation.ALLOCATION,
+                () -> {
+                    if (repository.shareLockById(productionRunId).isEmpty()) {
+                        throw new IllegalArgumentException(
+                                "Production run not found: " + productionRunId);
+                    }
+
+                    // Locked, not merely read: reading the warehouse balance and inserting the
+                    // movement that consumes it are two statements, so two concurrent allocations
+                    // of the last units would both see them free. Both ends, in one call — the
+                    // same per-location locks the sale path takes, so an allocation waits only for
+                    // writers touching this run's warehouse stock or the destination's.
+                    inventoryMovementCommandApi.lockBalances(
+                            List.of(
+                                    new RunLocation(productionRunId, InventoryLocation.warehouse()),
+                                    new RunLocation(productionRunId, toLocation)));
+                });
 
         // Absolute, not a delta: manufacture is a PRODUCTION movement, so the ledger already
         // includes the run's quantity (V33).
@@ -48,6 +71,7 @@ class AllocateUseCase {
                     quantity,
                     available,
                     productionRunId);
+            metrics.rejected(Operation.ALLOCATION);
             throw new InsufficientInventoryException(quantity, available);
         }
 
@@ -58,5 +82,6 @@ class AllocateUseCase {
                 quantity,
                 MovementType.ALLOCATION,
                 null);
+        metrics.drawn(Operation.ALLOCATION);
     }
 }
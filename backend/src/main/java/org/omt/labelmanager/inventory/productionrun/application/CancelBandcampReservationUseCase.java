@@ -1,10 +1,15 @@
 package org.omt.labelmanager.inventory.productionrun.application;
 
+import java.util.List;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockBudget;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,25 +20,42 @@ class CancelBandcampReservationUseCase {
     private final ProductionRunRepository repository;
     private final InventoryMovementQueryApi inventoryMovementQueryApi;
     private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final InventoryMetrics metrics;
+    private final StockLockBudget lockBudget;
 
     CancelBandcampReservationUseCase(
             ProductionRunRepository repository,
             InventoryMovementQueryApi inventoryMovementQueryApi,
-            InventoryMovementCommandApi inventoryMovementCommandApi) {
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            InventoryMetrics metrics,
+            StockLockBudget lockBudget) {
         this.repository = repository;
         this.inventoryMovementQueryApi = inventoryMovementQueryApi;
         this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.metrics = metrics;
+        this.lockBudget = lockBudget;
     }
 
     @Transactional
     public void execute(Long productionRunId, int quantity) {
         // Locked before reading, for the same reason as allocation: the check and the movement that
-        // consumes what it checked are two statements.
-        repository.lockById(productionRunId);
+        // consumes what it checked are two statements. Bandcamp is the balance checked, the
+        // warehouse the one written.
+        lockBudget.acquire(
+                Operation.BANDCAMP_CANCELLATION,
+                () -> {
+                    repository.shareLockById(productionRunId);
+                    inventoryMovementCommandApi.lockBalances(
+                            List.of(
+                                    new RunLocation(productionRunId, InventoryLocation.bandcamp()),
+                                    new RunLocation(
+                                            productionRunId, InventoryLocation.warehouse())));
+                });
 
         int held = inventoryMovementQueryApi.getBandcampInventory(productionRunId);
 
         if (quantity > held) {
+            metrics.rejected(Operation.BANDCAMP_CANCELLATION);
             throw new InsufficientInventoryException(quantity, held);
         }
 
@@ -44,5 +66,6 @@ class CancelBandcampReservationUseCase {
                 quantity,
                 MovementType.RETURN,
                 null);
+        metrics.drawn(Operation.BANDCAMP_CANCELLATION);
     }
 }
@@ -4,12 +4,14 @@ import java.time.LocalDate;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunCommandApi;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunDeleted;
 import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
 import org.omt.labelmanager.shared.Format;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,16 +24,19 @@ class ProductionRunCommandApiImpl implements ProductionRunCommandApi {
     private final InventoryMovementCommandApi inventoryMovementCommandApi;
     private final AllocateUseCase allocate;
     private final CancelBandcampReservationUseCase cancelBandcampReservation;
+    private final ApplicationEventPublisher events;
 
     ProductionRunCommandApiImpl(
             ProductionRunRepository repository,
             InventoryMovementCommandApi inventoryMovementCommandApi,
             AllocateUseCase allocate,
-            CancelBandcampReservationUseCase cancelBandcampReservation) {
+            CancelBandcampReservationUseCase cancelBandcampReservation,
+            ApplicationEventPublisher events) {
         this.repository = repository;
         this.inventoryMovementCommandApi = inventoryMovementCommandApi;
         this.allocate = allocate;
         this.cancelBandcampReservation = cancelBandcampReservation;
+        this.events = events;
     }
 
     @Override
@@ -65,6 +70,7 @@ class ProductionRunCommandApiImpl implements ProductionRunCommandApi {
             return false;
         }
         repository.deleteById(id);
+        events.publishEvent(new ProductionRunDeleted(id));
         log.info("Deleted production run with id {}", id);
         return true;
     }
@@ -0,0 +1,55 @@
+package org.omt.labelmanager.inventory.productionrun.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import org.omt.labelmanager.catalog.release.api.ReleaseDeleted;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunDeleted;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Which release each production run is a pressing of, cached for the run endpoints' ownership
+ * check. A run never changes release; deleting it, or its release, evicts it. Only runs that exist
+ * are cached.
+ *
+ * <p>A label's deletion cascades to its runs without a {@link ReleaseDeleted} per release, so
+ * those entries stay until the TTL. Harmless: ids are never reused, and every run endpoint checks
+ * the release against the label first, which fails once the release is gone.
+ */
+@Component
+class ProductionRunOwnership {
+
+    private final ProductionRunRepository repository;
+    private final Cache<Long, Long> releaseByRun;
+
+    ProductionRunOwnership(
+            ProductionRunRepository repository,
+            @Value("${ownership-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ownership-cache.ttl:10m}") Duration ttl) {
+        this.repository = repository;
+        this.releaseByRun =
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    /** The release the run is a pressing of, or empty if there is no such run. */
+    Optional<Long> releaseOf(Long productionRunId) {
+        return Optional.ofNullable(
+                releaseByRun.get(
+                        productionRunId, id -> repository.findReleaseIdById(id).orElse(null)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onProductionRunDeleted(ProductionRunDeleted event) {
+        releaseByRun.invalidate(event.productionRunId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    void onReleaseDeleted(ReleaseDeleted event) {
+        releaseByRun.asMap().values().removeIf(event.releaseId()::equals);
+    }
+}
@@ -1,20 +1,31 @@
 package org.omt.labelmanager.inventory.productionrun.application;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.omt.labelmanager.inventory.LocationType;
+import org.omt.labelmanager.inventory.StockLockBudget;
 import org.omt.labelmanager.inventory.domain.RunStock;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.api.VersionedLedgers;
 import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
-import org.omt.labelmanager.shared.Format;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -28,12 +39,24 @@ class ProductionRunQueryApiImpl implements ProductionRunQueryApi {
 
     private final ProductionRunRepository repository;
     private final InventoryMovementQueryApi inventoryMovementQueryApi;
+    private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final ProductionRunOwnership ownership;
+    private final InventoryMetrics metrics;
+    private final StockLockBudget lockBudget;
 
     ProductionRunQueryApiImpl(
             ProductionRunRepository repository,
-            InventoryMovementQueryApi inventoryMovementQueryApi) {
+            InventoryMovementQueryApi inventoryMovementQueryApi,
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            ProductionRunOwnership ownership,
+            InventoryMetrics metrics,
+            StockLockBudget lockBudget) {
         this.repository = repository;
         this.inventoryMovementQueryApi = inventoryMovementQueryApi;
+        this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.ownership = ownership;
+        this.metrics = metrics;
+        this.lockBudget = lockBudget;
     }
 
     @Override
@@ -41,6 +64,11 @@ class ProductionRunQueryApiImpl implements ProductionRunQueryApi {
         return repository.findById(productionRunId).map(ProductionRun::fromEntity);
     }
 
+    @Override
+    public boolean belongsToRelease(Long productionRunId, Long releaseId) {
+        return ownership.releaseOf(productionRunId).map(releaseId::equals).orElse(false);
+    }
+
     @Override
     public List<ProductionRun> findByReleaseId(Long releaseId) {
         return repository.findByReleaseId(releaseId).stream()
@@ -63,28 +91,155 @@ class ProductionRunQueryApiImpl implements ProductionRunQueryApi {
     // on return — no error, no lock, and the oversell back. This way there is no such caller.
     @Override
     @Transactional(propagation = Propagation.MANDATORY)
-    public StockLedger lockedLedgerAt(Long releaseId, Format format, InventoryLocation location) {
-        return ledgerOf(repository.lockByReleaseIdAndFormat(releaseId, format), location);
+    public Map<StockKey, StockLedger> lockedLedgersAt(
+            Collection<StockKey> stock, InventoryLocation from, InventoryLocation to) {
+        return lockedLedgersAt(Map.of(from, stock), to).get(from);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<InventoryLocation, Map<StockKey, StockLedger>> lockedLedgersAt(
+            Map<InventoryLocation, ? extends Collection<StockKey>> stockBySource,
+            InventoryLocation to) {
+        Map<StockKey, List<ProductionRunEntity>> runsByKey = lock(stockBySource, to);
+
+        // One balance query for every key at every source, read after every lock is held.
+        List<LocationBalance> balances =
+                inventoryMovementQueryApi.balancesFor(
+                        runsByKey.values().stream()
+                                .flatMap(List::stream)
+                                .map(ProductionRunEntity::getId)
+                                .distinct()
+                                .toList());
+
+        Map<InventoryLocation, Map<StockKey, StockLedger>> ledgersBySource = new HashMap<>();
+        stockBySource.forEach(
+                (from, stock) -> {
+                    Map<Long, Integer> onHandByRun =
+                            balances.stream()
+                                    .filter(balance -> balance.isAt(from))
+                                    .collect(
+                                            Collectors.toMap(
+                                                    LocationBalance::productionRunId,
+                                                    LocationBalance::onHand));
+                    Map<StockKey, StockLedger> ledgers = new HashMap<>();
+                    stock.forEach(
+                            key ->
+                                    ledgers.put(
+                                            key,
+                                            ledgerOf(runsByKey.get(key), onHandByRun, from)));
+                    ledgersBySource.put(from, ledgers);
+                });
+        return ledgersBySource;
     }
 
-    private StockLedger ledgerOf(List<ProductionRunEntity> runs, InventoryLocation location) {
-        if (runs.isEmpty()) {
-            return StockLedger.of(List.of());
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public VersionedLedgers versionedLedgersAt(
+            Collection<StockKey> stock, InventoryLocation from) {
+        Map<StockKey, List<ProductionRunEntity>> runsByKey = new HashMap<>();
+        stock.forEach(key -> runsByKey.putIfAbsent(key, new ArrayList<>()));
+        if (runsByKey.isEmpty()) {
+            return new VersionedLedgers(Map.of(), Map.of());
         }
+        // Not under the lock budget: the share lock waits only for an edit of the pressing
+        // itself, and bounding it would cost the two extra round trips this mode exists to save.
+        shareLockRuns(runsByKey);
 
-        Map<Long, Integer> onHandByRun =
+        Map<Long, VersionedBalance> balanceByRun =
                 inventoryMovementQueryApi
-                        .balancesFor(runs.stream().map(ProductionRunEntity::getId).toList())
+                        .versionedBalancesAt(
+                                runsByKey.values().stream()
+                                        .flatMap(List::stream)
+                                        .map(ProductionRunEntity::getId)
+                                        .distinct()
+                                        .toList(),
+                                from)
                         .stream()
-                        .filter(balance -> balance.isAt(location))
                         .collect(
                                 Collectors.toMap(
-                                        LocationBalance::productionRunId, LocationBalance::onHand));
+                                        VersionedBalance::productionRunId, balance -> balance));
+        Map<Long, Integer> onHandByRun = new HashMap<>();
+        balanceByRun.forEach((runId, balance) -> onHandByRun.put(runId, balance.onHand()));
+
+        Map<StockKey, StockLedger> ledgers = new HashMap<>();
+        runsByKey.forEach((key, runs) -> ledgers.put(key, ledgerOf(runs, onHandByRun, from)));
+        return new VersionedLedgers(ledgers, balanceByRun);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockStock(
+            Collection<StockKey> stock, InventoryLocation from, InventoryLocation to) {
+        lock(Map.of(from, stock), to);
+    }
+
+    /**
+     * Share-locks the pressings behind these keys, then locks both ends of the movement for each
+     * of them, at every source, in a single call — so the per-location locks are taken in one
+     * order.
+     *
+     * @return the pressings behind each key, whichever source it was asked for at
+     */
+    private Map<StockKey, List<ProductionRunEntity>> lock(
+            Map<InventoryLocation, ? extends Collection<StockKey>> stockBySource,
+            InventoryLocation to) {
+        Map<StockKey, List<ProductionRunEntity>> runsByKey = new HashMap<>();
+        for (Collection<StockKey> stock : stockBySource.values()) {
+            stock.forEach(key -> runsByKey.putIfAbsent(key, new ArrayList<>()));
+        }
+        if (runsByKey.isEmpty()) {
+            return runsByKey;
+        }
+
+        lockBudget.acquire(
+                operationMovingTo(to),
+                () -> {
+                    shareLockRuns(runsByKey);
+
+                    List<RunLocation> locations = new ArrayList<>();
+                    stockBySource.forEach(
+                            (from, stock) -> {
+                                for (StockKey key : stock) {
+                                    for (ProductionRunEntity run : runsByKey.get(key)) {
+                                        locations.add(new RunLocation(run.getId(), from));
+                                        locations.add(new RunLocation(run.getId(), to));
+                                    }
+                                }
+                            });
+                    inventoryMovementCommandApi.lockBalances(locations);
+                });
+        return runsByKey;
+    }
+
+    /** Share-locks the pressings of every release in {@code runsByKey}, filed under their keys. */
+    private void shareLockRuns(Map<StockKey, List<ProductionRunEntity>> runsByKey) {
+        Set<Long> releaseIds =
+                runsByKey.keySet().stream().map(StockKey::releaseId).collect(Collectors.toSet());
+        for (ProductionRunEntity run : repository.shareLockByReleaseIdIn(releaseIds)) {
+            List<ProductionRunEntity> runs =
+                    runsByKey.get(new StockKey(run.getReleaseId(), run.getFormat()));
+            if (runs != null) {
+                runs.add(run);
+            }
+        }
+    }
+
+    // Only sales and returns lock through here: a sale moves stock out to EXTERNAL, a return moves
+    // it back into the warehouse.
+    private static Operation operationMovingTo(InventoryLocation to) {
+        return to.type() == LocationType.EXTERNAL ? Operation.SALE : Operation.RETURN;
+    }
 
-        // A negative balance means more was sold or returned than the location ever held — a data
-        // error. It is clamped rather than propagated: a ledger cannot hold a negative quantity,
-        // and letting one run's bad data throw would block every sale of the release. Logged
-        // because a clamped balance is otherwise invisible — the stock simply reads as zero.
+    // A negative balance means more was sold or returned than the location ever held — a data
+    // error. It is clamped rather than propagated: a ledger cannot hold a negative quantity, and
+    // letting one run's bad data throw would block every sale of the release. Logged because a
+    // clamped balance is otherwise invisible — the stock simply reads as zero.
+    private StockLedger ledgerOf(
+            List<ProductionRunEntity> runs,
+            Map<Long, Integer> onHandByRun,
+            InventoryLocation location) {
+        metrics.ledgerRead(runs.size());
         return StockLedger.of(
                 runs.stream()
                         .map(
@@ -19,40 +19,28 @@ public interface ProductionRunRepository extends JpaRepository<ProductionRunEnti
     List<ProductionRunEntity> findByReleaseIdAndFormat(Long releaseId, Format format);
 
     /**
-     * The same pressings, locked for the rest of the transaction.
+     * Every pressing of these releases, share-locked for the rest of the transaction.
      *
-     * <p>Stock is checked by summing the movement ledger and then inserting a movement, which is a
-     * read-then-write across two statements: two concurrent sales of the last 10 units would both
-     * read 10 and both succeed. There is no row to lock for a balance — it is a sum — so the
-     * production run itself is the mutex, and every writer that draws from a pressing takes it
-     * before reading. The second transaction blocks until the first commits, then sums a ledger
-     * that includes the first sale.
+     * <p>Not the inventory mutex — that is per (run, location) now, taken through {@code
+     * InventoryMovementCommandApi.lockBalances}. This only keeps the pressings being drawn from
+     * from being deleted or edited mid-draw. {@code FOR SHARE} does not conflict with itself, so
+     * two sales of the same pressing take it side by side.
      *
-     * <p>The mutex is coarser than the thing it protects: a balance belongs to a (release, format,
-     * location), but the lock is per (release, format), so two distributors selling the same
-     * pressing serialise against each other even though their balances are disjoint. Locking per
-     * location would need a row per location, which is exactly what the ledger avoids having.
-     *
-     * <p>Hibernate maps this to {@code FOR NO KEY UPDATE} on PostgreSQL, not {@code FOR UPDATE} —
-     * deliberately, so that the {@code FOR KEY SHARE} locks taken by {@code inventory_movement}'s
-     * foreign key checks do not block on it. It still conflicts with itself, which is all the mutex
-     * needs.
+     * <p>Until the per-location locks, this was a {@code FOR NO KEY UPDATE} per (release, format),
+     * and two distributors selling the same pressing serialised against each other even though
+     * their balances were disjoint.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query(
-            """
-            SELECT p FROM ProductionRunEntity p
-            WHERE p.releaseId = :releaseId AND p.format = :format
-            ORDER BY p.id
-            """)
-    List<ProductionRunEntity> lockByReleaseIdAndFormat(
-            @Param("releaseId") Long releaseId, @Param("format") Format format);
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM ProductionRunEntity p WHERE p.releaseId IN :releaseIds ORDER BY p.id")
+    List<ProductionRunEntity> shareLockByReleaseIdIn(
+            @Param("releaseIds") Collection<Long> releaseIds);
 
-    /**
-     * One pressing, locked for the rest of the transaction — the same mutex, for the paths that
-     * already know which run they are drawing from (allocation, reservation cancellation).
-     */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    /** One pressing, share-locked the same way, for the paths that already know which run. */
+    @Lock(LockModeType.PESSIMISTIC_READ)
     @Query("SELECT p FROM ProductionRunEntity p WHERE p.id = :productionRunId")
-    Optional<ProductionRunEntity> lockById(@Param("productionRunId") Long productionRunId);
+    Optional<ProductionRunEntity> shareLockById(@Param("productionRunId") Long productionRunId);
+
+    /** Just the release the run is a pressing of, for ownership checks. */
+    @Query("SELECT p.releaseId FROM ProductionRunEntity p WHERE p.id = :id")
+    Optional<Long> findReleaseIdById(@Param("id") Long id);
 }
@@ -0,0 +1,10 @@
+package org.omt.labelmanager.inventory.productionrun.web;
+
+import java.util.List;
+
+/**
+ * One page of a production run's movement history, newest first.
+ *
+ * @param nextCursor pass back as {@code cursor} for the next page; null on the last page
+ */
+public record MovementHistoryPage(List<MovementHistoryView> movements, String nextCursor) {}
@@ -2,6 +2,7 @@ package org.omt.labelmanager.inventory.productionrun.web;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -9,13 +10,19 @@ import java.util.stream.Collectors;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.LocationType;
+import org.omt.labelmanager.inventory.MovementType;
 import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementCursor;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementFilter;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementPage;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
 import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.QueryBudget;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,6 +31,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -60,40 +68,90 @@ public class ProductionRunController {
             LocalDate manufacturingDate,
             int quantity) {}
 
+    private void requireRunOfRelease(Long productionRunId, Long releaseId) {
+        if (!queryApi.belongsToRelease(productionRunId, releaseId)) {
+            throw new EntityNotFoundException(
+                    "Production run "
+                            + productionRunId
+                            + " does not belong to release "
+                            + releaseId);
+        }
+    }
+
     /**
-     * The release's production runs, each with its current inventory and movement history.
+     * The release's production runs, each with its current inventory.
      *
      * <p>Locations are reported as a type and an id, not as a resolved name. Naming a distributor
      * here would mean inventory reading from distribution — sideways, and only ever for display.
      * The caller already has {@code /api/labels/{labelId}/distributors} and can join once.
      *
-     * <p>Two queries regardless of how many pressings the release has: one for every balance, one
-     * for every movement. It used to be four per pressing.
+     * <p>One balance query regardless of how many pressings the release has; it used to be four
+     * per pressing. The movement history is no longer included: it grew with every sale, and a
+     * bestseller's page carried years of it. {@link #movements} pages it per run.
+     *
+     * <p>With {@code asOf}, the inventory at the end of that day (UTC) instead — the figure a
+     * year-end valuation needs.
      */
+    @QueryBudget(5)
     @GetMapping
     public List<ProductionRunWithAllocation> productionRuns(
-            @PathVariable Long labelId, @PathVariable Long releaseId) {
+            @PathVariable Long labelId,
+            @PathVariable Long releaseId,
+            @RequestParam(value = "asOf", required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate asOf) {
         requireReleaseOfLabel(releaseId, labelId);
 
         List<ProductionRun> runs = queryApi.findByReleaseId(releaseId);
         List<Long> runIds = runs.stream().map(ProductionRun::id).toList();
 
+        List<LocationBalance> atDate =
+                asOf == null
+                        ? inventoryMovementQueryApi.balancesFor(runIds)
+                        : inventoryMovementQueryApi.balancesAsOf(
+                                runIds, asOf.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
         Map<Long, List<LocationBalance>> balances =
-                inventoryMovementQueryApi.balancesFor(runIds).stream()
-                        .collect(Collectors.groupingBy(LocationBalance::productionRunId));
-        Map<Long, List<InventoryMovement>> movements =
-                inventoryMovementQueryApi.findByProductionRunIds(runIds);
+                atDate.stream().collect(Collectors.groupingBy(LocationBalance::productionRunId));
 
         return runs.stream()
-                .map(
-                        run ->
-                                withAllocation(
-                                        run,
-                                        balances.getOrDefault(run.id(), List.of()),
-                                        movements.getOrDefault(run.id(), List.of())))
+                .map(run -> withAllocation(run, balances.getOrDefault(run.id(), List.of())))
                 .toList();
     }
 
+    /**
+     * One page of a production run's movement history, newest first, optionally narrowed to a
+     * movement type or to movements out of or into a location. {@code distributorId} picks one
+     * distributor when {@code locationType} is {@code DISTRIBUTOR}.
+     */
+    @QueryBudget(5)
+    @GetMapping("/{productionRunId}/movements")
+    public MovementHistoryPage movements(
+            @PathVariable Long labelId,
+            @PathVariable Long releaseId,
+            @PathVariable Long productionRunId,
+            @RequestParam(value = "movementType", required = false) MovementType movementType,
+            @RequestParam(value = "locationType", required = false) LocationType locationType,
+            @RequestParam(value = "distributorId", required = false) Long distributorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        requireReleaseOfLabel(releaseId, labelId);
+        requireRunOfRelease(productionRunId, releaseId);
+        if (distributorId != null && locationType != LocationType.DISTRIBUTOR) {
+            throw new IllegalArgumentException(
+                    "distributorId is only meaningful with locationType DISTRIBUTOR");
+        }
+
+        MovementPage page =
+                inventoryMovementQueryApi.findPageByProductionRunId(
+                        productionRunId,
+                        new MovementFilter(movementType, locationType, distributorId),
+                        cursor == null ? MovementCursor.START : MovementCursor.decode(cursor),
+                        limit);
+        return new MovementHistoryPage(
+                movementHistory(page.movements()),
+                page.next() == null ? null : page.next().encode());
+    }
+
     @PostMapping
     public ResponseEntity<Void> addProductionRun(
             @PathVariable Long labelId,
@@ -116,29 +174,18 @@ public class ProductionRunController {
             @PathVariable Long releaseId,
             @PathVariable Long productionRunId) {
         requireReleaseOfLabel(releaseId, labelId);
-        boolean underThisRelease =
-                queryApi.findById(productionRunId)
-                        .map(run -> releaseId.equals(run.releaseId()))
-                        .orElse(false);
-        if (!underThisRelease) {
-            throw new EntityNotFoundException(
-                    "Production run "
-                            + productionRunId
-                            + " does not belong to release "
-                            + releaseId);
-        }
+        requireRunOfRelease(productionRunId, releaseId);
         commandApi.delete(productionRunId);
         return ResponseEntity.noContent().build();
     }
 
     private ProductionRunWithAllocation withAllocation(
-            ProductionRun run, List<LocationBalance> balances, List<InventoryMovement> movements) {
+            ProductionRun run, List<LocationBalance> balances) {
         return new ProductionRunWithAllocation(
                 run,
                 onHandAt(balances, InventoryLocation.bandcamp()),
                 onHandAt(balances, InventoryLocation.warehouse()),
-                distributorInventories(balances),
-                movementHistory(movements));
+                distributorInventories(balances));
     }
 
     private int onHandAt(List<LocationBalance> balances, InventoryLocation location) {
@@ -6,10 +6,12 @@ import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
 /**
  * View model combining a production run with its inventory data for display on the release detail
  * page.
+ *
+ * <p>Balances only. The movement history grows with every sale, so it is paged separately at
+ * {@code .../production-runs/{productionRunId}/movements} rather than carried here.
  */
 public record ProductionRunWithAllocation(
         ProductionRun productionRun,
         int bandcampInventory,
         int warehouseInventory,
-        List<DistributorInventoryView> distributorInventories,
-        List<MovementHistoryView> movements) {}
+        List<DistributorInventoryView> distributorInventories) {}
@@ -2,6 +2,8 @@ package org.omt.labelmanager.sales.distributorreturn.application;
 
 import java.time.LocalDate;
 import java.util.List;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.omt.labelmanager.inventory.StockConcurrency;
 import org.omt.labelmanager.sales.distributorreturn.api.DistributorReturnCommandApi;
 import org.omt.labelmanager.sales.distributorreturn.domain.DistributorReturn;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
@@ -13,14 +15,17 @@ class DistributorReturnCommandApiImpl implements DistributorReturnCommandApi {
     private final RegisterReturnUseCase registerReturn;
     private final UpdateReturnUseCase updateReturn;
     private final DeleteReturnUseCase deleteReturn;
+    private final StockConcurrency concurrency;
 
     DistributorReturnCommandApiImpl(
             RegisterReturnUseCase registerReturn,
             UpdateReturnUseCase updateReturn,
-            DeleteReturnUseCase deleteReturn) {
+            DeleteReturnUseCase deleteReturn,
+            StockConcurrency concurrency) {
         this.registerReturn = registerReturn;
         this.updateReturn = updateReturn;
         this.deleteReturn = deleteReturn;
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -30,7 +35,11 @@ class DistributorReturnCommandApiImpl implements DistributorReturnCommandApi {
             LocalDate returnDate,
             String notes,
             List<ReturnLineItemInput> lineItems) {
-        return registerReturn.execute(labelId, distributorId, returnDate, notes, lineItems);
+        return concurrency.retryOnConflict(
+                Operation.RETURN,
+                () ->
+                        registerReturn.execute(
+                                labelId, distributorId, returnDate, notes, lineItems));
     }
 
     @Override
@@ -23,7 +23,7 @@ class DistributorReturnQueryApiImpl implements DistributorReturnQueryApi {
     @Override
     @Transactional(readOnly = true)
     public List<DistributorReturn> getReturnsForLabel(Long labelId) {
-        return returnRepository.findByLabelIdOrderByReturnDateDesc(labelId).stream()
+        return returnRepository.findWithLineItemsByLabelId(labelId).stream()
                 .map(returnConverter::toReturn)
                 .toList();
     }
@@ -31,7 +31,7 @@ class DistributorReturnQueryApiImpl implements DistributorReturnQueryApi {
     @Override
     @Transactional(readOnly = true)
     public List<DistributorReturn> getReturnsForDistributor(Long distributorId) {
-        return returnRepository.findByDistributorIdOrderByReturnDateDesc(distributorId).stream()
+        return returnRepository.findWithLineItemsByDistributorId(distributorId).stream()
                 .map(returnConverter::toReturn)
                 .toList();
     }
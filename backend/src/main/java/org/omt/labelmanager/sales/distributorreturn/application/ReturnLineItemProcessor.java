@@ -1,20 +1,24 @@
 package org.omt.labelmanager.sales.distributorreturn.application;
 
 import jakarta.persistence.EntityNotFoundException;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.omt.labelmanager.inventory.StockConcurrency;
+import org.omt.labelmanager.inventory.domain.DrawBuffer;
+import org.omt.labelmanager.inventory.domain.MutableStockLedger;
 import org.omt.labelmanager.inventory.domain.RunDraw;
-import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.api.VersionedLedgers;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
 import org.omt.labelmanager.sales.distributorreturn.infrastructure.DistributorReturnEntity;
 import org.omt.labelmanager.sales.distributorreturn.infrastructure.ReturnLineItemEntity;
-import org.omt.labelmanager.shared.Format;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,11 +35,21 @@ class ReturnLineItemProcessor {
 
     private final ReleaseQueryApi releaseQueryApi;
     private final ProductionRunQueryApi productionRunQueryApi;
+    private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final StockConcurrency concurrency;
+    private final InventoryMetrics metrics;
 
     ReturnLineItemProcessor(
-            ReleaseQueryApi releaseQueryApi, ProductionRunQueryApi productionRunQueryApi) {
+            ReleaseQueryApi releaseQueryApi,
+            ProductionRunQueryApi productionRunQueryApi,
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            StockConcurrency concurrency,
+            InventoryMetrics metrics) {
         this.releaseQueryApi = releaseQueryApi;
         this.productionRunQueryApi = productionRunQueryApi;
+        this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.concurrency = concurrency;
+        this.metrics = metrics;
     }
 
     /**
@@ -47,6 +61,10 @@ class ReturnLineItemProcessor {
      * from. Line items are processed together so two for the same release cannot both be validated
      * against the opening balances.
      *
+     * <p>In optimistic mode the ledgers are read unlocked and the distributor's balances drawn from
+     * are claimed once every line item fits; a return that loses a race throws {@link
+     * org.omt.labelmanager.inventory.StockConflictException} here, before anything is recorded.
+     *
      * @param lineItems the line items from the form, in order
      * @param labelId the label the return belongs to (for release ownership check)
      * @param from the distributor returning the inventory
@@ -60,8 +78,24 @@ class ReturnLineItemProcessor {
             Long labelId,
             InventoryLocation from,
             DistributorReturnEntity returnEntity) {
-        Map<StockKey, StockLedger> ledgers = lockedLedgers(lineItems, from);
-        List<RunDraw> allDraws = new ArrayList<>();
+        if (!concurrency.optimistic()) {
+            return drawAll(lineItems, labelId, lockedLedgers(lineItems, from), returnEntity);
+        }
+        VersionedLedgers read = productionRunQueryApi.versionedLedgersAt(keysOf(lineItems), from);
+        Map<StockKey, MutableStockLedger> ledgers = new HashMap<>();
+        read.ledgers().forEach((key, ledger) -> ledgers.put(key, MutableStockLedger.of(ledger)));
+        List<RunDraw> draws = drawAll(lineItems, labelId, ledgers, returnEntity);
+        inventoryMovementCommandApi.claimBalances(
+                read.drawnBy(draws), InventoryLocation.warehouse());
+        return draws;
+    }
+
+    private List<RunDraw> drawAll(
+            List<ReturnLineItemInput> lineItems,
+            Long labelId,
+            Map<StockKey, MutableStockLedger> ledgers,
+            DistributorReturnEntity returnEntity) {
+        DrawBuffer draws = new DrawBuffer(lineItems.size());
 
         for (var lineItemInput : lineItems) {
             var release =
@@ -84,7 +118,7 @@ class ReturnLineItemProcessor {
             var key = new StockKey(lineItemInput.releaseId(), lineItemInput.format());
             var ledger = ledgers.get(key);
 
-            if (ledger.runs().isEmpty()) {
+            if (ledger.pressings() == 0) {
                 throw new IllegalStateException(
                         "No production run found for release '"
                                 + release.name()
@@ -95,9 +129,8 @@ class ReturnLineItemProcessor {
                                 + "before registering returns.");
             }
 
-            List<RunDraw> draws = ledger.drawFifo(lineItemInput.quantity());
-            ledgers.put(key, ledger.minus(draws));
-            allDraws.addAll(draws);
+            int pressingsDrawn =
+                    metrics.draw(ledger, lineItemInput.quantity(), draws, Operation.RETURN);
 
             returnEntity.addLineItem(
                     new ReturnLineItemEntity(
@@ -106,42 +139,36 @@ class ReturnLineItemProcessor {
                             lineItemInput.quantity()));
 
             log.debug(
-                    "Processed return line item: release={}, format={}, quantity={}, drawn from {}",
+                    "Processed return line item: release={}, format={}, quantity={},"
+                            + " drawn from {} pressings",
                     lineItemInput.releaseId(),
                     lineItemInput.format(),
                     lineItemInput.quantity(),
-                    draws);
+                    pressingsDrawn);
         }
 
-        return List.copyOf(allDraws);
+        return draws.toRunDraws();
     }
 
     /**
      * Locks and reads every ledger this return will draw from, before drawing from any of them.
      *
-     * <p>Sorted, so that a return of [A, B] and a concurrent sale of [B, A] take the two locks in
-     * the same order and one waits, instead of deadlocking and surfacing as a 500.
+     * <p>All at once, so that a return of [A, B] and a concurrent sale of [B, A] take their locks
+     * in the same order and one waits, instead of deadlocking and surfacing as a 500. The
+     * warehouse balances the units go back to are locked too, since they are written.
      */
-    private Map<StockKey, StockLedger> lockedLedgers(
+    private Map<StockKey, MutableStockLedger> lockedLedgers(
             List<ReturnLineItemInput> lineItems, InventoryLocation from) {
-        Map<StockKey, StockLedger> ledgers = new HashMap<>();
-        lineItems.stream()
-                .map(item -> new StockKey(item.releaseId(), item.format()))
-                .distinct()
-                .sorted(StockKey.LOCK_ORDER)
-                .forEach(
-                        key ->
-                                ledgers.put(
-                                        key,
-                                        productionRunQueryApi.lockedLedgerAt(
-                                                key.releaseId(), key.format(), from)));
+        Map<StockKey, MutableStockLedger> ledgers = new HashMap<>();
+        productionRunQueryApi
+                .lockedLedgersAt(keysOf(lineItems), from, InventoryLocation.warehouse())
+                .forEach((key, ledger) -> ledgers.put(key, MutableStockLedger.of(ledger)));
         return ledgers;
     }
 
-    /** Stock is per release and format — a release's vinyl and CD pressings are separate. */
-    private record StockKey(Long releaseId, Format format) {
-
-        static final Comparator<StockKey> LOCK_ORDER =
-                Comparator.comparing(StockKey::releaseId).thenComparing(StockKey::format);
+    private static List<StockKey> keysOf(List<ReturnLineItemInput> lineItems) {
+        return lineItems.stream()
+                .map(item -> new StockKey(item.releaseId(), item.format()))
+                .toList();
     }
 }
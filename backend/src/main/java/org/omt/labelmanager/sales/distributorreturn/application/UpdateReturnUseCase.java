@@ -3,10 +3,13 @@ package org.omt.labelmanager.sales.distributorreturn.application;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.MovementType;
 import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
 import org.omt.labelmanager.sales.distributorreturn.infrastructure.DistributorReturnRepository;
 import org.slf4j.Logger;
@@ -22,12 +25,15 @@ class UpdateReturnUseCase {
     private final DistributorReturnRepository returnRepository;
     private final InventoryMovementCommandApi inventoryMovementCommandApi;
     private final ReturnLineItemProcessor lineItemProcessor;
+    private final ProductionRunQueryApi productionRunQueryApi;
 
     UpdateReturnUseCase(
             DistributorReturnRepository returnRepository,
             InventoryMovementCommandApi inventoryMovementCommandApi,
-            ReturnLineItemProcessor lineItemProcessor) {
+            ReturnLineItemProcessor lineItemProcessor,
+            ProductionRunQueryApi productionRunQueryApi) {
         this.returnRepository = returnRepository;
+        this.productionRunQueryApi = productionRunQueryApi;
         this.inventoryMovementCommandApi = inventoryMovementCommandApi;
         this.lineItemProcessor = lineItemProcessor;
     }
@@ -54,6 +60,23 @@ class UpdateReturnUseCase {
                         .orElseThrow(
                                 () -> new EntityNotFoundException("Return not found: " + returnId));
 
+        // Lock the stock the old line items returned and the stock the new ones will, in one
+        // call — reversing and revalidating would otherwise lock them as two unordered batches.
+        InventoryLocation from = InventoryLocation.distributor(returnEntity.getDistributorId());
+        productionRunQueryApi.lockStock(
+                Stream.concat(
+                                returnEntity.getLineItems().stream()
+                                        .map(
+                                                item ->
+                                                        new StockKey(
+                                                                item.getReleaseId(),
+                                                                item.getFormat())),
+                                lineItems.stream()
+                                        .map(item -> new StockKey(item.releaseId(), item.format())))
+                        .toList(),
+                from,
+                InventoryLocation.warehouse());
+
         // 1. Reverse old inventory movements (restores inventory to distributor)
         inventoryMovementCommandApi.deleteMovementsByReference(MovementType.RETURN, returnId);
 
@@ -63,7 +86,6 @@ class UpdateReturnUseCase {
         returnEntity.setNotes(notes);
 
         // 3. Validate the new line items and work out which pressings each comes back from
-        InventoryLocation from = InventoryLocation.distributor(returnEntity.getDistributorId());
         List<RunDraw> draws =
                 lineItemProcessor.validateAndAdd(
                         lineItems, returnEntity.getLabelId(), from, returnEntity);
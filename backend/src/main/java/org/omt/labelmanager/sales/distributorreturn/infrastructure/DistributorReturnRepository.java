@@ -2,10 +2,33 @@ package org.omt.labelmanager.sales.distributorreturn.infrastructure;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DistributorReturnRepository extends JpaRepository<DistributorReturnEntity, Long> {
 
-    List<DistributorReturnEntity> findByLabelIdOrderByReturnDateDesc(Long labelId);
+    /**
+     * The label's returns with their line items fetched in the same query, newest first. The
+     * derived {@code findByLabelId} left the line items lazy, and listing them cost a select per
+     * return.
+     */
+    @Query(
+            """
+            SELECT DISTINCT r FROM DistributorReturnEntity r
+            LEFT JOIN FETCH r.lineItems
+            WHERE r.labelId = :labelId
+            ORDER BY r.returnDate DESC
+            """)
+    List<DistributorReturnEntity> findWithLineItemsByLabelId(@Param("labelId") Long labelId);
 
-    List<DistributorReturnEntity> findByDistributorIdOrderByReturnDateDesc(Long distributorId);
+    /** As {@link #findWithLineItemsByLabelId}, for one distributor's returns. */
+    @Query(
+            """
+            SELECT DISTINCT r FROM DistributorReturnEntity r
+            LEFT JOIN FETCH r.lineItems
+            WHERE r.distributorId = :distributorId
+            ORDER BY r.returnDate DESC
+            """)
+    List<DistributorReturnEntity> findWithLineItemsByDistributorId(
+            @Param("distributorId") Long distributorId);
 }
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.distribution.distributor.api.Distributor;
@@ -17,6 +18,7 @@ import org.omt.labelmanager.sales.distributorreturn.domain.DistributorReturn;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItem;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
 import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.QueryBudget;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -111,6 +113,7 @@ public class ReturnController {
      * The returns received from one distributor. Replaces the {@code returns} field of the
      * distributor detail response.
      */
+    @QueryBudget(5)
     @GetMapping("/api/labels/{labelId}/distributors/{distributorId}/returns")
     public List<DistributorReturn> returnsForDistributor(
             @PathVariable Long labelId, @PathVariable Long distributorId) {
@@ -118,6 +121,7 @@ public class ReturnController {
         return returnQueryApi.getReturnsForDistributor(distributorId);
     }
 
+    @QueryBudget(5)
     @GetMapping("/api/labels/{labelId}/returns")
     public ReturnListResponse listReturns(@PathVariable Long labelId) {
         requireLabel(labelId);
@@ -147,7 +151,15 @@ public class ReturnController {
                 distributorQueryApi
                         .findById(distributorReturn.distributorId())
                         .orElseThrow(() -> new EntityNotFoundException("Distributor not found"));
-        var lineItems = distributorReturn.lineItems().stream().map(this::enrichLineItem).toList();
+        Map<Long, String> releaseNames =
+                releaseQueryApi.namesByIds(
+                        distributorReturn.lineItems().stream()
+                                .map(ReturnLineItem::releaseId)
+                                .toList());
+        var lineItems =
+                distributorReturn.lineItems().stream()
+                        .map(item -> enrichLineItem(item, releaseNames))
+                        .toList();
         return new ReturnDetailResponse(
                 distributorReturn.id(),
                 distributorReturn.labelId(),
@@ -197,9 +209,9 @@ public class ReturnController {
                                                 + labelId));
     }
 
-    private EnrichedReturnLineItem enrichLineItem(ReturnLineItem item) {
-        var releaseName =
-                releaseQueryApi.findById(item.releaseId()).map(r -> r.name()).orElse("Unknown");
+    private EnrichedReturnLineItem enrichLineItem(
+            ReturnLineItem item, Map<Long, String> releaseNames) {
+        var releaseName = releaseNames.getOrDefault(item.releaseId(), "Unknown");
         return new EnrichedReturnLineItem(
                 item.id(),
                 item.returnId(),
@@ -3,7 +3,9 @@ package org.omt.labelmanager.sales.sale.api;
 import java.time.LocalDate;
 import java.util.List;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 
 /** Public API for sale command operations. */
@@ -28,6 +30,20 @@ public interface SaleCommandApi {
             Long distributorId,
             List<SaleLineItemInput> lineItems);
 
+    /**
+     * Register many sales at once — a distributor statement, for instance.
+     *
+     * <p>Each sale is validated as {@link #registerSale} would validate it, in the order given,
+     * against the stock left by the sales before it. A sale that fails is reported and skipped
+     * rather than failing the batch; the rest are registered together in one transaction.
+     *
+     * @param labelId the label making the sales
+     * @param sales the sales, in order
+     * @return one result per sale, in the same order: the new sale's id, or why it was rejected
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    List<BatchSaleResult> registerSales(Long labelId, List<SaleInput> sales);
+
     /**
      * Update an existing sale. Replaces all line items and adjusts inventory movements accordingly.
      * Old movements are reversed before new inventory is validated, so the full allocated quantity
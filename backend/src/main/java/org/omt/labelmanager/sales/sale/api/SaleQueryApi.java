@@ -2,27 +2,42 @@ package org.omt.labelmanager.sales.sale.api;
 
 import java.util.List;
 import java.util.Optional;
+import org.omt.labelmanager.sales.sale.domain.ReleaseSale;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.sale.domain.SaleFilter;
+import org.omt.labelmanager.sales.sale.domain.SalePage;
 import org.omt.labelmanager.shared.Money;
 
 /** Public API for sale query operations. */
 public interface SaleQueryApi {
 
+    /** Largest page the listings hand out. */
+    int MAX_PAGE_SIZE = 200;
+
     /**
-     * Get all sales for a label, ordered by date (newest first).
+     * Get one page of a label's sales, ordered by date (newest first), with their line items.
      *
      * @param labelId the label ID
-     * @return list of sales
+     * @param filter which sales to list; {@link SaleFilter#NONE} for all of them
+     * @param after where the previous page ended; {@link SaleCursor#START} for the first page
+     * @param limit page size, 1 to {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the page size is out of range
      */
-    List<Sale> getSalesForLabel(Long labelId);
+    SalePage getSalesForLabel(Long labelId, SaleFilter filter, SaleCursor after, int limit);
 
     /**
-     * Get all sales attributed to a specific distributor, ordered by date (newest first).
+     * Get one page of the sales attributed to a specific distributor, ordered by date (newest
+     * first), with their line items.
      *
      * @param distributorId the distributor ID
-     * @return list of sales
+     * @param after where the previous page ended; {@link SaleCursor#START} for the first page
+     * @param limit page size, 1 to {@link #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the page size is out of range
      */
-    List<Sale> getSalesForDistributor(Long distributorId);
+    SalePage getSalesForDistributor(Long distributorId, SaleCursor after, int limit);
 
     /**
      * Get all sales that contain a line item from the given production run, ordered by date (newest
@@ -33,6 +48,15 @@ public interface SaleQueryApi {
      */
     List<Sale> getSalesForProductionRun(Long productionRunId);
 
+    /**
+     * Summarise every sale that drew stock from any production run of a release, ordered by date
+     * (newest first). A sale drawing from several pressings is listed once.
+     *
+     * @param releaseId the release ID
+     * @return list of sale summaries
+     */
+    List<ReleaseSale> getSalesForRelease(Long releaseId);
+
     /**
      * Find a sale by ID.
      *
@@ -42,10 +66,19 @@ public interface SaleQueryApi {
     Optional<Sale> findById(Long saleId);
 
     /**
-     * Calculate total revenue for a label across all sales.
+     * Calculate total revenue for a label across every sale the filter matches.
      *
      * @param labelId the label ID
+     * @param filter which sales to count; {@link SaleFilter#NONE} for all of them
+     * @return total revenue
+     */
+    Money getTotalRevenueForLabel(Long labelId, SaleFilter filter);
+
+    /**
+     * Calculate total revenue across every sale attributed to a distributor.
+     *
+     * @param distributorId the distributor ID
      * @return total revenue
      */
-    Money getTotalRevenueForLabel(Long labelId);
+    Money getTotalRevenueForDistributor(Long distributorId);
 }
@@ -0,0 +1,269 @@
+package org.omt.labelmanager.sales.sale.application;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
+import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Release;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.api.Distributor;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.inventory.InsufficientInventoryException;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.NewMovement;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleBatchInserter;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Registers many sales in one transaction — a distributor statement, typically.
+ *
+ * <p>Each sale is checked by the same rules as {@link RegisterSaleUseCase}, but the cost that rule
+ * set pays per sale is paid once per batch: one lock pass for every balance the batch draws from,
+ * one balance read, one lookup of the label's releases and distributors, and batched inserts for
+ * the sales, line items and movements. Sales are validated in order against one set of in-memory
+ * ledgers, each sale's draws taken off before the next is checked, so the batch cannot jointly
+ * sell more than a distributor holds.
+ *
+ * <p>A sale that fails validation is reported and skipped; it does not fail the batch, and it
+ * draws nothing, so the sales after it see the stock as if it had never been submitted.
+ */
+@Service
+class RegisterSaleBatchUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisterSaleBatchUseCase.class);
+
+    /** Bounds the locks, memory and transaction length a single request can take. */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    private final SaleBatchInserter saleBatchInserter;
+    private final LabelQueryApi labelQueryApi;
+    private final ReleaseQueryApi releaseQueryApi;
+    private final DistributorQueryApi distributorQueryApi;
+    private final ProductionRunQueryApi productionRunQueryApi;
+    private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final SaleLineItemProcessor lineItemProcessor;
+
+    RegisterSaleBatchUseCase(
+            SaleBatchInserter saleBatchInserter,
+            LabelQueryApi labelQueryApi,
+            ReleaseQueryApi releaseQueryApi,
+            DistributorQueryApi distributorQueryApi,
+            ProductionRunQueryApi productionRunQueryApi,
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            SaleLineItemProcessor lineItemProcessor) {
+        this.saleBatchInserter = saleBatchInserter;
+        this.labelQueryApi = labelQueryApi;
+        this.releaseQueryApi = releaseQueryApi;
+        this.distributorQueryApi = distributorQueryApi;
+        this.productionRunQueryApi = productionRunQueryApi;
+        this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.lineItemProcessor = lineItemProcessor;
+    }
+
+    /**
+     * @return one result per sale, in the order the sales were given
+     * @throws IllegalArgumentException if the batch is empty or larger than {@link
+     *     #MAX_BATCH_SIZE}
+     * @throws EntityNotFoundException if the label does not exist
+     */
+    @Transactional
+    public List<BatchSaleResult> execute(Long labelId, List<SaleInput> sales) {
+        if (sales == null || sales.isEmpty()) {
+            throw new IllegalArgumentException("A batch must contain at least one sale");
+        }
+        if (sales.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "A batch may contain at most "
+                            + MAX_BATCH_SIZE
+                            + " sales; this one has "
+                            + sales.size());
+        }
+        if (!labelQueryApi.exists(labelId)) {
+            throw new EntityNotFoundException("Label not found: " + labelId);
+        }
+
+        log.info("Registering a batch of {} sales for label {}", sales.size(), labelId);
+
+        BatchSaleResult[] results = new BatchSaleResult[sales.size()];
+
+        // 1. Resolve every sale's distributor against the label's, fetched once
+        Map<Long, Distributor> distributors =
+                distributorQueryApi.findByLabelId(labelId).stream()
+                        .collect(Collectors.toMap(Distributor::id, Function.identity()));
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < sales.size(); i++) {
+            try {
+                SaleInput sale = sales.get(i);
+                candidates.add(new Candidate(i, sale, distributorFor(sale, labelId, distributors)));
+            } catch (IllegalArgumentException | EntityNotFoundException e) {
+                results[i] = BatchSaleResult.rejected(i, e.getMessage());
+            }
+        }
+
+        // 2. Lock and read every ledger the batch draws from, in one pass
+        Map<InventoryLocation, Set<StockKey>> stockBySource = new HashMap<>();
+        for (Candidate candidate : candidates) {
+            Set<StockKey> stock =
+                    stockBySource.computeIfAbsent(candidate.from(), from -> new HashSet<>());
+            for (SaleLineItemInput item : candidate.sale().lineItems()) {
+                // An incomplete line item names no stock; the processor rejects its sale below.
+                if (item.releaseId() != null && item.format() != null) {
+                    stock.add(new StockKey(item.releaseId(), item.format()));
+                }
+            }
+        }
+        Map<InventoryLocation, Map<StockKey, StockLedger>> ledgers =
+                new HashMap<>(
+                        productionRunQueryApi.lockedLedgersAt(
+                                stockBySource, InventoryLocation.external()));
+        ledgers.replaceAll((from, byKey) -> new HashMap<>(byKey));
+
+        // 3. Validate each sale in order, drawing from the shared ledgers
+        Map<Long, Release> releases =
+                releaseQueryApi.getReleasesForLabel(labelId).stream()
+                        .collect(Collectors.toMap(Release::id, Function.identity()));
+        List<SaleEntity> accepted = new ArrayList<>();
+        List<Candidate> acceptedCandidates = new ArrayList<>();
+        List<List<RunDraw>> acceptedDraws = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            SaleInput sale = candidate.sale();
+            var saleEntity =
+                    new SaleEntity(
+                            labelId,
+                            candidate.distributor().id(),
+                            sale.saleDate(),
+                            sale.channel(),
+                            sale.notes(),
+                            currencyOf(sale));
+            try {
+                List<RunDraw> draws =
+                        lineItemProcessor.validateAndAddFromLedgers(
+                                sale.lineItems(),
+                                labelId,
+                                releases,
+                                ledgers.get(candidate.from()),
+                                saleEntity);
+                accepted.add(saleEntity);
+                acceptedCandidates.add(candidate);
+                acceptedDraws.add(draws);
+            } catch (InsufficientInventoryException
+                    | IllegalArgumentException
+                    | IllegalStateException e) {
+                results[candidate.index()] =
+                        BatchSaleResult.rejected(candidate.index(), e.getMessage());
+            }
+        }
+
+        // 4. Write the accepted sales, then one SALE movement per pressing drawn from
+        List<Long> saleIds = saleBatchInserter.insert(accepted);
+        List<NewMovement> movements = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            Candidate candidate = acceptedCandidates.get(i);
+            Long saleId = saleIds.get(i);
+            for (RunDraw draw : acceptedDraws.get(i)) {
+                movements.add(
+                        new NewMovement(
+                                draw.productionRunId(),
+                                candidate.from(),
+                                InventoryLocation.external(),
+                                draw.quantity(),
+                                MovementType.SALE,
+                                saleId));
+            }
+            results[candidate.index()] = BatchSaleResult.registered(candidate.index(), saleId);
+        }
+        inventoryMovementCommandApi.recordMovements(movements);
+
+        log.info(
+                "Batch for label {}: {} sales registered, {} rejected",
+                labelId,
+                accepted.size(),
+                sales.size() - accepted.size());
+
+        return List.of(results);
+    }
+
+    /**
+     * {@link RegisterSaleUseCase}'s distributor rules, checked against the label's distributors
+     * rather than looked up one sale at a time — plus the header checks request validation makes
+     * on the single-sale endpoint, since one bad sale must not reject the whole batch.
+     */
+    private static Distributor distributorFor(
+            SaleInput sale, Long labelId, Map<Long, Distributor> distributors) {
+        if (sale.saleDate() == null) {
+            throw new IllegalArgumentException("Sale date is required");
+        }
+        if (sale.channel() == null) {
+            throw new IllegalArgumentException("Channel is required");
+        }
+        if (sale.lineItems() == null || sale.lineItems().isEmpty()) {
+            throw new IllegalArgumentException("Sale must contain at least one line item");
+        }
+
+        if (sale.channel() == ChannelType.DIRECT) {
+            return distributors.values().stream()
+                    .filter(d -> d.channelType() == ChannelType.DIRECT)
+                    .findFirst()
+                    .orElseThrow(
+                            () ->
+                                    new EntityNotFoundException(
+                                            "DIRECT distributor not found for label: " + labelId));
+        }
+
+        if (sale.distributorId() == null) {
+            throw new IllegalArgumentException(
+                    "Distributor must be specified for " + sale.channel() + " sales");
+        }
+
+        var distributor = distributors.get(sale.distributorId());
+        if (distributor == null) {
+            throw new EntityNotFoundException(
+                    "Distributor " + sale.distributorId() + " not found for label " + labelId);
+        }
+
+        if (distributor.channelType() != sale.channel()) {
+            throw new IllegalArgumentException(
+                    "Distributor '"
+                            + distributor.name()
+                            + "' (type: "
+                            + distributor.channelType()
+                            + ") does not match channel type: "
+                            + sale.channel());
+        }
+
+        return distributor;
+    }
+
+    private static String currencyOf(SaleInput sale) {
+        var unitPrice = sale.lineItems().getFirst().unitPrice();
+        return unitPrice == null ? null : unitPrice.currency();
+    }
+
+    /** A sale whose header is valid, with the distributor it draws from. */
+    private record Candidate(int index, SaleInput sale, Distributor distributor) {
+
+        InventoryLocation from() {
+            return InventoryLocation.distributor(distributor.id());
+        }
+    }
+}
@@ -3,8 +3,12 @@ package org.omt.labelmanager.sales.sale.application;
 import java.time.LocalDate;
 import java.util.List;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.omt.labelmanager.inventory.StockConcurrency;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.springframework.stereotype.Service;
 
@@ -12,16 +16,22 @@ import org.springframework.stereotype.Service;
 class SaleCommandApiImpl implements SaleCommandApi {
 
     private final RegisterSaleUseCase registerSale;
+    private final RegisterSaleBatchUseCase registerSaleBatch;
     private final UpdateSaleUseCase updateSale;
     private final DeleteSaleUseCase deleteSale;
+    private final StockConcurrency concurrency;
 
     SaleCommandApiImpl(
             RegisterSaleUseCase registerSale,
+            RegisterSaleBatchUseCase registerSaleBatch,
             UpdateSaleUseCase updateSale,
-            DeleteSaleUseCase deleteSale) {
+            DeleteSaleUseCase deleteSale,
+            StockConcurrency concurrency) {
         this.registerSale = registerSale;
+        this.registerSaleBatch = registerSaleBatch;
         this.updateSale = updateSale;
         this.deleteSale = deleteSale;
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -32,7 +42,16 @@ class SaleCommandApiImpl implements SaleCommandApi {
             String notes,
             Long distributorId,
             List<SaleLineItemInput> lineItems) {
-        return registerSale.execute(labelId, saleDate, channel, notes, distributorId, lineItems);
+        return concurrency.retryOnConflict(
+                Operation.SALE,
+                () ->
+                        registerSale.execute(
+                                labelId, saleDate, channel, notes, distributorId, lineItems));
+    }
+
+    @Override
+    public List<BatchSaleResult> registerSales(Long labelId, List<SaleInput> sales) {
+        return registerSaleBatch.execute(labelId, sales);
     }
 
     @Override
@@ -1,20 +1,26 @@
 package org.omt.labelmanager.sales.sale.application;
 
 import jakarta.persistence.EntityNotFoundException;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.omt.labelmanager.inventory.StockConcurrency;
+import org.omt.labelmanager.inventory.domain.DrawBuffer;
+import org.omt.labelmanager.inventory.domain.MutableStockLedger;
 import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.api.VersionedLedgers;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleLineItemEntity;
-import org.omt.labelmanager.shared.Format;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,11 +37,21 @@ class SaleLineItemProcessor {
 
     private final ReleaseQueryApi releaseQueryApi;
     private final ProductionRunQueryApi productionRunQueryApi;
+    private final InventoryMovementCommandApi inventoryMovementCommandApi;
+    private final StockConcurrency concurrency;
+    private final InventoryMetrics metrics;
 
     SaleLineItemProcessor(
-            ReleaseQueryApi releaseQueryApi, ProductionRunQueryApi productionRunQueryApi) {
+            ReleaseQueryApi releaseQueryApi,
+            ProductionRunQueryApi productionRunQueryApi,
+            InventoryMovementCommandApi inventoryMovementCommandApi,
+            StockConcurrency concurrency,
+            InventoryMetrics metrics) {
         this.releaseQueryApi = releaseQueryApi;
         this.productionRunQueryApi = productionRunQueryApi;
+        this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.concurrency = concurrency;
+        this.metrics = metrics;
     }
 
     /**
@@ -60,93 +76,222 @@ class SaleLineItemProcessor {
             Long labelId,
             InventoryLocation from,
             SaleEntity saleEntity) {
-        Map<StockKey, StockLedger> ledgers = lockedLedgers(lineItems, from);
-        List<RunDraw> allDraws = new ArrayList<>();
+        List<RunDraw> draws = validateAndDraw(lineItems, labelId, from);
+        lineItems.forEach(lineItemInput -> saleEntity.addLineItem(toEntity(lineItemInput)));
+        return draws;
+    }
+
+    /**
+     * {@link #validateAndAdd} without the adding: validates the line items and works out their
+     * draws, leaving the sale entity to the caller. For an edit, which revises the line items it
+     * already has rather than adding new ones, and draws again only for the stock it changes.
+     *
+     * <p>In optimistic mode the ledgers are read unlocked and the balances drawn from are claimed
+     * once every line item fits, so a sale that loses a race throws {@link
+     * org.omt.labelmanager.inventory.StockConflictException} here, before anything is recorded.
+     *
+     * @param lineItems the line items to draw, in order — every one of each release and format
+     *     drawn, since they share stock
+     * @param labelId the label the sale belongs to (for release ownership check)
+     * @param from where the stock is leaving — the counterparty holding it
+     * @return every draw the line items make, in line item order
+     */
+    List<RunDraw> validateAndDraw(
+            List<SaleLineItemInput> lineItems, Long labelId, InventoryLocation from) {
+        if (!concurrency.optimistic()) {
+            return drawAll(lineItems, labelId, lockedLedgers(lineItems, from));
+        }
+        VersionedLedgers read = productionRunQueryApi.versionedLedgersAt(keysOf(lineItems), from);
+        Map<StockKey, MutableStockLedger> ledgers = new HashMap<>();
+        read.ledgers().forEach((key, ledger) -> ledgers.put(key, MutableStockLedger.of(ledger)));
+        List<RunDraw> draws = drawAll(lineItems, labelId, ledgers);
+        inventoryMovementCommandApi.claimBalances(
+                read.drawnBy(draws), InventoryLocation.external());
+        return draws;
+    }
+
+    private List<RunDraw> drawAll(
+            List<SaleLineItemInput> lineItems,
+            Long labelId,
+            Map<StockKey, MutableStockLedger> ledgers) {
+        DrawBuffer draws = new DrawBuffer(lineItems.size());
+
+        for (var lineItemInput : lineItems) {
+            var release = ownedRelease(lineItemInput, labelId);
+            requireValidLine(lineItemInput);
+            draw(lineItemInput, release, ledgers, draws);
+        }
+
+        return draws.toRunDraws();
+    }
+
+    /**
+     * Validates line items without drawing them: the release is the label's, and the line item has
+     * a format, a unit price of zero or more, and at least one unit. For an edit, whose line items
+     * are all rewritten though only some of them are drawn again.
+     *
+     * @throws IllegalArgumentException for the first line item that fails
+     * @throws EntityNotFoundException if a release does not exist
+     */
+    void validate(List<SaleLineItemInput> lineItems, Long labelId) {
+        for (var lineItemInput : lineItems) {
+            ownedRelease(lineItemInput, labelId);
+            requireValidLine(lineItemInput);
+        }
+    }
+
+    private Release ownedRelease(SaleLineItemInput lineItemInput, Long labelId) {
+        var release =
+                releaseQueryApi
+                        .findById(lineItemInput.releaseId())
+                        .orElseThrow(
+                                () ->
+                                        new EntityNotFoundException(
+                                                "Release not found: "
+                                                        + lineItemInput.releaseId()));
+
+        if (!release.labelId().equals(labelId)) {
+            throw new IllegalArgumentException(
+                    "Release "
+                            + lineItemInput.releaseId()
+                            + " does not belong to label "
+                            + labelId);
+        }
+        return release;
+    }
+
+    /** What the sale_line_item CHECK constraints would otherwise refuse as a 500. */
+    private static void requireValidLine(SaleLineItemInput lineItemInput) {
+        if (lineItemInput.format() == null) {
+            throw new IllegalArgumentException(
+                    "Line item for release " + lineItemInput.releaseId() + " has no format");
+        }
+        if (lineItemInput.unitPrice() == null
+                || lineItemInput.unitPrice().amount() == null
+                || lineItemInput.unitPrice().amount().signum() < 0) {
+            throw new IllegalArgumentException(
+                    "Line item for release "
+                            + lineItemInput.releaseId()
+                            + " needs a unit price of zero or more");
+        }
+        if (lineItemInput.quantity() <= 0) {
+            throw new IllegalArgumentException(
+                    "Line item for release "
+                            + lineItemInput.releaseId()
+                            + " needs a quantity of at least one");
+        }
+    }
+
+    /**
+     * {@link #validateAndAdd} for one sale of a batch, against ledgers the caller has already
+     * locked and read for the whole batch.
+     *
+     * <p>All or nothing: {@code ledgers} is updated with this sale's draws only if every line item
+     * fits, so a rejected sale leaves the stock exactly as the next sale in the batch should see
+     * it.
+     *
+     * @param lineItems the sale's line items, in order
+     * @param labelId the label the sale belongs to
+     * @param releasesOfLabel every release of that label, by id — a release missing from it is
+     *     someone else's, or does not exist
+     * @param ledgers the locked ledgers at the sale's source, by key; updated on success
+     * @param saleEntity the sale entity to add the line items to
+     * @return every draw the sale makes, in line item order
+     * @throws RuntimeException the same exceptions {@link #validateAndAdd} throws, for the same
+     *     reasons, leaving {@code ledgers} untouched
+     */
+    List<RunDraw> validateAndAddFromLedgers(
+            List<SaleLineItemInput> lineItems,
+            Long labelId,
+            Map<Long, Release> releasesOfLabel,
+            Map<StockKey, StockLedger> ledgers,
+            SaleEntity saleEntity) {
+        Map<StockKey, MutableStockLedger> working = new HashMap<>();
+        DrawBuffer draws = new DrawBuffer(lineItems.size());
 
         for (var lineItemInput : lineItems) {
-            var release =
-                    releaseQueryApi
-                            .findById(lineItemInput.releaseId())
-                            .orElseThrow(
-                                    () ->
-                                            new EntityNotFoundException(
-                                                    "Release not found: "
-                                                            + lineItemInput.releaseId()));
-
-            if (!release.labelId().equals(labelId)) {
+            var release = releasesOfLabel.get(lineItemInput.releaseId());
+            if (release == null) {
                 throw new IllegalArgumentException(
                         "Release "
                                 + lineItemInput.releaseId()
                                 + " does not belong to label "
                                 + labelId);
             }
+            requireValidLine(lineItemInput);
 
             var key = new StockKey(lineItemInput.releaseId(), lineItemInput.format());
-            var ledger = ledgers.get(key);
-
-            if (ledger.runs().isEmpty()) {
-                throw new IllegalStateException(
-                        "No production run found for release '"
-                                + release.name()
-                                + "' ("
-                                + lineItemInput.format()
-                                + "). "
-                                + "Please create a production run for this release and format "
-                                + "before registering sales.");
-            }
+            working.computeIfAbsent(key, k -> MutableStockLedger.of(ledgers.get(k)));
+            draw(lineItemInput, release, working, draws);
+            saleEntity.addLineItem(toEntity(lineItemInput));
+        }
+
+        working.forEach((key, ledger) -> ledgers.put(key, ledger.toStockLedger()));
+        return draws.toRunDraws();
+    }
+
+    /** Draws one line item from its ledger, in place, and appends the split to {@code into}. */
+    private void draw(
+            SaleLineItemInput lineItemInput,
+            Release release,
+            Map<StockKey, MutableStockLedger> ledgers,
+            DrawBuffer into) {
+        var key = new StockKey(lineItemInput.releaseId(), lineItemInput.format());
+        var ledger = ledgers.get(key);
 
-            List<RunDraw> draws = ledger.drawFifo(lineItemInput.quantity());
-            ledgers.put(key, ledger.minus(draws));
-            allDraws.addAll(draws);
-
-            saleEntity.addLineItem(
-                    new SaleLineItemEntity(
-                            lineItemInput.releaseId(),
-                            lineItemInput.format(),
-                            lineItemInput.quantity(),
-                            lineItemInput.unitPrice().amount(),
-                            lineItemInput.unitPrice().currency()));
-
-            log.debug(
-                    "Processed line item: release={}, format={}, quantity={}, drawn from {}",
-                    lineItemInput.releaseId(),
-                    lineItemInput.format(),
-                    lineItemInput.quantity(),
-                    draws);
+        if (ledger.pressings() == 0) {
+            throw new IllegalStateException(
+                    "No production run found for release '"
+                            + release.name()
+                            + "' ("
+                            + lineItemInput.format()
+                            + "). "
+                            + "Please create a production run for this release and format "
+                            + "before registering sales.");
         }
 
-        return List.copyOf(allDraws);
+        int pressingsDrawn =
+                metrics.draw(ledger, lineItemInput.quantity(), into, Operation.SALE);
+
+        log.debug(
+                "Processed line item: release={}, format={}, quantity={}, drawn from {} pressings",
+                lineItemInput.releaseId(),
+                lineItemInput.format(),
+                lineItemInput.quantity(),
+                pressingsDrawn);
+    }
+
+    static SaleLineItemEntity toEntity(SaleLineItemInput lineItemInput) {
+        return new SaleLineItemEntity(
+                lineItemInput.releaseId(),
+                lineItemInput.format(),
+                lineItemInput.quantity(),
+                lineItemInput.unitPrice().amount(),
+                lineItemInput.unitPrice().currency());
     }
 
     /**
      * Locks and reads every ledger this sale will draw from, before drawing from any of them.
      *
-     * <p>Order matters, not just coverage. Locking lazily as each line item is reached would take
-     * the locks in request-body order, so a sale of [A, B] and a concurrent sale of [B, A] would
-     * each hold what the other is waiting for, and Postgres would kill one with a deadlock — a 500,
-     * not the 409 an out-of-stock sale gets. Sorting the keys means every writer takes them in the
-     * same order, so one simply waits.
+     * <p>All at once, not as each line item is reached. Locking lazily would take the locks in
+     * request-body order, so a sale of [A, B] and a concurrent sale of [B, A] would each hold what
+     * the other is waiting for, and Postgres would kill one with a deadlock — a 500, not the 409 an
+     * out-of-stock sale gets. {@code lockedLedgersAt} takes every lock in one fixed order, so one
+     * simply waits. Units leave for EXTERNAL, which holds no lock, so only the distributor's
+     * balance of each pressing is locked.
      */
-    private Map<StockKey, StockLedger> lockedLedgers(
+    private Map<StockKey, MutableStockLedger> lockedLedgers(
             List<SaleLineItemInput> lineItems, InventoryLocation from) {
-        Map<StockKey, StockLedger> ledgers = new HashMap<>();
-        lineItems.stream()
-                .map(item -> new StockKey(item.releaseId(), item.format()))
-                .distinct()
-                .sorted(StockKey.LOCK_ORDER)
-                .forEach(
-                        key ->
-                                ledgers.put(
-                                        key,
-                                        productionRunQueryApi.lockedLedgerAt(
-                                                key.releaseId(), key.format(), from)));
+        Map<StockKey, MutableStockLedger> ledgers = new HashMap<>();
+        productionRunQueryApi
+                .lockedLedgersAt(keysOf(lineItems), from, InventoryLocation.external())
+                .forEach((key, ledger) -> ledgers.put(key, MutableStockLedger.of(ledger)));
         return ledgers;
     }
 
-    /** Stock is per release and format — a release's vinyl and CD pressings are separate. */
-    private record StockKey(Long releaseId, Format format) {
-
-        static final Comparator<StockKey> LOCK_ORDER =
-                Comparator.comparing(StockKey::releaseId).thenComparing(StockKey::format);
+    private static List<StockKey> keysOf(List<SaleLineItemInput> lineItems) {
+        return lineItems.stream()
+                .map(item -> new StockKey(item.releaseId(), item.format()))
+                .toList();
     }
 }
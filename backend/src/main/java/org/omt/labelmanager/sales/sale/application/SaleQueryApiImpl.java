@@ -1,12 +1,22 @@
 package org.omt.labelmanager.sales.sale.application;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.ReleaseSale;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.sale.domain.SaleFilter;
+import org.omt.labelmanager.sales.sale.domain.SalePage;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleRepository;
 import org.omt.labelmanager.shared.Money;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,18 +33,56 @@ class SaleQueryApiImpl implements SaleQueryApi {
 
     @Override
     @Transactional
-    public List<Sale> getSalesForLabel(Long labelId) {
-        return saleRepository.findByLabelIdOrderBySaleDateDesc(labelId).stream()
-                .map(saleConverter::toSale)
-                .toList();
+    public SalePage getSalesForLabel(
+            Long labelId, SaleFilter filter, SaleCursor after, int limit) {
+        requirePageSize(limit);
+        List<Long> ids =
+                saleRepository.findPageOfLabel(
+                        labelId,
+                        filter.distributorId(),
+                        filter.channel(),
+                        filter.from(),
+                        filter.to(),
+                        filter.releaseId(),
+                        after.saleDate(),
+                        after.id(),
+                        Limit.of(limit + 1));
+        return toPage(ids, limit);
     }
 
     @Override
     @Transactional
-    public List<Sale> getSalesForDistributor(Long distributorId) {
-        return saleRepository.findByDistributorIdOrderBySaleDateDesc(distributorId).stream()
-                .map(saleConverter::toSale)
-                .toList();
+    public SalePage getSalesForDistributor(Long distributorId, SaleCursor after, int limit) {
+        requirePageSize(limit);
+        List<Long> ids =
+                saleRepository.findPageOfDistributor(
+                        distributorId, after.saleDate(), after.id(), Limit.of(limit + 1));
+        return toPage(ids, limit);
+    }
+
+    private static void requirePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE + ", was " + limit);
+        }
+    }
+
+    /**
+     * Loads the page's sales, line items included, in one query. One id more than the page was
+     * asked for: if it came back, there is a next page, and it starts after the page's last sale.
+     */
+    private SalePage toPage(List<Long> ids, int limit) {
+        boolean hasNext = ids.size() > limit;
+        List<Long> pageIds = hasNext ? ids.subList(0, limit) : ids;
+        if (pageIds.isEmpty()) {
+            return new SalePage(List.of(), null);
+        }
+        Map<Long, SaleEntity> entities =
+                saleRepository.findWithLineItemsByIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(SaleEntity::getId, Function.identity()));
+        List<Sale> sales =
+                pageIds.stream().map(entities::get).map(saleConverter::toSale).toList();
+        return new SalePage(sales, hasNext ? SaleCursor.after(sales.getLast()) : null);
     }
 
     @Override
@@ -45,6 +93,20 @@ class SaleQueryApiImpl implements SaleQueryApi {
                 .toList();
     }
 
+    @Override
+    public List<ReleaseSale> getSalesForRelease(Long releaseId) {
+        return saleRepository.summariseSalesOfRelease(releaseId).stream()
+                .map(
+                        row ->
+                                new ReleaseSale(
+                                        ((Number) row[0]).longValue(),
+                                        (LocalDate) row[1],
+                                        row[2] == null ? null : ((Number) row[2]).longValue(),
+                                        ((Number) row[3]).intValue(),
+                                        new Money((BigDecimal) row[4], (String) row[5])))
+                .toList();
+    }
+
     @Override
     @Transactional
     public Optional<Sale> findById(Long saleId) {
@@ -52,8 +114,21 @@ class SaleQueryApiImpl implements SaleQueryApi {
     }
 
     @Override
-    public Money getTotalRevenueForLabel(Long labelId) {
-        BigDecimal total = saleRepository.sumTotalAmountByLabelId(labelId);
+    public Money getTotalRevenueForLabel(Long labelId, SaleFilter filter) {
+        BigDecimal total =
+                saleRepository.sumTotalAmountOfLabel(
+                        labelId,
+                        filter.distributorId(),
+                        filter.channel(),
+                        filter.from(),
+                        filter.to(),
+                        filter.releaseId());
+        return new Money(total, "EUR");
+    }
+
+    @Override
+    public Money getTotalRevenueForDistributor(Long distributorId) {
+        BigDecimal total = saleRepository.sumTotalAmountOfDistributor(distributorId);
         return new Money(total, "EUR");
     }
 }
@@ -3,13 +3,21 @@ package org.omt.labelmanager.sales.sale.application;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.MovementType;
 import org.omt.labelmanager.inventory.domain.RunDraw;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.domain.ProductionRun;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemDelta;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleLineItemEntity;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleRepository;
+import org.omt.labelmanager.shared.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,14 +32,17 @@ class UpdateSaleUseCase {
     private final InventoryMovementCommandApi inventoryMovementCommandApi;
     private final SaleLineItemProcessor lineItemProcessor;
     private final SaleConverter saleConverter;
+    private final ProductionRunQueryApi productionRunQueryApi;
 
     UpdateSaleUseCase(
             SaleRepository saleRepository,
             InventoryMovementCommandApi inventoryMovementCommandApi,
             SaleLineItemProcessor lineItemProcessor,
-            SaleConverter saleConverter) {
+            SaleConverter saleConverter,
+            ProductionRunQueryApi productionRunQueryApi) {
         this.saleRepository = saleRepository;
         this.inventoryMovementCommandApi = inventoryMovementCommandApi;
+        this.productionRunQueryApi = productionRunQueryApi;
         this.lineItemProcessor = lineItemProcessor;
         this.saleConverter = saleConverter;
     }
@@ -40,6 +51,12 @@ class UpdateSaleUseCase {
      * Updates a sale's date, notes, and line items. The distributor and channel type are immutable
      * after registration — they are read from the persisted entity. If the wrong distributor was
      * used, delete the sale and register a new one.
+     *
+     * <p>Only what the edit changes is rewritten. Line items are revised in place, position by
+     * position. Stock is locked, released, and drawn again only for the releases and formats whose
+     * total quantity changes; the others keep their movements and the pressings those were drawn
+     * from. An edit to the date or notes alone takes no stock locks at all. Every submitted line
+     * item is validated all the same, before any lock is taken.
      */
     @Transactional
     public Sale execute(
@@ -56,25 +73,36 @@ class UpdateSaleUseCase {
                         .orElseThrow(
                                 () -> new EntityNotFoundException("Sale not found: " + saleId));
 
-        // 1. Reverse old inventory movements (restores inventory to distributor)
-        inventoryMovementCommandApi.deleteMovementsByReference(MovementType.SALE, saleId);
+        var delta =
+                SaleLineItemDelta.between(
+                        saleEntity.getLineItems().stream()
+                                .map(UpdateSaleUseCase::toInput)
+                                .toList(),
+                        lineItems);
+
+        // Every line item is rewritten if any is, so every one is validated, drawn again or not.
+        if (delta.lineItemsChanged()) {
+            lineItemProcessor.validate(lineItems, saleEntity.getLabelId());
+        }
 
-        // 2. Replace old line items on entity
-        saleEntity.clearLineItems();
         saleEntity.setSaleDate(saleDate);
         saleEntity.setNotes(notes);
 
-        // 3. Validate the new line items and work out which pressings each draws from
         InventoryLocation from = InventoryLocation.distributor(saleEntity.getDistributorId());
         List<RunDraw> draws =
-                lineItemProcessor.validateAndAdd(
-                        lineItems, saleEntity.getLabelId(), from, saleEntity);
+                delta.redrawn().isEmpty()
+                        ? List.of()
+                        : redraw(saleEntity, delta.redrawn(), lineItems, from);
+
+        if (delta.lineItemsChanged()) {
+            saleEntity.reviseLineItems(
+                    lineItems.stream().map(SaleLineItemProcessor::toEntity).toList());
+        }
 
-        // 4. Save updated entity
         var savedSale = saleRepository.save(saleEntity);
 
-        // 5. Record new SALE movements (after save ensures referenceId is available), one per
-        // pressing drawn from
+        // Record new SALE movements for the redrawn stock (after save ensures referenceId is
+        // available), one per pressing drawn from
         for (RunDraw draw : draws) {
             inventoryMovementCommandApi.recordMovement(
                     draw.productionRunId(),
@@ -86,10 +114,61 @@ class UpdateSaleUseCase {
         }
 
         log.info(
-                "Sale {} updated successfully with total amount {}",
+                "Sale {} updated successfully with total amount {}, {} of its stock keys redrawn",
                 savedSale.getId(),
-                savedSale.getTotalAmount());
+                savedSale.getTotalAmount(),
+                delta.redrawn().size());
 
         return saleConverter.toSale(savedSale);
     }
+
+    /**
+     * Releases what the sale took of each redrawn key and draws the new quantities afresh, oldest
+     * pressing first — the same attribution a full rewrite would give those keys.
+     *
+     * @return the draws of every submitted line item of a redrawn key, in line item order
+     */
+    private List<RunDraw> redraw(
+            SaleEntity saleEntity,
+            Set<StockKey> redrawn,
+            List<SaleLineItemInput> lineItems,
+            InventoryLocation from) {
+        // Lock every redrawn key in one call: those the sale takes less of, whose movements are
+        // reversed, and those it takes more of, which are drawn. Taken as two batches, those
+        // locks would not be in one order.
+        productionRunQueryApi.lockStock(redrawn, from, InventoryLocation.external());
+
+        // 1. Reverse the redrawn keys' movements (restores their stock to the distributor)
+        List<Long> runIds =
+                productionRunQueryApi
+                        .findByReleaseIds(redrawn.stream().map(StockKey::releaseId).toList())
+                        .stream()
+                        .filter(
+                                run ->
+                                        redrawn.contains(
+                                                new StockKey(run.releaseId(), run.format())))
+                        .map(ProductionRun::id)
+                        .toList();
+        inventoryMovementCommandApi.deleteMovementsByReference(
+                MovementType.SALE, saleEntity.getId(), runIds);
+
+        // 2. Validate the redrawn keys' line items and work out which pressings each draws from
+        return lineItemProcessor.validateAndDraw(
+                lineItems.stream()
+                        .filter(
+                                item ->
+                                        redrawn.contains(
+                                                new StockKey(item.releaseId(), item.format())))
+                        .toList(),
+                saleEntity.getLabelId(),
+                from);
+    }
+
+    private static SaleLineItemInput toInput(SaleLineItemEntity item) {
+        return new SaleLineItemInput(
+                item.getReleaseId(),
+                item.getFormat(),
+                item.getQuantity(),
+                new Money(item.getUnitPrice(), item.getCurrency()));
+    }
 }
@@ -0,0 +1,23 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+/**
+ * What became of one sale in a batch.
+ *
+ * @param index the sale's position in the batch, from zero
+ * @param saleId the id of the registered sale; null if it was rejected
+ * @param error why the sale was rejected; null if it was registered
+ */
+public record BatchSaleResult(int index, Long saleId, String error) {
+
+    public static BatchSaleResult registered(int index, Long saleId) {
+        return new BatchSaleResult(index, saleId, null);
+    }
+
+    public static BatchSaleResult rejected(int index, String error) {
+        return new BatchSaleResult(index, null, error);
+    }
+
+    public boolean isRegistered() {
+        return saleId != null;
+    }
+}
@@ -0,0 +1,14 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.time.LocalDate;
+import org.omt.labelmanager.shared.Money;
+
+/**
+ * One sale as a release's sales list shows it: a summary, aggregated in the database, rather than
+ * the sale with its line items.
+ *
+ * @param totalUnits units across every line item of the sale
+ * @param totalRevenue the sale's total
+ */
+public record ReleaseSale(
+        Long saleId, LocalDate saleDate, Long distributorId, int totalUnits, Money totalRevenue) {}
@@ -0,0 +1,54 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Where a page of sales ends: the last sale's date and id.
+ *
+ * <p>Sales are listed newest first, the id breaking ties between sales of the same day, so the
+ * next page is every sale ordered strictly after this pair. The database finds it by index however
+ * deep the page is; an offset would have it read and throw away every sale before it.
+ *
+ * <p>Clients get it as an opaque token, so the pair it holds can change without breaking them.
+ */
+public record SaleCursor(LocalDate saleDate, long id) {
+
+    /** Before every sale, so the page after it is the first. */
+    public static final SaleCursor START =
+            new SaleCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    /** The cursor a page ending with this sale hands out. */
+    public static SaleCursor after(Sale sale) {
+        return new SaleCursor(sale.saleDate(), sale.id());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((saleDate + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token {@link #encode} produced.
+     *
+     * @throws IllegalArgumentException if it is not one
+     */
+    public static SaleCursor decode(String token) {
+        try {
+            String decoded =
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new SaleCursor(
+                    LocalDate.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.time.LocalDate;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+
+/**
+ * Narrows a label's sales. Every field is optional; a null one matches every sale.
+ *
+ * @param from first sale date included
+ * @param to last sale date included
+ * @param releaseId only sales with at least one line item for this release
+ */
+public record SaleFilter(
+        Long distributorId, ChannelType channel, LocalDate from, LocalDate to, Long releaseId) {
+
+    /** Matches every sale. */
+    public static final SaleFilter NONE = new SaleFilter(null, null, null, null, null);
+}
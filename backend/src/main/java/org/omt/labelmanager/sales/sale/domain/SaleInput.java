@@ -0,0 +1,21 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+
+/**
+ * Input DTO for one sale in a batch — the arguments of {@code registerSale}, as a value.
+ *
+ * @param saleDate the date of the sale
+ * @param channel the sales channel
+ * @param notes optional notes about the sale
+ * @param distributorId the distributor (required for non-DIRECT channels, null for DIRECT)
+ * @param lineItems the items sold
+ */
+public record SaleInput(
+        LocalDate saleDate,
+        ChannelType channel,
+        String notes,
+        Long distributorId,
+        List<SaleLineItemInput> lineItems) {}
@@ -0,0 +1,68 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.shared.Money;
+
+/**
+ * What an edit changes about a sale's line items, and which stock it has to draw again because of
+ * it.
+ *
+ * <p>Stock is drawn per release and format, not per line item: a sale's movements record how many
+ * units left each pressing, not which line item took them. So a key is redrawn only when the total
+ * quantity the sale takes of it changes. Moving units between two line items of one key, or
+ * repricing a line item, rewrites the line items and leaves the movements — and the pressings
+ * they were attributed to — as they are.
+ *
+ * @param lineItemsChanged whether any line item differs, position by position, from the persisted
+ *     ones, or the count does
+ * @param redrawn the keys whose total quantity differs; empty if the edit moves no stock
+ */
+public record SaleLineItemDelta(boolean lineItemsChanged, Set<StockKey> redrawn) {
+
+    public SaleLineItemDelta {
+        redrawn = Set.copyOf(redrawn);
+    }
+
+    public static SaleLineItemDelta between(
+            List<SaleLineItemInput> persisted, List<SaleLineItemInput> submitted) {
+        boolean lineItemsChanged = persisted.size() != submitted.size();
+        for (int i = 0; !lineItemsChanged && i < persisted.size(); i++) {
+            lineItemsChanged = !sameLine(persisted.get(i), submitted.get(i));
+        }
+
+        Map<StockKey, Integer> quantityChange = new HashMap<>();
+        for (SaleLineItemInput item : persisted) {
+            quantityChange.merge(keyOf(item), -item.quantity(), Integer::sum);
+        }
+        for (SaleLineItemInput item : submitted) {
+            quantityChange.merge(keyOf(item), item.quantity(), Integer::sum);
+        }
+        quantityChange.values().removeIf(change -> change == 0);
+
+        return new SaleLineItemDelta(lineItemsChanged, quantityChange.keySet());
+    }
+
+    private static StockKey keyOf(SaleLineItemInput item) {
+        return new StockKey(item.releaseId(), item.format());
+    }
+
+    /** Amounts compared by value: 15.0 and 15.00 are the same price. */
+    private static boolean sameLine(SaleLineItemInput a, SaleLineItemInput b) {
+        return Objects.equals(a.releaseId(), b.releaseId())
+                && a.format() == b.format()
+                && a.quantity() == b.quantity()
+                && samePrice(a.unitPrice(), b.unitPrice());
+    }
+
+    private static boolean samePrice(Money a, Money b) {
+        if (a == null || b == null || a.amount() == null || b.amount() == null) {
+            return a == b;
+        }
+        return a.amount().compareTo(b.amount()) == 0 && Objects.equals(a.currency(), b.currency());
+    }
+}
@@ -0,0 +1,10 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import java.util.List;
+
+/**
+ * One page of sales, newest first.
+ *
+ * @param next where the following page starts; null on the last page
+ */
+public record SalePage(List<Sale> sales, SaleCursor next) {}
@@ -0,0 +1,108 @@
+package org.omt.labelmanager.sales.sale.infrastructure;
+
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts sales and their line items as JDBC batches, for bulk imports.
+ *
+ * <p>{@link SaleEntity} and {@link SaleLineItemEntity} take their ids from IDENTITY columns, and
+ * Hibernate cannot batch an insert whose generated id it has to read back — through {@link
+ * SaleRepository}, a thousand sales are a thousand round trips for the sales and as many again for
+ * their line items. Here the sale ids are drawn from the column's sequence up front in one query,
+ * so line items can reference their sale before either is written, and both go out in batches.
+ *
+ * <p>Takes the entities, unsaved, so totals are worked out by the same code as on the single-sale
+ * path. They are left unsaved: the persistence context never sees them.
+ */
+@Repository
+public class SaleBatchInserter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String NEXT_SALE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('sale', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SALE =
+            """
+            INSERT INTO sale (id, label_id, distributor_id, sale_date, channel, notes,
+                              total_amount, currency, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_LINE_ITEM =
+            """
+            INSERT INTO sale_line_item (sale_id, release_id, format, quantity, unit_price,
+                                        line_total, currency)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SaleBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts every sale with its line items.
+     *
+     * @param sales unsaved sale entities, line items attached
+     * @return the id each sale was given, in the order the sales were passed
+     */
+    public List<Long> insert(List<SaleEntity> sales) {
+        if (sales.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_SALE_IDS, Long.class, sales.size());
+
+        List<Integer> positions = new ArrayList<>(sales.size());
+        for (int i = 0; i < sales.size(); i++) {
+            positions.add(i);
+        }
+        jdbcTemplate.batchUpdate(
+                INSERT_SALE,
+                positions,
+                BATCH_SIZE,
+                (statement, i) -> {
+                    SaleEntity sale = sales.get(i);
+                    statement.setLong(1, ids.get(i));
+                    statement.setLong(2, sale.getLabelId());
+                    statement.setLong(3, sale.getDistributorId());
+                    statement.setObject(4, sale.getSaleDate());
+                    statement.setString(5, sale.getChannel().name());
+                    statement.setObject(6, sale.getNotes(), Types.VARCHAR);
+                    statement.setBigDecimal(7, sale.getTotalAmount());
+                    statement.setString(8, sale.getCurrency());
+                    statement.setObject(9, sale.getCreatedAt().atOffset(ZoneOffset.UTC));
+                });
+
+        List<LineItemRow> lineItems = new ArrayList<>();
+        for (int i = 0; i < sales.size(); i++) {
+            for (SaleLineItemEntity item : sales.get(i).getLineItems()) {
+                lineItems.add(new LineItemRow(ids.get(i), item));
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                INSERT_LINE_ITEM,
+                lineItems,
+                BATCH_SIZE,
+                (statement, row) -> {
+                    SaleLineItemEntity item = row.item();
+                    statement.setLong(1, row.saleId());
+                    statement.setLong(2, item.getReleaseId());
+                    statement.setString(3, item.getFormat().name());
+                    statement.setInt(4, item.getQuantity());
+                    statement.setBigDecimal(5, item.getUnitPrice());
+                    statement.setBigDecimal(6, item.getLineTotal());
+                    statement.setString(7, item.getCurrency());
+                });
+
+        return List.copyOf(ids);
+    }
+
+    private record LineItemRow(Long saleId, SaleLineItemEntity item) {}
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -41,7 +42,10 @@ public class SaleEntity {
     @Column(name = "notes")
     private String notes;
 
+    // Ordered so an edit can match line items by position: new ones are appended, so id order is
+    // the order they were submitted in.
     @OneToMany(mappedBy = "sale", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
     private List<SaleLineItemEntity> lineItems = new ArrayList<>();
 
     @Column(name = "total_amount", nullable = false)
@@ -87,6 +91,26 @@ public class SaleEntity {
         this.totalAmount = BigDecimal.ZERO;
     }
 
+    /**
+     * Brings the line items in line with {@code revised}, position by position: a line item that
+     * already matches is left alone, one that differs is rewritten in place, and the count is made
+     * up by adding new ones or removing surplus ones. Editing one line item of many writes one row.
+     */
+    public void reviseLineItems(List<SaleLineItemEntity> revised) {
+        int kept = Math.min(lineItems.size(), revised.size());
+        for (int i = 0; i < kept; i++) {
+            if (!lineItems.get(i).sameLineAs(revised.get(i))) {
+                lineItems.get(i).reviseTo(revised.get(i));
+            }
+        }
+        lineItems.subList(kept, lineItems.size()).clear();
+        for (SaleLineItemEntity item : revised.subList(kept, revised.size())) {
+            lineItems.add(item);
+            item.setSale(this);
+        }
+        recalculateTotal();
+    }
+
     public void setSaleDate(LocalDate saleDate) {
         this.saleDate = saleDate;
     }
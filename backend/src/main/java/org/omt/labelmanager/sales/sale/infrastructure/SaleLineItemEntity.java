@@ -12,6 +12,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.util.Objects;
 import org.omt.labelmanager.shared.Format;
 
 @Entity
@@ -57,6 +58,28 @@ public class SaleLineItemEntity {
         this.currency = currency;
     }
 
+    /**
+     * Takes on {@code revised}'s values, keeping this row's id — an edit to a line item is one
+     * UPDATE rather than a DELETE and an INSERT.
+     */
+    void reviseTo(SaleLineItemEntity revised) {
+        this.releaseId = revised.releaseId;
+        this.format = revised.format;
+        this.quantity = revised.quantity;
+        this.unitPrice = revised.unitPrice;
+        this.lineTotal = revised.lineTotal;
+        this.currency = revised.currency;
+    }
+
+    /** Same release, format, quantity and price; amounts are compared by value. */
+    boolean sameLineAs(SaleLineItemEntity other) {
+        return Objects.equals(releaseId, other.releaseId)
+                && format == other.format
+                && quantity == other.quantity
+                && unitPrice.compareTo(other.unitPrice) == 0
+                && Objects.equals(currency, other.currency);
+    }
+
     public Long getId() {
         return id;
     }
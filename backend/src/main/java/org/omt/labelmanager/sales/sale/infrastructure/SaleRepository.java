@@ -1,16 +1,82 @@
 package org.omt.labelmanager.sales.sale.infrastructure;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface SaleRepository extends JpaRepository<SaleEntity, Long> {
 
-    List<SaleEntity> findByLabelIdOrderBySaleDateDesc(Long labelId);
+    /**
+     * The optional filters of a sales listing, appended to a {@code WHERE} on {@code s}. A null
+     * parameter switches its filter off.
+     */
+    String FILTERS =
+            """
+              AND (:distributorId IS NULL OR s.distributorId = :distributorId)
+              AND (:channel IS NULL OR s.channel = :channel)
+              AND (:from IS NULL OR s.saleDate >= :from)
+              AND (:to IS NULL OR s.saleDate <= :to)
+              AND (:releaseId IS NULL
+                   OR EXISTS (SELECT li.id
+                              FROM SaleLineItemEntity li
+                              WHERE li.sale = s AND li.releaseId = :releaseId))
+            """;
+
+    /**
+     * The ids of one page of a label's sales, newest first: those ordered after {@code (afterDate,
+     * afterId)}, as many as {@code limit} allows.
+     *
+     * <p>Ids only. The row comparison is a range on the {@code (label_id, sale_date, id)} index
+     * (V37), so the page costs the same however far into the history it is. The sales themselves
+     * are loaded by {@link #findWithLineItemsByIdIn}, for this page only.
+     */
+    @Query(
+            """
+            SELECT s.id FROM SaleEntity s
+            WHERE s.labelId = :labelId
+              AND (s.saleDate, s.id) < (:afterDate, :afterId)
+            """
+                    + FILTERS
+                    + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Long> findPageOfLabel(
+            @Param("labelId") Long labelId,
+            @Param("distributorId") Long distributorId,
+            @Param("channel") ChannelType channel,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("releaseId") Long releaseId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    /** As {@link #findPageOfLabel}, for one distributor's sales, on its own index. */
+    @Query(
+            """
+            SELECT s.id FROM SaleEntity s
+            WHERE s.distributorId = :distributorId
+              AND (s.saleDate, s.id) < (:afterDate, :afterId)
+            ORDER BY s.saleDate DESC, s.id DESC
+            """)
+    List<Long> findPageOfDistributor(
+            @Param("distributorId") Long distributorId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
 
-    List<SaleEntity> findByDistributorIdOrderBySaleDateDesc(Long distributorId);
+    /** These sales with their line items, in one query. In no particular order. */
+    @Query(
+            """
+            SELECT DISTINCT s FROM SaleEntity s
+            LEFT JOIN FETCH s.lineItems
+            WHERE s.id IN :ids
+            """)
+    List<SaleEntity> findWithLineItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Returns all sales recorded against the given production run.
@@ -35,8 +101,49 @@ public interface SaleRepository extends JpaRepository<SaleEntity, Long> {
     List<SaleEntity> findByProductionRunIdOrderBySaleDateDesc(
             @Param("productionRunId") Long productionRunId);
 
+    /**
+     * Every sale that drew stock from any production run of the release, summarised, newest first.
+     *
+     * <p>One statement for the whole release. A sale drawing from two pressings has movements
+     * against both, and is still one row: the movements only pick which sales, through {@code IN}.
+     *
+     * @return rows of {@code (sale_id, sale_date, distributor_id, total_units, total_amount,
+     *     currency)}
+     */
+    @Query(
+            value =
+                    """
+            SELECT s.id, s.sale_date, s.distributor_id, SUM(li.quantity), s.total_amount, s.currency
+            FROM sale s
+            JOIN sale_line_item li ON li.sale_id = s.id
+            WHERE s.id IN (SELECT im.reference_id
+                           FROM inventory_movement im
+                           JOIN production_run pr ON pr.id = im.production_run_id
+                           WHERE pr.release_id = :releaseId
+                             AND im.movement_type = 'SALE')
+            GROUP BY s.id
+            ORDER BY s.sale_date DESC, s.id DESC
+            """,
+            nativeQuery = true)
+    List<Object[]> summariseSalesOfRelease(@Param("releaseId") Long releaseId);
+
+    /** Total of every sale of the label the filters match — not just one page of them. */
+    @Query(
+            """
+            SELECT COALESCE(SUM(s.totalAmount), 0) FROM SaleEntity s
+            WHERE s.labelId = :labelId
+            """
+                    + FILTERS)
+    BigDecimal sumTotalAmountOfLabel(
+            @Param("labelId") Long labelId,
+            @Param("distributorId") Long distributorId,
+            @Param("channel") ChannelType channel,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("releaseId") Long releaseId);
+
     @Query(
             "SELECT COALESCE(SUM(s.totalAmount), 0) FROM SaleEntity s "
-                    + "WHERE s.labelId = :labelId")
-    BigDecimal sumTotalAmountByLabelId(@Param("labelId") Long labelId);
+                    + "WHERE s.distributorId = :distributorId")
+    BigDecimal sumTotalAmountOfDistributor(@Param("distributorId") Long distributorId);
 }
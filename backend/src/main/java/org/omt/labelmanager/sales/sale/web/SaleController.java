@@ -6,23 +6,28 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.Distributor;
 import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
-import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.sale.domain.SaleFilter;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItem;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.domain.SalePage;
 import org.omt.labelmanager.shared.Format;
 import org.omt.labelmanager.shared.Money;
+import org.omt.labelmanager.shared.QueryBudget;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -31,16 +36,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class SaleController {
 
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final SaleCommandApi saleCommandApi;
     private final SaleQueryApi saleQueryApi;
     private final LabelQueryApi labelQueryApi;
     private final ReleaseQueryApi releaseQueryApi;
-    private final ProductionRunQueryApi productionRunQueryApi;
     private final DistributorQueryApi distributorQueryApi;
 
     public SaleController(
@@ -48,13 +55,11 @@ public class SaleController {
             SaleQueryApi saleQueryApi,
             LabelQueryApi labelQueryApi,
             ReleaseQueryApi releaseQueryApi,
-            ProductionRunQueryApi productionRunQueryApi,
             DistributorQueryApi distributorQueryApi) {
         this.saleCommandApi = saleCommandApi;
         this.saleQueryApi = saleQueryApi;
         this.labelQueryApi = labelQueryApi;
         this.releaseQueryApi = releaseQueryApi;
-        this.productionRunQueryApi = productionRunQueryApi;
         this.distributorQueryApi = distributorQueryApi;
     }
 
@@ -95,6 +100,29 @@ public class SaleController {
         }
     }
 
+    /**
+     * Not {@code @Valid} per sale: one sale missing a field must not reject the batch. The use
+     * case checks each sale and reports it.
+     */
+    record RegisterSaleBatchRequest(@NotEmpty List<RegisterSaleRequest> sales) {
+        List<SaleInput> toSaleInputs() {
+            return sales.stream()
+                    .map(
+                            sale ->
+                                    new SaleInput(
+                                            sale.saleDate(),
+                                            sale.channel(),
+                                            sale.notes(),
+                                            sale.distributorId(),
+                                            sale.lineItems() == null
+                                                    ? List.of()
+                                                    : sale.toLineItemInputs()))
+                    .toList();
+        }
+    }
+
+    record BatchSaleResponse(int registered, int rejected, List<BatchSaleResult> results) {}
+
     record UpdateSaleRequest(
             @NotNull LocalDate saleDate, String notes, @NotEmpty List<LineItemRequest> lineItems) {
         List<SaleLineItemInput> toLineItemInputs() {
@@ -102,7 +130,18 @@ public class SaleController {
         }
     }
 
-    record SaleListResponse(List<Sale> sales, Money totalRevenue) {}
+    /**
+     * One page of sales. {@code totalRevenue} covers every sale the listing matches, not just this
+     * page; {@code nextCursor} is null on the last page.
+     */
+    record SalePageResponse(List<Sale> sales, String nextCursor, Money totalRevenue) {
+        static SalePageResponse of(SalePage page, Money totalRevenue) {
+            return new SalePageResponse(
+                    page.sales(),
+                    page.next() == null ? null : page.next().encode(),
+                    totalRevenue);
+        }
+    }
 
     record EnrichedLineItem(
             Long id,
@@ -135,66 +174,87 @@ public class SaleController {
     /**
      * The sales attributed to one release, through its production runs.
      *
+     * <p>Summarised by the database in one query for the whole release, however many pressings and
+     * sales it has. Loading each pressing's sales in full, line items and all, only to count their
+     * units cost a query per pressing and most of the sale table on a busy release.
+     *
      * <p>Replaces the {@code releaseSales} and {@code totalUnitsSold} fields of the release detail
      * response.
      */
+    @QueryBudget(6)
     @GetMapping("/api/labels/{labelId}/releases/{releaseId}/sales")
     public ReleaseSalesResponse salesForRelease(
             @PathVariable Long labelId, @PathVariable Long releaseId) {
         requireReleaseOfLabel(releaseId, labelId);
 
-        List<Distributor> distributors = distributorQueryApi.findByLabelId(labelId);
-        // Distinct by sale: one sale is attributed to every pressing it drew from, and a sale
-        // large enough to span two pressings is returned by both. Listing it twice would also
-        // count its units twice in totalUnitsSold.
+        Map<Long, String> distributorNames =
+                distributorQueryApi.findByLabelId(labelId).stream()
+                        .collect(Collectors.toMap(Distributor::id, Distributor::name));
         List<ReleaseSaleView> sales =
-                productionRunQueryApi.findByReleaseId(releaseId).stream()
-                        .flatMap(run -> saleQueryApi.getSalesForProductionRun(run.id()).stream())
-                        .collect(
-                                Collectors.toMap(
-                                        Sale::id,
-                                        sale -> sale,
-                                        (first, duplicate) -> first,
-                                        LinkedHashMap::new))
-                        .values()
-                        .stream()
-                        .map(sale -> toReleaseSaleView(sale, distributors))
-                        .sorted(Comparator.comparing(ReleaseSaleView::saleDate).reversed())
+                saleQueryApi.getSalesForRelease(releaseId).stream()
+                        .map(
+                                sale ->
+                                        new ReleaseSaleView(
+                                                sale.saleId(),
+                                                sale.saleDate(),
+                                                distributorNames.getOrDefault(
+                                                        sale.distributorId(), "Unknown"),
+                                                sale.totalUnits(),
+                                                sale.totalRevenue()))
                         .toList();
 
         int totalUnitsSold = sales.stream().mapToInt(ReleaseSaleView::totalUnits).sum();
         return new ReleaseSalesResponse(sales, totalUnitsSold);
     }
 
-    private ReleaseSaleView toReleaseSaleView(Sale sale, List<Distributor> distributors) {
-        int totalUnits = sale.lineItems().stream().mapToInt(SaleLineItem::quantity).sum();
-        String distributorName =
-                distributors.stream()
-                        .filter(d -> d.id().equals(sale.distributorId()))
-                        .findFirst()
-                        .map(Distributor::name)
-                        .orElse("Unknown");
-        return new ReleaseSaleView(
-                sale.id(), sale.saleDate(), distributorName, totalUnits, sale.totalAmount());
+    private static SaleCursor toCursor(String cursor) {
+        return cursor == null ? SaleCursor.START : SaleCursor.decode(cursor);
     }
 
     /**
-     * The sales made through one distributor. Replaces the {@code sales} field of the distributor
-     * detail response.
+     * The sales made through one distributor, a page at a time. Replaces the {@code sales} field
+     * of the distributor detail response.
      */
+    @QueryBudget(6)
     @GetMapping("/api/labels/{labelId}/distributors/{distributorId}/sales")
-    public List<Sale> salesForDistributor(
-            @PathVariable Long labelId, @PathVariable Long distributorId) {
+    public SalePageResponse salesForDistributor(
+            @PathVariable Long labelId,
+            @PathVariable Long distributorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         requireDistributorOfLabel(distributorId, labelId);
-        return saleQueryApi.getSalesForDistributor(distributorId);
+        var page = saleQueryApi.getSalesForDistributor(distributorId, toCursor(cursor), limit);
+        var totalRevenue = saleQueryApi.getTotalRevenueForDistributor(distributorId);
+        return SalePageResponse.of(page, totalRevenue);
     }
 
+    /**
+     * The label's sales, a page at a time, optionally narrowed down.
+     *
+     * <p>Only the page's sales are loaded, line items and all; the revenue total is summed by the
+     * database over every sale the filters match. Listing every sale the label ever made, each
+     * fully loaded, took seconds and megabytes on an older label.
+     */
+    @QueryBudget(6)
     @GetMapping("/api/labels/{labelId}/sales")
-    public SaleListResponse listSales(@PathVariable Long labelId) {
+    public SalePageResponse listSales(
+            @PathVariable Long labelId,
+            @RequestParam(value = "distributorId", required = false) Long distributorId,
+            @RequestParam(value = "channel", required = false) ChannelType channel,
+            @RequestParam(value = "from", required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate from,
+            @RequestParam(value = "to", required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                    LocalDate to,
+            @RequestParam(value = "releaseId", required = false) Long releaseId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         requireLabel(labelId);
-        var sales = saleQueryApi.getSalesForLabel(labelId);
-        var totalRevenue = saleQueryApi.getTotalRevenueForLabel(labelId);
-        return new SaleListResponse(sales, totalRevenue);
+        var filter = new SaleFilter(distributorId, channel, from, to, releaseId);
+        var page = saleQueryApi.getSalesForLabel(labelId, filter, toCursor(cursor), limit);
+        var totalRevenue = saleQueryApi.getTotalRevenueForLabel(labelId, filter);
+        return SalePageResponse.of(page, totalRevenue);
     }
 
     @PostMapping("/api/labels/{labelId}/sales")
@@ -215,6 +275,20 @@ public class SaleController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /**
+     * Registers many sales in one request, reporting each sale's outcome rather than failing the
+     * batch on the first bad one. 200 even when some were rejected: the request itself succeeded.
+     */
+    @PostMapping("/api/labels/{labelId}/sales:batch")
+    public BatchSaleResponse registerSales(
+            @PathVariable Long labelId, @Valid @RequestBody RegisterSaleBatchRequest request) {
+        requireLabel(labelId);
+        List<BatchSaleResult> results =
+                saleCommandApi.registerSales(labelId, request.toSaleInputs());
+        int registered = (int) results.stream().filter(BatchSaleResult::isRegistered).count();
+        return new BatchSaleResponse(registered, results.size() - registered, results);
+    }
+
     @GetMapping("/api/labels/{labelId}/sales/{saleId}")
     public SaleDetailResponse viewSale(@PathVariable Long labelId, @PathVariable Long saleId) {
         return toDetailResponse(requireSaleOfLabel(labelId, saleId));
@@ -252,7 +326,11 @@ public class SaleController {
     }
 
     private SaleDetailResponse toDetailResponse(Sale sale) {
-        var lineItems = sale.lineItems().stream().map(this::enrichLineItem).toList();
+        Map<Long, String> releaseNames =
+                releaseQueryApi.namesByIds(
+                        sale.lineItems().stream().map(SaleLineItem::releaseId).toList());
+        var lineItems =
+                sale.lineItems().stream().map(item -> enrichLineItem(item, releaseNames)).toList();
         return new SaleDetailResponse(
                 sale.id(),
                 sale.labelId(),
@@ -264,9 +342,8 @@ public class SaleController {
                 lineItems);
     }
 
-    private EnrichedLineItem enrichLineItem(SaleLineItem item) {
-        var releaseName =
-                releaseQueryApi.findById(item.releaseId()).map(r -> r.name()).orElse("Unknown");
+    private EnrichedLineItem enrichLineItem(SaleLineItem item, Map<Long, String> releaseNames) {
+        var releaseName = releaseNames.getOrDefault(item.releaseId(), "Unknown");
         return new EnrichedLineItem(
                 item.id(),
                 item.releaseId(),
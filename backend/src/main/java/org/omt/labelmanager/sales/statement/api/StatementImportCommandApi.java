@@ -0,0 +1,30 @@
+package org.omt.labelmanager.sales.statement.api;
+
+import java.io.InputStream;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+
+/** Public API for importing distributor statements as sales. */
+public interface StatementImportCommandApi {
+
+    /**
+     * Open an import of one distributor's statement. Nothing is read until its content arrives.
+     *
+     * @param labelId the label ID
+     * @param distributorId the distributor whose statement it is; must belong to the label
+     * @param format how the content will be encoded
+     * @return the new import, {@code PENDING}
+     */
+    StatementImport create(Long labelId, Long distributorId, StatementFormat format);
+
+    /**
+     * Stream a statement's content into sales, committing a chunk at a time.
+     *
+     * <p>Sending the content of an import that broke off again resumes it from its checkpoint.
+     *
+     * @param importId the import ID
+     * @param content the statement, read once and not buffered
+     * @return the import once the content is exhausted, {@code COMPLETED}
+     */
+    StatementImport ingest(Long importId, InputStream content);
+}
@@ -0,0 +1,27 @@
+package org.omt.labelmanager.sales.statement.api;
+
+import java.util.List;
+import java.util.Optional;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+
+/** Public API for statement import query operations. */
+public interface StatementImportQueryApi {
+
+    /**
+     * Find an import by ID, with its progress so far.
+     *
+     * @param importId the import ID
+     * @return the import, if found
+     */
+    Optional<StatementImport> findById(Long importId);
+
+    /**
+     * Get the reasons sales of an import were rejected, ordered by row. Only the first {@code
+     * sales.statement-import.max-stored-rejections} are kept; the import's count covers them all.
+     *
+     * @param importId the import ID
+     * @return list of rejections
+     */
+    List<StatementRejection> getRejections(Long importId);
+}
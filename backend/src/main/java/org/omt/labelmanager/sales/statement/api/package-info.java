@@ -0,0 +1,8 @@
+/**
+ * Statement imports' published surface: the command and query APIs. Everything else in {@code
+ * sales.statement} is internal.
+ */
+@NamedInterface("api")
+package org.omt.labelmanager.sales.statement.api;
+
+import org.springframework.modulith.NamedInterface;
@@ -0,0 +1,37 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportEntity;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+class CreateStatementImportUseCase {
+
+    private final StatementImportRepository repository;
+    private final DistributorQueryApi distributorQueryApi;
+    private final StatementImportConverter converter;
+
+    CreateStatementImportUseCase(
+            StatementImportRepository repository,
+            DistributorQueryApi distributorQueryApi,
+            StatementImportConverter converter) {
+        this.repository = repository;
+        this.distributorQueryApi = distributorQueryApi;
+        this.converter = converter;
+    }
+
+    @Transactional
+    public StatementImport execute(Long labelId, Long distributorId, StatementFormat format) {
+        if (!distributorQueryApi.belongsToLabel(distributorId, labelId)) {
+            throw new EntityNotFoundException(
+                    "Distributor " + distributorId + " does not belong to label " + labelId);
+        }
+        var entity = repository.save(new StatementImportEntity(labelId, distributorId, format));
+        return converter.toStatementImport(entity);
+    }
+}
@@ -0,0 +1,158 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV: comma-separated, fields optionally double-quoted, a quote inside a quoted
+ * field doubled, and line breaks allowed inside quotes. The first record names the columns.
+ *
+ * <p>Parses character by character rather than line by line, because a quoted field may span
+ * lines. A field is capped at {@link #MAX_FIELD_LENGTH}: an unbalanced quote would otherwise read
+ * the rest of the upload into one field.
+ */
+class CsvStatementReader implements StatementReader {
+
+    static final int MAX_FIELD_LENGTH = 10_000;
+
+    /** Spreadsheet exports often start with one; it would otherwise stick to the first column. */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private boolean atStart = true;
+    private List<String> columns;
+    private long rowNumber;
+
+    CsvStatementReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (columns == null) {
+            columns = readHeader();
+            if (columns == null) {
+                return null;
+            }
+        }
+
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (isBlank(record));
+
+        rowNumber++;
+        if (record.size() != columns.size()) {
+            return new StatementRow(
+                    rowNumber,
+                    Map.of(),
+                    record.size() + " fields, but the header names " + columns.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            fields.put(columns.get(i), record.get(i));
+        }
+        return new StatementRow(rowNumber, fields, null);
+    }
+
+    private List<String> readHeader() throws IOException {
+        List<String> header;
+        do {
+            header = readRecord();
+            if (header == null) {
+                return null;
+            }
+        } while (isBlank(header));
+
+        List<String> names = new ArrayList<>();
+        for (String name : header) {
+            names.add(name.strip().toLowerCase(Locale.ROOT));
+        }
+        StatementRowMapper.checkColumns(names);
+        return names;
+    }
+
+    /** One record, or null at the end of the input. */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAnything = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (atStart) {
+                atStart = false;
+                if (c == BYTE_ORDER_MARK) {
+                    continue;
+                }
+            }
+            readAnything = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        if (following != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(field, (char) c);
+            }
+        }
+
+        if (!readAnything) {
+            return null;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException(
+                    "The statement ends inside a quoted field after row " + rowNumber);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException(
+                    "A field after row "
+                            + rowNumber
+                            + " is longer than "
+                            + MAX_FIELD_LENGTH
+                            + " characters — most likely an unclosed quote");
+        }
+        field.append(c);
+    }
+
+    private static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.getFirst().isBlank();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,144 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.distribution.distributor.api.Distributor;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Streams a statement into sales, a chunk at a time.
+ *
+ * <p>Rows are read as they arrive and gathered into sales — consecutive rows with the same {@code
+ * sale_date} and {@code reference} are one sale. Once a chunk holds {@link
+ * StatementImportProperties#chunkRows()} rows, it is committed at the next sale boundary: the
+ * sales and the checkpoint past their rows in one transaction. Memory is one chunk, however long
+ * the statement, and no transaction outlives its chunk.
+ *
+ * <p>Deliberately not {@code @Transactional}. An upload that breaks off leaves every chunk before
+ * the break committed and the import {@code RUNNING}; sending the same statement again skips the
+ * rows up to the checkpoint and carries on, so no sale is registered twice.
+ */
+@Service
+class IngestStatementUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestStatementUseCase.class);
+
+    private final StatementChunkCommitter committer;
+    private final DistributorQueryApi distributorQueryApi;
+    private final ReleaseQueryApi releaseQueryApi;
+    private final StatementImportProperties properties;
+    private final JsonMapper jsonMapper;
+
+    IngestStatementUseCase(
+            StatementChunkCommitter committer,
+            DistributorQueryApi distributorQueryApi,
+            ReleaseQueryApi releaseQueryApi,
+            StatementImportProperties properties,
+            JsonMapper jsonMapper) {
+        this.committer = committer;
+        this.distributorQueryApi = distributorQueryApi;
+        this.releaseQueryApi = releaseQueryApi;
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the statement as a whole cannot be read; the import is
+     *     marked {@code FAILED}
+     * @throws IllegalStateException if the import has completed, or another upload of it is running
+     * @throws UncheckedIOException if the upload breaks off; the import stays resumable
+     */
+    public StatementImport execute(Long importId, InputStream content) {
+        StatementImport started = committer.start(importId);
+        Distributor distributor =
+                distributorQueryApi
+                        .findById(started.distributorId())
+                        .orElseThrow(
+                                () ->
+                                        new EntityNotFoundException(
+                                                "Distributor not found: "
+                                                        + started.distributorId()));
+        var mapper = new StatementRowMapper(releaseQueryApi.getReleasesForLabel(started.labelId()));
+        long resumeAfter = started.rowsCommitted();
+        if (resumeAfter > 0) {
+            log.info("Statement import {}: resuming after row {}", importId, resumeAfter);
+        }
+
+        StatementImport progress = started;
+        try (StatementReader reader = StatementReader.open(started.format(), content, jsonMapper)) {
+            List<StatementSale> chunk = new ArrayList<>();
+            int chunkRows = 0;
+            StatementSale current = null;
+            StatementRow row;
+            while ((row = reader.next()) != null) {
+                if (row.number() <= resumeAfter) {
+                    continue;
+                }
+                List<String> key = StatementRowMapper.saleKeyOf(row);
+                if (current != null && !current.key().equals(key)) {
+                    chunk.add(current);
+                    chunkRows += current.rows();
+                    current = null;
+                    if (chunkRows >= properties.chunkRows()) {
+                        progress = commit(progress, distributor, chunk);
+                        chunk = new ArrayList<>();
+                        chunkRows = 0;
+                    }
+                }
+                if (current == null) {
+                    current =
+                            new StatementSale(
+                                    key, row.number(), row.field(StatementRowMapper.REFERENCE));
+                }
+                current.add(row, mapper, properties.maxLinesPerSale());
+            }
+            if (current != null) {
+                chunk.add(current);
+            }
+            if (!chunk.isEmpty()) {
+                progress = commit(progress, distributor, chunk);
+            }
+        } catch (IllegalArgumentException e) {
+            committer.fail(importId, e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            log.warn(
+                    "Statement import {}: upload broke off after row {}",
+                    importId,
+                    progress.rowsCommitted());
+            throw new UncheckedIOException(e);
+        }
+
+        StatementImport completed = committer.complete(importId);
+        log.info(
+                "Statement import {} completed: {} rows, {} sales registered, {} rejected",
+                importId,
+                completed.rowsCommitted(),
+                completed.salesRegistered(),
+                completed.salesRejected());
+        return completed;
+    }
+
+    private StatementImport commit(
+            StatementImport progress, Distributor distributor, List<StatementSale> chunk) {
+        StatementImport committed =
+                committer.commit(progress.id(), progress.rowsCommitted(), distributor, chunk);
+        log.info(
+                "Statement import {}: {} rows committed, {} sales registered, {} rejected",
+                committed.id(),
+                committed.rowsCommitted(),
+                committed.salesRegistered(),
+                committed.salesRejected());
+        return committed;
+    }
+}
@@ -0,0 +1,65 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads newline-delimited JSON: one object per line, keyed by the same column names as the CSV
+ * header. Values may be strings or numbers; both are read as text and parsed by the mapper, so a
+ * quantity means the same thing whichever encoding it arrived in.
+ */
+class NdjsonStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private final JsonMapper jsonMapper;
+    private long rowNumber;
+
+    NdjsonStatementReader(BufferedReader reader, JsonMapper jsonMapper) {
+        this.reader = reader;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        rowNumber++;
+        JsonNode node;
+        try {
+            node = jsonMapper.readTree(line);
+        } catch (JacksonException e) {
+            return new StatementRow(rowNumber, Map.of(), "not valid JSON");
+        }
+        if (!node.isObject()) {
+            return new StatementRow(rowNumber, Map.of(), "not a JSON object");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, JsonNode> property : node.properties()) {
+            JsonNode value = property.getValue();
+            if (!value.isNull()) {
+                fields.put(
+                        property.getKey().strip().toLowerCase(Locale.ROOT),
+                        value.isValueNode() ? value.asString() : value.toString());
+            }
+        }
+        return new StatementRow(rowNumber, fields, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,175 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.omt.labelmanager.distribution.distributor.api.Distributor;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.domain.StatementImportStatus;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportEntity;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRejectionEntity;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRejectionRepository;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The transactions of a statement import — one per chunk, each moving the checkpoint in the same
+ * commit as the sales it covers.
+ *
+ * <p>Separate from {@link IngestStatementUseCase} so each call goes through the transactional
+ * proxy: the ingest loop itself runs outside any transaction, and holds no locks and no
+ * persistence context between chunks.
+ */
+@Service
+class StatementChunkCommitter {
+
+    private final StatementImportRepository importRepository;
+    private final StatementImportRejectionRepository rejectionRepository;
+    private final SaleCommandApi saleCommandApi;
+    private final StatementImportConverter converter;
+    private final StatementImportProperties properties;
+
+    StatementChunkCommitter(
+            StatementImportRepository importRepository,
+            StatementImportRejectionRepository rejectionRepository,
+            SaleCommandApi saleCommandApi,
+            StatementImportConverter converter,
+            StatementImportProperties properties) {
+        this.importRepository = importRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.saleCommandApi = saleCommandApi;
+        this.converter = converter;
+        this.properties = properties;
+    }
+
+    /**
+     * Marks the import as receiving content.
+     *
+     * @return the import as it stands, its checkpoint included
+     * @throws IllegalStateException if the import has already completed
+     */
+    @Transactional
+    public StatementImport start(Long importId) {
+        StatementImportEntity entity = lock(importId);
+        if (entity.getStatus() == StatementImportStatus.COMPLETED) {
+            throw new IllegalStateException(
+                    "Statement import " + importId + " has already completed");
+        }
+        entity.start();
+        return converter.toStatementImport(entity);
+    }
+
+    /**
+     * Registers one chunk's sales and moves the checkpoint past its rows, together.
+     *
+     * @param checkpoint the rows committed when this upload last looked. If the import has moved
+     *     on since, another upload of it is running, and this chunk is already in.
+     * @param sales the chunk's sales, in statement order
+     * @return the import after the chunk
+     * @throws IllegalStateException if the checkpoint has moved
+     */
+    @Transactional
+    public StatementImport commit(
+            Long importId, long checkpoint, Distributor distributor, List<StatementSale> sales) {
+        StatementImportEntity entity = lock(importId);
+        if (entity.getRowsCommitted() != checkpoint) {
+            throw new IllegalStateException(
+                    "Statement import "
+                            + importId
+                            + " is at row "
+                            + entity.getRowsCommitted()
+                            + ", not "
+                            + checkpoint
+                            + " — another upload of it is running");
+        }
+
+        List<StatementSale> submitted = new ArrayList<>();
+        List<SaleInput> inputs = new ArrayList<>();
+        List<StatementRejection> rejections = new ArrayList<>();
+        int rows = 0;
+        for (StatementSale sale : sales) {
+            rows += sale.rows();
+            if (sale.error() != null) {
+                rejections.add(new StatementRejection(sale.firstRow(), sale.error()));
+            } else {
+                submitted.add(sale);
+                inputs.add(
+                        new SaleInput(
+                                sale.saleDate(),
+                                distributor.channelType(),
+                                notesFor(importId, sale),
+                                distributor.id(),
+                                List.copyOf(sale.lineItems())));
+            }
+        }
+
+        List<BatchSaleResult> results =
+                inputs.isEmpty()
+                        ? List.of()
+                        : saleCommandApi.registerSales(entity.getLabelId(), inputs);
+        int registered = 0;
+        for (BatchSaleResult result : results) {
+            if (result.isRegistered()) {
+                registered++;
+            } else {
+                StatementSale sale = submitted.get(result.index());
+                rejections.add(
+                        new StatementRejection(
+                                sale.firstRow(), "Row " + sale.firstRow() + ": " + result.error()));
+            }
+        }
+
+        store(entity, rejections);
+        entity.recordChunk(rows, registered, rejections.size());
+        return converter.toStatementImport(entity);
+    }
+
+    @Transactional
+    public StatementImport complete(Long importId) {
+        StatementImportEntity entity = lock(importId);
+        entity.complete();
+        return converter.toStatementImport(entity);
+    }
+
+    @Transactional
+    public void fail(Long importId, String error) {
+        lock(importId).fail(error);
+    }
+
+    /** Keeps reasons up to the per-import cap; past it they are only counted. */
+    private void store(StatementImportEntity entity, List<StatementRejection> rejections) {
+        int alreadyStored = Math.min(entity.getSalesRejected(), properties.maxStoredRejections());
+        int room = properties.maxStoredRejections() - alreadyStored;
+        rejectionRepository.saveAll(
+                rejections.stream()
+                        .sorted(Comparator.comparingLong(StatementRejection::rowNumber))
+                        .limit(room)
+                        .map(
+                                rejection ->
+                                        new StatementImportRejectionEntity(
+                                                entity.getId(),
+                                                rejection.rowNumber(),
+                                                rejection.error()))
+                        .toList());
+    }
+
+    private StatementImportEntity lock(Long importId) {
+        return importRepository
+                .lockById(importId)
+                .orElseThrow(
+                        () ->
+                                new EntityNotFoundException(
+                                        "Statement import not found: " + importId));
+    }
+
+    private static String notesFor(Long importId, StatementSale sale) {
+        String notes = "Statement import " + importId + ", row " + sale.firstRow();
+        return sale.reference() == null ? notes : notes + ", reference " + sale.reference();
+    }
+}
@@ -0,0 +1,30 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.io.InputStream;
+import org.omt.labelmanager.sales.statement.api.StatementImportCommandApi;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.springframework.stereotype.Service;
+
+@Service
+class StatementImportCommandApiImpl implements StatementImportCommandApi {
+
+    private final CreateStatementImportUseCase createImport;
+    private final IngestStatementUseCase ingestStatement;
+
+    StatementImportCommandApiImpl(
+            CreateStatementImportUseCase createImport, IngestStatementUseCase ingestStatement) {
+        this.createImport = createImport;
+        this.ingestStatement = ingestStatement;
+    }
+
+    @Override
+    public StatementImport create(Long labelId, Long distributorId, StatementFormat format) {
+        return createImport.execute(labelId, distributorId, format);
+    }
+
+    @Override
+    public StatementImport ingest(Long importId, InputStream content) {
+        return ingestStatement.execute(importId, content);
+    }
+}
@@ -0,0 +1,8 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StatementImportProperties.class)
+class StatementImportConfiguration {}
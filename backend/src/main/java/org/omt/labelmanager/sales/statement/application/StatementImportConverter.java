@@ -0,0 +1,24 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportEntity;
+import org.springframework.stereotype.Service;
+
+@Service
+class StatementImportConverter {
+
+    StatementImport toStatementImport(StatementImportEntity entity) {
+        return new StatementImport(
+                entity.getId(),
+                entity.getLabelId(),
+                entity.getDistributorId(),
+                entity.getFormat(),
+                entity.getStatus(),
+                entity.getRowsCommitted(),
+                entity.getSalesRegistered(),
+                entity.getSalesRejected(),
+                entity.getLastError(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt());
+    }
+}
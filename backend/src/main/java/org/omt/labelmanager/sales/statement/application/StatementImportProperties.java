@@ -0,0 +1,21 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param chunkRows how many rows are committed together. Bounds what an import holds in memory
+ *     and the stock locks each transaction holds; a chunk ends at the first sale boundary past it.
+ * @param maxLinesPerSale line items one sale may have. A statement whose sale key never changes
+ *     would otherwise be one sale held in memory in full.
+ * @param maxStoredRejections rejection reasons kept per import. Past this, rejections are only
+ *     counted.
+ */
+@ConfigurationProperties("sales.statement-import")
+@Validated
+record StatementImportProperties(
+        @DefaultValue("1000") @Min(1) int chunkRows,
+        @DefaultValue("1000") @Min(1) int maxLinesPerSale,
+        @DefaultValue("1000") @Min(0) int maxStoredRejections) {}
@@ -0,0 +1,45 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.util.List;
+import java.util.Optional;
+import org.omt.labelmanager.sales.statement.api.StatementImportQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRejectionRepository;
+import org.omt.labelmanager.sales.statement.infrastructure.StatementImportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+class StatementImportQueryApiImpl implements StatementImportQueryApi {
+
+    private final StatementImportRepository importRepository;
+    private final StatementImportRejectionRepository rejectionRepository;
+    private final StatementImportConverter converter;
+
+    StatementImportQueryApiImpl(
+            StatementImportRepository importRepository,
+            StatementImportRejectionRepository rejectionRepository,
+            StatementImportConverter converter) {
+        this.importRepository = importRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.converter = converter;
+    }
+
+    @Override
+    @Transactional
+    public Optional<StatementImport> findById(Long importId) {
+        return importRepository.findById(importId).map(converter::toStatementImport);
+    }
+
+    @Override
+    @Transactional
+    public List<StatementRejection> getRejections(Long importId) {
+        return rejectionRepository.findByImportIdOrderByRowNumber(importId).stream()
+                .map(
+                        rejection ->
+                                new StatementRejection(
+                                        rejection.getRowNumber(), rejection.getError()))
+                .toList();
+    }
+}
@@ -0,0 +1,37 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads a statement one row at a time, holding no more of it than the row being read.
+ *
+ * <p>A row that is malformed comes back with a {@link StatementRow#problem()} rather than as an
+ * exception, so one bad row rejects one sale. An exception means the statement as a whole cannot
+ * be read — its header is wrong, or the upload broke off.
+ */
+interface StatementReader extends Closeable {
+
+    /**
+     * @return the next data row, or null once the statement is exhausted
+     * @throws IllegalArgumentException if the statement cannot be read any further
+     * @throws IOException if reading the upload fails
+     */
+    StatementRow next() throws IOException;
+
+    static StatementReader open(
+            StatementFormat format, InputStream content, JsonMapper jsonMapper) {
+        var reader =
+                new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new CsvStatementReader(reader);
+            case NDJSON -> new NdjsonStatementReader(reader, jsonMapper);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.util.Map;
+
+/**
+ * One data row of a statement, as text, before anything is made of it.
+ *
+ * @param number the row's position among the data rows, from one. Header rows and blank lines are
+ *     not counted, so the numbering is the same however the statement is encoded.
+ * @param fields the row's values by lower-case column name
+ * @param problem why the row could not be read as a row at all; null if it could
+ */
+record StatementRow(long number, Map<String, String> fields, String problem) {
+
+    String field(String column) {
+        String value = fields.get(column);
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
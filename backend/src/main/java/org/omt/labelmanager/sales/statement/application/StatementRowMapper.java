@@ -0,0 +1,181 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.omt.labelmanager.catalog.release.domain.Release;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+
+/**
+ * Turns statement rows into line items, resolving the release each row names against the label's
+ * catalogue.
+ *
+ * <p>A release is named by {@value #RELEASE_ID} or, failing that, by {@value #RELEASE} — its name,
+ * compared without regard to case or surrounding space. Distributors' statements carry the title
+ * as it was supplied to them, and names are what a label can check by eye. A name two releases
+ * share is refused rather than guessed at.
+ */
+class StatementRowMapper {
+
+    static final String SALE_DATE = "sale_date";
+    static final String REFERENCE = "reference";
+    static final String RELEASE_ID = "release_id";
+    static final String RELEASE = "release";
+    static final String FORMAT = "format";
+    static final String QUANTITY = "quantity";
+    static final String UNIT_PRICE = "unit_price";
+    static final String CURRENCY = "currency";
+
+    private static final Set<String> REQUIRED = Set.of(SALE_DATE, FORMAT, QUANTITY, UNIT_PRICE);
+
+    private final Set<Long> releaseIds;
+    private final Map<String, List<Long>> releaseIdsByName;
+
+    StatementRowMapper(Collection<Release> releasesOfLabel) {
+        this.releaseIds = releasesOfLabel.stream().map(Release::id).collect(Collectors.toSet());
+        this.releaseIdsByName = new HashMap<>();
+        for (Release release : releasesOfLabel) {
+            releaseIdsByName
+                    .computeIfAbsent(normalise(release.name()), name -> new ArrayList<>())
+                    .add(release.id());
+        }
+    }
+
+    /**
+     * Refuses a header that cannot produce a single valid row, before any row is read — a
+     * statement with the wrong columns would otherwise be rejected one sale at a time.
+     *
+     * @throws IllegalArgumentException naming the missing columns
+     */
+    static void checkColumns(Collection<String> columns) {
+        var missing =
+                REQUIRED.stream().filter(column -> !columns.contains(column)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The statement has no column for " + missing);
+        }
+        if (!columns.contains(RELEASE_ID) && !columns.contains(RELEASE)) {
+            throw new IllegalArgumentException(
+                    "The statement needs a " + RELEASE_ID + " or a " + RELEASE + " column");
+        }
+    }
+
+    /**
+     * The columns that decide which sale a row belongs to, as written. Consecutive rows with the
+     * same key are one sale. Taken from the raw text so that even a row that fails to parse is
+     * grouped with its neighbours and rejects their sale, rather than starting a new one.
+     */
+    static List<String> saleKeyOf(StatementRow row) {
+        return Arrays.asList(row.field(SALE_DATE), row.field(REFERENCE));
+    }
+
+    LocalDate saleDateOf(StatementRow row) {
+        String value = required(row, SALE_DATE);
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                    SALE_DATE + " '" + value + "' is not a date (yyyy-mm-dd)");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException saying what is wrong with the row
+     */
+    SaleLineItemInput lineItemOf(StatementRow row) {
+        if (row.problem() != null) {
+            throw new IllegalArgumentException(row.problem());
+        }
+        return new SaleLineItemInput(
+                releaseOf(row), formatOf(row), quantityOf(row), unitPriceOf(row));
+    }
+
+    private Long releaseOf(StatementRow row) {
+        String id = row.field(RELEASE_ID);
+        if (id != null) {
+            Long releaseId;
+            try {
+                releaseId = Long.valueOf(id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(RELEASE_ID + " '" + id + "' is not a number");
+            }
+            if (!releaseIds.contains(releaseId)) {
+                throw new IllegalArgumentException(
+                        "Release " + releaseId + " does not belong to this label");
+            }
+            return releaseId;
+        }
+
+        String name = required(row, RELEASE);
+        List<Long> matches = releaseIdsByName.getOrDefault(normalise(name), List.of());
+        if (matches.isEmpty()) {
+            throw new IllegalArgumentException("No release of this label is called '" + name + "'");
+        }
+        if (matches.size() > 1) {
+            throw new IllegalArgumentException(
+                    matches.size()
+                            + " releases are called '"
+                            + name
+                            + "'; name it by "
+                            + RELEASE_ID
+                            + " instead");
+        }
+        return matches.getFirst();
+    }
+
+    private static Format formatOf(StatementRow row) {
+        String value = required(row, FORMAT);
+        try {
+            return Format.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    FORMAT + " '" + value + "' is not one of " + List.of(Format.values()));
+        }
+    }
+
+    private static int quantityOf(StatementRow row) {
+        String value = required(row, QUANTITY);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    QUANTITY + " '" + value + "' is not a whole number");
+        }
+    }
+
+    private static Money unitPriceOf(StatementRow row) {
+        String value = required(row, UNIT_PRICE);
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(UNIT_PRICE + " '" + value + "' is not a number");
+        }
+        String currency = row.field(CURRENCY);
+        return currency == null
+                ? Money.of(amount)
+                : new Money(amount, currency.toUpperCase(Locale.ROOT));
+    }
+
+    private static String required(StatementRow row, String column) {
+        String value = row.field(column);
+        if (value == null) {
+            throw new IllegalArgumentException("no " + column + " given");
+        }
+        return value;
+    }
+
+    private static String normalise(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,81 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+
+/**
+ * Consecutive statement rows that make up one sale, gathered as they are read.
+ *
+ * <p>Once a row fails, the sale is rejected and its remaining rows are only counted: a sale missing
+ * a line would be registered with the wrong total, which is worse than not registering it.
+ */
+class StatementSale {
+
+    private final List<String> key;
+    private final long firstRow;
+    private final String reference;
+    private final List<SaleLineItemInput> lineItems = new ArrayList<>();
+    private LocalDate saleDate;
+    private int rows;
+    private String error;
+
+    StatementSale(List<String> key, long firstRow, String reference) {
+        this.key = key;
+        this.firstRow = firstRow;
+        this.reference = reference;
+    }
+
+    void add(StatementRow row, StatementRowMapper mapper, int maxLineItems) {
+        rows++;
+        if (error != null) {
+            return;
+        }
+        try {
+            if (saleDate == null) {
+                saleDate = mapper.saleDateOf(row);
+            }
+            if (lineItems.size() == maxLineItems) {
+                reject(row, "the sale has more than " + maxLineItems + " line items");
+                return;
+            }
+            lineItems.add(mapper.lineItemOf(row));
+        } catch (IllegalArgumentException e) {
+            reject(row, e.getMessage());
+        }
+    }
+
+    private void reject(StatementRow row, String reason) {
+        error = "Row " + row.number() + ": " + reason;
+        lineItems.clear();
+    }
+
+    List<String> key() {
+        return key;
+    }
+
+    long firstRow() {
+        return firstRow;
+    }
+
+    String reference() {
+        return reference;
+    }
+
+    LocalDate saleDate() {
+        return saleDate;
+    }
+
+    List<SaleLineItemInput> lineItems() {
+        return lineItems;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    String error() {
+        return error;
+    }
+}
@@ -0,0 +1,9 @@
+package org.omt.labelmanager.sales.statement.domain;
+
+/** How a statement's rows are encoded. */
+public enum StatementFormat {
+    /** Comma-separated, RFC 4180 quoting, with a header row naming the columns. */
+    CSV,
+    /** One JSON object per line, keyed by the same column names. */
+    NDJSON
+}
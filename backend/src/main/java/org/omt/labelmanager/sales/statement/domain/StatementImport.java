@@ -0,0 +1,32 @@
+package org.omt.labelmanager.sales.statement.domain;
+
+import java.time.Instant;
+
+/**
+ * One distributor statement being imported as sales, and how far it has got.
+ *
+ * @param id the import id
+ * @param labelId the label the sales are registered for
+ * @param distributorId the distributor whose statement it is; every sale draws from its stock
+ * @param format how the statement is encoded
+ * @param status where the import stands
+ * @param rowsCommitted data rows whose sales are committed — the checkpoint a resumed upload skips
+ *     to. Header rows and blank lines are not counted.
+ * @param salesRegistered sales registered so far
+ * @param salesRejected sales rejected so far
+ * @param lastError why the import failed, if it did
+ * @param updatedAt when the last chunk was committed — a running import whose updatedAt stops
+ *     moving has lost its upload
+ */
+public record StatementImport(
+        Long id,
+        Long labelId,
+        Long distributorId,
+        StatementFormat format,
+        StatementImportStatus status,
+        long rowsCommitted,
+        int salesRegistered,
+        int salesRejected,
+        String lastError,
+        Instant createdAt,
+        Instant updatedAt) {}
@@ -0,0 +1,12 @@
+package org.omt.labelmanager.sales.statement.domain;
+
+public enum StatementImportStatus {
+    /** Created; no content received yet. */
+    PENDING,
+    /** Content is being read. Reads as RUNNING after a dropped upload too, until it is resumed. */
+    RUNNING,
+    /** Every row of the statement has been committed. */
+    COMPLETED,
+    /** The upload stopped on an error that applies to the whole statement; see lastError. */
+    FAILED
+}
@@ -0,0 +1,9 @@
+package org.omt.labelmanager.sales.statement.domain;
+
+/**
+ * A sale in a statement that was not registered.
+ *
+ * @param rowNumber the data row the sale starts on, from one
+ * @param error why it was rejected
+ */
+public record StatementRejection(long rowNumber, String error) {}
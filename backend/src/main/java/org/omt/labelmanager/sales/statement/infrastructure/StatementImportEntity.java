@@ -0,0 +1,132 @@
+package org.omt.labelmanager.sales.statement.infrastructure;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImportStatus;
+
+@Entity
+@Table(name = "statement_import")
+public class StatementImportEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "label_id", nullable = false)
+    private Long labelId;
+
+    @Column(name = "distributor_id", nullable = false)
+    private Long distributorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_format", nullable = false)
+    private StatementFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatementImportStatus status = StatementImportStatus.PENDING;
+
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(name = "sales_registered", nullable = false)
+    private int salesRegistered;
+
+    @Column(name = "sales_rejected", nullable = false)
+    private int salesRejected;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = createdAt;
+
+    protected StatementImportEntity() {}
+
+    public StatementImportEntity(Long labelId, Long distributorId, StatementFormat format) {
+        this.labelId = labelId;
+        this.distributorId = distributorId;
+        this.format = format;
+    }
+
+    /** Marks content as arriving. Clears the error of an earlier, failed attempt. */
+    public void start() {
+        this.status = StatementImportStatus.RUNNING;
+        this.lastError = null;
+        this.updatedAt = Instant.now();
+    }
+
+    /** Moves the checkpoint past a committed chunk. */
+    public void recordChunk(int rows, int registered, int rejected) {
+        this.rowsCommitted += rows;
+        this.salesRegistered += registered;
+        this.salesRejected += rejected;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete() {
+        this.status = StatementImportStatus.COMPLETED;
+        this.updatedAt = Instant.now();
+    }
+
+    public void fail(String error) {
+        this.status = StatementImportStatus.FAILED;
+        this.lastError = error;
+        this.updatedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLabelId() {
+        return labelId;
+    }
+
+    public Long getDistributorId() {
+        return distributorId;
+    }
+
+    public StatementFormat getFormat() {
+        return format;
+    }
+
+    public StatementImportStatus getStatus() {
+        return status;
+    }
+
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public int getSalesRegistered() {
+        return salesRegistered;
+    }
+
+    public int getSalesRejected() {
+        return salesRejected;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,50 @@
+package org.omt.labelmanager.sales.statement.infrastructure;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "statement_import_rejection")
+public class StatementImportRejectionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+
+    @Column(name = "row_number", nullable = false)
+    private long rowNumber;
+
+    @Column(name = "error", nullable = false)
+    private String error;
+
+    protected StatementImportRejectionEntity() {}
+
+    public StatementImportRejectionEntity(Long importId, long rowNumber, String error) {
+        this.importId = importId;
+        this.rowNumber = rowNumber;
+        this.error = error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getImportId() {
+        return importId;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,10 @@
+package org.omt.labelmanager.sales.statement.infrastructure;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StatementImportRejectionRepository
+        extends JpaRepository<StatementImportRejectionEntity, Long> {
+
+    List<StatementImportRejectionEntity> findByImportIdOrderByRowNumber(Long importId);
+}
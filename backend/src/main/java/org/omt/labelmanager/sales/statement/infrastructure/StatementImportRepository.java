@@ -0,0 +1,22 @@
+package org.omt.labelmanager.sales.statement.infrastructure;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StatementImportRepository extends JpaRepository<StatementImportEntity, Long> {
+
+    /**
+     * Loads the import for a checkpoint update, holding its row until the transaction ends.
+     *
+     * <p>Two uploads of the same statement at once would each read the same checkpoint and
+     * register the same chunk twice. Locked, the second waits, then sees the checkpoint the first
+     * moved and knows it is no longer where it thought.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM StatementImportEntity i WHERE i.id = :id")
+    Optional<StatementImportEntity> lockById(@Param("id") Long id);
+}
@@ -0,0 +1,89 @@
+package org.omt.labelmanager.sales.statement.web;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
+import java.util.List;
+import org.omt.labelmanager.sales.statement.api.StatementImportCommandApi;
+import org.omt.labelmanager.sales.statement.api.StatementImportQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Distributor statements, imported as sales.
+ *
+ * <p>An import is opened first and its content sent after, so a client that loses the connection
+ * part way has an id to check progress against and to send the content to again.
+ */
+@RestController
+public class StatementImportController {
+
+    private final StatementImportCommandApi commandApi;
+    private final StatementImportQueryApi queryApi;
+
+    public StatementImportController(
+            StatementImportCommandApi commandApi, StatementImportQueryApi queryApi) {
+        this.commandApi = commandApi;
+        this.queryApi = queryApi;
+    }
+
+    record CreateStatementImportRequest(
+            @NotNull Long distributorId, @NotNull StatementFormat format) {}
+
+    @PostMapping("/api/labels/{labelId}/statement-imports")
+    public ResponseEntity<StatementImport> createImport(
+            @PathVariable Long labelId, @Valid @RequestBody CreateStatementImportRequest request) {
+        StatementImport created =
+                commandApi.create(labelId, request.distributorId(), request.format());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/api/labels/{labelId}/statement-imports/{importId}")
+    public StatementImport viewImport(@PathVariable Long labelId, @PathVariable Long importId) {
+        return requireImportOfLabel(labelId, importId);
+    }
+
+    /**
+     * Streams the statement in the request body into sales, replying once it is all in. The body
+     * is read as it arrives, never held whole.
+     *
+     * <p>Safe to repeat: content sent again for an import that broke off resumes from its
+     * checkpoint, and for one that completed is refused.
+     */
+    @PutMapping("/api/labels/{labelId}/statement-imports/{importId}/content")
+    public StatementImport uploadContent(
+            @PathVariable Long labelId, @PathVariable Long importId, InputStream content) {
+        requireImportOfLabel(labelId, importId);
+        return commandApi.ingest(importId, content);
+    }
+
+    @GetMapping("/api/labels/{labelId}/statement-imports/{importId}/rejections")
+    public List<StatementRejection> rejections(
+            @PathVariable Long labelId, @PathVariable Long importId) {
+        requireImportOfLabel(labelId, importId);
+        return queryApi.getRejections(importId);
+    }
+
+    private StatementImport requireImportOfLabel(Long labelId, Long importId) {
+        return queryApi
+                .findById(importId)
+                .filter(statementImport -> labelId.equals(statementImport.labelId()))
+                .orElseThrow(
+                        () ->
+                                new EntityNotFoundException(
+                                        "Statement import "
+                                                + importId
+                                                + " does not belong to label "
+                                                + labelId));
+    }
+}
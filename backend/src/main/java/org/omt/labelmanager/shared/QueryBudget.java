@@ -0,0 +1,28 @@
+package org.omt.labelmanager.shared;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one request to this endpoint may issue, however much data is behind it.
+ *
+ * <p>Declared on controller methods whose cost once grew with their data and was fixed — the
+ * budget is what keeps the fix. A request over it logs a warning naming the endpoint and the
+ * count; the test profile turns that into a failure, so an N+1 brought back shows up as a red
+ * test rather than as a slow page months later. Set it a little above today's count, so a new
+ * fixed query fits and a per-row one does not.
+ *
+ * <p>Here rather than in {@code infrastructure}, which enforces it, because every module's
+ * controllers declare it and {@code infrastructure} already depends on some of them.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryBudget {
+
+    /** Statements allowed per request, counted from the request's first filter to its last. */
+    int value();
+}
@@ -0,0 +1,127 @@
+-- V34: Materialise location balances as a projection of the movement ledger.
+--
+-- Every balance read — a release page, a sale's validation under the inventory lock — has been
+-- Σ in − Σ out over every movement a run ever had. That is exact, but its cost grows with the
+-- ledger, and the sale path pays it while holding the lock. stock_balance keeps the running total
+-- per (run, location), so a read is one index lookup per location however long the history.
+--
+-- inventory_movement stays the source of truth. stock_balance is derived from it and can always be
+-- rebuilt from it; StockBalanceReconciler replays the ledger and reports any drift.
+--
+-- Maintained by a trigger rather than by InventoryMovementCommandService. The trigger runs in the
+-- transaction of whatever wrote the movement, so the projection commits or rolls back with it — and
+-- it also covers writes that do not go through the command service: production_run's ON DELETE
+-- CASCADE, tests that save movements through the repository, and a repair made by hand in psql.
+-- As with V33's unique index, the database keeps the invariant rather than trusting every write
+-- path.
+
+CREATE TABLE stock_balance (
+    production_run_id BIGINT      NOT NULL REFERENCES production_run (id) ON DELETE CASCADE,
+    location_type     VARCHAR(20) NOT NULL,
+    location_id       BIGINT,
+    on_hand           INT         NOT NULL
+);
+
+-- location_id is null for every location type but DISTRIBUTOR, and NULLs never collide in a plain
+-- unique index. Distributor ids come from a BIGSERIAL, so 0 is free to stand in for "no id".
+CREATE UNIQUE INDEX uq_stock_balance_location
+    ON stock_balance (production_run_id, location_type, (COALESCE(location_id, 0)));
+
+-- Backfill from the ledger: the same Σ in − Σ out the balance query computed until now.
+INSERT INTO stock_balance (production_run_id, location_type, location_id, on_hand)
+SELECT leg.production_run_id, leg.location_type, leg.location_id, SUM(leg.delta)
+FROM (SELECT production_run_id,
+             to_location_type AS location_type,
+             to_location_id   AS location_id,
+             quantity         AS delta
+      FROM inventory_movement
+      UNION ALL
+      SELECT production_run_id, from_location_type, from_location_id, -quantity
+      FROM inventory_movement) leg
+GROUP BY leg.production_run_id, leg.location_type, leg.location_id;
+
+-- Adds one leg of a movement, creating the row on first touch. Rows whose balance returns to zero
+-- are kept rather than deleted: the row is what a writer locks, and deleting it would let the next
+-- writer in race to recreate it.
+CREATE FUNCTION stock_balance_add(p_production_run_id BIGINT,
+                                  p_location_type VARCHAR,
+                                  p_location_id BIGINT,
+                                  p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO stock_balance (production_run_id, location_type, location_id, on_hand)
+    VALUES (p_production_run_id, p_location_type, p_location_id, p_delta)
+    ON CONFLICT (production_run_id, location_type, (COALESCE(location_id, 0)))
+        DO UPDATE SET on_hand = stock_balance.on_hand + EXCLUDED.on_hand;
+END;
+$$;
+
+-- Takes one leg back out. UPDATE only, never an upsert: a deleted movement was inserted earlier, so
+-- its row exists — unless the production run itself is being deleted, in which case its rows are
+-- going too and inserting one would fail the foreign key.
+CREATE FUNCTION stock_balance_remove(p_production_run_id BIGINT,
+                                     p_location_type VARCHAR,
+                                     p_location_id BIGINT,
+                                     p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE stock_balance
+    SET on_hand = on_hand - p_delta
+    WHERE production_run_id = p_production_run_id
+      AND location_type = p_location_type
+      AND COALESCE(location_id, 0) = COALESCE(p_location_id, 0);
+END;
+$$;
+
+-- Both legs are applied in (location_type, location_id) order, not from-then-to. Two transactions
+-- moving stock in opposite directions between the same two locations — an allocation and a return —
+-- otherwise lock the two rows in opposite orders and deadlock.
+CREATE FUNCTION inventory_movement_maintain_stock_balance() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    from_first BOOLEAN;
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        from_first := (OLD.from_location_type, COALESCE(OLD.from_location_id, 0))
+                          < (OLD.to_location_type, COALESCE(OLD.to_location_id, 0));
+        IF from_first THEN
+            PERFORM stock_balance_remove(OLD.production_run_id, OLD.from_location_type,
+                                         OLD.from_location_id, -OLD.quantity);
+            PERFORM stock_balance_remove(OLD.production_run_id, OLD.to_location_type,
+                                         OLD.to_location_id, OLD.quantity);
+        ELSE
+            PERFORM stock_balance_remove(OLD.production_run_id, OLD.to_location_type,
+                                         OLD.to_location_id, OLD.quantity);
+            PERFORM stock_balance_remove(OLD.production_run_id, OLD.from_location_type,
+                                         OLD.from_location_id, -OLD.quantity);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        from_first := (NEW.from_location_type, COALESCE(NEW.from_location_id, 0))
+                          < (NEW.to_location_type, COALESCE(NEW.to_location_id, 0));
+        IF from_first THEN
+            PERFORM stock_balance_add(NEW.production_run_id, NEW.from_location_type,
+                                      NEW.from_location_id, -NEW.quantity);
+            PERFORM stock_balance_add(NEW.production_run_id, NEW.to_location_type,
+                                      NEW.to_location_id, NEW.quantity);
+        ELSE
+            PERFORM stock_balance_add(NEW.production_run_id, NEW.to_location_type,
+                                      NEW.to_location_id, NEW.quantity);
+            PERFORM stock_balance_add(NEW.production_run_id, NEW.from_location_type,
+                                      NEW.from_location_id, -NEW.quantity);
+        END IF;
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_inventory_movement_stock_balance
+    AFTER INSERT OR UPDATE OR DELETE
+    ON inventory_movement
+    FOR EACH ROW
+EXECUTE FUNCTION inventory_movement_maintain_stock_balance();
@@ -0,0 +1,52 @@
+-- V35: Stop materialising the EXTERNAL balance.
+--
+-- Inventory is now locked per (production run, location) rather than per pressing, so two
+-- distributors selling the same pressing no longer wait for each other. Except that every sale of a
+-- run also moves units *to* EXTERNAL, so through the V34 trigger every one of them updated the same
+-- (run, EXTERNAL) row and held it until commit — the per-pressing mutex again, one statement later.
+--
+-- EXTERNAL does not need a row. Every movement takes from one location exactly what it gives to
+-- another, so a run's balances across all locations sum to zero, and EXTERNAL is minus the sum of
+-- the rest. InventoryMovementRepository.findLocationBalances derives it that way. Nothing draws
+-- stock from EXTERNAL, so nothing needs to lock it.
+
+DELETE FROM stock_balance WHERE location_type = 'EXTERNAL';
+
+CREATE OR REPLACE FUNCTION stock_balance_add(p_production_run_id BIGINT,
+                                             p_location_type VARCHAR,
+                                             p_location_id BIGINT,
+                                             p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF p_location_type = 'EXTERNAL' THEN
+        RETURN;
+    END IF;
+    INSERT INTO stock_balance (production_run_id, location_type, location_id, on_hand)
+    VALUES (p_production_run_id, p_location_type, p_location_id, p_delta)
+    ON CONFLICT (production_run_id, location_type, (COALESCE(location_id, 0)))
+        DO UPDATE SET on_hand = stock_balance.on_hand + EXCLUDED.on_hand;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION stock_balance_remove(p_production_run_id BIGINT,
+                                                p_location_type VARCHAR,
+                                                p_location_id BIGINT,
+                                                p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF p_location_type = 'EXTERNAL' THEN
+        RETURN;
+    END IF;
+    UPDATE stock_balance
+    SET on_hand = on_hand - p_delta
+    WHERE production_run_id = p_production_run_id
+      AND location_type = p_location_type
+      AND COALESCE(location_id, 0) = COALESCE(p_location_id, 0);
+END;
+$$;
+
+-- Nothing reads a materialised EXTERNAL row any more, and a stray one would be counted twice.
+ALTER TABLE stock_balance
+    ADD CONSTRAINT chk_stock_balance_not_external CHECK (location_type <> 'EXTERNAL');
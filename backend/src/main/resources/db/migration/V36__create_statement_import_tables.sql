@@ -0,0 +1,36 @@
+-- V36: Distributor statement imports and their checkpoints.
+--
+-- A statement is streamed in and committed a chunk at a time. rows_committed is the checkpoint: it
+-- is updated in the same transaction as the chunk's sales, so after a dropped upload it says
+-- exactly how many rows are in the database, and re-sending the file skips that many.
+--
+-- Cascades from the distributor as well as the label: an import is a record of how sales arrived,
+-- not something that should keep a distributor from being deleted.
+
+CREATE TABLE statement_import (
+    id               BIGSERIAL PRIMARY KEY,
+    label_id         BIGINT NOT NULL REFERENCES label(id) ON DELETE CASCADE,
+    distributor_id   BIGINT NOT NULL REFERENCES distributor(id) ON DELETE CASCADE,
+    content_format   VARCHAR(10) NOT NULL,
+    status           VARCHAR(20) NOT NULL,
+    rows_committed   BIGINT NOT NULL DEFAULT 0 CHECK (rows_committed >= 0),
+    sales_registered INT NOT NULL DEFAULT 0,
+    sales_rejected   INT NOT NULL DEFAULT 0,
+    last_error       TEXT,
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_statement_import_label_id ON statement_import(label_id);
+
+-- Why each rejected sale was rejected, by the statement row it started on. Capped per import by
+-- the application, so a statement that is wrong on every row cannot write a row here for each.
+CREATE TABLE statement_import_rejection (
+    id         BIGSERIAL PRIMARY KEY,
+    import_id  BIGINT NOT NULL REFERENCES statement_import(id) ON DELETE CASCADE,
+    row_number BIGINT NOT NULL,
+    error      TEXT NOT NULL
+);
+
+CREATE INDEX idx_statement_import_rejection_import_id
+    ON statement_import_rejection(import_id, row_number);
@@ -0,0 +1,19 @@
+-- V37: Index sales in the order they are listed.
+--
+-- Sales are listed a page at a time, newest first, each page starting after the (sale_date, id) of
+-- the last one. With (label_id, sale_date, id) indexed, a page is a range scan that stops after
+-- the page's rows however deep into the history it is; on idx_sale_label_id alone every sale of
+-- the label had to be read and sorted for each page. Same again per distributor.
+--
+-- The single-column indexes are prefixes of the new ones and go.
+
+CREATE INDEX idx_sale_label_date_id ON sale (label_id, sale_date DESC, id DESC);
+DROP INDEX idx_sale_label_id;
+
+CREATE INDEX idx_sale_distributor_date_id ON sale (distributor_id, sale_date DESC, id DESC);
+DROP INDEX idx_sale_distributor_id;
+
+-- The release filter asks, per sale, whether it has a line item for the release: answered from
+-- the index without touching sale_line_item.
+CREATE INDEX idx_sale_line_item_release_sale ON sale_line_item (release_id, sale_id);
+DROP INDEX idx_sale_line_item_release_id;
@@ -0,0 +1,13 @@
+-- V38: Index each production run's movements in the order its history is listed.
+--
+-- The history is read a page at a time, newest first, each page starting after the
+-- (occurred_at, id) of the last. With (production_run_id, occurred_at, id) indexed a page is a
+-- range scan that stops after the page's rows; on idx_inventory_movement_production_run_id alone
+-- every movement of the run was read and sorted for each page.
+--
+-- The single-column index is a prefix of the new one and goes. The new one serves
+-- production_run's ON DELETE CASCADE just as well.
+
+CREATE INDEX idx_inventory_movement_run_occurred_id
+    ON inventory_movement (production_run_id, occurred_at DESC, id DESC);
+DROP INDEX idx_inventory_movement_production_run_id;
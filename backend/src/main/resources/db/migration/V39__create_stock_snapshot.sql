@@ -0,0 +1,126 @@
+-- V39: Periodic checkpoints of every location balance, for point-in-time stock.
+--
+-- stock_balance answers "how much is where now" in one lookup. It cannot answer "how much was
+-- where on 31 December" — year-end valuation — without replaying the ledger from the first
+-- movement. A snapshot records every (run, location) balance over the movements up to a watermark,
+-- as_of_movement_id; a balance at any date is then the nearest earlier snapshot plus the movements
+-- around it, not the whole history.
+--
+-- inventory_movement stays the source of truth. StockSnapshotter builds each snapshot from the one
+-- before it plus the movements since, under the same write lock the reconciler's rebuild takes, so
+-- no movement with an id below the watermark can still be uncommitted.
+--
+-- The ledger is not append-only: deleting or editing a sale deletes its movements, ids below the
+-- watermark included. A trigger takes such a change back out of every snapshot that counted it,
+-- as V34's does for stock_balance, so a snapshot always equals the sum of the movements up to its
+-- watermark that still exist. EXTERNAL is left out, as it is from stock_balance since V35.
+
+CREATE TABLE stock_snapshot (
+    production_run_id BIGINT                   NOT NULL REFERENCES production_run (id) ON DELETE CASCADE,
+    location_type     VARCHAR(20)              NOT NULL,
+    location_id       BIGINT,
+    on_hand           INT                      NOT NULL,
+    as_of_movement_id BIGINT                   NOT NULL,
+    taken_at          TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT chk_stock_snapshot_not_external CHECK (location_type <> 'EXTERNAL')
+);
+
+-- One row per location per snapshot; the leading watermark also finds the latest snapshot.
+CREATE UNIQUE INDEX uq_stock_snapshot_location
+    ON stock_snapshot (as_of_movement_id, production_run_id, location_type, (COALESCE(location_id, 0)));
+
+-- Adds one leg of a movement to every snapshot whose watermark covers it. Only an UPDATE of an
+-- old movement gets here in practice: a new movement's id is above every watermark.
+CREATE FUNCTION stock_snapshot_add(p_movement_id BIGINT,
+                                   p_production_run_id BIGINT,
+                                   p_location_type VARCHAR,
+                                   p_location_id BIGINT,
+                                   p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF p_location_type = 'EXTERNAL' THEN
+        RETURN;
+    END IF;
+    INSERT INTO stock_snapshot (production_run_id, location_type, location_id, on_hand,
+                                as_of_movement_id, taken_at)
+    SELECT p_production_run_id, p_location_type, p_location_id, p_delta,
+           snapshot.as_of_movement_id, snapshot.taken_at
+    FROM (SELECT DISTINCT as_of_movement_id, taken_at
+          FROM stock_snapshot
+          WHERE as_of_movement_id >= p_movement_id) snapshot
+    ON CONFLICT (as_of_movement_id, production_run_id, location_type, (COALESCE(location_id, 0)))
+        DO UPDATE SET on_hand = stock_snapshot.on_hand + EXCLUDED.on_hand;
+END;
+$$;
+
+-- Takes one leg back out. UPDATE only, as stock_balance_remove: a snapshot that counted the
+-- movement has a row for its location, unless the run itself is being deleted.
+CREATE FUNCTION stock_snapshot_remove(p_movement_id BIGINT,
+                                      p_production_run_id BIGINT,
+                                      p_location_type VARCHAR,
+                                      p_location_id BIGINT,
+                                      p_delta INT) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF p_location_type = 'EXTERNAL' THEN
+        RETURN;
+    END IF;
+    UPDATE stock_snapshot
+    SET on_hand = on_hand - p_delta
+    WHERE as_of_movement_id >= p_movement_id
+      AND production_run_id = p_production_run_id
+      AND location_type = p_location_type
+      AND COALESCE(location_id, 0) = COALESCE(p_location_id, 0);
+END;
+$$;
+
+-- Legs in (location_type, location_id) order, for the reason V34 gives.
+CREATE FUNCTION inventory_movement_maintain_stock_snapshot() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    from_first BOOLEAN;
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        from_first := (OLD.from_location_type, COALESCE(OLD.from_location_id, 0))
+                          < (OLD.to_location_type, COALESCE(OLD.to_location_id, 0));
+        IF from_first THEN
+            PERFORM stock_snapshot_remove(OLD.id, OLD.production_run_id, OLD.from_location_type,
+                                          OLD.from_location_id, -OLD.quantity);
+            PERFORM stock_snapshot_remove(OLD.id, OLD.production_run_id, OLD.to_location_type,
+                                          OLD.to_location_id, OLD.quantity);
+        ELSE
+            PERFORM stock_snapshot_remove(OLD.id, OLD.production_run_id, OLD.to_location_type,
+                                          OLD.to_location_id, OLD.quantity);
+            PERFORM stock_snapshot_remove(OLD.id, OLD.production_run_id, OLD.from_location_type,
+                                          OLD.from_location_id, -OLD.quantity);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        from_first := (NEW.from_location_type, COALESCE(NEW.from_location_id, 0))
+                          < (NEW.to_location_type, COALESCE(NEW.to_location_id, 0));
+        IF from_first THEN
+            PERFORM stock_snapshot_add(NEW.id, NEW.production_run_id, NEW.from_location_type,
+                                       NEW.from_location_id, -NEW.quantity);
+            PERFORM stock_snapshot_add(NEW.id, NEW.production_run_id, NEW.to_location_type,
+                                       NEW.to_location_id, NEW.quantity);
+        ELSE
+            PERFORM stock_snapshot_add(NEW.id, NEW.production_run_id, NEW.to_location_type,
+                                       NEW.to_location_id, NEW.quantity);
+            PERFORM stock_snapshot_add(NEW.id, NEW.production_run_id, NEW.from_location_type,
+                                       NEW.from_location_id, -NEW.quantity);
+        END IF;
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_inventory_movement_stock_snapshot
+    AFTER INSERT OR UPDATE OR DELETE
+    ON inventory_movement
+    FOR EACH ROW
+EXECUTE FUNCTION inventory_movement_maintain_stock_snapshot();
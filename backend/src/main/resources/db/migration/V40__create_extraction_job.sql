@@ -0,0 +1,35 @@
+-- V40: Invoice extraction jobs.
+--
+-- Extraction used to run inside the upload request, holding a request thread for as long as the
+-- external parser took. A job records the upload instead: the document goes to storage, the row
+-- is QUEUED, and the parser is called in the background. The client polls the row.
+--
+-- The result columns mirror ExtractedInvoiceData and are only set once the job is COMPLETED.
+-- Amounts are unconstrained NUMERIC: they are whatever the parser read off the invoice, kept as
+-- read, not yet a cost the application vouches for.
+-- storage_key is cleared when the job finishes and its document is deleted.
+
+CREATE TABLE extraction_job (
+    id                BIGSERIAL PRIMARY KEY,
+    user_id           BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+    status            VARCHAR(20) NOT NULL,
+    storage_key       VARCHAR(500),
+    content_type      VARCHAR(255) NOT NULL,
+    attempts          INT NOT NULL DEFAULT 0,
+    net_amount        NUMERIC,
+    vat_amount        NUMERIC,
+    vat_rate          NUMERIC,
+    gross_amount      NUMERIC,
+    invoice_date      DATE,
+    invoice_reference TEXT,
+    currency          VARCHAR(16),
+    last_error        TEXT,
+    created_at        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_extraction_job_user_id ON extraction_job(user_id);
+
+-- The jobs a restart has to pick up again.
+CREATE INDEX idx_extraction_job_unfinished ON extraction_job(id)
+    WHERE status IN ('QUEUED', 'RUNNING');
@@ -0,0 +1,25 @@
+-- V41: Extraction results by document content.
+--
+-- The same invoice PDF is uploaded again and again: to extract, to register the cost, on every
+-- edit. The parser reads identical bytes identically, so its answer is kept under the SHA-256 of
+-- the document and a repeat upload is answered from here without calling it. Not per user: a hash
+-- match means the uploader already holds the document the result was read from.
+--
+-- A parse that found nothing is kept too; that is the parser's answer for those bytes. A client
+-- that expects better asks for the document to be parsed again, which overwrites the row.
+
+CREATE TABLE extraction_result (
+    content_sha256    VARCHAR(64) PRIMARY KEY,
+    net_amount        NUMERIC,
+    vat_amount        NUMERIC,
+    vat_rate          NUMERIC,
+    gross_amount      NUMERIC,
+    invoice_date      DATE,
+    invoice_reference TEXT,
+    currency          VARCHAR(16),
+    parsed_at         TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- So that a queued job can file its result under the document's hash once the parser answers.
+-- Null for jobs queued before this migration.
+ALTER TABLE extraction_job ADD COLUMN content_sha256 VARCHAR(64);
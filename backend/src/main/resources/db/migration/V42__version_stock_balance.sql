@@ -0,0 +1,33 @@
+-- V42: A version counter per stock balance, for writers that do not lock before they read.
+--
+-- In optimistic mode a sale reads the ledger without taking the per-location locks, draws from it,
+-- and only then claims the balances it drew from — succeeding only if none has changed since it
+-- read them. Comparing on_hand would do for correctness, but a version says "changed" outright and
+-- costs the claim nothing to compare.
+--
+-- Bumped by a trigger on stock_balance itself rather than in stock_balance_add/remove, so every
+-- change is counted however it is made: a movement's trigger, StockBalanceReconciler's repair, or
+-- an UPDATE by hand in psql. Only a change of on_hand counts; rewriting a row to the balance it
+-- already had moves nothing a reader drew from.
+--
+-- Rows start at 0, existing ones included: a reader compares the version it read with the one it
+-- claims, never with any absolute value.
+
+ALTER TABLE stock_balance ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE FUNCTION stock_balance_bump_version() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF NEW.on_hand IS DISTINCT FROM OLD.on_hand THEN
+        NEW.version := OLD.version + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_stock_balance_version
+    BEFORE UPDATE
+    ON stock_balance
+    FOR EACH ROW
+EXECUTE FUNCTION stock_balance_bump_version();
@@ -3,6 +3,7 @@ package org.omt.labelmanager.catalog.release;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,8 @@ import org.omt.labelmanager.catalog.artist.infrastructure.ArtistEntity;
 import org.omt.labelmanager.catalog.artist.infrastructure.ArtistRepository;
 import org.omt.labelmanager.catalog.label.LabelTestHelper;
 import org.omt.labelmanager.catalog.release.api.ReleaseCommandApi;
+import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Track;
 import org.omt.labelmanager.catalog.release.domain.TrackDuration;
 import org.omt.labelmanager.catalog.release.domain.TrackInput;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
@@ -27,6 +30,8 @@ public class CreateReleaseIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired ReleaseCommandApi releaseCommandApi;
 
+    @Autowired ReleaseQueryApi releaseQueryApi;
+
     @Test
     void createRelease_persistsReleaseWithAllFields() {
         var savedLabel = labelTestHelper.createLabel("The Label");
@@ -48,4 +53,46 @@ public class CreateReleaseIntegrationTest extends AbstractIntegrationTest {
 
         assertThat(releaseRepository.findByName("My Release")).isPresent();
     }
+
+    @Test
+    void createRelease_writesEveryTrackOfACompilationWithItsArtistsAndRemixers() {
+        var labelId = labelTestHelper.createLabel("Compilation Label").id();
+        List<Long> artistIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            artistIds.add(artistRepository.save(new ArtistEntity("Artist " + i)).getId());
+        }
+
+        List<TrackInput> tracks = new ArrayList<>();
+        for (int position = 1; position <= 30; position++) {
+            tracks.add(
+                    new TrackInput(
+                            List.of(artistIds.get(0), artistIds.get(1), artistIds.get(2)),
+                            "Track " + position,
+                            TrackDuration.ofSeconds(240 + position),
+                            position,
+                            List.of(artistIds.get(3))));
+        }
+
+        releaseCommandApi.createRelease(
+                "The Compilation",
+                LocalDate.of(2026, 1, 15),
+                labelId,
+                artistIds,
+                tracks,
+                Set.of(Format.DIGITAL));
+
+        var releaseId = releaseRepository.findByName("The Compilation").orElseThrow().getId();
+        var release = releaseQueryApi.findById(releaseId).orElseThrow();
+        assertThat(release.tracks()).hasSize(30);
+        assertThat(release.tracks())
+                .extracting(Track::name)
+                .containsExactlyElementsOf(tracks.stream().map(TrackInput::name).toList());
+        assertThat(release.tracks())
+                .allSatisfy(
+                        track -> {
+                            assertThat(track.artistIds())
+                                    .containsExactlyInAnyOrderElementsOf(artistIds.subList(0, 3));
+                            assertThat(track.remixerIds()).containsExactly(artistIds.get(3));
+                        });
+    }
 }
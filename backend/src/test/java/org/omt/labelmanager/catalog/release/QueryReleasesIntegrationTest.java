@@ -0,0 +1,138 @@
+package org.omt.labelmanager.catalog.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.artist.ArtistTestHelper;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.api.ReleaseCommandApi;
+import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Release;
+import org.omt.labelmanager.catalog.release.domain.Track;
+import org.omt.labelmanager.catalog.release.domain.TrackDuration;
+import org.omt.labelmanager.catalog.release.domain.TrackInput;
+import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.test.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Not {@code @Transactional}: inside one transaction the persistence context would answer repeat
+ * reads itself, and the query counts would flatter the code.
+ */
+class QueryReleasesIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired LabelTestHelper labelTestHelper;
+
+    @Autowired ArtistTestHelper artistTestHelper;
+
+    @Autowired ReleaseCommandApi releaseCommandApi;
+
+    @Autowired ReleaseQueryApi releaseQueryApi;
+
+    @Autowired ReleaseRepository releaseRepository;
+
+    private Long artistId;
+    private Long remixerId;
+
+    @BeforeEach
+    void setUp() {
+        // Committed, not rolled back, so named apart from the other tests' artists.
+        artistId = artistTestHelper.createArtist("Batch Artist " + UUID.randomUUID()).id();
+        remixerId = artistTestHelper.createArtist("Batch Remixer " + UUID.randomUUID()).id();
+    }
+
+    @Test
+    void findByIds_assemblesTheSameReleasesAsFindById() {
+        var labelId = labelTestHelper.createLabel("Find By Ids Label").id();
+        var first = createRelease("Find By Ids 1", labelId, 2);
+        var second = createRelease("Find By Ids 2", labelId, 3);
+
+        var releases = releaseQueryApi.findByIds(List.of(second, first, second, -1L));
+
+        assertThat(releases).extracting(Release::id).containsExactly(second, first);
+        assertThat(releases)
+                .containsExactly(
+                        releaseQueryApi.findById(second).orElseThrow(),
+                        releaseQueryApi.findById(first).orElseThrow());
+        assertThat(releases.getFirst().tracks())
+                .extracting(Track::position)
+                .containsExactly(1, 2, 3);
+        assertThat(releases.getFirst().tracks().getFirst().remixerIds()).containsExactly(remixerId);
+    }
+
+    @Test
+    void namesByIds_namesTheReleasesThatExistInOneQuery() {
+        var labelId = labelTestHelper.createLabel("Names Label").id();
+        var first = createRelease("Names 1", labelId, 1);
+        var second = createRelease("Names 2", labelId, 1);
+
+        var names =
+                SqlStatementCounter.count(
+                        () -> releaseQueryApi.namesByIds(List.of(first, second, -1L)));
+
+        assertThat(names.result()).containsOnly(entry(first, "Names 1"), entry(second, "Names 2"));
+        assertThat(names.statements()).isEqualTo(1);
+    }
+
+    /**
+     * Six releases of four tracks cost what two releases of one track do. Built one at a time, the
+     * second label's list took upwards of sixty queries.
+     */
+    @Test
+    void getReleasesForLabel_issuesTheSameNumberOfQueriesHoweverManyReleases() {
+        var smallLabelId = labelTestHelper.createLabel("Small Catalogue").id();
+        createRelease("Small 1", smallLabelId, 1);
+        createRelease("Small 2", smallLabelId, 1);
+        var largeLabelId = labelTestHelper.createLabel("Large Catalogue").id();
+        for (int i = 1; i <= 6; i++) {
+            createRelease("Large " + i, largeLabelId, 4);
+        }
+
+        var small =
+                SqlStatementCounter.count(() -> releaseQueryApi.getReleasesForLabel(smallLabelId));
+        var large =
+                SqlStatementCounter.count(() -> releaseQueryApi.getReleasesForLabel(largeLabelId));
+
+        assertThat(small.result()).hasSize(2);
+        assertThat(large.result()).hasSize(6);
+        assertThat(large.result())
+                .allSatisfy(
+                        release -> {
+                            assertThat(release.tracks()).hasSize(4);
+                            assertThat(release.artistIds()).containsExactly(artistId);
+                            assertThat(release.formats()).containsExactly(Format.VINYL);
+                        });
+        assertThat(large.statements()).isEqualTo(small.statements()).isLessThanOrEqualTo(6);
+    }
+
+    private Long createRelease(String name, Long labelId, int trackCount) {
+        var tracks =
+                IntStream.rangeClosed(1, trackCount)
+                        .mapToObj(
+                                position ->
+                                        new TrackInput(
+                                                List.of(artistId),
+                                                name + " track " + position,
+                                                TrackDuration.parse("3:30"),
+                                                position,
+                                                List.of(remixerId)))
+                        .toList();
+        releaseCommandApi.createRelease(
+                name,
+                LocalDate.of(2026, 1, 15),
+                labelId,
+                List.of(artistId),
+                tracks,
+                Set.of(Format.VINYL));
+        return releaseRepository.findByName(name).orElseThrow().getId();
+    }
+}
@@ -8,8 +8,10 @@ import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.AbstractIntegrationTest;
 import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.label.api.LabelCommandApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseCommandApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.catalog.release.domain.TrackDuration;
 import org.omt.labelmanager.catalog.release.domain.TrackInput;
 import org.omt.labelmanager.shared.Format;
@@ -28,20 +30,13 @@ public class ReleaseBelongsToLabelIntegrationTest extends AbstractIntegrationTes
 
     @Autowired ReleaseQueryApi releaseQueryApi;
 
+    @Autowired LabelCommandApi labelCommandApi;
+
     @Test
     void belongsToLabel_isTrueOnlyForTheOwningLabel() {
         var label = labelTestHelper.createLabel("Owning Label");
         var otherLabel = labelTestHelper.createLabel("Other Label");
-        releaseCommandApi.createRelease(
-                "A Release",
-                LocalDate.of(2026, 3, 1),
-                label.id(),
-                List.of(),
-                List.of(
-                        new TrackInput(
-                                List.of(), "A Track", TrackDuration.parse("3:30"), 1, List.of())),
-                Set.of(Format.VINYL));
-        var releaseId = releaseQueryApi.getReleasesForLabel(label.id()).getFirst().id();
+        var releaseId = createRelease(label.id());
 
         assertThat(releaseQueryApi.belongsToLabel(releaseId, label.id())).isTrue();
         assertThat(releaseQueryApi.belongsToLabel(releaseId, otherLabel.id())).isFalse();
@@ -53,4 +48,57 @@ public class ReleaseBelongsToLabelIntegrationTest extends AbstractIntegrationTes
 
         assertThat(releaseQueryApi.belongsToLabel(999_999L, label.id())).isFalse();
     }
+
+    /** The answer is cached; a delete must evict it, or the deleted release stays reachable. */
+    @Test
+    void belongsToLabel_turnsFalseOnceTheReleaseIsDeleted() {
+        var label = labelTestHelper.createLabel("Owning Label");
+        var releaseId = createRelease(label.id());
+        assertThat(releaseQueryApi.belongsToLabel(releaseId, label.id())).isTrue();
+
+        releaseCommandApi.delete(releaseId);
+
+        assertThat(releaseQueryApi.belongsToLabel(releaseId, label.id())).isFalse();
+        assertThat(releaseQueryApi.exists(releaseId)).isFalse();
+    }
+
+    @Test
+    void belongsToLabel_turnsFalseOnceTheLabelIsDeleted() {
+        var label = labelTestHelper.createLabel("Owning Label");
+        var releaseId = createRelease(label.id());
+        assertThat(releaseQueryApi.belongsToLabel(releaseId, label.id())).isTrue();
+
+        labelCommandApi.delete(label.id());
+
+        assertThat(releaseQueryApi.belongsToLabel(releaseId, label.id())).isFalse();
+    }
+
+    /** A miss is not cached: the id may belong to a release created a moment later. */
+    @Test
+    void exists_isNotFooledByAnEarlierMiss() {
+        var label = labelTestHelper.createLabel("Owning Label");
+        var releaseId = createRelease(label.id());
+
+        assertThat(releaseQueryApi.exists(releaseId + 1)).isFalse();
+        var nextReleaseId = createRelease(label.id());
+
+        assertThat(releaseQueryApi.exists(nextReleaseId)).isTrue();
+    }
+
+    private Long createRelease(Long labelId) {
+        releaseCommandApi.createRelease(
+                "A Release",
+                LocalDate.of(2026, 3, 1),
+                labelId,
+                List.of(),
+                List.of(
+                        new TrackInput(
+                                List.of(), "A Track", TrackDuration.parse("3:30"), 1, List.of())),
+                Set.of(Format.VINYL));
+        // The newest release: ids only grow.
+        return releaseQueryApi.getReleasesForLabel(labelId).stream()
+                .mapToLong(Release::id)
+                .max()
+                .orElseThrow();
+    }
 }
@@ -15,6 +15,9 @@ import org.omt.labelmanager.catalog.release.domain.TrackDuration;
 import org.omt.labelmanager.catalog.release.domain.TrackInput;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseArtistRepository;
 import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
+import org.omt.labelmanager.catalog.release.infrastructure.TrackArtistRepository;
+import org.omt.labelmanager.catalog.release.infrastructure.TrackEntity;
+import org.omt.labelmanager.catalog.release.infrastructure.TrackRemixerRepository;
 import org.omt.labelmanager.catalog.release.infrastructure.TrackRepository;
 import org.omt.labelmanager.shared.Format;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +37,10 @@ public class UpdateReleaseIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired ReleaseCommandApi releaseCommandApi;
 
+    @Autowired TrackArtistRepository trackArtistRepository;
+
+    @Autowired TrackRemixerRepository trackRemixerRepository;
+
     @Test
     @Transactional
     void updateRelease_updatesAllFields() {
@@ -96,4 +103,56 @@ public class UpdateReleaseIntegrationTest extends AbstractIntegrationTest {
         assertThat(tracks.get(0).getName()).isEqualTo("Updated Track 1");
         assertThat(tracks.get(1).getName()).isEqualTo("Updated Track 2");
     }
+
+    @Test
+    void updateRelease_keepsTheIdsOfTracksItDoesNotRemove() {
+        var label = labelTestHelper.createLabel("Label For Stable Tracks");
+        var artist = artistRepository.save(new ArtistEntity("Stable Artist"));
+        var remixer = artistRepository.save(new ArtistEntity("Stable Remixer"));
+        var intro = trackAt(1, "Intro", List.of(artist.getId()), List.of());
+        var single = trackAt(2, "Single", List.of(artist.getId()), List.of());
+        var outro = trackAt(3, "Outro", List.of(artist.getId()), List.of());
+
+        releaseCommandApi.createRelease(
+                "Stable Release",
+                LocalDate.of(2026, 1, 1),
+                label.id(),
+                List.of(artist.getId()),
+                List.of(intro, single, outro),
+                Set.of(Format.DIGITAL));
+        var releaseId = releaseRepository.findByName("Stable Release").orElseThrow().getId();
+        var before = trackRepository.findByReleaseIdOrderByPosition(releaseId);
+
+        releaseCommandApi.updateRelease(
+                releaseId,
+                "Stable Release (Deluxe)",
+                LocalDate.of(2026, 1, 1),
+                List.of(artist.getId()),
+                List.of(
+                        intro,
+                        trackAt(
+                                2,
+                                "Single (Edit)",
+                                List.of(artist.getId()),
+                                List.of(remixer.getId())),
+                        trackAt(4, "Bonus", List.of(artist.getId()), List.of())),
+                Set.of(Format.DIGITAL));
+
+        var after = trackRepository.findByReleaseIdOrderByPosition(releaseId);
+        assertThat(after)
+                .extracting(TrackEntity::getName)
+                .containsExactly("Intro", "Single (Edit)", "Bonus");
+        assertThat(after.get(0).getId()).isEqualTo(before.get(0).getId());
+        assertThat(after.get(1).getId()).isEqualTo(before.get(1).getId());
+        assertThat(after.get(2).getId()).isNotIn(before.stream().map(TrackEntity::getId).toList());
+        assertThat(trackRemixerRepository.findRemixerIdsByTrackId(after.get(1).getId()))
+                .containsExactly(remixer.getId());
+        assertThat(trackArtistRepository.findArtistIdsByTrackId(after.get(2).getId()))
+                .containsExactly(artist.getId());
+    }
+
+    private static TrackInput trackAt(
+            int position, String name, List<Long> artistIds, List<Long> remixerIds) {
+        return new TrackInput(artistIds, name, TrackDuration.parse("3:00"), position, remixerIds);
+    }
 }
@@ -0,0 +1,91 @@
+package org.omt.labelmanager.catalog.release.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.catalog.release.domain.TrackDiff.TrackLink;
+
+class TrackDiffTest {
+
+    private static final TrackDuration THREE_MINUTES = TrackDuration.ofSeconds(180);
+
+    @Test
+    void unchangedTracksMakeAnEmptyDiff() {
+        var persisted = List.of(track(10L, 1, "Intro", List.of(1L), List.of(2L)));
+
+        var diff =
+                TrackDiff.between(persisted, List.of(input(1, "Intro", List.of(1L), List.of(2L))));
+
+        assertThat(diff.isEmpty()).isTrue();
+    }
+
+    @Test
+    void aRenamedTrackKeepsItsId() {
+        var persisted = List.of(track(10L, 1, "Intor", List.of(1L), List.of()));
+
+        var diff = TrackDiff.between(persisted, List.of(input(1, "Intro", List.of(1L), List.of())));
+
+        assertThat(diff.changed()).extracting(Track::id).containsExactly(10L);
+        assertThat(diff.changed()).extracting(Track::name).containsExactly("Intro");
+        assertThat(diff.added()).isEmpty();
+        assertThat(diff.removed()).isEmpty();
+    }
+
+    @Test
+    void linksAreDiffedWithoutTouchingTheTrack() {
+        var persisted = List.of(track(10L, 1, "Intro", List.of(1L, 2L), List.of(3L)));
+
+        var diff =
+                TrackDiff.between(
+                        persisted, List.of(input(1, "Intro", List.of(2L, 4L), List.of(3L))));
+
+        assertThat(diff.changed()).isEmpty();
+        assertThat(diff.artistsAdded()).containsExactly(new TrackLink(10L, 4L));
+        assertThat(diff.artistsRemoved()).containsExactly(new TrackLink(10L, 1L));
+        assertThat(diff.remixersAdded()).isEmpty();
+        assertThat(diff.remixersRemoved()).isEmpty();
+    }
+
+    @Test
+    void tracksAreMatchedByPosition() {
+        var persisted =
+                List.of(
+                        track(10L, 1, "Intro", List.of(1L), List.of()),
+                        track(11L, 2, "Single", List.of(1L), List.of()),
+                        track(12L, 3, "Outro", List.of(1L), List.of()));
+        var intro = input(1, "Intro", List.of(1L), List.of());
+        var single = input(2, "Single", List.of(1L), List.of());
+        var bonus = input(4, "Bonus", List.of(1L), List.of());
+
+        var diff = TrackDiff.between(persisted, List.of(bonus, single, intro));
+
+        assertThat(diff.added()).containsExactly(bonus);
+        assertThat(diff.removed()).containsExactly(12L);
+        assertThat(diff.changed()).isEmpty();
+        assertThat(diff.artistsAdded()).isEmpty();
+    }
+
+    @Test
+    void aSecondTrackAtOnePositionIsRemoved() {
+        var persisted =
+                List.of(
+                        track(10L, 1, "Intro", List.of(), List.of()),
+                        track(11L, 1, "Intro again", List.of(), List.of()));
+
+        var diff = TrackDiff.between(persisted, List.of(input(1, "Intro", List.of(), List.of())));
+
+        assertThat(diff.removed()).containsExactly(11L);
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    private static Track track(
+            Long id, int position, String name, List<Long> artistIds, List<Long> remixerIds) {
+        return new Track(id, artistIds, name, THREE_MINUTES, position, remixerIds);
+    }
+
+    private static TrackInput input(
+            int position, String name, List<Long> artistIds, List<Long> remixerIds) {
+        return new TrackInput(artistIds, name, THREE_MINUTES, position, remixerIds);
+    }
+}
@@ -232,7 +232,8 @@ public class CostCommandIntegrationTest {
                 new DocumentUpload(
                         "invoice.pdf",
                         "application/pdf",
-                        new ByteArrayInputStream(documentContent.getBytes(StandardCharsets.UTF_8)));
+                        new ByteArrayInputStream(documentContent.getBytes(StandardCharsets.UTF_8)),
+                        documentContent.length());
 
         costCommandFacade.registerCost(
                 Money.of(new BigDecimal("200.00")),
@@ -19,6 +19,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +31,7 @@ import org.omt.labelmanager.finance.cost.domain.Cost;
 import org.omt.labelmanager.finance.cost.domain.CostOwner;
 import org.omt.labelmanager.finance.cost.domain.CostType;
 import org.omt.labelmanager.finance.cost.domain.VatAmount;
+import org.omt.labelmanager.finance.shared.DocumentRangeNotSatisfiableException;
 import org.omt.labelmanager.finance.shared.DocumentUpload;
 import org.omt.labelmanager.finance.shared.RetrievedDocument;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
@@ -242,7 +244,8 @@ class CostControllerTest {
                         "application/pdf",
                         "invoice.pdf",
                         content.length);
-        when(costCommandApi.retrieveDocument(COST_ID)).thenReturn(Optional.of(document));
+        when(costCommandApi.retrieveDocument(eq(COST_ID), any(), any()))
+                .thenReturn(Optional.of(document));
 
         mockMvc.perform(get("/api/labels/1/costs/99/document").with(user(testUser)))
                 .andExpect(status().isOk())
@@ -262,7 +265,8 @@ class CostControllerTest {
                         "application/pdf",
                         "invoice.pdf",
                         content.length);
-        when(costCommandApi.retrieveDocument(COST_ID)).thenReturn(Optional.of(document));
+        when(costCommandApi.retrieveDocument(eq(COST_ID), any(), any()))
+                .thenReturn(Optional.of(document));
 
         mockMvc.perform(
                         get("/api/labels/1/costs/99/document")
@@ -280,7 +284,7 @@ class CostControllerTest {
         costOwnedBy(CostOwner.release(RELEASE_ID));
         releaseBelongsToLabel();
         byte[] content = "PDF content".getBytes();
-        when(costCommandApi.retrieveDocument(COST_ID))
+        when(costCommandApi.retrieveDocument(eq(COST_ID), any(), any()))
                 .thenReturn(
                         Optional.of(
                                 new RetrievedDocument(
@@ -300,7 +304,7 @@ class CostControllerTest {
         mockMvc.perform(get("/api/labels/1/costs/99/document").with(user(testUser)))
                 .andExpect(status().isNotFound());
 
-        verify(costCommandApi, org.mockito.Mockito.never()).retrieveDocument(any());
+        verify(costCommandApi, org.mockito.Mockito.never()).retrieveDocument(any(), any(), any());
     }
 
     @Test
@@ -314,12 +318,118 @@ class CostControllerTest {
     @Test
     void getDocument_returns404WhenNoDocumentAttached() throws Exception {
         costOwnedBy(CostOwner.label(LABEL_ID));
-        when(costCommandApi.retrieveDocument(COST_ID)).thenReturn(Optional.empty());
+        when(costCommandApi.retrieveDocument(eq(COST_ID), any(), any()))
+                .thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/labels/1/costs/99/document").with(user(testUser)))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getDocument_redirectsToTheStorageUrlWhenThereIsOne() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+        URI url = URI.create("https://storage.example/costs/invoice.pdf?X-Amz-Signature=abc");
+        when(costCommandApi.findDocumentUrl(COST_ID, true)).thenReturn(Optional.of(url));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .param("action", "download")
+                                .with(user(testUser)))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", url.toString()));
+
+        verify(costCommandApi, org.mockito.Mockito.never()).retrieveDocument(any(), any(), any());
+    }
+
+    @Test
+    void getDocument_servesASingleRangeAsPartialContent() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+        byte[] part = "PDF".getBytes();
+        when(costCommandApi.retrieveDocument(COST_ID, "bytes=0-2", null))
+                .thenReturn(
+                        Optional.of(
+                                new RetrievedDocument(
+                                        new ByteArrayInputStream(part),
+                                        "application/pdf",
+                                        "invoice.pdf",
+                                        part.length,
+                                        "\"abc\"",
+                                        "bytes 0-2/11")));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .header("Range", "bytes=0-2")
+                                .with(user(testUser)))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-2/11"))
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().bytes(part));
+    }
+
+    @Test
+    void getDocument_refusesARangeStorageCannotServe() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .header("Range", "bytes=0-2,5-7")
+                                .with(user(testUser)))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+
+        verify(costCommandApi, org.mockito.Mockito.never()).retrieveDocument(any(), any(), any());
+    }
+
+    @Test
+    void getDocument_tellsARangePastTheEndHowLongTheDocumentIs() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+        when(costCommandApi.retrieveDocument(COST_ID, "bytes=100-", null))
+                .thenThrow(new DocumentRangeNotSatisfiableException("bytes=100-", 11L));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .header("Range", "bytes=100-")
+                                .with(user(testUser)))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */11"));
+    }
+
+    @Test
+    void getDocument_returns304WhenTheCallersCopyIsCurrent() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+        when(costCommandApi.retrieveDocument(COST_ID, null, "\"abc\""))
+                .thenReturn(Optional.of(RetrievedDocument.notModified("invoice.pdf", "\"abc\"")));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .header("If-None-Match", "\"abc\"")
+                                .with(user(testUser)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getDocument_returns304ForAWeakTagStorageDidNotMatch() throws Exception {
+        costOwnedBy(CostOwner.label(LABEL_ID));
+        byte[] content = "PDF content".getBytes();
+        when(costCommandApi.retrieveDocument(eq(COST_ID), any(), any()))
+                .thenReturn(
+                        Optional.of(
+                                new RetrievedDocument(
+                                        new ByteArrayInputStream(content),
+                                        "application/pdf",
+                                        "invoice.pdf",
+                                        content.length,
+                                        "\"abc\"",
+                                        null)));
+
+        mockMvc.perform(
+                        get("/api/labels/1/costs/99/document")
+                                .header("If-None-Match", "W/\"abc\"")
+                                .with(user(testUser)))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void deleteCost_callsUseCaseAndReturnsNoContent() throws Exception {
         costOwnedBy(CostOwner.label(LABEL_ID));
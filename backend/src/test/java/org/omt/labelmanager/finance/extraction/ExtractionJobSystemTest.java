@@ -0,0 +1,377 @@
+package org.omt.labelmanager.finance.extraction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.identity.user.UserTestHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+
+/**
+ * Extraction jobs end to end: uploaded through the API, stored in MinIO, sent to a stub parser
+ * served from this JVM, and polled for. The stub answers each call with the next status queued
+ * for it, then with 200s, and records how many calls it had in flight at once.
+ *
+ * <p>Every upload is a new document unless a test means otherwise: the result cache would answer
+ * a repeat without reaching the stub.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ExtractionJobSystemTest {
+
+    private static final String BUCKET = "costs";
+    private static final String MINIO_ACCESS_KEY = "minioadmin";
+    private static final String MINIO_SECRET_KEY = "minioadmin";
+    private static final int MAX_CONCURRENT = 2;
+    private static final String JOBS = "/api/costs/extraction-jobs";
+
+    private static final String PARSED_INVOICE =
+            """
+            {
+                "invoiceDate": "2024-03-15",
+                "invoiceReference": "INV-001",
+                "netAmount": {"amount": "1000.00", "currency": "NOK"},
+                "vatAmount": {"amount": "250.00", "currency": "NOK"},
+                "totalAmount": {"amount": "1250.00", "currency": "NOK"}
+            }
+            """;
+
+    private static final Queue<Integer> stubStatuses = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger stubCalls = new AtomicInteger();
+    private static final AtomicInteger stubInFlight = new AtomicInteger();
+    private static final AtomicInteger stubMaxInFlight = new AtomicInteger();
+    private static volatile long stubDelayMillis;
+    private static HttpServer stubParser;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Container
+    static MinIOContainer minIO =
+            new MinIOContainer("minio/minio:latest")
+                    .withUserName(MINIO_ACCESS_KEY)
+                    .withPassword(MINIO_SECRET_KEY);
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserTestHelper userTestHelper;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    private AppUserDetails testUser;
+
+    @BeforeAll
+    static void startStubParserAndBucket() throws IOException {
+        stubParser = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubParser.createContext("/api/v1/extract", ExtractionJobSystemTest::answerStub);
+        stubParser.setExecutor(Executors.newCachedThreadPool());
+        stubParser.start();
+
+        S3Client.builder()
+                .endpointOverride(URI.create(minIO.getS3URL()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(MINIO_ACCESS_KEY, MINIO_SECRET_KEY)))
+                .forcePathStyle(true)
+                .build()
+                .createBucket(CreateBucketRequest.builder().bucket(BUCKET).build());
+    }
+
+    @AfterAll
+    static void stopStubParser() {
+        stubParser.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void containerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("storage.s3.endpoint", minIO::getS3URL);
+        registry.add("storage.s3.bucket", () -> BUCKET);
+        registry.add("storage.s3.region", () -> "us-east-1");
+        registry.add("storage.s3.access-key", () -> MINIO_ACCESS_KEY);
+        registry.add("storage.s3.secret-key", () -> MINIO_SECRET_KEY);
+        registry.add(
+                "invoice.parser.url",
+                () -> "http://localhost:" + stubParser.getAddress().getPort());
+        registry.add("invoice.extraction.max-concurrent", () -> MAX_CONCURRENT);
+        registry.add("invoice.extraction.retry-backoff", () -> "20ms");
+        // The breaker has its own tests; here it must not open across the failing tests.
+        registry.add("invoice.extraction.breaker-failure-threshold", () -> 1000);
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubStatuses.clear();
+        stubCalls.set(0);
+        stubMaxInFlight.set(0);
+        stubDelayMillis = 0;
+        var user = userTestHelper.createUser(UUID.randomUUID() + "@example.com");
+        testUser = new AppUserDetails(user.id(), user.email(), "password", "Test User");
+    }
+
+    @Test
+    void answersAtOnceWithAQueuedJob_thatAPollSeesComplete() throws Exception {
+        MvcResult submitted =
+                mockMvc.perform(
+                                multipart(JOBS)
+                                        .file(pdf())
+                                        .with(user(testUser))
+                                        .with(csrf()))
+                        .andExpect(status().isAccepted())
+                        .andExpect(header().string("Location", startsWith(JOBS + "/")))
+                        .andExpect(jsonPath("$.status").value("QUEUED"))
+                        .andExpect(jsonPath("$.result").isEmpty())
+                        .andReturn();
+
+        poll(jobIdOf(submitted))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.attempts").value(1))
+                .andExpect(jsonPath("$.result.extracted").value(true))
+                .andExpect(jsonPath("$.result.netAmount").value(1000.00))
+                .andExpect(jsonPath("$.result.invoiceReference").value("INV-001"))
+                .andExpect(jsonPath("$.error").isEmpty());
+    }
+
+    @Test
+    void retriesAParserThatIsDownForAWhile() throws Exception {
+        stubStatuses.addAll(List.of(503, 503));
+
+        Long jobId = submit();
+
+        poll(jobId)
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.attempts").value(3));
+        assertThat(stubCalls).hasValue(3);
+    }
+
+    @Test
+    void failsWithoutRetryingWhenTheParserRefusesTheDocument() throws Exception {
+        stubStatuses.add(400);
+
+        Long jobId = submit();
+
+        poll(jobId)
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.attempts").value(1))
+                .andExpect(jsonPath("$.result").isEmpty())
+                .andExpect(jsonPath("$.error").value(containsString("400")));
+        assertThat(stubCalls).hasValue(1);
+    }
+
+    @Test
+    void failsOnceEveryAttemptIsSpent() throws Exception {
+        stubStatuses.addAll(List.of(503, 503, 503, 503));
+
+        Long jobId = submit();
+
+        poll(jobId)
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.attempts").value(3));
+    }
+
+    @Test
+    void neverCallsTheParserMoreThanTheLimitAtOnce() throws Exception {
+        stubDelayMillis = 200;
+        List<Long> jobIds = new ArrayList<>();
+        for (int i = 0; i < 3 * MAX_CONCURRENT; i++) {
+            jobIds.add(submit());
+        }
+
+        for (Long jobId : jobIds) {
+            poll(jobId).andExpect(jsonPath("$.status").value("COMPLETED"));
+        }
+        assertThat(stubMaxInFlight.get()).isEqualTo(MAX_CONCURRENT);
+    }
+
+    @Test
+    void aDocumentParsedBeforeIsAnsweredFromTheCacheWithoutCallingTheParser() throws Exception {
+        MockMultipartFile document = pdf();
+        poll(submit(document)).andExpect(jsonPath("$.status").value("COMPLETED"));
+        double memoryHits = cacheLookups("memory");
+
+        mockMvc.perform(
+                        multipart(JOBS)
+                                .file(document)
+                                .with(user(testUser))
+                                .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.attempts").value(0))
+                .andExpect(jsonPath("$.result.invoiceReference").value("INV-001"));
+        mockMvc.perform(
+                        multipart("/api/costs/extract")
+                                .file(document)
+                                .with(user(testUser))
+                                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invoiceReference").value("INV-001"));
+
+        assertThat(stubCalls).hasValue(1);
+        assertThat(cacheLookups("memory")).isEqualTo(memoryHits + 2);
+    }
+
+    @Test
+    void bypassingTheCacheParsesTheDocumentAgain() throws Exception {
+        MockMultipartFile document = pdf();
+        poll(submit(document)).andExpect(jsonPath("$.status").value("COMPLETED"));
+        double bypasses = cacheLookups("bypass");
+
+        MvcResult submitted =
+                mockMvc.perform(
+                                multipart(JOBS)
+                                        .file(document)
+                                        .param("bypassCache", "true")
+                                        .with(user(testUser))
+                                        .with(csrf()))
+                        .andExpect(status().isAccepted())
+                        .andExpect(jsonPath("$.status").value("QUEUED"))
+                        .andReturn();
+
+        poll(jobIdOf(submitted)).andExpect(jsonPath("$.attempts").value(1));
+        assertThat(stubCalls).hasValue(2);
+        assertThat(cacheLookups("bypass")).isEqualTo(bypasses + 1);
+    }
+
+    @Test
+    void anotherUsersJobIsNotFound() throws Exception {
+        Long jobId = submit();
+        poll(jobId);
+        var other = userTestHelper.createUser(UUID.randomUUID() + "@example.com");
+
+        mockMvc.perform(
+                        get(JOBS + "/" + jobId)
+                                .with(
+                                        user(
+                                                new AppUserDetails(
+                                                        other.id(),
+                                                        other.email(),
+                                                        "password",
+                                                        "Other User"))))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long submit() throws Exception {
+        return submit(pdf());
+    }
+
+    private Long submit(MockMultipartFile document) throws Exception {
+        return jobIdOf(
+                mockMvc.perform(
+                                multipart(JOBS)
+                                        .file(document)
+                                        .with(user(testUser))
+                                        .with(csrf()))
+                        .andExpect(status().isAccepted())
+                        .andReturn());
+    }
+
+    private double cacheLookups(String outcome) {
+        return meterRegistry.counter("invoice.extraction.cache", "outcome", outcome).count();
+    }
+
+    private static Long jobIdOf(MvcResult submitted) {
+        String location = submitted.getResponse().getHeader("Location");
+        return Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    /** Long-polls the job until it finishes. */
+    private ResultActions poll(Long jobId) throws Exception {
+        MvcResult started =
+                mockMvc.perform(
+                                get(JOBS + "/" + jobId)
+                                        .param("waitSeconds", "10")
+                                        .with(user(testUser)))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    /** A document no earlier test uploaded, so the result cache cannot answer for it. */
+    private static MockMultipartFile pdf() {
+        return pdf(("pdf content " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile pdf(byte[] content) {
+        return new MockMultipartFile("document", "invoice.pdf", "application/pdf", content);
+    }
+
+    private static void answerStub(HttpExchange exchange) throws IOException {
+        stubCalls.incrementAndGet();
+        stubMaxInFlight.accumulateAndGet(stubInFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (stubDelayMillis > 0) {
+                Thread.sleep(stubDelayMillis);
+            }
+            Integer status = stubStatuses.poll();
+            if (status != null && status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] body = PARSED_INVOICE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stubInFlight.decrementAndGet();
+        }
+    }
+}
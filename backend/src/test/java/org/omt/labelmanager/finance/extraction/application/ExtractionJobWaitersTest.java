@@ -0,0 +1,44 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ExtractionJobWaitersTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(20);
+
+    private final AtomicLong now = new AtomicLong();
+    private final ExtractionJobWaiters waiters = new ExtractionJobWaiters(MAX_WAIT, now::get);
+
+    @Test
+    void pollsOfOneJobShareAFuture() {
+        assertThat(waiters.finishing(1L)).isSameAs(waiters.finishing(1L));
+        assertThat(waiters.size()).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsTheFutureOfAJobThatDoesNotExist() {
+        waiters.finishing(404L);
+
+        waiters.forget(404L);
+
+        assertThat(waiters.size()).isZero();
+    }
+
+    /** A job finished by another instance, or never, must not keep its future for good. */
+    @Test
+    void dropsAFutureOnceEveryPollOfItHasTimedOut() {
+        waiters.finishing(1L);
+        now.addAndGet(MAX_WAIT.toNanos() / 2);
+        waiters.finishing(1L);
+
+        now.addAndGet(MAX_WAIT.toNanos() / 2);
+        assertThat(waiters.size()).isEqualTo(1);
+
+        now.addAndGet(MAX_WAIT.toNanos() / 2);
+        assertThat(waiters.size()).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package org.omt.labelmanager.finance.extraction.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.finance.extraction.api.InvoiceParserUnavailableException;
+import org.omt.labelmanager.finance.shared.DocumentStorageException;
+
+class ParserCircuitBreakerTest {
+
+    private static final Duration OPEN_FOR = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private ParserCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new ParserCircuitBreaker(3, OPEN_FOR, now::get);
+    }
+
+    @Test
+    void opensAfterTheThresholdOfConsecutiveRetryableFailures_andStopsCalling() {
+        failRetryably(3);
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> breaker.call(this::answer))
+                .isInstanceOf(InvoiceParserUnavailableException.class)
+                .hasMessageContaining("paused");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void aSuccessResetsTheFailureCount() {
+        failRetryably(2);
+        breaker.call(this::answer);
+        failRetryably(2);
+
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void failuresThatShowTheParserIsUpDoNotCount() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(
+                            () ->
+                                    breaker.call(
+                                            () -> {
+                                                throw new InvoiceParserUnavailableException(
+                                                        "400", null, false);
+                                            }))
+                    .isInstanceOf(InvoiceParserUnavailableException.class);
+        }
+
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void letsOneTrialCallThroughOnceTheOpenPeriodIsOver_andClosesWhenItSucceeds() {
+        failRetryably(3);
+        now.addAndGet(OPEN_FOR.toNanos());
+
+        assertThat(breaker.call(this::answer)).isEqualTo("parsed");
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void opensForAnotherPeriodWhenTheTrialCallFails() {
+        failRetryably(3);
+        now.addAndGet(OPEN_FOR.toNanos());
+
+        failRetryably(1);
+
+        assertThat(breaker.isOpen()).isTrue();
+        int callsBefore = calls.get();
+        assertThatThrownBy(() -> breaker.call(this::answer))
+                .isInstanceOf(InvoiceParserUnavailableException.class);
+        assertThat(calls).hasValue(callsBefore);
+    }
+
+    /** A trial that never reached the parser must not leave every later call refused. */
+    @Test
+    void letsTheNextCallTryWhenTheTrialFailsWithoutReachingTheParser() {
+        failRetryably(3);
+        now.addAndGet(OPEN_FOR.toNanos());
+
+        assertThatThrownBy(
+                        () ->
+                                breaker.call(
+                                        () -> {
+                                            throw new DocumentStorageException("gone", null);
+                                        }))
+                .isInstanceOf(DocumentStorageException.class);
+
+        assertThat(breaker.call(this::answer)).isEqualTo("parsed");
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    private void failRetryably(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(
+                            () ->
+                                    breaker.call(
+                                            () -> {
+                                                calls.incrementAndGet();
+                                                throw new InvoiceParserUnavailableException(
+                                                        "503", null, true);
+                                            }))
+                    .isInstanceOf(InvoiceParserUnavailableException.class);
+        }
+    }
+
+    private String answer() {
+        calls.incrementAndGet();
+        return "parsed";
+    }
+}
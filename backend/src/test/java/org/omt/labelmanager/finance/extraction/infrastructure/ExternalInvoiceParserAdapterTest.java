@@ -105,7 +105,11 @@ class ExternalInvoiceParserAdapterTest {
                                         new ByteArrayInputStream(new byte[] {1, 2, 3}),
                                         "application/pdf"))
                 .isInstanceOf(InvoiceParserUnavailableException.class)
-                .hasMessageContaining("400");
+                .hasMessageContaining("400")
+                .satisfies(
+                        e ->
+                                assertThat(((InvoiceParserUnavailableException) e).isRetryable())
+                                        .isFalse());
     }
 
     @Test
@@ -120,7 +124,11 @@ class ExternalInvoiceParserAdapterTest {
                                         new ByteArrayInputStream(new byte[] {1, 2, 3}),
                                         "application/pdf"))
                 .isInstanceOf(InvoiceParserUnavailableException.class)
-                .hasMessageContaining("503");
+                .hasMessageContaining("503")
+                .satisfies(
+                        e ->
+                                assertThat(((InvoiceParserUnavailableException) e).isRetryable())
+                                        .isTrue());
     }
 
     @Test
@@ -138,7 +146,11 @@ class ExternalInvoiceParserAdapterTest {
                                         new ByteArrayInputStream(new byte[] {1, 2, 3}),
                                         "application/pdf"))
                 .isInstanceOf(InvoiceParserUnavailableException.class)
-                .hasMessageContaining("could not be reached");
+                .hasMessageContaining("could not be reached")
+                .satisfies(
+                        e ->
+                                assertThat(((InvoiceParserUnavailableException) e).isRetryable())
+                                        .isTrue());
     }
 
     @Test
@@ -162,7 +174,11 @@ class ExternalInvoiceParserAdapterTest {
                                         "application/pdf"))
                 .isInstanceOf(InvoiceParserUnavailableException.class)
                 .hasMessageContaining("could not be read")
-                .hasMessageNotContaining("could not be reached");
+                .hasMessageNotContaining("could not be reached")
+                .satisfies(
+                        e ->
+                                assertThat(((InvoiceParserUnavailableException) e).isRetryable())
+                                        .isFalse());
     }
 
     @Test
@@ -2,20 +2,28 @@ package org.omt.labelmanager.finance.extraction.web;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.finance.extraction.api.ExtractionCommandApi;
+import org.omt.labelmanager.finance.extraction.api.ExtractionQueryApi;
 import org.omt.labelmanager.finance.extraction.api.InvoiceParserUnavailableException;
 import org.omt.labelmanager.finance.extraction.domain.ExtractedInvoiceData;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJob;
+import org.omt.labelmanager.finance.extraction.domain.ExtractionJobStatus;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
 import org.omt.labelmanager.test.TestSecurityConfig;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +42,8 @@ class InvoiceExtractionControllerTest {
 
     @MockitoBean private ExtractionCommandApi extractionCommandApi;
 
+    @MockitoBean private ExtractionQueryApi extractionQueryApi;
+
     private final AppUserDetails testUser =
             new AppUserDetails(1L, "test@example.com", "password", "Test User");
 
@@ -43,7 +53,7 @@ class InvoiceExtractionControllerTest {
                 new MockMultipartFile(
                         "document", "invoice.pdf", "application/pdf", "pdf content".getBytes());
 
-        when(extractionCommandApi.extract(any(), eq("application/pdf")))
+        when(extractionCommandApi.extract(any(), eq("application/pdf"), eq(false)))
                 .thenReturn(
                         new ExtractedInvoiceData(
                                 new BigDecimal("100.00"),
@@ -124,7 +134,7 @@ class InvoiceExtractionControllerTest {
                 new MockMultipartFile(
                         "document", "invoice.pdf", "application/pdf", "pdf content".getBytes());
 
-        when(extractionCommandApi.extract(any(), eq("application/pdf")))
+        when(extractionCommandApi.extract(any(), eq("application/pdf"), eq(false)))
                 .thenReturn(ExtractedInvoiceData.empty());
 
         mockMvc.perform(
@@ -144,7 +154,7 @@ class InvoiceExtractionControllerTest {
                 new MockMultipartFile(
                         "document", "invoice.pdf", "application/pdf", "pdf content".getBytes());
 
-        when(extractionCommandApi.extract(any(), eq("application/pdf")))
+        when(extractionCommandApi.extract(any(), eq("application/pdf"), eq(false)))
                 .thenThrow(
                         new InvoiceParserUnavailableException("Invoice parser answered with 503"));
 
@@ -158,4 +168,56 @@ class InvoiceExtractionControllerTest {
                 .andExpect(jsonPath("$.status").value(502))
                 .andExpect(jsonPath("$.detail").value("Invoice parser answered with 503"));
     }
+
+    @Test
+    void submitsAJobAndAnswersAtOnceWithWhereToPollIt() throws Exception {
+        MockMultipartFile document =
+                new MockMultipartFile(
+                        "document", "invoice.pdf", "application/pdf", "pdf content".getBytes());
+
+        when(extractionCommandApi.submit(
+                        eq(1L), eq("invoice.pdf"), eq("application/pdf"), any(), eq(false)))
+                .thenReturn(job(7L, 1L, ExtractionJobStatus.QUEUED));
+
+        mockMvc.perform(
+                        multipart("/api/costs/extraction-jobs")
+                                .file(document)
+                                .with(user(testUser))
+                                .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/costs/extraction-jobs/7"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.result").isEmpty());
+    }
+
+    @Test
+    void refusesToQueueANonPdfDocument() throws Exception {
+        MockMultipartFile document =
+                new MockMultipartFile(
+                        "document", "invoice.png", "image/png", "image content".getBytes());
+
+        mockMvc.perform(
+                        multipart("/api/costs/extraction-jobs")
+                                .file(document)
+                                .with(user(testUser))
+                                .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(extractionCommandApi);
+    }
+
+    @Test
+    void reportsAnotherUsersJobAsNotFound() throws Exception {
+        when(extractionQueryApi.findJob(7L))
+                .thenReturn(Optional.of(job(7L, 2L, ExtractionJobStatus.COMPLETED)));
+
+        mockMvc.perform(get("/api/costs/extraction-jobs/7").with(user(testUser)))
+                .andExpect(status().isNotFound());
+    }
+
+    private static ExtractionJob job(Long id, Long userId, ExtractionJobStatus status) {
+        Instant now = Instant.now();
+        return new ExtractionJob(id, userId, status, 0, null, null, now, now);
+    }
 }
@@ -0,0 +1,248 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.artist.infrastructure.ArtistEntity;
+import org.omt.labelmanager.catalog.artist.infrastructure.ArtistRepository;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.catalog.release.api.ReleaseCommandApi;
+import org.omt.labelmanager.catalog.release.domain.TrackDuration;
+import org.omt.labelmanager.catalog.release.domain.TrackInput;
+import org.omt.labelmanager.catalog.release.infrastructure.ReleaseRepository;
+import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.distributorreturn.api.DistributorReturnCommandApi;
+import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The endpoints whose cost once grew with their data, each requested over a small data set and
+ * over one many times larger. Every one must issue the same number of statements for both: that
+ * is what "no N+1" means, measured. The {@code @QueryBudget} on each endpoint, enforced in the test
+ * profile, bounds the count as well.
+ *
+ * <p>Each endpoint is requested once before it is measured, so the ownership caches are warm for
+ * both data sets alike.
+ */
+@AutoConfigureMockMvc
+class EndpointQueryBudgetIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int MANY = 25;
+
+    private static final Pattern DB_STATEMENTS = Pattern.compile("db;dur=[\\d.]+;desc=\"(\\d+)\"");
+
+    private final AppUserDetails testUser =
+            new AppUserDetails(1L, "test@example.com", "password", "Test User");
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private ReleaseCommandApi releaseCommandApi;
+
+    @Autowired private ReleaseRepository releaseRepository;
+
+    @Autowired private ArtistRepository artistRepository;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private DistributorTestHelper distributorTestHelper;
+
+    @Autowired private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    @Autowired private SaleCommandApi saleCommandApi;
+
+    @Autowired private DistributorReturnCommandApi returnCommandApi;
+
+    @Test
+    void releaseListingCostsTheSameForOneReleaseAsForMany() throws Exception {
+        Long artistId = artistRepository.save(new ArtistEntity("Budget Artist")).getId();
+        Long small = labelTestHelper.createLabel("Budget Label Few Releases").id();
+        Long large = labelTestHelper.createLabel("Budget Label Many Releases").id();
+        releaseTestHelper.createRelease("Budget Single Release", small, artistId);
+        for (int i = 0; i < MANY; i++) {
+            releaseTestHelper.createRelease("Budget Release " + i, large, artistId);
+        }
+
+        assertFlat("/api/labels/" + small + "/releases", "/api/labels/" + large + "/releases");
+    }
+
+    @Test
+    void releaseDetailCostsTheSameForOneTrackAsForMany() throws Exception {
+        Long artistId = artistRepository.save(new ArtistEntity("Budget Track Artist")).getId();
+        Long labelId = labelTestHelper.createLabel("Budget Label Tracks").id();
+        Long single = createReleaseWithTracks("Budget Single", labelId, artistId, 1);
+        Long album = createReleaseWithTracks("Budget Album", labelId, artistId, MANY);
+
+        String releases = "/api/labels/" + labelId + "/releases/";
+        assertFlat(releases + single, releases + album);
+    }
+
+    @Test
+    void productionRunListingCostsTheSameForOnePressingAsForMany() throws Exception {
+        Long labelId = labelTestHelper.createLabel("Budget Label Pressings").id();
+        Long small = releaseTestHelper.createReleaseEntity("Budget One Pressing", labelId);
+        Long large = releaseTestHelper.createReleaseEntity("Budget Many Pressings", labelId);
+        productionRunTestHelper.createProductionRun(small, Format.VINYL, 100);
+        for (int i = 0; i < MANY; i++) {
+            productionRunTestHelper.createProductionRun(large, Format.VINYL, 100);
+        }
+
+        String releases = "/api/labels/" + labelId + "/releases/";
+        assertFlat(
+                releases + small + "/production-runs", releases + large + "/production-runs");
+    }
+
+    @Test
+    void movementHistoryCostsTheSameForOneMovementAsForMany() throws Exception {
+        Long labelId = labelTestHelper.createLabel("Budget Label Movements").id();
+        Long distributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, "Budget Shop", ChannelType.DISTRIBUTOR)
+                        .id();
+        Long releaseId = releaseTestHelper.createReleaseEntity("Budget Movements", labelId);
+        Long quiet = productionRunTestHelper.createProductionRun(releaseId, Format.VINYL, 100).id();
+        Long busy = productionRunTestHelper.createProductionRun(releaseId, Format.VINYL, 100).id();
+        for (int i = 0; i < MANY; i++) {
+            allocate(busy, distributorId, 1);
+        }
+
+        String runs = "/api/labels/" + labelId + "/releases/" + releaseId + "/production-runs/";
+        assertFlat(runs + quiet + "/movements", runs + busy + "/movements");
+    }
+
+    @Test
+    void salesListingCostsTheSameForOneSaleAsForMany() throws Exception {
+        Long small = stockedLabelWithSales("Budget Label One Sale", 1);
+        Long large = stockedLabelWithSales("Budget Label Many Sales", MANY);
+
+        assertFlat("/api/labels/" + small + "/sales", "/api/labels/" + large + "/sales");
+    }
+
+    @Test
+    void returnsListingCostsTheSameForOneReturnAsForMany() throws Exception {
+        Long small = stockedLabelWithReturns("Budget Label One Return", 1);
+        Long large = stockedLabelWithReturns("Budget Label Many Returns", MANY);
+
+        assertFlat("/api/labels/" + small + "/returns", "/api/labels/" + large + "/returns");
+    }
+
+    private void assertFlat(String smallUrl, String largeUrl) throws Exception {
+        statements(smallUrl);
+        statements(largeUrl);
+
+        assertThat(statements(largeUrl)).isEqualTo(statements(smallUrl));
+    }
+
+    /** Requests the URL and reads back how many statements it cost, from Server-Timing. */
+    private long statements(String url) throws Exception {
+        String serverTiming =
+                mockMvc.perform(get(url).with(user(testUser)))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("Server-Timing");
+        assertThat(serverTiming).isNotNull();
+        Matcher db = DB_STATEMENTS.matcher(serverTiming);
+        return db.find() ? Long.parseLong(db.group(1)) : 0;
+    }
+
+    private Long createReleaseWithTracks(String name, Long labelId, Long artistId, int tracks) {
+        List<TrackInput> trackInputs = new ArrayList<>();
+        for (int i = 1; i <= tracks; i++) {
+            trackInputs.add(
+                    new TrackInput(
+                            List.of(artistId),
+                            "Track " + i,
+                            TrackDuration.ofSeconds(180),
+                            i,
+                            List.of()));
+        }
+        releaseCommandApi.createRelease(
+                name,
+                LocalDate.of(2026, 3, 1),
+                labelId,
+                List.of(artistId),
+                trackInputs,
+                Set.of(Format.VINYL));
+        return releaseRepository.findByName(name).orElseThrow().getId();
+    }
+
+    private Long stockedLabelWithSales(String name, int sales) {
+        Long labelId = labelTestHelper.createLabelWithDirectDistributor(name).id();
+        Long distributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, name + " Shop", ChannelType.DISTRIBUTOR)
+                        .id();
+        Long releaseId = releaseTestHelper.createReleaseEntity(name + " Release", labelId);
+        Long runId = productionRunTestHelper.createProductionRun(releaseId, Format.VINYL, 100).id();
+        allocate(runId, distributorId, sales);
+        Money price = Money.of(new BigDecimal("12.00"));
+        for (int i = 0; i < sales; i++) {
+            saleCommandApi.registerSale(
+                    labelId,
+                    LocalDate.of(2026, 3, 1).plusDays(i),
+                    ChannelType.DISTRIBUTOR,
+                    null,
+                    distributorId,
+                    List.of(new SaleLineItemInput(releaseId, Format.VINYL, 1, price)));
+        }
+        return labelId;
+    }
+
+    private Long stockedLabelWithReturns(String name, int returns) {
+        Long labelId = labelTestHelper.createLabel(name).id();
+        Long distributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, name + " Shop", ChannelType.DISTRIBUTOR)
+                        .id();
+        Long releaseId = releaseTestHelper.createReleaseEntity(name + " Release", labelId);
+        Long runId = productionRunTestHelper.createProductionRun(releaseId, Format.VINYL, 100).id();
+        allocate(runId, distributorId, returns);
+        for (int i = 0; i < returns; i++) {
+            returnCommandApi.registerReturn(
+                    labelId,
+                    distributorId,
+                    LocalDate.of(2026, 3, 1).plusDays(i),
+                    null,
+                    List.of(new ReturnLineItemInput(releaseId, Format.VINYL, 1)));
+        }
+        return labelId;
+    }
+
+    private void allocate(Long productionRunId, Long distributorId, int quantity) {
+        inventoryMovementCommandApi.recordMovement(
+                productionRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(distributorId),
+                quantity,
+                MovementType.ALLOCATION,
+                null);
+    }
+}
@@ -0,0 +1,99 @@
+package org.omt.labelmanager.infrastructure.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.infrastructure.observability.RequestTimings.Segment;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RequestTimingFilterTest {
+
+    private final RequestTimingFilter filter = new RequestTimingFilter();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reportsTheTimeChargedDuringTheRequestInServerTiming() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/labels"),
+                response,
+                new MockFilterChain(
+                        new HttpServlet() {
+                            @Override
+                            protected void service(
+                                    HttpServletRequest request, HttpServletResponse response)
+                                    throws IOException {
+                                RequestTimings.record(Segment.DB, 2_000_000);
+                                RequestTimings.record(Segment.DB, 1_000_000);
+                                RequestTimings.record(Segment.S3, 5_000_000);
+                                response.getWriter().write("[]");
+                            }
+                        }));
+
+        assertThat(response.getHeader("Server-Timing"))
+                .contains("db;dur=3.0;desc=\"2\"")
+                .contains("s3;dur=5.0;desc=\"1\"")
+                .contains("total;dur=")
+                .doesNotContain("http;");
+    }
+
+    @Test
+    void keepsAPlausibleRequestIdFromTheCaller() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/labels");
+        request.addHeader("X-Request-Id", "upstream-42");
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader("X-Request-Id")).isEqualTo("upstream-42");
+    }
+
+    /** An id goes into every log line; one the caller can fill with anything must not. */
+    @Test
+    void replacesARequestIdThatCouldForgeLogContent() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/labels");
+        request.addHeader("X-Request-Id", "x\n{\"level\":\"ERROR\"}");
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader("X-Request-Id")).matches("[0-9a-f-]{36}");
+    }
+
+    @Test
+    void putsTheRequestAndUserIdsInTheMdcForTheRequestOnly() throws Exception {
+        var user = new AppUserDetails(7L, "user@example.com", "secret", "User");
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        var request = new MockHttpServletRequest("GET", "/api/labels");
+        request.addHeader("X-Request-Id", "req-1");
+        var seen = new AtomicReference<String>();
+
+        filter.doFilter(
+                request,
+                new MockHttpServletResponse(),
+                (req, res) -> seen.set(MDC.get("requestId") + "/" + MDC.get("userId")));
+
+        assertThat(seen.get()).isEqualTo("req-1/7");
+        assertThat(MDC.get("requestId")).isNull();
+        assertThat(MDC.get("userId")).isNull();
+    }
+}
@@ -1,12 +1,36 @@
 package org.omt.labelmanager.infrastructure.storage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.finance.shared.DocumentRangeNotSatisfiableException;
+import org.omt.labelmanager.finance.shared.DocumentStorageException;
+import org.omt.labelmanager.finance.shared.DocumentStoragePort;
 import org.omt.labelmanager.finance.shared.RetrievedDocument;
 import org.testcontainers.containers.MinIOContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -16,11 +40,14 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 
@@ -44,7 +71,7 @@ class S3DocumentStorageAdapterIntegrationTest {
     static void setUpBucket() {
         s3Client =
                 S3Client.builder()
-                        .endpointOverride(java.net.URI.create(minIO.getS3URL()))
+                        .endpointOverride(URI.create(minIO.getS3URL()))
                         .region(Region.US_EAST_1)
                         .credentialsProvider(
                                 StaticCredentialsProvider.create(
@@ -68,9 +95,23 @@ class S3DocumentStorageAdapterIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        adapter = adapter(false);
+    }
+
+    private static S3DocumentStorageAdapter adapter(boolean presignedDownloads) {
         var properties =
-                new S3Properties(minIO.getS3URL(), BUCKET, "us-east-1", ACCESS_KEY, SECRET_KEY);
-        adapter = new S3DocumentStorageAdapter(s3Client, properties);
+                new S3Properties(
+                        minIO.getS3URL(),
+                        BUCKET,
+                        "us-east-1",
+                        ACCESS_KEY,
+                        SECRET_KEY,
+                        S3Properties.MIN_PART_SIZE,
+                        ChecksumAlgorithm.SHA256,
+                        presignedDownloads,
+                        Duration.ofMinutes(1));
+        return new S3DocumentStorageAdapter(
+                s3Client, new S3ClientConfig().s3Presigner(properties), properties);
     }
 
     @Test
@@ -162,6 +203,74 @@ class S3DocumentStorageAdapterIntegrationTest {
                 .isEqualTo(content.getBytes(StandardCharsets.UTF_8).length);
     }
 
+    @Test
+    void retrievesASingleByteRange() throws Exception {
+        String key = storeText("invoice content");
+
+        RetrievedDocument document = adapter.retrieve(key, "bytes=8-14", null);
+
+        assertThat(document.isPartial()).isTrue();
+        assertThat(document.contentRange()).isEqualTo("bytes 8-14/15");
+        assertThat(document.contentLength()).isEqualTo(7);
+        assertThat(new String(document.content().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("content");
+    }
+
+    @Test
+    void refusesARangePastTheEnd() {
+        String key = storeText("invoice content");
+
+        assertThatThrownBy(() -> adapter.retrieve(key, "bytes=100-", null))
+                .isInstanceOfSatisfying(
+                        DocumentRangeNotSatisfiableException.class,
+                        e -> assertThat(e.documentLength()).hasValue(15));
+    }
+
+    @Test
+    void retrievalIsNotModifiedWhileTheEntityTagMatches() throws Exception {
+        String key = storeText("invoice content");
+        RetrievedDocument first = adapter.retrieve(key);
+        first.content().close();
+
+        RetrievedDocument second = adapter.retrieve(key, null, first.eTag());
+
+        assertThat(first.eTag()).startsWith("\"");
+        assertThat(second.isNotModified()).isTrue();
+        assertThat(second.eTag()).isEqualTo(first.eTag());
+
+        RetrievedDocument stale = adapter.retrieve(key, null, "\"stale\"");
+        stale.content().close();
+        assertThat(stale.isNotModified()).isFalse();
+    }
+
+    @Test
+    void presignsNothingUnlessPresignedDownloadsAreOn() {
+        String key = storeText("invoice content");
+
+        assertThat(adapter.presignRetrieval(key, false)).isEmpty();
+    }
+
+    @Test
+    void presignedUrlServesTheDocumentWithItsDisposition() throws Exception {
+        String key = storeText("invoice content");
+
+        URI url = adapter(true).presignRetrieval(key, true).orElseThrow();
+
+        HttpResponse<String> response =
+                HttpClient.newHttpClient()
+                        .send(HttpRequest.newBuilder(url).build(), BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("invoice content");
+        assertThat(response.headers().firstValue("Content-Disposition"))
+                .hasValue("attachment; filename=\"invoice.pdf\"");
+    }
+
+    private String storeText(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return adapter.store(
+                "invoice.pdf", "application/pdf", new ByteArrayInputStream(bytes), bytes.length);
+    }
+
     @Test
     void deleteRemovesDocumentFromStorage() {
         String content = "invoice content";
@@ -176,6 +285,108 @@ class S3DocumentStorageAdapterIntegrationTest {
         assertThat(objectExists(key)).isFalse();
     }
 
+    /**
+     * Eight documents larger than the heap, uploaded at once. Runs only in {@code
+     * boundedMemoryTest}, whose JVM has 64 MB: buffered whole, not even one document would fit;
+     * streamed, each holds a part at most. Half go with a known length, half in parts.
+     */
+    @Test
+    @Tag("bounded-memory")
+    void streamsConcurrentLargeUploadsInBoundedMemory() throws Exception {
+        int uploads = 8;
+        long documentSize = 80L * 1024 * 1024;
+
+        List<Future<String>> keys = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(uploads)) {
+            for (int i = 0; i < uploads; i++) {
+                int seed = i;
+                long contentLength = i % 2 == 0 ? documentSize : DocumentStoragePort.UNKNOWN_LENGTH;
+                keys.add(
+                        executor.submit(
+                                () ->
+                                        adapter.store(
+                                                "large-" + seed + ".pdf",
+                                                "application/pdf",
+                                                new GeneratedContent(seed, documentSize),
+                                                contentLength)));
+            }
+        }
+
+        for (int i = 0; i < uploads; i++) {
+            RetrievedDocument document = adapter.retrieve(keys.get(i).get());
+            assertThat(document.contentLength()).isEqualTo(documentSize);
+            try (InputStream content = document.content()) {
+                assertThat(sha256(content))
+                        .isEqualTo(sha256(new GeneratedContent(i, documentSize)));
+            }
+        }
+        assertThat(openMultipartUploads()).isEmpty();
+    }
+
+    @Test
+    void abortsTheMultipartUploadWhenTheContentFailsPartWay() {
+        InputStream failing =
+                new SequenceInputStream(
+                        new GeneratedContent(0, 12L * 1024 * 1024),
+                        new InputStream() {
+                            @Override
+                            public int read() throws IOException {
+                                throw new IOException("connection reset");
+                            }
+                        });
+
+        assertThatThrownBy(() -> adapter.store("broken.pdf", "application/pdf", failing))
+                .isInstanceOf(DocumentStorageException.class);
+        assertThat(openMultipartUploads()).isEmpty();
+    }
+
+    private static List<MultipartUpload> openMultipartUploads() {
+        return s3Client.listMultipartUploads(
+                        ListMultipartUploadsRequest.builder().bucket(BUCKET).build())
+                .uploads();
+    }
+
+    private static String sha256(InputStream content) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (var in = new DigestInputStream(content, digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** A seeded block of bytes, repeated to the given length without ever being held whole. */
+    private static final class GeneratedContent extends InputStream {
+
+        private final byte[] block = new byte[64 * 1024];
+        private final long length;
+        private long position;
+
+        GeneratedContent(long seed, long length) {
+            new Random(seed).nextBytes(block);
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            if (position >= length) {
+                return -1;
+            }
+            return block[(int) (position++ % block.length)] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int count) {
+            if (position >= length) {
+                return -1;
+            }
+            int blockOffset = (int) (position % block.length);
+            int n = (int) Math.min(Math.min(count, block.length - blockOffset), length - position);
+            System.arraycopy(block, blockOffset, target, offset, n);
+            position += n;
+            return n;
+        }
+    }
+
     private boolean objectExists(String key) {
         try {
             s3Client.headObject(HeadObjectRequest.builder().bucket(BUCKET).key(key).build());
@@ -1,28 +1,41 @@
 package org.omt.labelmanager.infrastructure.web;
 
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.Sale;
 import org.omt.labelmanager.sales.sale.web.SaleController;
+import org.omt.labelmanager.shared.Money;
 import org.omt.labelmanager.test.TestSecurityConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +51,7 @@ class ApiExceptionHandlerTest {
 
     private static final Long LABEL_ID = 1L;
     private static final Long MISSING_SALE_ID = 404L;
+    private static final Long SALE_ID = 7L;
 
     @Autowired private MockMvc mockMvc;
 
@@ -74,4 +88,33 @@ class ApiExceptionHandlerTest {
                 .andExpect(jsonPath("$.title").value("Not Found"))
                 .andExpect(jsonPath("$.detail").value("Sale 404 does not belong to label 1"));
     }
+
+    @Test
+    void stockLockTimeout_renders409WithRetryAfter() throws Exception {
+        when(saleQueryApi.findById(SALE_ID))
+                .thenReturn(
+                        Optional.of(
+                                new Sale(
+                                        SALE_ID,
+                                        LABEL_ID,
+                                        1L,
+                                        LocalDate.of(2026, 3, 1),
+                                        ChannelType.DIRECT,
+                                        null,
+                                        List.of(),
+                                        Money.of(BigDecimal.ZERO))));
+        doThrow(new StockLockTimeoutException(Duration.ofMillis(1500), null))
+                .when(saleCommandApi)
+                .deleteSale(SALE_ID);
+
+        mockMvc.perform(
+                        delete("/api/labels/{labelId}/sales/{saleId}", LABEL_ID, SALE_ID)
+                                .with(user(testUser))
+                                .with(csrf()))
+                .andExpect(status().isConflict())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.title").value("Stock busy"));
+    }
 }
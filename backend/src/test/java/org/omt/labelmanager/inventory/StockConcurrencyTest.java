@@ -0,0 +1,113 @@
+package org.omt.labelmanager.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties.Mode;
+import org.omt.labelmanager.inventory.InventoryMetrics.Operation;
+import org.springframework.dao.CannotAcquireLockException;
+
+class StockConcurrencyTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void optimistic_runsTheWriteAgainUntilItStopsConflicting() {
+        var subject = concurrency(Mode.OPTIMISTIC, 3);
+
+        String result = subject.retryOnConflict(Operation.SALE, conflictingTimes(2));
+
+        assertThat(result).isEqualTo("written");
+        assertThat(attempts).hasValue(3);
+        assertThat(count("inventory.optimistic.conflicts")).isEqualTo(2);
+        assertThat(count("inventory.lock.timeouts")).isZero();
+    }
+
+    /** Bounded: a pressing everybody is selling must not keep one request retrying forever. */
+    @Test
+    void optimistic_refusesAsRetryableOnceEveryAttemptConflicted() {
+        var subject = concurrency(Mode.OPTIMISTIC, 3);
+
+        assertThatThrownBy(() -> subject.retryOnConflict(Operation.SALE, conflictingTimes(3)))
+                .isInstanceOf(StockLockTimeoutException.class)
+                .hasCauseInstanceOf(StockConflictException.class);
+        assertThat(attempts).hasValue(3);
+        assertThat(count("inventory.optimistic.conflicts")).isEqualTo(3);
+        assertThat(count("inventory.lock.timeouts")).isEqualTo(1);
+    }
+
+    /** However it is translated on the way up, a deadlock lost is a conflict lost. */
+    @Test
+    void optimistic_runsTheWriteAgainAfterADeadlock() {
+        var subject = concurrency(Mode.OPTIMISTIC, 3);
+
+        String result =
+                subject.retryOnConflict(
+                        Operation.SALE,
+                        () -> {
+                            if (attempts.incrementAndGet() == 1) {
+                                throw new CannotAcquireLockException(
+                                        "could not execute statement",
+                                        new SQLException("deadlock detected", "40P01"));
+                            }
+                            return "written";
+                        });
+
+        assertThat(result).isEqualTo("written");
+        assertThat(attempts).hasValue(2);
+        assertThat(count("inventory.optimistic.conflicts")).isEqualTo(1);
+    }
+
+    @Test
+    void optimistic_doesNotRetryOtherFailures() {
+        var subject = concurrency(Mode.OPTIMISTIC, 3);
+
+        assertThatThrownBy(
+                        () ->
+                                subject.retryOnConflict(
+                                        Operation.RETURN,
+                                        () -> {
+                                            attempts.incrementAndGet();
+                                            throw new InsufficientInventoryException(1, 0);
+                                        }))
+                .isInstanceOf(InsufficientInventoryException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void pessimistic_runsTheWriteOnce() {
+        var subject = concurrency(Mode.PESSIMISTIC, 3);
+
+        assertThatThrownBy(() -> subject.retryOnConflict(Operation.SALE, conflictingTimes(1)))
+                .isInstanceOf(StockConflictException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    private Supplier<String> conflictingTimes(int conflicts) {
+        return () -> {
+            if (attempts.incrementAndGet() <= conflicts) {
+                throw new StockConflictException("changed");
+            }
+            return "written";
+        };
+    }
+
+    private StockConcurrency concurrency(Mode mode, int maxAttempts) {
+        return new StockConcurrency(
+                new InventoryConcurrencyProperties(mode, maxAttempts),
+                new InventoryLockProperties(Duration.ZERO, false, Duration.ofSeconds(1)),
+                new InventoryMetrics(registry));
+    }
+
+    private double count(String name) {
+        return registry.get(name).tag("operation", "sale").counter().count();
+    }
+}
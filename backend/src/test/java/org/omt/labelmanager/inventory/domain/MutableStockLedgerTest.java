@@ -0,0 +1,104 @@
+package org.omt.labelmanager.inventory.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.inventory.InsufficientInventoryException;
+
+class MutableStockLedgerTest {
+
+    @Test
+    void drawsOldestFirstAndTakesTheDrawOffInPlace() {
+        var ledger = ledgerOf(run(2L, "2025-01-01", 40), run(1L, "2024-01-01", 50));
+        var draws = new DrawBuffer(1);
+
+        assertThat(ledger.draw(60, draws)).isEqualTo(2);
+
+        assertThat(draws.toRunDraws()).containsExactly(new RunDraw(1L, 50), new RunDraw(2L, 10));
+        assertThat(ledger.onHand()).isEqualTo(30);
+    }
+
+    /** Line items of one sale append to one buffer, each drawing from what the last one left. */
+    @Test
+    void laterDrawsSeeWhatEarlierOnesLeftAndAppendToTheSameBuffer() {
+        var ledger = ledgerOf(run(1L, "2024-01-01", 30), run(2L, "2025-01-01", 60));
+        var draws = new DrawBuffer(2);
+
+        ledger.draw(20, draws);
+        ledger.draw(20, draws);
+        ledger.draw(20, draws);
+
+        assertThat(draws.toRunDraws())
+                .containsExactly(
+                        new RunDraw(1L, 20),
+                        new RunDraw(1L, 10),
+                        new RunDraw(2L, 10),
+                        new RunDraw(2L, 20));
+        assertThat(ledger.toStockLedger().runs())
+                .containsExactly(run(1L, "2024-01-01", 0), run(2L, "2025-01-01", 30));
+    }
+
+    @Test
+    void refusesADrawThatDoesNotFitWithoutTakingAnything() {
+        var ledger = ledgerOf(run(1L, "2024-01-01", 40), run(2L, "2025-01-01", 30));
+        var draws = new DrawBuffer(1);
+
+        assertThatThrownBy(() -> ledger.draw(71, draws))
+                .isInstanceOfSatisfying(
+                        InsufficientInventoryException.class,
+                        e -> assertThat(e.getAvailable()).isEqualTo(70));
+
+        assertThat(ledger.onHand()).isEqualTo(70);
+        assertThat(draws.size()).isZero();
+    }
+
+    @Test
+    void refusesADrawOfNothing() {
+        var ledger = ledgerOf(run(1L, "2024-01-01", 40));
+
+        assertThatThrownBy(() -> ledger.draw(0, new DrawBuffer(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void coversNoPressingsWhenNothingHasBeenPressed() {
+        var ledger = ledgerOf();
+
+        assertThat(ledger.pressings()).isZero();
+        assertThatThrownBy(() -> ledger.draw(1, new DrawBuffer(1)))
+                .isInstanceOf(InsufficientInventoryException.class);
+    }
+
+    @Test
+    void leavesTheLedgerItWasCopiedFromAlone() {
+        var original = StockLedger.of(List.of(run(1L, "2024-01-01", 10)));
+
+        MutableStockLedger.of(original).draw(10, new DrawBuffer(1));
+
+        assertThat(original.onHand()).isEqualTo(10);
+    }
+
+    @Test
+    void growsTheBufferPastItsInitialCapacity() {
+        var ledger = ledgerOf(run(1L, "2024-01-01", 1), run(2L, "2025-01-01", 1));
+        var draws = new DrawBuffer(1);
+
+        ledger.draw(1, draws);
+        ledger.draw(1, draws);
+
+        assertThat(draws.size()).isEqualTo(2);
+        assertThat(draws.productionRunId(1)).isEqualTo(2L);
+        assertThat(draws.quantity(1)).isEqualTo(1);
+    }
+
+    private MutableStockLedger ledgerOf(RunStock... runs) {
+        return MutableStockLedger.of(StockLedger.of(List.of(runs)));
+    }
+
+    private RunStock run(Long id, String manufacturedOn, int onHand) {
+        return new RunStock(id, LocalDate.parse(manufacturedOn), onHand);
+    }
+}
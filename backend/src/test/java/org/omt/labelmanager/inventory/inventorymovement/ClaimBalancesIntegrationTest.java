@@ -0,0 +1,221 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.omt.labelmanager.inventory.InventoryLocation.distributor;
+import static org.omt.labelmanager.inventory.InventoryLocation.external;
+import static org.omt.labelmanager.inventory.InventoryLocation.warehouse;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorEntity;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorRepository;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockConflictException;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.omt.labelmanager.shared.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * What optimistic mode rests on: that a balance read without a lock can be claimed afterwards only
+ * if nobody changed it in between, and nobody is changing it now — whether that somebody locked
+ * first or claimed too.
+ */
+class ClaimBalancesIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private InventoryMovementCommandApi commandApi;
+
+    @Autowired private InventoryMovementQueryApi queryApi;
+
+    @Autowired private ProductionRunRepository productionRunRepository;
+
+    @Autowired private DistributorRepository distributorRepository;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Long productionRunId;
+    private Long distributorId;
+
+    @BeforeEach
+    void setUp() {
+        productionRunRepository.deleteAll();
+        distributorRepository.deleteAll();
+
+        var label = labelTestHelper.createLabel("Test Label");
+        Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
+        productionRunId =
+                productionRunRepository
+                        .save(
+                                new ProductionRunEntity(
+                                        releaseId,
+                                        Format.VINYL,
+                                        "First pressing",
+                                        "Plant A",
+                                        LocalDate.of(2025, 1, 1),
+                                        500))
+                        .getId();
+        distributorId =
+                distributorRepository
+                        .save(
+                                new DistributorEntity(
+                                        label.id(), "Distributor", ChannelType.DISTRIBUTOR))
+                        .getId();
+
+        commandApi.recordManufacture(productionRunId, 500, LocalDate.of(2025, 1, 1));
+        commandApi.recordMovement(
+                productionRunId,
+                warehouse(),
+                distributor(distributorId),
+                100,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    @Test
+    void theVersionMovesWithTheBalance() {
+        var before = distributorBalance();
+
+        sell(30);
+
+        var after = distributorBalance();
+        assertThat(after.onHand()).isEqualTo(70);
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+    }
+
+    @Test
+    void anUnchangedBalanceIsClaimed() {
+        var read = distributorBalance();
+
+        inTransaction(() -> commandApi.claimBalances(List.of(read), external()));
+    }
+
+    /** The race pessimistic mode prevents by locking first: both read 100, one commits first. */
+    @Test
+    void aBalanceChangedSinceItWasReadIsNotClaimed() {
+        var read = distributorBalance();
+        sell(30);
+
+        assertThatThrownBy(
+                        () ->
+                                inTransaction(
+                                        () -> commandApi.claimBalances(List.of(read), external())))
+                .isInstanceOf(StockConflictException.class);
+    }
+
+    /**
+     * A pessimistic writer that holds the lock has not committed yet, so the version cannot show
+     * its change. The claim has to notice the lock itself, or it would draw alongside it.
+     */
+    @Test
+    void aBalanceAnotherWriterHoldsIsNotClaimed() throws Exception {
+        var read = distributorBalance();
+
+        whileAnotherWriterHolds(
+                new RunLocation(productionRunId, distributor(distributorId)),
+                () ->
+                        assertThatThrownBy(
+                                        () ->
+                                                inTransaction(
+                                                        () ->
+                                                                commandApi.claimBalances(
+                                                                        List.of(read), external())))
+                                .isInstanceOf(StockConflictException.class));
+    }
+
+    /**
+     * The balance the units go to is written as well. Waited for rather than claimed, a writer
+     * crediting it could deadlock with one that holds it and waits for what the first drew from.
+     */
+    @Test
+    void aBalanceAnotherWriterHoldsIsNotCredited() throws Exception {
+        var read = distributorBalance();
+
+        whileAnotherWriterHolds(
+                new RunLocation(productionRunId, warehouse()),
+                () ->
+                        assertThatThrownBy(
+                                        () ->
+                                                inTransaction(
+                                                        () ->
+                                                                commandApi.claimBalances(
+                                                                        List.of(read),
+                                                                        warehouse())))
+                                .isInstanceOf(StockConflictException.class));
+    }
+
+    private void whileAnotherWriterHolds(RunLocation balance, Runnable check) throws Exception {
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder =
+                    executor.submit(
+                            () ->
+                                    inTransaction(
+                                            () -> {
+                                                commandApi.lockBalances(List.of(balance));
+                                                locked.countDown();
+                                                await(release);
+                                            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            check.run();
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private VersionedBalance distributorBalance() {
+        return queryApi
+                .versionedBalancesAt(List.of(productionRunId), distributor(distributorId))
+                .getFirst();
+    }
+
+    private void sell(int quantity) {
+        commandApi.recordMovement(
+                productionRunId,
+                distributor(distributorId),
+                external(),
+                quantity,
+                MovementType.SALE,
+                7L);
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
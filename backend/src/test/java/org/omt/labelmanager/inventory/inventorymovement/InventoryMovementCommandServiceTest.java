@@ -0,0 +1,121 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.StockLockBudget;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
+import org.omt.labelmanager.inventory.inventorymovement.api.RunLocation;
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementBatchInserter;
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryMovementCommandServiceTest {
+
+    private static final long EARLY_RUN = 3L;
+    private static final long LATE_RUN = 8L;
+    private static final long DISTRIBUTOR_ID = 5L;
+
+    @Mock private InventoryMovementRepository repository;
+
+    @Mock private InventoryMovementBatchInserter batchInserter;
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private InventoryMovementCommandService subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = serviceWithFailFast(false);
+    }
+
+    /**
+     * Locks go in a fixed order, not the order the caller listed them in. Two sales listing the
+     * same two pressings in opposite orders would otherwise each hold what the other waits for,
+     * and Postgres would kill one — a 500 rather than the 409 an out-of-stock sale gets.
+     */
+    @Test
+    void lockBalances_locksInRunThenLocationOrderWhateverOrderTheyCome() {
+        subject.lockBalances(
+                List.of(
+                        new RunLocation(LATE_RUN, InventoryLocation.warehouse()),
+                        new RunLocation(EARLY_RUN, InventoryLocation.distributor(DISTRIBUTOR_ID)),
+                        new RunLocation(EARLY_RUN, InventoryLocation.warehouse())));
+
+        var inOrder = inOrder(repository);
+        inOrder.verify(repository).advisoryXactLock((int) EARLY_RUN, -1);
+        inOrder.verify(repository).advisoryXactLock((int) EARLY_RUN, (int) DISTRIBUTOR_ID);
+        inOrder.verify(repository).advisoryXactLock((int) LATE_RUN, -1);
+    }
+
+    @Test
+    void lockBalances_takesEachLockOnce() {
+        subject.lockBalances(
+                List.of(
+                        new RunLocation(EARLY_RUN, InventoryLocation.warehouse()),
+                        new RunLocation(EARLY_RUN, InventoryLocation.warehouse())));
+
+        verify(repository, times(1)).advisoryXactLock(anyInt(), anyInt());
+    }
+
+    /** Nothing draws from EXTERNAL and it has no stored balance, so there is nothing to guard. */
+    @Test
+    void lockBalances_doesNotLockExternal() {
+        subject.lockBalances(
+                List.of(
+                        new RunLocation(EARLY_RUN, InventoryLocation.distributor(DISTRIBUTOR_ID)),
+                        new RunLocation(EARLY_RUN, InventoryLocation.external())));
+
+        verify(repository, times(1)).advisoryXactLock(anyInt(), anyInt());
+    }
+
+    /**
+     * Fail-fast mode tries each lock instead of waiting: a held balance refuses the write at once,
+     * and the locks after it are not attempted.
+     */
+    @Test
+    void lockBalances_inFailFastMode_refusesAtTheFirstHeldLock() {
+        subject = serviceWithFailFast(true);
+        when(repository.tryAdvisoryXactLock((int) EARLY_RUN, -1)).thenReturn(false);
+
+        assertThatThrownBy(
+                        () ->
+                                subject.lockBalances(
+                                        List.of(
+                                                new RunLocation(
+                                                        LATE_RUN, InventoryLocation.warehouse()),
+                                                new RunLocation(
+                                                        EARLY_RUN, InventoryLocation.warehouse()))))
+                .isInstanceOf(StockLockTimeoutException.class);
+
+        verify(repository, never()).tryAdvisoryXactLock((int) LATE_RUN, -1);
+        verify(repository, never()).advisoryXactLock(anyInt(), anyInt());
+    }
+
+    private InventoryMovementCommandService serviceWithFailFast(boolean failFast) {
+        return new InventoryMovementCommandService(
+                repository,
+                batchInserter,
+                new StockLockBudget(
+                        jdbcTemplate,
+                        new InventoryLockProperties(Duration.ZERO, failFast, Duration.ofSeconds(1)),
+                        new InventoryMetrics(new SimpleMeterRegistry())));
+    }
+}
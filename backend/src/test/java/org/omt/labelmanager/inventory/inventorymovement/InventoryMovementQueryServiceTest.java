@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,9 @@ import org.omt.labelmanager.inventory.LocationType;
 import org.omt.labelmanager.inventory.MovementType;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementCursor;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementFilter;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementPage;
 import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementEntity;
 import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
@@ -254,9 +258,10 @@ public class InventoryMovementQueryServiceTest extends AbstractIntegrationTest {
         assertThat(inventoryMovementQueryApi.balancesFor(List.of())).isEmpty();
     }
 
+    /** Three movements at one instant: the id alone orders them, and no page may skip one. */
     @Test
-    void findByProductionRunIds_groupsMovementsByRunNewestFirst() {
-        Long secondRun = anotherProductionRun();
+    void findPageByProductionRunId_walksTheHistoryOnceNewestFirst() {
+        Instant sameInstant = Instant.parse("2025-03-01T00:00:00Z");
         saveMovementAt(
                 productionRunId,
                 LocationType.EXTERNAL,
@@ -266,17 +271,19 @@ public class InventoryMovementQueryServiceTest extends AbstractIntegrationTest {
                 500,
                 MovementType.PRODUCTION,
                 Instant.parse("2025-01-01T00:00:00Z"));
+        for (int quantity = 10; quantity <= 30; quantity += 10) {
+            saveMovementAt(
+                    productionRunId,
+                    LocationType.WAREHOUSE,
+                    null,
+                    LocationType.DISTRIBUTOR,
+                    distributorId,
+                    quantity,
+                    MovementType.ALLOCATION,
+                    sameInstant);
+        }
         saveMovementAt(
-                productionRunId,
-                LocationType.WAREHOUSE,
-                null,
-                LocationType.DISTRIBUTOR,
-                distributorId,
-                120,
-                MovementType.ALLOCATION,
-                Instant.parse("2025-03-01T00:00:00Z"));
-        saveMovementAt(
-                secondRun,
+                anotherProductionRun(),
                 LocationType.EXTERNAL,
                 null,
                 LocationType.WAREHOUSE,
@@ -285,15 +292,74 @@ public class InventoryMovementQueryServiceTest extends AbstractIntegrationTest {
                 MovementType.PRODUCTION,
                 Instant.parse("2025-02-01T00:00:00Z"));
 
-        var byRun =
-                inventoryMovementQueryApi.findByProductionRunIds(
-                        List.of(productionRunId, secondRun));
+        List<Integer> quantities = new ArrayList<>();
+        MovementCursor cursor = MovementCursor.START;
+        do {
+            MovementPage page =
+                    inventoryMovementQueryApi.findPageByProductionRunId(
+                            productionRunId, MovementFilter.NONE, cursor, 2);
+            page.movements().forEach(movement -> quantities.add(movement.quantity()));
+            cursor = page.next();
+        } while (cursor != null);
+
+        assertThat(quantities).containsExactly(30, 20, 10, 500);
+    }
+
+    @Test
+    void findPageByProductionRunId_filtersByMovementTypeAndLocation() {
+        Long otherDistributorId =
+                distributorRepository
+                        .save(
+                                new DistributorEntity(
+                                        labelTestHelper.createLabel("Second Label").id(),
+                                        "Other Distro",
+                                        ChannelType.DISTRIBUTOR))
+                        .getId();
+        saveMovement(
+                productionRunId,
+                LocationType.WAREHOUSE,
+                null,
+                LocationType.DISTRIBUTOR,
+                distributorId,
+                100,
+                MovementType.ALLOCATION);
+        saveMovement(
+                productionRunId,
+                LocationType.WAREHOUSE,
+                null,
+                LocationType.DISTRIBUTOR,
+                otherDistributorId,
+                50,
+                MovementType.ALLOCATION);
+        saveMovement(
+                productionRunId,
+                LocationType.DISTRIBUTOR,
+                distributorId,
+                LocationType.EXTERNAL,
+                null,
+                5,
+                MovementType.SALE);
 
-        assertThat(byRun).hasSize(2);
-        assertThat(byRun.get(productionRunId))
-                .extracting(InventoryMovement::movementType)
-                .containsExactly(MovementType.ALLOCATION, MovementType.PRODUCTION);
-        assertThat(byRun.get(secondRun)).singleElement().returns(300, InventoryMovement::quantity);
+        var atDistributor =
+                inventoryMovementQueryApi.findPageByProductionRunId(
+                        productionRunId,
+                        new MovementFilter(null, LocationType.DISTRIBUTOR, distributorId),
+                        MovementCursor.START,
+                        10);
+        var allocations =
+                inventoryMovementQueryApi.findPageByProductionRunId(
+                        productionRunId,
+                        new MovementFilter(MovementType.ALLOCATION, null, null),
+                        MovementCursor.START,
+                        10);
+
+        assertThat(atDistributor.movements())
+                .extracting(InventoryMovement::quantity)
+                .containsExactlyInAnyOrder(100, 5);
+        assertThat(allocations.movements())
+                .extracting(InventoryMovement::quantity)
+                .containsExactlyInAnyOrder(100, 50);
+        assertThat(allocations.next()).isNull();
     }
 
     private Long anotherProductionRun() {
@@ -0,0 +1,151 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.omt.labelmanager.inventory.InventoryLocation.distributor;
+import static org.omt.labelmanager.inventory.InventoryLocation.external;
+import static org.omt.labelmanager.inventory.InventoryLocation.warehouse;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorEntity;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorRepository;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.omt.labelmanager.shared.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The {@code stock_balance} projection against the ledger it is derived from: that every write path
+ * keeps it in step, and that the reconciler finds and repairs drift when something does not.
+ */
+class StockBalanceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private InventoryMovementCommandApi commandApi;
+
+    @Autowired private InventoryMovementQueryApi queryApi;
+
+    @Autowired private StockBalanceReconciler reconciler;
+
+    @Autowired private ProductionRunRepository productionRunRepository;
+
+    @Autowired private DistributorRepository distributorRepository;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long productionRunId;
+    private Long distributorId;
+
+    @BeforeEach
+    void setUp() {
+        productionRunRepository.deleteAll();
+        distributorRepository.deleteAll();
+
+        var label = labelTestHelper.createLabel("Test Label");
+        Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
+        productionRunId =
+                productionRunRepository
+                        .save(
+                                new ProductionRunEntity(
+                                        releaseId,
+                                        Format.VINYL,
+                                        "First pressing",
+                                        "Plant A",
+                                        LocalDate.of(2025, 1, 1),
+                                        500))
+                        .getId();
+        distributorId =
+                distributorRepository
+                        .save(
+                                new DistributorEntity(
+                                        label.id(), "Distributor", ChannelType.DISTRIBUTOR))
+                        .getId();
+
+        commandApi.recordManufacture(productionRunId, 500, LocalDate.of(2025, 1, 1));
+        commandApi.recordMovement(
+                productionRunId,
+                warehouse(),
+                distributor(distributorId),
+                100,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    @Test
+    void recordedMovementsAreReflectedInTheBalances() {
+        commandApi.recordMovement(
+                productionRunId, distributor(distributorId), external(), 30, MovementType.SALE, 7L);
+
+        assertThat(queryApi.balancesFor(List.of(productionRunId)))
+                .containsExactlyInAnyOrder(
+                        new LocationBalance(productionRunId, warehouse(), 400),
+                        new LocationBalance(productionRunId, distributor(distributorId), 70),
+                        new LocationBalance(productionRunId, external(), -470));
+        assertThat(reconciler.verify()).isEmpty();
+    }
+
+    @Test
+    void deletedMovementsAreTakenBackOut() {
+        commandApi.recordMovement(
+                productionRunId, distributor(distributorId), external(), 30, MovementType.SALE, 7L);
+
+        commandApi.deleteMovementsByReference(MovementType.SALE, 7L);
+
+        assertThat(queryApi.getCurrentInventory(productionRunId, distributorId)).isEqualTo(100);
+        assertThat(reconciler.verify()).isEmpty();
+    }
+
+    @Test
+    void deletingTheProductionRunRemovesItsBalances() {
+        productionRunRepository.deleteById(productionRunId);
+
+        Integer rows =
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM stock_balance WHERE production_run_id = ?",
+                        Integer.class,
+                        productionRunId);
+        assertThat(rows).isZero();
+    }
+
+    @Test
+    void verifyReportsDriftAndRebuildRepairsIt() {
+        jdbcTemplate.update(
+                "UPDATE stock_balance SET on_hand = 999"
+                        + " WHERE production_run_id = ? AND location_type = 'WAREHOUSE'",
+                productionRunId);
+
+        assertThat(reconciler.verify())
+                .containsExactly(new StockBalanceDrift(productionRunId, warehouse(), 999, 400));
+
+        assertThat(reconciler.rebuild()).hasSize(1);
+
+        assertThat(reconciler.verify()).isEmpty();
+        assertThat(queryApi.getWarehouseInventory(productionRunId)).isEqualTo(400);
+    }
+
+    @Test
+    void rebuildRestoresARowThatWasDeletedFromTheProjection() {
+        jdbcTemplate.update(
+                "DELETE FROM stock_balance WHERE production_run_id = ? AND location_type ="
+                        + " 'DISTRIBUTOR'",
+                productionRunId);
+
+        reconciler.rebuild();
+
+        assertThat(queryApi.getCurrentInventory(productionRunId, distributorId)).isEqualTo(100);
+    }
+}
@@ -0,0 +1,192 @@
+package org.omt.labelmanager.inventory.inventorymovement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.omt.labelmanager.inventory.InventoryLocation.distributor;
+import static org.omt.labelmanager.inventory.InventoryLocation.external;
+import static org.omt.labelmanager.inventory.InventoryLocation.warehouse;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorEntity;
+import org.omt.labelmanager.distribution.distributor.persistence.DistributorRepository;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
+import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.omt.labelmanager.shared.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stock snapshots and the point-in-time balances read from them: that a snapshot plus the movements
+ * around it gives the same figure as the ledger, including after the ledger changes underneath it.
+ */
+class StockSnapshotIntegrationTest extends AbstractIntegrationTest {
+
+    private static final Instant TOMORROW = Instant.now().plus(1, ChronoUnit.DAYS);
+
+    @Autowired private InventoryMovementCommandApi commandApi;
+
+    @Autowired private InventoryMovementQueryApi queryApi;
+
+    @Autowired private StockSnapshotter snapshotter;
+
+    @Autowired private ProductionRunRepository productionRunRepository;
+
+    @Autowired private DistributorRepository distributorRepository;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long releaseId;
+    private Long productionRunId;
+    private Long distributorId;
+
+    @BeforeEach
+    void setUp() {
+        productionRunRepository.deleteAll();
+        distributorRepository.deleteAll();
+
+        var label = labelTestHelper.createLabel("Test Label");
+        releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
+        productionRunId = pressing(LocalDate.of(2025, 1, 1), 500);
+        distributorId =
+                distributorRepository
+                        .save(
+                                new DistributorEntity(
+                                        label.id(), "Distributor", ChannelType.DISTRIBUTOR))
+                        .getId();
+
+        commandApi.recordMovement(
+                productionRunId,
+                warehouse(),
+                distributor(distributorId),
+                100,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    @Test
+    void aSnapshotPlusTheMovementsSinceGivesTheCurrentBalances() {
+        long watermark = snapshotter.takeSnapshot();
+        commandApi.recordMovement(
+                productionRunId, distributor(distributorId), external(), 30, MovementType.SALE, 7L);
+
+        assertThat(snapshotRows(watermark)).isEqualTo(2);
+        assertThat(queryApi.balancesAsOf(List.of(productionRunId), TOMORROW))
+                .containsExactlyInAnyOrderElementsOf(queryApi.balancesFor(List.of(productionRunId)))
+                .contains(new LocationBalance(productionRunId, distributor(distributorId), 70));
+    }
+
+    @Test
+    void nothingRecordedSinceTheLastSnapshotTakesNoNewOne() {
+        long watermark = snapshotter.takeSnapshot();
+
+        assertThat(snapshotter.takeSnapshot()).isEqualTo(watermark);
+    }
+
+    /** Editing a sale deletes its movements, long after a snapshot may have counted them. */
+    @Test
+    void deletingAMovementTheSnapshotCountedTakesItBackOut() {
+        commandApi.recordMovement(
+                productionRunId, distributor(distributorId), external(), 30, MovementType.SALE, 7L);
+        long watermark = snapshotter.takeSnapshot();
+
+        commandApi.deleteMovementsByReference(MovementType.SALE, 7L);
+
+        assertThat(snapshotOnHand(watermark, "DISTRIBUTOR")).isEqualTo(100);
+        assertThat(queryApi.balancesAsOf(List.of(productionRunId), TOMORROW))
+                .containsExactlyInAnyOrderElementsOf(
+                        queryApi.balancesFor(List.of(productionRunId)));
+    }
+
+    /**
+     * A pressing is dated on its manufacturing day, so a snapshot can count one that has not
+     * happened yet at the date asked about.
+     */
+    @Test
+    void movementsDatedAfterTheDateAreLeftOutEvenWhenTheSnapshotCountsThem() {
+        LocalDate manufacturedOn = LocalDate.now().plusDays(10);
+        Long repress = pressing(manufacturedOn, 200);
+        snapshotter.takeSnapshot();
+
+        assertThat(queryApi.balancesAsOf(List.of(repress), TOMORROW)).isEmpty();
+        assertThat(queryApi.balancesAsOf(List.of(repress), TOMORROW.plus(10, ChronoUnit.DAYS)))
+                .containsExactlyInAnyOrder(
+                        new LocationBalance(repress, warehouse(), 200),
+                        new LocationBalance(repress, external(), -200));
+    }
+
+    @Test
+    void beforeAnySnapshotTheLedgerIsReplayedUpToTheDate() {
+        assertThat(
+                        queryApi.balancesAsOf(
+                                List.of(productionRunId), Instant.parse("2025-06-01T00:00:00Z")))
+                .containsExactlyInAnyOrder(
+                        new LocationBalance(productionRunId, warehouse(), 500),
+                        new LocationBalance(productionRunId, external(), -500));
+    }
+
+    @Test
+    void deletingTheProductionRunRemovesItsSnapshots() {
+        snapshotter.takeSnapshot();
+
+        productionRunRepository.deleteById(productionRunId);
+
+        Integer rows =
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM stock_snapshot WHERE production_run_id = ?",
+                        Integer.class,
+                        productionRunId);
+        assertThat(rows).isZero();
+    }
+
+    private Long pressing(LocalDate manufacturedOn, int quantity) {
+        Long id =
+                productionRunRepository
+                        .save(
+                                new ProductionRunEntity(
+                                        releaseId,
+                                        Format.VINYL,
+                                        "Pressing",
+                                        "Plant A",
+                                        manufacturedOn,
+                                        quantity))
+                        .getId();
+        commandApi.recordManufacture(id, quantity, manufacturedOn);
+        return id;
+    }
+
+    private int snapshotRows(long watermark) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_snapshot"
+                        + " WHERE as_of_movement_id = ? AND production_run_id = ?",
+                Integer.class,
+                watermark,
+                productionRunId);
+    }
+
+    private int snapshotOnHand(long watermark, String locationType) {
+        return jdbcTemplate.queryForObject(
+                "SELECT on_hand FROM stock_snapshot"
+                        + " WHERE as_of_movement_id = ? AND production_run_id = ?"
+                        + " AND location_type = ?",
+                Integer.class,
+                watermark,
+                productionRunId,
+                locationType);
+    }
+}
@@ -3,6 +3,7 @@ package org.omt.labelmanager.inventory.productionrun;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.AbstractIntegrationTest;
 import org.omt.labelmanager.catalog.label.LabelTestHelper;
@@ -10,6 +11,8 @@ import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.domain.RunDraw;
 import org.omt.labelmanager.inventory.domain.RunStock;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.inventory.domain.StockLedger;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.shared.Format;
@@ -70,7 +73,7 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
 
     @Test
     @Transactional
-    void lockedLedgerAt_reportsEachPressingsWarehouseStockOldestFirst() {
+    void lockedLedgersAt_reportsEachPressingsWarehouseStockOldestFirst() {
         var label = labelTestHelper.createLabel("Test Label");
         Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
 
@@ -91,8 +94,7 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
                         LocalDate.of(2025, 1, 1),
                         500);
 
-        var ledger =
-                queryApi.lockedLedgerAt(releaseId, Format.VINYL, InventoryLocation.warehouse());
+        var ledger = ledgerAt(releaseId, Format.VINYL, InventoryLocation.warehouse());
 
         assertThat(ledger.onHand()).isEqualTo(700);
         assertThat(ledger.drawFifo(600))
@@ -102,7 +104,7 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
 
     @Test
     @Transactional
-    void lockedLedgerAt_countsOnlyTheRequestedFormat() {
+    void lockedLedgersAt_countsOnlyTheRequestedFormat() {
         var label = labelTestHelper.createLabel("Test Label");
         Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
 
@@ -111,20 +113,17 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
         commandApi.createProductionRun(
                 releaseId, Format.CD, "CD", "Manufacturer B", LocalDate.of(2025, 2, 1), 300);
 
-        assertThat(
-                        queryApi.lockedLedgerAt(releaseId, Format.CD, InventoryLocation.warehouse())
-                                .onHand())
+        assertThat(ledgerAt(releaseId, Format.CD, InventoryLocation.warehouse()).onHand())
                 .isEqualTo(300);
     }
 
     @Test
     @Transactional
-    void lockedLedgerAt_isEmptyWhenTheReleaseHasNoPressingInThatFormat() {
+    void lockedLedgersAt_isEmptyWhenTheReleaseHasNoPressingInThatFormat() {
         var label = labelTestHelper.createLabel("Test Label");
         Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
 
-        var ledger =
-                queryApi.lockedLedgerAt(releaseId, Format.VINYL, InventoryLocation.warehouse());
+        var ledger = ledgerAt(releaseId, Format.VINYL, InventoryLocation.warehouse());
 
         assertThat(ledger.runs()).isEmpty();
         assertThat(ledger.onHand()).isZero();
@@ -133,7 +132,7 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
     /** A pressing that has never reached a location is still in the ledger, holding nothing. */
     @Test
     @Transactional
-    void lockedLedgerAt_includesPressingsWithNoStockAtThatLocation() {
+    void lockedLedgersAt_includesPressingsWithNoStockAtThatLocation() {
         var label = labelTestHelper.createLabel("Test Label");
         Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
 
@@ -146,10 +145,35 @@ class QueryProductionRunIntegrationTest extends AbstractIntegrationTest {
                         LocalDate.of(2025, 1, 1),
                         500);
 
-        var ledger =
-                queryApi.lockedLedgerAt(releaseId, Format.VINYL, InventoryLocation.distributor(7L));
+        var ledger = ledgerAt(releaseId, Format.VINYL, InventoryLocation.distributor(7L));
 
         assertThat(ledger.runs()).extracting(RunStock::productionRunId).containsExactly(run.id());
         assertThat(ledger.onHand()).isZero();
     }
+
+    @Test
+    @Transactional
+    void lockedLedgersAt_returnsALedgerForEveryKeyAskedFor() {
+        var label = labelTestHelper.createLabel("Test Label");
+        Long releaseId = releaseTestHelper.createReleaseEntity("Test Release", label.id());
+        commandApi.createProductionRun(
+                releaseId, Format.VINYL, "Vinyl", "Manufacturer A", LocalDate.of(2025, 1, 1), 500);
+        var vinyl = new StockKey(releaseId, Format.VINYL);
+        var cassette = new StockKey(releaseId, Format.CASSETTE);
+
+        var ledgers =
+                queryApi.lockedLedgersAt(
+                        List.of(vinyl, cassette),
+                        InventoryLocation.warehouse(),
+                        InventoryLocation.bandcamp());
+
+        assertThat(ledgers.get(vinyl).onHand()).isEqualTo(500);
+        assertThat(ledgers.get(cassette).runs()).isEmpty();
+    }
+
+    private StockLedger ledgerAt(Long releaseId, Format format, InventoryLocation location) {
+        var key = new StockKey(releaseId, format);
+        return queryApi.lockedLedgersAt(List.of(key), location, InventoryLocation.external())
+                .get(key);
+    }
 }
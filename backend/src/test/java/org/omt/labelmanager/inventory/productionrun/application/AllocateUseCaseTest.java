@@ -1,10 +1,18 @@
 package org.omt.labelmanager.inventory.productionrun.application;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +21,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockBudget;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunEntity;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class AllocateUseCaseTest {
@@ -30,20 +44,33 @@ class AllocateUseCaseTest {
 
     @Mock private InventoryMovementCommandApi inventoryMovementCommandApi;
 
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private AllocateUseCase subject;
 
     private static final long RUN_ID = 1L;
 
     @BeforeEach
     void setUp() {
+        var metrics = new InventoryMetrics(meterRegistry);
         subject =
                 new AllocateUseCase(
-                        repository, inventoryMovementQueryApi, inventoryMovementCommandApi);
+                        repository,
+                        inventoryMovementQueryApi,
+                        inventoryMovementCommandApi,
+                        metrics,
+                        new StockLockBudget(
+                                jdbcTemplate,
+                                new InventoryLockProperties(
+                                        Duration.ZERO, false, Duration.ofSeconds(1)),
+                                metrics));
     }
 
     @Test
     void execute_recordsAllocationMovement_whenQuantityIsAvailable() {
-        when(repository.lockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
         when(inventoryMovementQueryApi.getWarehouseInventory(RUN_ID)).thenReturn(300);
 
         assertThatNoException()
@@ -61,20 +88,84 @@ class AllocateUseCaseTest {
 
     @Test
     void execute_throwsInsufficientInventoryException_whenQuantityExceedsAvailable() {
-        when(repository.lockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
         when(inventoryMovementQueryApi.getWarehouseInventory(RUN_ID)).thenReturn(300);
 
         assertThatThrownBy(() -> subject.execute(RUN_ID, InventoryLocation.distributor(5L), 301))
                 .isInstanceOf(InsufficientInventoryException.class);
     }
 
+    @Test
+    void execute_timesTheLockWaitAndCountsTheRejection() {
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        when(inventoryMovementQueryApi.getWarehouseInventory(RUN_ID)).thenReturn(300);
+
+        assertThatThrownBy(() -> subject.execute(RUN_ID, InventoryLocation.distributor(5L), 301))
+                .isInstanceOf(InsufficientInventoryException.class);
+
+        assertThat(
+                        meterRegistry
+                                .get("inventory.lock.wait")
+                                .tag("operation", "allocation")
+                                .timer()
+                                .count())
+                .isEqualTo(1);
+        assertThat(
+                        meterRegistry
+                                .get("inventory.insufficient")
+                                .tag("operation", "allocation")
+                                .counter()
+                                .count())
+                .isEqualTo(1);
+        assertThat(
+                        meterRegistry
+                                .get("inventory.draws")
+                                .tag("operation", "allocation")
+                                .counter()
+                                .count())
+                .isZero();
+    }
+
+    /** A lock_timeout expiry is refused as retryable, timed and counted — not a 500. */
+    @Test
+    void execute_refusesAndCountsALockNotGrantedInTime() {
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        doThrow(
+                        new CannotAcquireLockException(
+                                "lock timeout",
+                                new SQLException(
+                                        "canceling statement due to lock timeout", "55P03")))
+                .when(inventoryMovementCommandApi)
+                .lockBalances(any());
+
+        assertThatThrownBy(() -> subject.execute(RUN_ID, InventoryLocation.distributor(5L), 1))
+                .isInstanceOf(StockLockTimeoutException.class);
+
+        assertThat(
+                        meterRegistry
+                                .get("inventory.lock.timeouts")
+                                .tag("operation", "allocation")
+                                .counter()
+                                .count())
+                .isEqualTo(1);
+        assertThat(
+                        meterRegistry
+                                .get("inventory.lock.wait")
+                                .tag("operation", "allocation")
+                                .timer()
+                                .count())
+                .isEqualTo(1);
+        verify(inventoryMovementCommandApi, never())
+                .recordMovement(any(), any(), any(), anyInt(), any(), any());
+    }
+
     /**
      * The warehouse figure is now the whole answer. Before V33 this test had to say "manufactured
      * 500, delta −200"; the ledger carries the manufactured quantity itself.
      */
     @Test
     void execute_readsWarehouseStockWithoutCorrectingIt() {
-        when(repository.lockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
         when(inventoryMovementQueryApi.getWarehouseInventory(RUN_ID)).thenReturn(0);
 
         assertThatThrownBy(() -> subject.execute(RUN_ID, InventoryLocation.distributor(5L), 1))
@@ -83,7 +174,7 @@ class AllocateUseCaseTest {
 
     @Test
     void execute_recordsBandcampAllocation_whenLocationIsBandcamp() {
-        when(repository.lockById(RUN_ID)).thenReturn(Optional.of(productionRun));
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.of(productionRun));
         when(inventoryMovementQueryApi.getWarehouseInventory(RUN_ID)).thenReturn(100);
 
         subject.execute(RUN_ID, InventoryLocation.bandcamp(), 50);
@@ -100,7 +191,7 @@ class AllocateUseCaseTest {
 
     @Test
     void execute_throws_whenProductionRunDoesNotExist() {
-        when(repository.lockById(RUN_ID)).thenReturn(Optional.empty());
+        when(repository.shareLockById(RUN_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> subject.execute(RUN_ID, InventoryLocation.distributor(5L), 1))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +14,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockBudget;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.productionrun.persistence.ProductionRunRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class CancelBandcampReservationUseCaseTest {
@@ -26,15 +32,26 @@ class CancelBandcampReservationUseCaseTest {
 
     @Mock private InventoryMovementCommandApi inventoryMovementCommandApi;
 
+    @Mock private JdbcTemplate jdbcTemplate;
+
     private CancelBandcampReservationUseCase subject;
 
     private static final long RUN_ID = 1L;
 
     @BeforeEach
     void setUp() {
+        var metrics = new InventoryMetrics(new SimpleMeterRegistry());
         subject =
                 new CancelBandcampReservationUseCase(
-                        repository, inventoryMovementQueryApi, inventoryMovementCommandApi);
+                        repository,
+                        inventoryMovementQueryApi,
+                        inventoryMovementCommandApi,
+                        metrics,
+                        new StockLockBudget(
+                                jdbcTemplate,
+                                new InventoryLockProperties(
+                                        Duration.ZERO, false, Duration.ofSeconds(1)),
+                                metrics));
     }
 
     @Test
@@ -3,6 +3,7 @@ package org.omt.labelmanager.inventory.productionrun.web;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -15,17 +16,22 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.LocationType;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.LocationBalance;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementCursor;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementFilter;
+import org.omt.labelmanager.inventory.inventorymovement.api.MovementPage;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.inventory.productionrun.domain.ProductionRunFactory;
@@ -142,13 +148,7 @@ class ProductionRunControllerTest {
 
     @Test
     void deleteProductionRun_callsHandlerAndReturnsNoContent() throws Exception {
-        when(queryApi.findById(99L))
-                .thenReturn(
-                        Optional.of(
-                                ProductionRunFactory.aProductionRun()
-                                        .id(99L)
-                                        .releaseId(42L)
-                                        .build()));
+        when(queryApi.belongsToRelease(99L, 42L)).thenReturn(true);
         when(commandApi.delete(99L)).thenReturn(true);
 
         mockMvc.perform(
@@ -173,14 +173,13 @@ class ProductionRunControllerTest {
                         List.of(
                                 new LocationBalance(10L, InventoryLocation.warehouse(), 200),
                                 new LocationBalance(10L, InventoryLocation.bandcamp(), 25)));
-        when(inventoryMovementQueryApi.findByProductionRunIds(List.of(10L))).thenReturn(Map.of());
 
         mockMvc.perform(get("/api/labels/1/releases/4/production-runs").with(user(testUser)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].warehouseInventory").value(200))
                 .andExpect(jsonPath("$[0].bandcampInventory").value(25))
                 .andExpect(jsonPath("$[0].distributorInventories").isEmpty())
-                .andExpect(jsonPath("$[0].movements").isEmpty());
+                .andExpect(jsonPath("$[0].movements").doesNotExist());
     }
 
     @Test
@@ -194,7 +193,6 @@ class ProductionRunControllerTest {
                                 new LocationBalance(10L, InventoryLocation.warehouse(), 350),
                                 new LocationBalance(10L, InventoryLocation.distributor(2L), 30),
                                 new LocationBalance(10L, InventoryLocation.distributor(1L), 80)));
-        when(inventoryMovementQueryApi.findByProductionRunIds(List.of(10L))).thenReturn(Map.of());
 
         mockMvc.perform(get("/api/labels/1/releases/4/production-runs").with(user(testUser)))
                 .andExpect(status().isOk())
@@ -220,7 +218,6 @@ class ProductionRunControllerTest {
                         List.of(
                                 new LocationBalance(10L, InventoryLocation.distributor(1L), -40),
                                 new LocationBalance(10L, InventoryLocation.distributor(2L), 30)));
-        when(inventoryMovementQueryApi.findByProductionRunIds(List.of(10L))).thenReturn(Map.of());
 
         mockMvc.perform(get("/api/labels/1/releases/4/production-runs").with(user(testUser)))
                 .andExpect(status().isOk())
@@ -241,8 +238,6 @@ class ProductionRunControllerTest {
         when(queryApi.findByReleaseId(4L)).thenReturn(List.of(first, second, third));
         when(inventoryMovementQueryApi.balancesFor(List.of(10L, 11L, 12L)))
                 .thenReturn(List.of(new LocationBalance(11L, InventoryLocation.warehouse(), 42)));
-        when(inventoryMovementQueryApi.findByProductionRunIds(List.of(10L, 11L, 12L)))
-                .thenReturn(Map.of());
 
         mockMvc.perform(get("/api/labels/1/releases/4/production-runs").with(user(testUser)))
                 .andExpect(status().isOk())
@@ -251,10 +246,86 @@ class ProductionRunControllerTest {
                 .andExpect(jsonPath("$[2].warehouseInventory").value(0));
 
         verify(inventoryMovementQueryApi).balancesFor(List.of(10L, 11L, 12L));
-        verify(inventoryMovementQueryApi).findByProductionRunIds(List.of(10L, 11L, 12L));
         verifyNoMoreInteractions(inventoryMovementQueryApi);
     }
 
+    /** End of the day asked for, in UTC: the first instant that is no longer part of it. */
+    @Test
+    void productionRuns_reportsTheInventoryAtTheEndOfTheAsOfDate() throws Exception {
+        var productionRun = ProductionRunFactory.aProductionRun().id(10L).releaseId(4L).build();
+        when(queryApi.findByReleaseId(4L)).thenReturn(List.of(productionRun));
+        when(inventoryMovementQueryApi.balancesAsOf(
+                        List.of(10L), Instant.parse("2026-01-01T00:00:00Z")))
+                .thenReturn(List.of(new LocationBalance(10L, InventoryLocation.warehouse(), 120)));
+
+        mockMvc.perform(
+                        get("/api/labels/1/releases/4/production-runs")
+                                .param("asOf", "2025-12-31")
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].warehouseInventory").value(120));
+
+        verify(inventoryMovementQueryApi, never()).balancesFor(any());
+    }
+
+    @Test
+    void movements_returnsAPageOfTheRunsHistoryWithACursorForTheNext() throws Exception {
+        when(queryApi.belongsToRelease(10L, 4L)).thenReturn(true);
+        var allocation =
+                new InventoryMovement(
+                        7L,
+                        10L,
+                        LocationType.WAREHOUSE,
+                        null,
+                        LocationType.DISTRIBUTOR,
+                        3L,
+                        40,
+                        MovementType.ALLOCATION,
+                        Instant.parse("2026-02-01T10:00:00Z"),
+                        null);
+        var filter = new MovementFilter(MovementType.ALLOCATION, LocationType.DISTRIBUTOR, 3L);
+        var next = MovementCursor.after(allocation);
+        when(inventoryMovementQueryApi.findPageByProductionRunId(
+                        10L, filter, MovementCursor.START, 1))
+                .thenReturn(new MovementPage(List.of(allocation), next));
+
+        mockMvc.perform(
+                        get("/api/labels/1/releases/4/production-runs/10/movements")
+                                .param("movementType", "ALLOCATION")
+                                .param("locationType", "DISTRIBUTOR")
+                                .param("distributorId", "3")
+                                .param("limit", "1")
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movements[0].movementType").value("ALLOCATION"))
+                .andExpect(jsonPath("$.movements[0].toLocation.distributorId").value(3))
+                .andExpect(jsonPath("$.movements[0].quantity").value(40))
+                .andExpect(jsonPath("$.nextCursor").value(next.encode()));
+    }
+
+    @Test
+    void movements_returns404WhenTheRunBelongsToAnotherRelease() throws Exception {
+        when(queryApi.belongsToRelease(10L, 4L)).thenReturn(false);
+
+        mockMvc.perform(
+                        get("/api/labels/1/releases/4/production-runs/10/movements")
+                                .with(user(testUser)))
+                .andExpect(status().isNotFound());
+
+        verifyNoMoreInteractions(inventoryMovementQueryApi);
+    }
+
+    @Test
+    void movements_returns400ForACursorItDidNotHandOut() throws Exception {
+        when(queryApi.belongsToRelease(10L, 4L)).thenReturn(true);
+
+        mockMvc.perform(
+                        get("/api/labels/1/releases/4/production-runs/10/movements")
+                                .param("cursor", "not-a-cursor")
+                                .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void productionRuns_returns404WhenReleaseBelongsToAnotherLabel() throws Exception {
         when(releaseQueryApi.belongsToLabel(4L, 1L)).thenReturn(false);
@@ -267,13 +338,7 @@ class ProductionRunControllerTest {
 
     @Test
     void deleteProductionRun_returns404WhenTheRunBelongsToAnotherRelease() throws Exception {
-        when(queryApi.findById(99L))
-                .thenReturn(
-                        Optional.of(
-                                ProductionRunFactory.aProductionRun()
-                                        .id(99L)
-                                        .releaseId(7L)
-                                        .build()));
+        when(queryApi.belongsToRelease(99L, 42L)).thenReturn(false);
 
         mockMvc.perform(
                         delete("/api/labels/1/releases/42/production-runs/99")
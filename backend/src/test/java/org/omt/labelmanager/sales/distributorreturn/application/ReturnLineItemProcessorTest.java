@@ -2,11 +2,17 @@ package org.omt.labelmanager.sales.distributorreturn.application;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,10 +23,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties.Mode;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.StockConcurrency;
 import org.omt.labelmanager.inventory.domain.RunDraw;
 import org.omt.labelmanager.inventory.domain.RunStock;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.sales.distributorreturn.domain.ReturnLineItemInput;
 import org.omt.labelmanager.sales.distributorreturn.infrastructure.DistributorReturnEntity;
@@ -40,13 +53,28 @@ class ReturnLineItemProcessorTest {
 
     @Mock private ProductionRunQueryApi productionRunQueryApi;
 
+    @Mock private InventoryMovementCommandApi inventoryMovementCommandApi;
+
     @Mock private DistributorReturnEntity returnEntity;
 
+    private final Map<StockKey, StockLedger> ledgers = new HashMap<>();
+
     private ReturnLineItemProcessor subject;
 
     @BeforeEach
     void setUp() {
-        subject = new ReturnLineItemProcessor(releaseQueryApi, productionRunQueryApi);
+        var metrics = new InventoryMetrics(new SimpleMeterRegistry());
+        subject =
+                new ReturnLineItemProcessor(
+                        releaseQueryApi,
+                        productionRunQueryApi,
+                        inventoryMovementCommandApi,
+                        new StockConcurrency(
+                                new InventoryConcurrencyProperties(Mode.PESSIMISTIC, 3),
+                                new InventoryLockProperties(
+                                        Duration.ZERO, false, Duration.ofSeconds(1)),
+                                metrics),
+                        metrics);
     }
 
     @Test
@@ -124,8 +152,8 @@ class ReturnLineItemProcessorTest {
     void validateAndAdd_keepsFormatsApart() {
         givenRelease();
         givenLedger(pressing(FIRST_PRESSING, "2024-01-01", 20));
-        when(productionRunQueryApi.lockedLedgerAt(RELEASE_ID, Format.CD, FROM))
-                .thenReturn(StockLedger.of(List.of(pressing(REPRESS, "2025-01-01", 20))));
+        givenLedgerFor(
+                new StockKey(RELEASE_ID, Format.CD), pressing(REPRESS, "2025-01-01", 20));
 
         var draws =
                 subject.validateAndAdd(
@@ -163,8 +191,15 @@ class ReturnLineItemProcessorTest {
     }
 
     private void givenLedger(RunStock... pressings) {
-        when(productionRunQueryApi.lockedLedgerAt(RELEASE_ID, Format.VINYL, FROM))
-                .thenReturn(StockLedger.of(List.of(pressings)));
+        givenLedgerFor(new StockKey(RELEASE_ID, Format.VINYL), pressings);
+    }
+
+    /** Returns lock the warehouse too: it is where the units go, and it is written. */
+    private void givenLedgerFor(StockKey key, RunStock... pressings) {
+        ledgers.put(key, StockLedger.of(List.of(pressings)));
+        when(productionRunQueryApi.lockedLedgersAt(
+                        any(), eq(FROM), eq(InventoryLocation.warehouse())))
+                .thenReturn(ledgers);
     }
 
     private RunStock pressing(long runId, String manufacturedOn, int onHand) {
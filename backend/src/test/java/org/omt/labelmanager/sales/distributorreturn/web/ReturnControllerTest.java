@@ -19,12 +19,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
-import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.Distributor;
 import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
@@ -91,17 +91,8 @@ class ReturnControllerTest {
         when(returnQueryApi.getReturnsForLabel(LABEL_ID)).thenReturn(List.of(testReturn));
         when(distributorQueryApi.findByLabelId(LABEL_ID)).thenReturn(List.of(testDistributor));
         when(distributorQueryApi.findById(DISTRIBUTOR_ID)).thenReturn(Optional.of(testDistributor));
-        when(releaseQueryApi.findById(RELEASE_ID))
-                .thenReturn(
-                        Optional.of(
-                                new Release(
-                                        RELEASE_ID,
-                                        "Test Release",
-                                        null,
-                                        LABEL_ID,
-                                        List.of(),
-                                        List.of(),
-                                        java.util.Set.of())));
+        when(releaseQueryApi.namesByIds(List.of(RELEASE_ID)))
+                .thenReturn(Map.of(RELEASE_ID, "Test Release"));
     }
 
     // ── GET list ──────────────────────────────────────────────────────────────
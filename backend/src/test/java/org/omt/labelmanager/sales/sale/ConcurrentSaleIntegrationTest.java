@@ -1,11 +1,14 @@
 package org.omt.labelmanager.sales.sale;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -17,28 +20,35 @@ import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.AbstractIntegrationTest;
 import org.omt.labelmanager.catalog.label.LabelTestHelper;
 import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleRepository;
 import org.omt.labelmanager.shared.Format;
 import org.omt.labelmanager.shared.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Two sales of the same stock, racing.
  *
  * <p>Checking stock and recording the movement that consumes it are separate statements, so without
  * a lock both transactions read the same balance and both commit — the classic oversell. The sale
- * path takes a pessimistic lock on the pressings it is about to draw from, which serialises the
- * two.
+ * path locks the balance of each pressing at the location it draws from, which serialises the two
+ * — and only those two: a sale drawing from another distributor's balance of the same pressing
+ * does not wait.
  */
 class ConcurrentSaleIntegrationTest extends AbstractIntegrationTest {
 
@@ -54,10 +64,18 @@ class ConcurrentSaleIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired private ProductionRunTestHelper productionRunTestHelper;
 
+    @Autowired private ProductionRunQueryApi productionRunQueryApi;
+
+    @Autowired private DistributorTestHelper distributorTestHelper;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
     @Autowired private ReleaseTestHelper releaseTestHelper;
 
     @Autowired private LabelTestHelper labelTestHelper;
 
+    @Autowired private MeterRegistry meterRegistry;
+
     private Long labelId;
     private Long releaseId;
     private Long distributorId;
@@ -142,6 +160,157 @@ class ConcurrentSaleIntegrationTest extends AbstractIntegrationTest {
         }
     }
 
+    /**
+     * The lock is per (pressing, location), not per pressing. A transaction holding the locks for
+     * this distributor's stock must not hold up a sale of the same pressing by another distributor.
+     */
+    @Test
+    void aSaleAtAnotherDistributorDoesNotWaitForTheFirstDistributorsLock() throws Exception {
+        Long otherDistributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, "Other Distributor", ChannelType.DISTRIBUTOR)
+                        .id();
+        inventoryMovementCommandApi.recordMovement(
+                productionRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(otherDistributorId),
+                10,
+                MovementType.ALLOCATION,
+                null);
+
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder =
+                    executor.submit(
+                            () ->
+                                    new TransactionTemplate(transactionManager)
+                                            .executeWithoutResult(
+                                                    status -> {
+                                                        productionRunQueryApi.lockedLedgersAt(
+                                                                List.of(
+                                                                        new StockKey(
+                                                                                releaseId,
+                                                                                Format.VINYL)),
+                                                                InventoryLocation.distributor(
+                                                                        distributorId),
+                                                                InventoryLocation.external());
+                                                        locked.countDown();
+                                                        await(release);
+                                                    }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> otherSale =
+                    executor.submit(
+                            () ->
+                                    saleCommandApi.registerSale(
+                                            labelId,
+                                            LocalDate.of(2026, 2, 1),
+                                            ChannelType.DISTRIBUTOR,
+                                            null,
+                                            otherDistributorId,
+                                            List.of(
+                                                    new SaleLineItemInput(
+                                                            releaseId,
+                                                            Format.VINYL,
+                                                            4,
+                                                            Money.of(new BigDecimal("15.00"))))));
+
+            // Completes while the first distributor's locks are still held.
+            otherSale.get(10, TimeUnit.SECONDS);
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+
+            assertThat(
+                            inventoryMovementQueryApi.getCurrentInventory(
+                                    productionRunId, otherDistributorId))
+                    .isEqualTo(6);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A sale that cannot get its locks within the budget (one second in the test profile) is
+     * refused as retryable rather than parked on its thread for as long as the holder keeps them.
+     */
+    @Test
+    void aSaleWaitingPastTheLockBudgetIsRefusedAndCounted() throws Exception {
+        double timeoutsBefore = saleLockTimeouts();
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder =
+                    executor.submit(
+                            () ->
+                                    new TransactionTemplate(transactionManager)
+                                            .executeWithoutResult(
+                                                    status -> {
+                                                        productionRunQueryApi.lockStock(
+                                                                List.of(
+                                                                        new StockKey(
+                                                                                releaseId,
+                                                                                Format.VINYL)),
+                                                                InventoryLocation.distributor(
+                                                                        distributorId),
+                                                                InventoryLocation.external());
+                                                        locked.countDown();
+                                                        await(release);
+                                                    }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> blockedSale =
+                    executor.submit(
+                            () ->
+                                    saleCommandApi.registerSale(
+                                            labelId,
+                                            LocalDate.of(2026, 2, 1),
+                                            ChannelType.DIRECT,
+                                            null,
+                                            null,
+                                            List.of(
+                                                    new SaleLineItemInput(
+                                                            releaseId,
+                                                            Format.VINYL,
+                                                            1,
+                                                            Money.of(new BigDecimal("15.00"))))));
+
+            // Refused while the locks are still held, well before the holder lets go.
+            assertThatThrownBy(() -> blockedSale.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(StockLockTimeoutException.class);
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+
+            assertThat(saleLockTimeouts()).isEqualTo(timeoutsBefore + 1);
+            assertThat(
+                            inventoryMovementQueryApi.getCurrentInventory(
+                                    productionRunId, distributorId))
+                    .isEqualTo(10);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private double saleLockTimeouts() {
+        return meterRegistry
+                .get("inventory.lock.timeouts")
+                .tag("operation", "sale")
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * The sales this test commits outlive its transaction — it deliberately runs two of its own —
      * and a sale row keeps its distributor alive, which breaks the {@code deleteAll()} setup other
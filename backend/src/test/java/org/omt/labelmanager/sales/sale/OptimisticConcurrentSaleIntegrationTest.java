@@ -0,0 +1,189 @@
+package org.omt.labelmanager.sales.sale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.inventory.InsufficientInventoryException;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.StockLockTimeoutException;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.infrastructure.SaleRepository;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+/**
+ * {@link ConcurrentSaleIntegrationTest}'s race, in optimistic mode: both sales read the balance
+ * unlocked, so both see the last units, and only the claim stops the second from selling them too.
+ *
+ * <p>Left to the scheduler, one sale often commits before the other has even read, and the race
+ * never happens. So each sale's first claim waits until the other sale has also drawn: by then both
+ * hold the same stale reading, and whichever claims second must lose — to the lock, if the winner
+ * has not committed yet, or to the version, if it has.
+ */
+@TestPropertySource(properties = "inventory.concurrency.mode=OPTIMISTIC")
+class OptimisticConcurrentSaleIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private SaleCommandApi saleCommandApi;
+
+    @Autowired private SaleRepository saleRepository;
+
+    @MockitoSpyBean private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    @Autowired private InventoryMovementQueryApi inventoryMovementQueryApi;
+
+    @Autowired private DistributorQueryApi distributorQueryApi;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    private Long labelId;
+    private Long releaseId;
+    private Long distributorId;
+    private Long productionRunId;
+
+    @BeforeEach
+    void setUp() {
+        var label = labelTestHelper.createLabelWithDirectDistributor("Optimistic Test Label");
+        labelId = label.id();
+        distributorId =
+                distributorQueryApi
+                        .findByLabelIdAndChannelType(labelId, ChannelType.DIRECT)
+                        .orElseThrow()
+                        .id();
+
+        releaseId = releaseTestHelper.createReleaseEntity("Optimistic Test Release", labelId);
+
+        var run =
+                productionRunTestHelper.createProductionRun(
+                        releaseId,
+                        Format.VINYL,
+                        "First pressing",
+                        "Plant A",
+                        LocalDate.of(2025, 1, 1),
+                        500);
+        productionRunId = run.id();
+
+        // The distributor holds exactly 10 — enough for either sale, not both.
+        inventoryMovementCommandApi.recordMovement(
+                productionRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(distributorId),
+                10,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    @Test
+    void twoSalesOfTheLastUnitsCannotBothSucceed() throws Exception {
+        double conflictsBefore = saleConflicts();
+        var bothDrawn = new CyclicBarrier(2);
+        var claims = new AtomicInteger();
+        doAnswer(
+                        invocation -> {
+                            // Only the first attempts race; a retry reads fresh and goes alone.
+                            if (claims.incrementAndGet() <= 2) {
+                                bothDrawn.await(10, TimeUnit.SECONDS);
+                            }
+                            return invocation.callRealMethod();
+                        })
+                .when(inventoryMovementCommandApi)
+                .claimBalances(any(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Outcome> sellEverything =
+                    () -> {
+                        try {
+                            saleCommandApi.registerSale(
+                                    labelId,
+                                    LocalDate.of(2026, 2, 1),
+                                    ChannelType.DIRECT,
+                                    null,
+                                    null,
+                                    List.of(
+                                            new SaleLineItemInput(
+                                                    releaseId,
+                                                    Format.VINYL,
+                                                    10,
+                                                    Money.of(new BigDecimal("15.00")))));
+                            return Outcome.SOLD;
+                        } catch (InsufficientInventoryException e) {
+                            // Retried in a fresh transaction, which read the stock as gone.
+                            return Outcome.REJECTED;
+                        } catch (StockLockTimeoutException e) {
+                            // Conflicted on every attempt and refused as retryable.
+                            return Outcome.REFUSED;
+                        }
+                    };
+
+            Future<Outcome> first = executor.submit(sellEverything);
+            Future<Outcome> second = executor.submit(sellEverything);
+
+            List<Outcome> outcomes =
+                    List.of(first.get(30, TimeUnit.SECONDS), second.get(30, TimeUnit.SECONDS));
+
+            assertThat(outcomes).containsOnlyOnce(Outcome.SOLD);
+            assertThat(outcomes).containsAnyOf(Outcome.REJECTED, Outcome.REFUSED);
+            assertThat(
+                            inventoryMovementQueryApi.getCurrentInventory(
+                                    productionRunId, distributorId))
+                    .isZero();
+            assertThat(saleConflicts()).isGreaterThan(conflictsBefore);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double saleConflicts() {
+        return meterRegistry
+                .get("inventory.optimistic.conflicts")
+                .tag("operation", "sale")
+                .counter()
+                .count();
+    }
+
+    /** As in {@link ConcurrentSaleIntegrationTest}: the committed sales outlive the test. */
+    @AfterEach
+    void removeCommittedSales() {
+        saleRepository.deleteAll();
+    }
+
+    private enum Outcome {
+        SOLD,
+        REJECTED,
+        REFUSED
+    }
+}
@@ -0,0 +1,215 @@
+package org.omt.labelmanager.sales.sale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.inventorymovement.persistence.InventoryMovementRepository;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
+import org.omt.labelmanager.sales.sale.domain.SaleInput;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class SaleBatchRegistrationIntegrationTest extends AbstractIntegrationTest {
+
+    private static final LocalDate SALE_DATE = LocalDate.of(2026, 3, 1);
+
+    @Autowired private SaleCommandApi saleCommandApi;
+
+    @Autowired private SaleQueryApi saleQueryApi;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private DistributorTestHelper distributorTestHelper;
+
+    @Autowired private DistributorQueryApi distributorQueryApi;
+
+    @Autowired private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    @Autowired private InventoryMovementQueryApi inventoryMovementQueryApi;
+
+    @Autowired private InventoryMovementRepository inventoryMovementRepository;
+
+    private Long labelId;
+    private Long releaseId;
+    private Long productionRunId;
+    private Long directDistributorId;
+    private Long distributorId;
+
+    @BeforeEach
+    void setUp() {
+        labelId = labelTestHelper.createLabelWithDirectDistributor("Batch Label").id();
+        directDistributorId =
+                distributorQueryApi
+                        .findByLabelIdAndChannelType(labelId, ChannelType.DIRECT)
+                        .orElseThrow()
+                        .id();
+        distributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, "Statement", ChannelType.DISTRIBUTOR)
+                        .id();
+
+        releaseId = releaseTestHelper.createReleaseEntity("Batch Release", labelId);
+        productionRunId =
+                productionRunTestHelper
+                        .createProductionRun(
+                                releaseId,
+                                Format.VINYL,
+                                "First pressing",
+                                "Plant A",
+                                LocalDate.of(2025, 1, 1),
+                                200)
+                        .id();
+
+        allocate(directDistributorId, 50);
+        allocate(distributorId, 50);
+    }
+
+    @Test
+    void registerSales_registersEverySaleAndRecordsItsMovements() {
+        var results =
+                saleCommandApi.registerSales(
+                        labelId,
+                        List.of(
+                                directSale(5),
+                                distributorSale(10),
+                                new SaleInput(
+                                        SALE_DATE,
+                                        ChannelType.DISTRIBUTOR,
+                                        "two lines",
+                                        distributorId,
+                                        List.of(lineItem(3), lineItem(4)))));
+
+        assertThat(results).allMatch(BatchSaleResult::isRegistered);
+        assertThat(results).extracting(BatchSaleResult::index).containsExactly(0, 1, 2);
+
+        var twoLines = saleQueryApi.findById(results.get(2).saleId()).orElseThrow();
+        assertThat(twoLines.lineItems()).hasSize(2);
+        assertThat(twoLines.totalAmount().amount()).isEqualByComparingTo(new BigDecimal("105.00"));
+        assertThat(twoLines.distributorId()).isEqualTo(distributorId);
+
+        assertThat(
+                        inventoryMovementRepository.findByMovementTypeAndReferenceId(
+                                MovementType.SALE, results.get(2).saleId()))
+                .hasSize(2);
+        assertThat(directStock()).isEqualTo(45);
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(productionRunId, distributorId))
+                .isEqualTo(50 - 10 - 3 - 4);
+    }
+
+    /**
+     * The batch is validated in order against one set of ledgers. Each sale fits the opening
+     * stock; only the running balance shows that the second does not fit after the first.
+     */
+    @Test
+    void registerSales_validatesEachSaleAgainstTheStockTheSalesBeforeItLeft() {
+        var results =
+                saleCommandApi.registerSales(
+                        labelId,
+                        List.of(distributorSale(30), distributorSale(30), distributorSale(20)));
+
+        assertThat(results.get(0).isRegistered()).isTrue();
+        assertThat(results.get(1).isRegistered()).isFalse();
+        assertThat(results.get(1).error()).contains("Insufficient inventory");
+        assertThat(results.get(2).isRegistered()).isTrue();
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(productionRunId, distributorId))
+                .isZero();
+    }
+
+    @Test
+    void registerSales_reportsAnInvalidSaleWithoutFailingTheBatch() {
+        Long foreignLabelId = labelTestHelper.createLabel("Someone Else's Label").id();
+        Long foreignReleaseId =
+                releaseTestHelper.createReleaseEntity("Someone Else's Release", foreignLabelId);
+
+        var results =
+                saleCommandApi.registerSales(
+                        labelId,
+                        List.of(
+                                new SaleInput(
+                                        SALE_DATE,
+                                        ChannelType.DISTRIBUTOR,
+                                        null,
+                                        null,
+                                        List.of(lineItem(1))),
+                                new SaleInput(
+                                        SALE_DATE,
+                                        ChannelType.DIRECT,
+                                        null,
+                                        null,
+                                        List.of(
+                                                new SaleLineItemInput(
+                                                        foreignReleaseId,
+                                                        Format.VINYL,
+                                                        1,
+                                                        Money.of(new BigDecimal("15.00"))))),
+                                directSale(2)));
+
+        assertThat(results.get(0).error()).contains("Distributor must be specified");
+        assertThat(results.get(1).error()).contains("does not belong to label");
+        assertThat(results.get(2).isRegistered()).isTrue();
+        assertThat(directStock()).isEqualTo(48);
+    }
+
+    @Test
+    void registerSales_refusesAnEmptyBatch() {
+        assertThatThrownBy(() -> saleCommandApi.registerSales(labelId, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int directStock() {
+        return inventoryMovementQueryApi.getCurrentInventory(productionRunId, directDistributorId);
+    }
+
+    private void allocate(Long distributorId, int quantity) {
+        inventoryMovementCommandApi.recordMovement(
+                productionRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(distributorId),
+                quantity,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    private SaleInput directSale(int quantity) {
+        return new SaleInput(
+                SALE_DATE, ChannelType.DIRECT, null, null, List.of(lineItem(quantity)));
+    }
+
+    private SaleInput distributorSale(int quantity) {
+        return new SaleInput(
+                SALE_DATE,
+                ChannelType.DISTRIBUTOR,
+                null,
+                distributorId,
+                List.of(lineItem(quantity)));
+    }
+
+    private SaleLineItemInput lineItem(int quantity) {
+        return new SaleLineItemInput(
+                releaseId, Format.VINYL, quantity, Money.of(new BigDecimal("15.00")));
+    }
+}
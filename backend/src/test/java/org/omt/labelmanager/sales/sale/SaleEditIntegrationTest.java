@@ -3,6 +3,7 @@ package org.omt.labelmanager.sales.sale;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -16,11 +17,13 @@ import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
 import org.omt.labelmanager.inventory.InventoryLocation;
 import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.InventoryMovement;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
 import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
 import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItem;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.omt.labelmanager.shared.Format;
 import org.omt.labelmanager.shared.Money;
@@ -44,6 +47,8 @@ class SaleEditIntegrationTest extends AbstractIntegrationTest {
 
     @Autowired private InventoryMovementQueryApi inventoryMovementQueryApi;
 
+    @Autowired private MeterRegistry meterRegistry;
+
     private Long labelId;
     private Long releaseId;
     private Long productionRunId;
@@ -168,6 +173,131 @@ class SaleEditIntegrationTest extends AbstractIntegrationTest {
                 .isInstanceOf(InsufficientInventoryException.class);
     }
 
+    @Test
+    void updateSale_headerOnlyEdit_takesNoStockLocksAndKeepsMovementsAndLineItems() {
+        var original = registerDirectSale(5, LocalDate.of(2026, 2, 1));
+        List<Long> movementsBefore = saleMovementIds(productionRunId);
+        double lockWaitsBefore = saleLockWaits();
+
+        var updated =
+                saleCommandApi.updateSale(
+                        original.id(),
+                        LocalDate.of(2026, 2, 2),
+                        "Paid in cash",
+                        List.of(
+                                new SaleLineItemInput(
+                                        releaseId,
+                                        Format.VINYL,
+                                        5,
+                                        Money.of(new BigDecimal("15.0")))));
+
+        assertThat(updated.notes()).isEqualTo("Paid in cash");
+        assertThat(saleLockWaits()).isEqualTo(lockWaitsBefore);
+        assertThat(saleMovementIds(productionRunId)).isEqualTo(movementsBefore);
+        assertThat(updated.lineItems().getFirst().id())
+                .isEqualTo(original.lineItems().getFirst().id());
+    }
+
+    @Test
+    void updateSale_changingOneReleasesQuantity_leavesTheOtherReleasesMovementsAlone() {
+        Long otherReleaseId = releaseTestHelper.createReleaseEntity("Other Release", labelId);
+        Long otherRunId =
+                productionRunTestHelper
+                        .createProductionRun(
+                                otherReleaseId,
+                                Format.VINYL,
+                                "First pressing",
+                                "Plant A",
+                                LocalDate.of(2025, 1, 1),
+                                50)
+                        .id();
+        inventoryMovementCommandApi.recordMovement(
+                otherRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(directDistributorId),
+                30,
+                MovementType.ALLOCATION,
+                null);
+        var original =
+                saleCommandApi.registerSale(
+                        labelId,
+                        LocalDate.of(2026, 2, 1),
+                        ChannelType.DIRECT,
+                        null,
+                        null,
+                        List.of(
+                                lineItem(releaseId, 5, "15.00"),
+                                lineItem(otherReleaseId, 4, "12.00")));
+        List<Long> untouchedMovements = saleMovementIds(productionRunId);
+
+        var updated =
+                saleCommandApi.updateSale(
+                        original.id(),
+                        original.saleDate(),
+                        null,
+                        List.of(
+                                lineItem(releaseId, 5, "15.00"),
+                                lineItem(otherReleaseId, 9, "12.00")));
+
+        assertThat(saleMovementIds(productionRunId)).isEqualTo(untouchedMovements);
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(otherRunId, directDistributorId))
+                .isEqualTo(21); // 30 - 9
+        assertThat(updated.lineItems())
+                .extracting(SaleLineItem::id)
+                .containsExactlyElementsOf(
+                        original.lineItems().stream().map(SaleLineItem::id).toList());
+        assertThat(updated.totalAmount().amount())
+                .isEqualByComparingTo(new BigDecimal("183.00")); // 5 × 15 + 9 × 12
+    }
+
+    @Test
+    void updateSale_removingALineItem_returnsItsStock() {
+        Long otherReleaseId = releaseTestHelper.createReleaseEntity("Dropped Release", labelId);
+        Long otherRunId =
+                productionRunTestHelper
+                        .createProductionRun(
+                                otherReleaseId,
+                                Format.VINYL,
+                                "First pressing",
+                                "Plant A",
+                                LocalDate.of(2025, 1, 1),
+                                50)
+                        .id();
+        inventoryMovementCommandApi.recordMovement(
+                otherRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(directDistributorId),
+                30,
+                MovementType.ALLOCATION,
+                null);
+        var original =
+                saleCommandApi.registerSale(
+                        labelId,
+                        LocalDate.of(2026, 2, 1),
+                        ChannelType.DIRECT,
+                        null,
+                        null,
+                        List.of(
+                                lineItem(releaseId, 5, "15.00"),
+                                lineItem(otherReleaseId, 4, "12.00")));
+
+        var updated =
+                saleCommandApi.updateSale(
+                        original.id(),
+                        original.saleDate(),
+                        null,
+                        List.of(lineItem(releaseId, 5, "15.00")));
+
+        assertThat(updated.lineItems()).hasSize(1);
+        assertThat(saleMovementIds(otherRunId)).isEmpty();
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(otherRunId, directDistributorId))
+                .isEqualTo(30);
+        assertThat(
+                        inventoryMovementQueryApi.getCurrentInventory(
+                                productionRunId, directDistributorId))
+                .isEqualTo(75); // 80 - 5
+    }
+
     // ── helpers ──────────────────────────────────────────────────────────────
 
     private Sale registerDirectSale(int quantity, LocalDate date) {
@@ -184,4 +314,25 @@ class SaleEditIntegrationTest extends AbstractIntegrationTest {
                                 quantity,
                                 Money.of(new BigDecimal("15.00")))));
     }
+
+    private static SaleLineItemInput lineItem(Long releaseId, int quantity, String unitPrice) {
+        return new SaleLineItemInput(
+                releaseId, Format.VINYL, quantity, Money.of(new BigDecimal(unitPrice)));
+    }
+
+    private List<Long> saleMovementIds(Long runId) {
+        return inventoryMovementQueryApi.findByProductionRunId(runId).stream()
+                .filter(movement -> movement.movementType() == MovementType.SALE)
+                .map(InventoryMovement::id)
+                .sorted()
+                .toList();
+    }
+
+    private long saleLockWaits() {
+        return meterRegistry
+                .get("inventory.lock.wait")
+                .tag("operation", "sale")
+                .timer()
+                .count();
+    }
 }
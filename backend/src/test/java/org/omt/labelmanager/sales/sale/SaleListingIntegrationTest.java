@@ -0,0 +1,246 @@
+package org.omt.labelmanager.sales.sale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.sale.domain.SaleFilter;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.sales.sale.domain.SalePage;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.omt.labelmanager.test.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The paged sales listing. Not {@code @Transactional}: the sales registered here would otherwise
+ * still be in the persistence context, line items loaded, and the query counts would flatter the
+ * code.
+ */
+class SaleListingIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private SaleCommandApi saleCommandApi;
+
+    @Autowired private SaleQueryApi saleQueryApi;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private DistributorTestHelper distributorTestHelper;
+
+    @Autowired private DistributorQueryApi distributorQueryApi;
+
+    @Autowired private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    private Long labelId;
+    private Long releaseId;
+    private Long otherReleaseId;
+    private Long directDistributorId;
+    private Long externalDistributorId;
+
+    @BeforeEach
+    void setUp() {
+        labelId = labelTestHelper.createLabelWithDirectDistributor("Listing Label").id();
+        directDistributorId =
+                distributorQueryApi
+                        .findByLabelIdAndChannelType(labelId, ChannelType.DIRECT)
+                        .orElseThrow()
+                        .id();
+        externalDistributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, "Listing Distributor", ChannelType.DISTRIBUTOR)
+                        .id();
+
+        releaseId = stockedRelease("Listing Release");
+        otherReleaseId = stockedRelease("Other Listing Release");
+    }
+
+    /** Five sales on one day: the id alone orders them, and no page may repeat or skip one. */
+    @Test
+    void pagingWalksEverySaleOnceNewestFirstThroughSameDaySales() {
+        List<Long> registered = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            registered.add(registerDirectSale(releaseId, LocalDate.of(2026, 3, 1)).id());
+        }
+        registered.add(registerDirectSale(releaseId, LocalDate.of(2026, 2, 1)).id());
+
+        List<Long> listed = new ArrayList<>();
+        SaleCursor cursor = SaleCursor.START;
+        int pages = 0;
+        do {
+            SalePage page = saleQueryApi.getSalesForLabel(labelId, SaleFilter.NONE, cursor, 2);
+            page.sales().forEach(sale -> listed.add(sale.id()));
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(listed)
+                .containsExactly(
+                        registered.get(4),
+                        registered.get(3),
+                        registered.get(2),
+                        registered.get(1),
+                        registered.get(0),
+                        registered.get(5));
+    }
+
+    @Test
+    void aPageAndItsLineItemsCostTheSameQueriesHoweverLongThePage() {
+        for (int i = 0; i < 12; i++) {
+            registerDirectSale(releaseId, LocalDate.of(2026, 3, 1).plusDays(i));
+        }
+
+        var shortPage =
+                SqlStatementCounter.count(
+                        () ->
+                                saleQueryApi.getSalesForLabel(
+                                        labelId, SaleFilter.NONE, SaleCursor.START, 1));
+        var longPage =
+                SqlStatementCounter.count(
+                        () ->
+                                saleQueryApi.getSalesForLabel(
+                                        labelId, SaleFilter.NONE, SaleCursor.START, 12));
+
+        assertThat(longPage.result().sales()).hasSize(12);
+        assertThat(longPage.result().sales())
+                .allSatisfy(sale -> assertThat(sale.lineItems()).hasSize(1));
+        assertThat(longPage.result().next()).isNull();
+        assertThat(longPage.statements()).isEqualTo(shortPage.statements());
+    }
+
+    @Test
+    void filtersNarrowThePageAndTheRevenueTotalAlike() {
+        var inRange = registerDirectSale(releaseId, LocalDate.of(2026, 3, 10));
+        registerDirectSale(releaseId, LocalDate.of(2026, 4, 10));
+        registerDirectSale(otherReleaseId, LocalDate.of(2026, 3, 12));
+        registerDistributorSale(releaseId, LocalDate.of(2026, 3, 15));
+
+        var filter =
+                new SaleFilter(
+                        directDistributorId,
+                        ChannelType.DIRECT,
+                        LocalDate.of(2026, 3, 1),
+                        LocalDate.of(2026, 3, 31),
+                        releaseId);
+
+        var page = saleQueryApi.getSalesForLabel(labelId, filter, SaleCursor.START, 10);
+
+        assertThat(page.sales()).extracting(Sale::id).containsExactly(inRange.id());
+        assertThat(saleQueryApi.getTotalRevenueForLabel(labelId, filter).amount())
+                .isEqualByComparingTo(inRange.totalAmount().amount());
+    }
+
+    @Test
+    void revenueTotalCoversEveryMatchingSaleNotJustThePage() {
+        registerDirectSale(releaseId, LocalDate.of(2026, 3, 1));
+        registerDirectSale(releaseId, LocalDate.of(2026, 3, 2));
+        registerDirectSale(releaseId, LocalDate.of(2026, 3, 3));
+
+        var page = saleQueryApi.getSalesForLabel(labelId, SaleFilter.NONE, SaleCursor.START, 1);
+
+        assertThat(page.sales()).hasSize(1);
+        assertThat(saleQueryApi.getTotalRevenueForLabel(labelId, SaleFilter.NONE).amount())
+                .isEqualByComparingTo(new BigDecimal("45.00"));
+    }
+
+    @Test
+    void distributorListingPagesOnlyThatDistributorsSales() {
+        var first = registerDistributorSale(releaseId, LocalDate.of(2026, 3, 1));
+        var second = registerDistributorSale(releaseId, LocalDate.of(2026, 3, 2));
+        registerDirectSale(releaseId, LocalDate.of(2026, 3, 3));
+
+        var firstPage =
+                saleQueryApi.getSalesForDistributor(externalDistributorId, SaleCursor.START, 1);
+        var secondPage =
+                saleQueryApi.getSalesForDistributor(externalDistributorId, firstPage.next(), 1);
+
+        assertThat(firstPage.sales()).extracting(Sale::id).containsExactly(second.id());
+        assertThat(secondPage.sales()).extracting(Sale::id).containsExactly(first.id());
+        assertThat(secondPage.next()).isNull();
+        assertThat(saleQueryApi.getTotalRevenueForDistributor(externalDistributorId).amount())
+                .isEqualByComparingTo(new BigDecimal("24.00"));
+    }
+
+    @Test
+    void refusesAPageSizeOutOfRange() {
+        assertThatThrownBy(
+                        () ->
+                                saleQueryApi.getSalesForLabel(
+                                        labelId,
+                                        SaleFilter.NONE,
+                                        SaleCursor.START,
+                                        SaleQueryApi.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long stockedRelease(String name) {
+        Long id = releaseTestHelper.createReleaseEntity(name, labelId);
+        Long productionRunId =
+                productionRunTestHelper
+                        .createProductionRun(
+                                id,
+                                Format.VINYL,
+                                "First pressing",
+                                "Plant A",
+                                LocalDate.of(2025, 1, 1),
+                                100)
+                        .id();
+        for (Long distributorId : List.of(directDistributorId, externalDistributorId)) {
+            inventoryMovementCommandApi.recordMovement(
+                    productionRunId,
+                    InventoryLocation.warehouse(),
+                    InventoryLocation.distributor(distributorId),
+                    40,
+                    MovementType.ALLOCATION,
+                    null);
+        }
+        return id;
+    }
+
+    private Sale registerDirectSale(Long releaseId, LocalDate date) {
+        return saleCommandApi.registerSale(
+                labelId,
+                date,
+                ChannelType.DIRECT,
+                null,
+                null,
+                List.of(
+                        new SaleLineItemInput(
+                                releaseId, Format.VINYL, 1, Money.of(new BigDecimal("15.00")))));
+    }
+
+    private Sale registerDistributorSale(Long releaseId, LocalDate date) {
+        return saleCommandApi.registerSale(
+                labelId,
+                date,
+                ChannelType.DISTRIBUTOR,
+                null,
+                externalDistributorId,
+                List.of(
+                        new SaleLineItemInput(
+                                releaseId, Format.VINYL, 1, Money.of(new BigDecimal("12.00")))));
+    }
+}
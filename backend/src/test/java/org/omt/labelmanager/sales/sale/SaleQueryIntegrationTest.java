@@ -19,7 +19,9 @@ import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCom
 import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.ReleaseSale;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.omt.labelmanager.shared.Format;
 import org.omt.labelmanager.shared.Money;
@@ -119,8 +121,8 @@ class SaleQueryIntegrationTest extends AbstractIntegrationTest {
         registerDirectSale(3);
         registerDistributorSale(externalDistributorId, 10);
 
-        List<Sale> directSales = saleQueryApi.getSalesForDistributor(directDistributorId);
-        List<Sale> externalSales = saleQueryApi.getSalesForDistributor(externalDistributorId);
+        List<Sale> directSales = salesOfDistributor(directDistributorId);
+        List<Sale> externalSales = salesOfDistributor(externalDistributorId);
 
         assertThat(directSales).hasSize(2);
         assertThat(directSales).allMatch(s -> s.distributorId().equals(directDistributorId));
@@ -131,7 +133,7 @@ class SaleQueryIntegrationTest extends AbstractIntegrationTest {
 
     @Test
     void getSalesForDistributor_returnsEmptyList_whenNoSales() {
-        List<Sale> sales = saleQueryApi.getSalesForDistributor(directDistributorId);
+        List<Sale> sales = salesOfDistributor(directDistributorId);
 
         assertThat(sales).isEmpty();
     }
@@ -142,7 +144,7 @@ class SaleQueryIntegrationTest extends AbstractIntegrationTest {
         registerDirectSaleOnDate(3, LocalDate.of(2026, 3, 5));
         registerDirectSaleOnDate(7, LocalDate.of(2026, 2, 20));
 
-        List<Sale> sales = saleQueryApi.getSalesForDistributor(directDistributorId);
+        List<Sale> sales = salesOfDistributor(directDistributorId);
 
         assertThat(sales).hasSize(3);
         assertThat(sales.get(0).saleDate()).isEqualTo(LocalDate.of(2026, 3, 5));
@@ -258,8 +260,86 @@ class SaleQueryIntegrationTest extends AbstractIntegrationTest {
         assertThat(salesForRepress).hasSize(1);
     }
 
+    // ── getSalesForRelease ───────────────────────────────────────────────────
+
+    @Test
+    void getSalesForRelease_listsASaleSpanningTwoPressingsOnceWithAllItsUnits() {
+        var repress =
+                productionRunTestHelper.createProductionRun(
+                        releaseId,
+                        Format.VINYL,
+                        "Second pressing",
+                        "Plant A",
+                        LocalDate.of(2026, 6, 1),
+                        100);
+        inventoryMovementCommandApi.recordMovement(
+                repress.id(),
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(directDistributorId),
+                100,
+                MovementType.ALLOCATION,
+                null);
+        var older = registerDirectSaleOnDate(5, LocalDate.of(2026, 1, 10));
+        // Takes the first pressing's remaining 75 and 25 of the repress.
+        var spanning = registerDirectSaleOnDate(100, LocalDate.of(2026, 2, 12));
+
+        List<ReleaseSale> sales = saleQueryApi.getSalesForRelease(releaseId);
+
+        assertThat(sales)
+                .extracting(ReleaseSale::saleId)
+                .containsExactly(spanning.id(), older.id());
+        assertThat(sales.getFirst().totalUnits()).isEqualTo(100);
+        assertThat(sales.getFirst().saleDate()).isEqualTo(LocalDate.of(2026, 2, 12));
+        assertThat(sales.getFirst().distributorId()).isEqualTo(spanning.distributorId());
+        assertThat(sales.getFirst().totalRevenue().amount())
+                .isEqualByComparingTo(new BigDecimal("1500.00"));
+    }
+
+    @Test
+    void getSalesForRelease_excludesSalesOfOtherReleases() {
+        var otherReleaseId = releaseTestHelper.createReleaseEntity("Other Release", labelId);
+        var otherRun =
+                productionRunTestHelper.createProductionRun(
+                        otherReleaseId,
+                        Format.VINYL,
+                        "First pressing",
+                        "Plant A",
+                        LocalDate.of(2025, 1, 1),
+                        50);
+        inventoryMovementCommandApi.recordMovement(
+                otherRun.id(),
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(directDistributorId),
+                50,
+                MovementType.ALLOCATION,
+                null);
+        saleCommandApi.registerSale(
+                labelId,
+                LocalDate.of(2026, 2, 12),
+                ChannelType.DIRECT,
+                null,
+                null,
+                List.of(
+                        new SaleLineItemInput(
+                                otherReleaseId,
+                                Format.VINYL,
+                                3,
+                                Money.of(new BigDecimal("15.00")))));
+        var sale = registerDirectSale(5);
+
+        assertThat(saleQueryApi.getSalesForRelease(releaseId))
+                .extracting(ReleaseSale::saleId)
+                .containsExactly(sale.id());
+    }
+
     // ── helpers ──────────────────────────────────────────────────────────────
 
+    private List<Sale> salesOfDistributor(Long distributorId) {
+        return saleQueryApi
+                .getSalesForDistributor(distributorId, SaleCursor.START, SaleQueryApi.MAX_PAGE_SIZE)
+                .sales();
+    }
+
     private Sale registerDirectSale(int quantity) {
         return registerDirectSaleOnDate(quantity, LocalDate.of(2026, 2, 12));
     }
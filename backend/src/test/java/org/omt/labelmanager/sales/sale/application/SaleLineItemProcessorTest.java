@@ -2,13 +2,19 @@ package org.omt.labelmanager.sales.sale.application;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,11 +25,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
 import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties;
+import org.omt.labelmanager.inventory.InventoryConcurrencyProperties.Mode;
 import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.InventoryLockProperties;
+import org.omt.labelmanager.inventory.InventoryMetrics;
+import org.omt.labelmanager.inventory.StockConcurrency;
 import org.omt.labelmanager.inventory.domain.RunDraw;
 import org.omt.labelmanager.inventory.domain.RunStock;
+import org.omt.labelmanager.inventory.domain.StockKey;
 import org.omt.labelmanager.inventory.domain.StockLedger;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.VersionedBalance;
 import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
+import org.omt.labelmanager.inventory.productionrun.api.VersionedLedgers;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
 import org.omt.labelmanager.sales.sale.infrastructure.SaleEntity;
 import org.omt.labelmanager.shared.Format;
@@ -44,13 +59,17 @@ class SaleLineItemProcessorTest {
 
     @Mock private ProductionRunQueryApi productionRunQueryApi;
 
+    @Mock private InventoryMovementCommandApi inventoryMovementCommandApi;
+
     @Mock private SaleEntity saleEntity;
 
+    private final Map<StockKey, StockLedger> ledgers = new HashMap<>();
+
     private SaleLineItemProcessor subject;
 
     @BeforeEach
     void setUp() {
-        subject = new SaleLineItemProcessor(releaseQueryApi, productionRunQueryApi);
+        subject = processorIn(Mode.PESSIMISTIC);
     }
 
     @Test
@@ -126,25 +145,93 @@ class SaleLineItemProcessorTest {
     }
 
     /**
-     * Locks go in a fixed order, not the order the line items happen to arrive in. Two sales
-     * listing the same two releases in opposite orders would otherwise each hold what the other
-     * waits for, and Postgres would kill one — a 500 rather than the 409 an out-of-stock sale gets.
+     * Every ledger is locked in one call, before anything is drawn, whatever order the line items
+     * come in. Locking line item by line item would take the locks in request-body order, and two
+     * sales listing the same two releases in opposite orders would each hold what the other waits
+     * for — a deadlock, and a 500 rather than the 409 an out-of-stock sale gets. The order within
+     * the call is the inventory module's, tested there.
      */
     @Test
-    void validateAndAdd_locksLedgersInAFixedOrderWhateverOrderTheLineItemsCome() {
+    void validateAndAdd_locksEveryLedgerInOneCallBeforeDrawing() {
         givenRelease();
         givenReleaseWithId(OTHER_RELEASE_ID);
         givenLedger(pressing(FIRST_PRESSING, "2024-01-01", 100));
-        when(productionRunQueryApi.lockedLedgerAt(OTHER_RELEASE_ID, Format.VINYL, FROM))
-                .thenReturn(StockLedger.of(List.of(pressing(REPRESS, "2024-01-01", 100))));
+        givenLedgerFor(
+                new StockKey(OTHER_RELEASE_ID, Format.VINYL),
+                pressing(REPRESS, "2024-01-01", 100));
 
-        // Line items in descending release order; the locks must still be taken in ascending.
         subject.validateAndAdd(
                 List.of(lineItem(1), lineItemFor(OTHER_RELEASE_ID, 1)), LABEL_ID, FROM, saleEntity);
 
-        var inOrder = inOrder(productionRunQueryApi);
-        inOrder.verify(productionRunQueryApi).lockedLedgerAt(OTHER_RELEASE_ID, Format.VINYL, FROM);
-        inOrder.verify(productionRunQueryApi).lockedLedgerAt(RELEASE_ID, Format.VINYL, FROM);
+        verify(productionRunQueryApi)
+                .lockedLedgersAt(
+                        List.of(
+                                new StockKey(RELEASE_ID, Format.VINYL),
+                                new StockKey(OTHER_RELEASE_ID, Format.VINYL)),
+                        FROM,
+                        InventoryLocation.external());
+    }
+
+    /**
+     * Optimistic mode locks nothing up front, and claims only the balances the sale drew from: a
+     * pressing it skipped can change under it without making its draws wrong, and claiming that too
+     * would turn every concurrent return of it into a conflict.
+     */
+    @Test
+    void validateAndAdd_optimistically_claimsOnlyTheBalancesItDrewFrom() {
+        subject = processorIn(Mode.OPTIMISTIC);
+        givenRelease();
+        var firstPressing = new VersionedBalance(FIRST_PRESSING, FROM, 30, 7);
+        var repress = new VersionedBalance(REPRESS, FROM, 100, 2);
+        when(productionRunQueryApi.versionedLedgersAt(any(), eq(FROM)))
+                .thenReturn(
+                        new VersionedLedgers(
+                                Map.of(
+                                        new StockKey(RELEASE_ID, Format.VINYL),
+                                        StockLedger.of(
+                                                List.of(
+                                                        pressing(FIRST_PRESSING, "2024-01-01", 30),
+                                                        pressing(REPRESS, "2026-01-01", 100)))),
+                                Map.of(FIRST_PRESSING, firstPressing, REPRESS, repress)));
+
+        var draws =
+                subject.validateAndAdd(
+                        List.of(lineItem(10), lineItem(5)), LABEL_ID, FROM, saleEntity);
+
+        assertThat(draws)
+                .containsExactly(new RunDraw(FIRST_PRESSING, 10), new RunDraw(FIRST_PRESSING, 5));
+        verify(inventoryMovementCommandApi)
+                .claimBalances(List.of(firstPressing), InventoryLocation.external());
+        verify(productionRunQueryApi, never()).lockedLedgersAt(any(), any(), any());
+    }
+
+    /** A sale refused for want of stock claims nothing: there is nothing to record. */
+    @Test
+    void validateAndAdd_optimistically_claimsNothingWhenTheStockIsShort() {
+        subject = processorIn(Mode.OPTIMISTIC);
+        givenRelease();
+        when(productionRunQueryApi.versionedLedgersAt(any(), eq(FROM)))
+                .thenReturn(
+                        new VersionedLedgers(
+                                Map.of(
+                                        new StockKey(RELEASE_ID, Format.VINYL),
+                                        StockLedger.of(
+                                                List.of(
+                                                        pressing(
+                                                                FIRST_PRESSING,
+                                                                "2024-01-01",
+                                                                3)))),
+                                Map.of(
+                                        FIRST_PRESSING,
+                                        new VersionedBalance(FIRST_PRESSING, FROM, 3, 1))));
+
+        assertThatThrownBy(
+                        () ->
+                                subject.validateAndAdd(
+                                        List.of(lineItem(4)), LABEL_ID, FROM, saleEntity))
+                .isInstanceOf(InsufficientInventoryException.class);
+
+        verify(inventoryMovementCommandApi, never()).claimBalances(any(), any());
     }
 
     @Test
@@ -160,6 +247,110 @@ class SaleLineItemProcessorTest {
                 .hasMessageContaining("No production run found");
     }
 
+    /** A batch's next sale must see this sale's draws, or the batch could oversell. */
+    @Test
+    void validateAndAddFromLedgers_takesTheDrawsOffTheSharedLedgers() {
+        var key = new StockKey(RELEASE_ID, Format.VINYL);
+        Map<StockKey, StockLedger> shared = new HashMap<>();
+        shared.put(key, StockLedger.of(List.of(pressing(FIRST_PRESSING, "2024-01-01", 40))));
+
+        var draws =
+                subject.validateAndAddFromLedgers(
+                        List.of(lineItem(30)), LABEL_ID, releasesOfLabel(), shared, saleEntity);
+
+        assertThat(draws).containsExactly(new RunDraw(FIRST_PRESSING, 30));
+        assertThat(shared.get(key).onHand()).isEqualTo(10);
+    }
+
+    /**
+     * A rejected sale is skipped, not rolled back — the batch goes on. Had its first line item's
+     * draw stayed on the shared ledgers, the sales after it would be refused stock that is still
+     * there.
+     */
+    @Test
+    void validateAndAddFromLedgers_leavesTheSharedLedgersAloneWhenALaterLineItemFails() {
+        var key = new StockKey(RELEASE_ID, Format.VINYL);
+        Map<StockKey, StockLedger> shared = new HashMap<>();
+        shared.put(key, StockLedger.of(List.of(pressing(FIRST_PRESSING, "2024-01-01", 40))));
+
+        assertThatThrownBy(
+                        () ->
+                                subject.validateAndAddFromLedgers(
+                                        List.of(lineItem(30), lineItem(30)),
+                                        LABEL_ID,
+                                        releasesOfLabel(),
+                                        shared,
+                                        saleEntity))
+                .isInstanceOf(InsufficientInventoryException.class);
+
+        assertThat(shared.get(key).onHand()).isEqualTo(40);
+    }
+
+    @Test
+    void validateAndAddFromLedgers_refusesAReleaseOfAnotherLabel() {
+        Map<StockKey, StockLedger> shared = new HashMap<>();
+
+        assertThatThrownBy(
+                        () ->
+                                subject.validateAndAddFromLedgers(
+                                        List.of(lineItemFor(OTHER_RELEASE_ID, 1)),
+                                        LABEL_ID,
+                                        releasesOfLabel(),
+                                        shared,
+                                        saleEntity))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not belong to label");
+    }
+
+    /** An edit's line items that are not drawn again must still not reach the CHECK constraints. */
+    @Test
+    void validate_refusesANegativePriceWithoutTouchingStock() {
+        givenRelease();
+        var lineItem =
+                new SaleLineItemInput(
+                        RELEASE_ID, Format.VINYL, 1, new Money(new BigDecimal("-1.00"), "EUR"));
+
+        assertThatThrownBy(() -> subject.validate(List.of(lineItem), LABEL_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unit price");
+        verify(productionRunQueryApi, never()).lockedLedgersAt(any(), any(), any());
+    }
+
+    @Test
+    void validate_refusesALineItemOfNoUnits() {
+        givenRelease();
+
+        assertThatThrownBy(() -> subject.validate(List.of(lineItem(1), lineItem(0)), LABEL_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("quantity");
+    }
+
+    private SaleLineItemProcessor processorIn(Mode mode) {
+        var metrics = new InventoryMetrics(new SimpleMeterRegistry());
+        return new SaleLineItemProcessor(
+                releaseQueryApi,
+                productionRunQueryApi,
+                inventoryMovementCommandApi,
+                new StockConcurrency(
+                        new InventoryConcurrencyProperties(mode, 3),
+                        new InventoryLockProperties(Duration.ZERO, false, Duration.ofSeconds(1)),
+                        metrics),
+                metrics);
+    }
+
+    private Map<Long, Release> releasesOfLabel() {
+        return Map.of(
+                RELEASE_ID,
+                new Release(
+                        RELEASE_ID,
+                        "Test Album",
+                        LocalDate.now(),
+                        LABEL_ID,
+                        List.of(),
+                        List.of(),
+                        Set.of(Format.VINYL)));
+    }
+
     private void givenRelease() {
         when(releaseQueryApi.findById(RELEASE_ID))
                 .thenReturn(
@@ -194,8 +385,14 @@ class SaleLineItemProcessorTest {
     }
 
     private void givenLedger(RunStock... pressings) {
-        when(productionRunQueryApi.lockedLedgerAt(RELEASE_ID, Format.VINYL, FROM))
-                .thenReturn(StockLedger.of(List.of(pressings)));
+        givenLedgerFor(new StockKey(RELEASE_ID, Format.VINYL), pressings);
+    }
+
+    private void givenLedgerFor(StockKey key, RunStock... pressings) {
+        ledgers.put(key, StockLedger.of(List.of(pressings)));
+        when(productionRunQueryApi.lockedLedgersAt(
+                        any(), eq(FROM), eq(InventoryLocation.external())))
+                .thenReturn(ledgers);
     }
 
     private RunStock pressing(long runId, String manufacturedOn, int onHand) {
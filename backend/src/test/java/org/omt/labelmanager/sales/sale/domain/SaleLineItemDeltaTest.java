@@ -0,0 +1,85 @@
+package org.omt.labelmanager.sales.sale.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.inventory.domain.StockKey;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+
+class SaleLineItemDeltaTest {
+
+    private static final long RELEASE = 1L;
+    private static final long OTHER_RELEASE = 2L;
+
+    @Test
+    void identicalLineItems_areAHeaderOnlyEdit() {
+        var delta =
+                SaleLineItemDelta.between(
+                        List.of(line(RELEASE, Format.VINYL, 3, "15.00")),
+                        List.of(line(RELEASE, Format.VINYL, 3, "15.0")));
+
+        assertThat(delta.lineItemsChanged()).isFalse();
+        assertThat(delta.redrawn()).isEmpty();
+    }
+
+    @Test
+    void repricing_changesLineItemsButRedrawsNothing() {
+        var delta =
+                SaleLineItemDelta.between(
+                        List.of(line(RELEASE, Format.VINYL, 3, "15.00")),
+                        List.of(line(RELEASE, Format.VINYL, 3, "12.00")));
+
+        assertThat(delta.lineItemsChanged()).isTrue();
+        assertThat(delta.redrawn()).isEmpty();
+    }
+
+    @Test
+    void movingUnitsBetweenLineItemsOfOneKey_redrawsNothing() {
+        var delta =
+                SaleLineItemDelta.between(
+                        List.of(
+                                line(RELEASE, Format.VINYL, 3, "15.00"),
+                                line(RELEASE, Format.VINYL, 1, "10.00")),
+                        List.of(
+                                line(RELEASE, Format.VINYL, 2, "15.00"),
+                                line(RELEASE, Format.VINYL, 2, "10.00")));
+
+        assertThat(delta.lineItemsChanged()).isTrue();
+        assertThat(delta.redrawn()).isEmpty();
+    }
+
+    @Test
+    void redrawsOnlyTheKeysWhoseTotalQuantityChanges() {
+        var delta =
+                SaleLineItemDelta.between(
+                        List.of(
+                                line(RELEASE, Format.VINYL, 3, "15.00"),
+                                line(OTHER_RELEASE, Format.CD, 2, "10.00")),
+                        List.of(
+                                line(RELEASE, Format.VINYL, 3, "15.00"),
+                                line(OTHER_RELEASE, Format.CD, 5, "10.00")));
+
+        assertThat(delta.redrawn()).containsExactly(new StockKey(OTHER_RELEASE, Format.CD));
+    }
+
+    @Test
+    void aKeyDroppedOrAdded_isRedrawn() {
+        var delta =
+                SaleLineItemDelta.between(
+                        List.of(line(RELEASE, Format.VINYL, 3, "15.00")),
+                        List.of(line(RELEASE, Format.CD, 3, "15.00")));
+
+        assertThat(delta.redrawn())
+                .containsExactlyInAnyOrder(
+                        new StockKey(RELEASE, Format.VINYL), new StockKey(RELEASE, Format.CD));
+    }
+
+    private static SaleLineItemInput line(
+            long releaseId, Format format, int quantity, String unitPrice) {
+        return new SaleLineItemInput(
+                releaseId, format, quantity, Money.of(new BigDecimal(unitPrice)));
+    }
+}
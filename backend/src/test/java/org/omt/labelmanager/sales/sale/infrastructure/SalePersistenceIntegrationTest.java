@@ -14,6 +14,7 @@ import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.shared.Format;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 
 class SalePersistenceIntegrationTest extends AbstractIntegrationTest {
 
@@ -75,7 +76,7 @@ class SalePersistenceIntegrationTest extends AbstractIntegrationTest {
     }
 
     @Test
-    void findsByLabelIdOrderedByDate() {
+    void findsAPageOfTheLabelsSalesNewestFirst() {
         var sale1 =
                 new SaleEntity(
                         labelId,
@@ -102,15 +103,23 @@ class SalePersistenceIntegrationTest extends AbstractIntegrationTest {
         sale2.addLineItem(lineItem2);
         saleRepository.save(sale2);
 
-        var sales = saleRepository.findByLabelIdOrderBySaleDateDesc(labelId);
-
-        assertThat(sales).hasSize(2);
-        assertThat(sales.get(0).getSaleDate()).isEqualTo(LocalDate.of(2026, 2, 20));
-        assertThat(sales.get(1).getSaleDate()).isEqualTo(LocalDate.of(2026, 1, 15));
+        var ids =
+                saleRepository.findPageOfLabel(
+                        labelId,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        LocalDate.of(9999, 12, 31),
+                        Long.MAX_VALUE,
+                        Limit.of(10));
+
+        assertThat(ids).containsExactly(sale2.getId(), sale1.getId());
     }
 
     @Test
-    void sumsTotalAmountByLabelId() {
+    void sumsTotalAmountOfLabel() {
         var sale1 =
                 new SaleEntity(
                         labelId,
@@ -137,14 +146,14 @@ class SalePersistenceIntegrationTest extends AbstractIntegrationTest {
         sale2.addLineItem(lineItem2);
         saleRepository.save(sale2);
 
-        var total = saleRepository.sumTotalAmountByLabelId(labelId);
+        var total = saleRepository.sumTotalAmountOfLabel(labelId, null, null, null, null, null);
 
         assertThat(total).isEqualByComparingTo(new BigDecimal("56.00"));
     }
 
     @Test
-    void sumTotalAmountByLabelId_returnsZero_whenNoSales() {
-        var total = saleRepository.sumTotalAmountByLabelId(labelId);
+    void sumTotalAmountOfLabel_returnsZero_whenNoSales() {
+        var total = saleRepository.sumTotalAmountOfLabel(labelId, null, null, null, null, null);
 
         assertThat(total).isEqualByComparingTo(BigDecimal.ZERO);
     }
@@ -1,6 +1,7 @@
 package org.omt.labelmanager.sales.sale.web;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -19,23 +20,26 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.omt.labelmanager.catalog.label.api.LabelQueryApi;
 import org.omt.labelmanager.catalog.release.api.ReleaseQueryApi;
-import org.omt.labelmanager.catalog.release.domain.Release;
 import org.omt.labelmanager.distribution.distributor.DistributorFactory;
 import org.omt.labelmanager.distribution.distributor.api.ChannelType;
 import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
 import org.omt.labelmanager.identity.api.user.AppUserDetails;
 import org.omt.labelmanager.inventory.InsufficientInventoryException;
-import org.omt.labelmanager.inventory.productionrun.api.ProductionRunQueryApi;
-import org.omt.labelmanager.inventory.productionrun.domain.ProductionRunFactory;
 import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
 import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.BatchSaleResult;
+import org.omt.labelmanager.sales.sale.domain.ReleaseSale;
 import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.sale.domain.SaleFilter;
 import org.omt.labelmanager.sales.sale.domain.SaleLineItem;
+import org.omt.labelmanager.sales.sale.domain.SalePage;
 import org.omt.labelmanager.shared.Format;
 import org.omt.labelmanager.shared.Money;
 import org.omt.labelmanager.test.TestSecurityConfig;
@@ -61,8 +65,6 @@ class SaleControllerTest {
 
     @MockitoBean private DistributorQueryApi distributorQueryApi;
 
-    @MockitoBean private ProductionRunQueryApi productionRunQueryApi;
-
     private final AppUserDetails testUser =
             new AppUserDetails(1L, "test@example.com", "password", "Test User");
 
@@ -97,34 +99,90 @@ class SaleControllerTest {
                         Money.of(new BigDecimal("75.00")));
 
         when(saleQueryApi.findById(SALE_ID)).thenReturn(Optional.of(testSale));
-        when(releaseQueryApi.findById(RELEASE_ID))
-                .thenReturn(
-                        Optional.of(
-                                new Release(
-                                        RELEASE_ID,
-                                        "Test Release",
-                                        null,
-                                        LABEL_ID,
-                                        List.of(),
-                                        List.of(),
-                                        java.util.Set.of())));
+        when(releaseQueryApi.namesByIds(List.of(RELEASE_ID)))
+                .thenReturn(Map.of(RELEASE_ID, "Test Release"));
     }
 
     // ── GET list ──────────────────────────────────────────────────────────────
 
     @Test
     void listSales_returnsOkWithSalesAndTotalRevenue() throws Exception {
-        when(saleQueryApi.getSalesForLabel(LABEL_ID)).thenReturn(List.of(testSale));
-        when(saleQueryApi.getTotalRevenueForLabel(LABEL_ID))
+        when(saleQueryApi.getSalesForLabel(LABEL_ID, SaleFilter.NONE, SaleCursor.START, 50))
+                .thenReturn(new SalePage(List.of(testSale), null));
+        when(saleQueryApi.getTotalRevenueForLabel(LABEL_ID, SaleFilter.NONE))
                 .thenReturn(Money.of(new BigDecimal("75.00")));
 
         mockMvc.perform(get("/api/labels/{labelId}/sales", LABEL_ID).with(user(testUser)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.sales").isArray())
                 .andExpect(jsonPath("$.sales[0].id").value(SALE_ID.intValue()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalRevenue.amount").value(75.00));
+    }
+
+    @Test
+    void listSales_passesTheFiltersToThePageAndTheTotal() throws Exception {
+        var filter =
+                new SaleFilter(
+                        10L,
+                        ChannelType.DIRECT,
+                        LocalDate.of(2026, 1, 1),
+                        LocalDate.of(2026, 1, 31),
+                        RELEASE_ID);
+        when(saleQueryApi.getSalesForLabel(LABEL_ID, filter, SaleCursor.START, 20))
+                .thenReturn(new SalePage(List.of(testSale), null));
+        when(saleQueryApi.getTotalRevenueForLabel(LABEL_ID, filter))
+                .thenReturn(Money.of(new BigDecimal("75.00")));
+
+        mockMvc.perform(
+                        get("/api/labels/{labelId}/sales", LABEL_ID)
+                                .param("distributorId", "10")
+                                .param("channel", "DIRECT")
+                                .param("from", "2026-01-01")
+                                .param("to", "2026-01-31")
+                                .param("releaseId", RELEASE_ID.toString())
+                                .param("limit", "20")
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sales[0].id").value(SALE_ID.intValue()))
                 .andExpect(jsonPath("$.totalRevenue.amount").value(75.00));
     }
 
+    @Test
+    void listSales_handsOutACursorThatResumesAfterThePagesLastSale() throws Exception {
+        var next = SaleCursor.after(testSale);
+        when(saleQueryApi.getSalesForLabel(LABEL_ID, SaleFilter.NONE, SaleCursor.START, 1))
+                .thenReturn(new SalePage(List.of(testSale), next));
+        when(saleQueryApi.getSalesForLabel(LABEL_ID, SaleFilter.NONE, next, 1))
+                .thenReturn(new SalePage(List.of(), null));
+        when(saleQueryApi.getTotalRevenueForLabel(LABEL_ID, SaleFilter.NONE))
+                .thenReturn(Money.of(new BigDecimal("75.00")));
+
+        mockMvc.perform(
+                        get("/api/labels/{labelId}/sales", LABEL_ID)
+                                .param("limit", "1")
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(next.encode()));
+
+        mockMvc.perform(
+                        get("/api/labels/{labelId}/sales", LABEL_ID)
+                                .param("limit", "1")
+                                .param("cursor", next.encode())
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sales").isEmpty());
+    }
+
+    @Test
+    void listSales_returns400ForACursorItDidNotHandOut() throws Exception {
+        mockMvc.perform(
+                        get("/api/labels/{labelId}/sales", LABEL_ID)
+                                .param("cursor", "not-a-cursor")
+                                .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+    }
+
     // ── POST register ─────────────────────────────────────────────────────────
 
     @Test
@@ -212,6 +270,79 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // ── POST batch ────────────────────────────────────────────────────────────
+
+    @Test
+    void registerSales_returnsEachSalesOutcomeWithOk() throws Exception {
+        when(saleCommandApi.registerSales(eq(LABEL_ID), any()))
+                .thenReturn(
+                        List.of(
+                                BatchSaleResult.registered(0, SALE_ID),
+                                BatchSaleResult.rejected(1, "Insufficient inventory")));
+
+        mockMvc.perform(
+                        post("/api/labels/{labelId}/sales:batch", LABEL_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType(APPLICATION_JSON)
+                                .content(
+                                        """
+                                {
+                                  "sales": [
+                                    {
+                                      "saleDate": "2026-01-15",
+                                      "channel": "DIRECT",
+                                      "lineItems": [
+                                        {"releaseId": 10, "format": "VINYL", "quantity": 5, "unitPrice": 15.00}
+                                      ]
+                                    },
+                                    {
+                                      "saleDate": "2026-01-16",
+                                      "channel": "DIRECT",
+                                      "lineItems": [
+                                        {"releaseId": 10, "format": "VINYL", "quantity": 500, "unitPrice": 15.00}
+                                      ]
+                                    }
+                                  ]
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].saleId").value(SALE_ID))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient inventory"));
+    }
+
+    /** A sale missing its date is one rejected sale, not a rejected batch. */
+    @Test
+    void registerSales_passesAnIncompleteSaleThroughForTheUseCaseToReport() throws Exception {
+        when(saleCommandApi.registerSales(eq(LABEL_ID), any()))
+                .thenReturn(List.of(BatchSaleResult.rejected(0, "Sale date is required")));
+
+        mockMvc.perform(
+                        post("/api/labels/{labelId}/sales:batch", LABEL_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType(APPLICATION_JSON)
+                                .content(
+                                        """
+                                {"sales": [{"channel": "DIRECT"}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(1));
+    }
+
+    @Test
+    void registerSales_returnsBadRequestForAnEmptyBatch() throws Exception {
+        mockMvc.perform(
+                        post("/api/labels/{labelId}/sales:batch", LABEL_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType(APPLICATION_JSON)
+                                .content("{\"sales\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     // ── GET detail ────────────────────────────────────────────────────────────
 
     @Test
@@ -326,12 +457,14 @@ class SaleControllerTest {
     // ── GET scoped collections ────────────────────────────────────────────────
 
     @Test
-    void salesForRelease_returnsSalesAcrossProductionRuns() throws Exception {
-        var run = ProductionRunFactory.aProductionRun().id(7L).releaseId(RELEASE_ID).build();
-        var distributor = DistributorFactory.aDistributor().id(10L).name("Cargo").build();
-        when(productionRunQueryApi.findByReleaseId(RELEASE_ID)).thenReturn(List.of(run));
-        when(saleQueryApi.getSalesForProductionRun(7L)).thenReturn(List.of(testSale));
-        when(distributorQueryApi.findByLabelId(LABEL_ID)).thenReturn(List.of(distributor));
+    void salesForRelease_namesEachSalesDistributorAndTotalsTheUnits() throws Exception {
+        var cargo = DistributorFactory.aDistributor().id(10L).name("Cargo").build();
+        when(saleQueryApi.getSalesForRelease(RELEASE_ID))
+                .thenReturn(
+                        List.of(
+                                releaseSale(SALE_ID, 10L, 5),
+                                releaseSale(SALE_ID + 1, 99L, 3)));
+        when(distributorQueryApi.findByLabelId(LABEL_ID)).thenReturn(List.of(cargo));
 
         mockMvc.perform(
                         get(
@@ -340,37 +473,11 @@ class SaleControllerTest {
                                         RELEASE_ID)
                                 .with(user(testUser)))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sales[0].saleId").value(SALE_ID.intValue()))
                 .andExpect(jsonPath("$.sales[0].distributorName").value("Cargo"))
                 .andExpect(jsonPath("$.sales[0].totalUnits").value(5))
-                .andExpect(jsonPath("$.totalUnitsSold").value(5));
-    }
-
-    /**
-     * A sale big enough to span two pressings is attributed to both, so both production runs return
-     * it. Listing it twice would double its units in the release total.
-     */
-    @Test
-    void salesForRelease_listsASaleSpanningTwoPressingsOnce() throws Exception {
-        var firstPressing =
-                ProductionRunFactory.aProductionRun().id(7L).releaseId(RELEASE_ID).build();
-        var repress = ProductionRunFactory.aProductionRun().id(8L).releaseId(RELEASE_ID).build();
-        var distributor = DistributorFactory.aDistributor().id(10L).name("Cargo").build();
-
-        when(productionRunQueryApi.findByReleaseId(RELEASE_ID))
-                .thenReturn(List.of(firstPressing, repress));
-        when(saleQueryApi.getSalesForProductionRun(7L)).thenReturn(List.of(testSale));
-        when(saleQueryApi.getSalesForProductionRun(8L)).thenReturn(List.of(testSale));
-        when(distributorQueryApi.findByLabelId(LABEL_ID)).thenReturn(List.of(distributor));
-
-        mockMvc.perform(
-                        get(
-                                        "/api/labels/{labelId}/releases/{releaseId}/sales",
-                                        LABEL_ID,
-                                        RELEASE_ID)
-                                .with(user(testUser)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.sales.length()").value(1))
-                .andExpect(jsonPath("$.totalUnitsSold").value(5));
+                .andExpect(jsonPath("$.sales[1].distributorName").value("Unknown"))
+                .andExpect(jsonPath("$.totalUnitsSold").value(8));
     }
 
     @Test
@@ -385,12 +492,15 @@ class SaleControllerTest {
                                 .with(user(testUser)))
                 .andExpect(status().isNotFound());
 
-        verify(saleQueryApi, org.mockito.Mockito.never()).getSalesForProductionRun(any());
+        verify(saleQueryApi, org.mockito.Mockito.never()).getSalesForRelease(any());
     }
 
     @Test
     void salesForDistributor_returnsThatDistributorsSales() throws Exception {
-        when(saleQueryApi.getSalesForDistributor(10L)).thenReturn(List.of(testSale));
+        when(saleQueryApi.getSalesForDistributor(10L, SaleCursor.START, 50))
+                .thenReturn(new SalePage(List.of(testSale), null));
+        when(saleQueryApi.getTotalRevenueForDistributor(10L))
+                .thenReturn(Money.of(new BigDecimal("75.00")));
 
         mockMvc.perform(
                         get(
@@ -399,7 +509,8 @@ class SaleControllerTest {
                                         10L)
                                 .with(user(testUser)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(SALE_ID.intValue()));
+                .andExpect(jsonPath("$.sales[0].id").value(SALE_ID.intValue()))
+                .andExpect(jsonPath("$.totalRevenue.amount").value(75.00));
     }
 
     @Test
@@ -414,7 +525,8 @@ class SaleControllerTest {
                                 .with(user(testUser)))
                 .andExpect(status().isNotFound());
 
-        verify(saleQueryApi, org.mockito.Mockito.never()).getSalesForDistributor(any());
+        verify(saleQueryApi, org.mockito.Mockito.never())
+                .getSalesForDistributor(any(), any(), anyInt());
     }
 
     @Test
@@ -507,4 +619,13 @@ class SaleControllerTest {
         verify(saleCommandApi, org.mockito.Mockito.never())
                 .registerSale(any(), any(), any(), any(), any(), any());
     }
+
+    private static ReleaseSale releaseSale(Long saleId, Long distributorId, int units) {
+        return new ReleaseSale(
+                saleId,
+                LocalDate.of(2026, 1, 15),
+                distributorId,
+                units,
+                Money.of(new BigDecimal("15.00").multiply(BigDecimal.valueOf(units))));
+    }
 }
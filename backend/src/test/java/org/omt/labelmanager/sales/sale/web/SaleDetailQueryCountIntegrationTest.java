@@ -0,0 +1,117 @@
+package org.omt.labelmanager.sales.sale.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.distribution.distributor.api.DistributorQueryApi;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.sale.api.SaleCommandApi;
+import org.omt.labelmanager.sales.sale.domain.SaleLineItemInput;
+import org.omt.labelmanager.shared.Format;
+import org.omt.labelmanager.shared.Money;
+import org.omt.labelmanager.test.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The sale detail view names the release of every line item. Named one release at a time, each
+ * line cost a full release load; this pins the view to a fixed number of queries.
+ *
+ * <p>Here rather than beside the module's other integration tests because the detail response is
+ * package-private to the web package.
+ */
+class SaleDetailQueryCountIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private SaleController saleController;
+
+    @Autowired private SaleCommandApi saleCommandApi;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private DistributorQueryApi distributorQueryApi;
+
+    @Autowired private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    private Long labelId;
+    private Long directDistributorId;
+
+    @BeforeEach
+    void setUp() {
+        labelId = labelTestHelper.createLabelWithDirectDistributor("Detail Label").id();
+        directDistributorId =
+                distributorQueryApi
+                        .findByLabelIdAndChannelType(labelId, ChannelType.DIRECT)
+                        .orElseThrow()
+                        .id();
+    }
+
+    @Test
+    void viewSale_issuesTheSameNumberOfQueriesHoweverManyLineItems() {
+        Long oneLineSaleId = registerSaleOfReleases(1);
+        Long manyLineSaleId = registerSaleOfReleases(12);
+
+        var oneLine =
+                SqlStatementCounter.count(() -> saleController.viewSale(labelId, oneLineSaleId));
+        var manyLines =
+                SqlStatementCounter.count(() -> saleController.viewSale(labelId, manyLineSaleId));
+
+        assertThat(manyLines.result().lineItems()).hasSize(12);
+        assertThat(manyLines.result().lineItems())
+                .allSatisfy(item -> assertThat(item.releaseName()).startsWith("Detail Release"));
+        assertThat(manyLines.statements()).isEqualTo(oneLine.statements());
+    }
+
+    /** One line item per release, each release with its own stock at the direct distributor. */
+    private Long registerSaleOfReleases(int releases) {
+        List<SaleLineItemInput> lineItems = new ArrayList<>();
+        for (int i = 0; i < releases; i++) {
+            Long releaseId =
+                    releaseTestHelper.createReleaseEntity(
+                            "Detail Release " + releases + "-" + i, labelId);
+            Long productionRunId =
+                    productionRunTestHelper
+                            .createProductionRun(
+                                    releaseId,
+                                    Format.VINYL,
+                                    "First pressing",
+                                    "Plant A",
+                                    LocalDate.of(2025, 1, 1),
+                                    10)
+                            .id();
+            inventoryMovementCommandApi.recordMovement(
+                    productionRunId,
+                    InventoryLocation.warehouse(),
+                    InventoryLocation.distributor(directDistributorId),
+                    10,
+                    MovementType.ALLOCATION,
+                    null);
+            lineItems.add(
+                    new SaleLineItemInput(
+                            releaseId, Format.VINYL, 1, new Money(new BigDecimal("15.00"), "EUR")));
+        }
+        return saleCommandApi
+                .registerSale(
+                        labelId,
+                        LocalDate.of(2026, 3, 1),
+                        ChannelType.DIRECT,
+                        null,
+                        null,
+                        lineItems)
+                .id();
+    }
+}
@@ -0,0 +1,279 @@
+package org.omt.labelmanager.sales.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.AbstractIntegrationTest;
+import org.omt.labelmanager.catalog.label.LabelTestHelper;
+import org.omt.labelmanager.catalog.release.ReleaseTestHelper;
+import org.omt.labelmanager.distribution.distributor.DistributorTestHelper;
+import org.omt.labelmanager.distribution.distributor.api.ChannelType;
+import org.omt.labelmanager.inventory.InventoryLocation;
+import org.omt.labelmanager.inventory.MovementType;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementCommandApi;
+import org.omt.labelmanager.inventory.inventorymovement.api.InventoryMovementQueryApi;
+import org.omt.labelmanager.inventory.productionrun.ProductionRunTestHelper;
+import org.omt.labelmanager.sales.sale.api.SaleQueryApi;
+import org.omt.labelmanager.sales.sale.domain.Sale;
+import org.omt.labelmanager.sales.sale.domain.SaleCursor;
+import org.omt.labelmanager.sales.statement.api.StatementImportCommandApi;
+import org.omt.labelmanager.sales.statement.api.StatementImportQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImportStatus;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+import org.omt.labelmanager.shared.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** The test profile commits every three rows, so these statements span several chunks. */
+class StatementImportIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String HEADER = "sale_date,reference,release,format,quantity,unit_price\n";
+
+    @Autowired private StatementImportCommandApi commandApi;
+
+    @Autowired private StatementImportQueryApi queryApi;
+
+    @Autowired private SaleQueryApi saleQueryApi;
+
+    @Autowired private LabelTestHelper labelTestHelper;
+
+    @Autowired private ReleaseTestHelper releaseTestHelper;
+
+    @Autowired private ProductionRunTestHelper productionRunTestHelper;
+
+    @Autowired private DistributorTestHelper distributorTestHelper;
+
+    @Autowired private InventoryMovementCommandApi inventoryMovementCommandApi;
+
+    @Autowired private InventoryMovementQueryApi inventoryMovementQueryApi;
+
+    private Long labelId;
+    private Long releaseId;
+    private Long productionRunId;
+    private Long distributorId;
+
+    @BeforeEach
+    void setUp() {
+        labelId = labelTestHelper.createLabelWithDirectDistributor("Statement Label").id();
+        distributorId =
+                distributorTestHelper
+                        .createDistributor(labelId, "Statement Distro", ChannelType.DISTRIBUTOR)
+                        .id();
+        releaseId = releaseTestHelper.createReleaseEntity("Statement Release", labelId);
+        productionRunId =
+                productionRunTestHelper
+                        .createProductionRun(
+                                releaseId,
+                                Format.VINYL,
+                                "First pressing",
+                                "Plant A",
+                                LocalDate.of(2025, 1, 1),
+                                100)
+                        .id();
+        inventoryMovementCommandApi.recordMovement(
+                productionRunId,
+                InventoryLocation.warehouse(),
+                InventoryLocation.distributor(distributorId),
+                50,
+                MovementType.ALLOCATION,
+                null);
+    }
+
+    @Test
+    void ingest_registersOneSalePerReferenceAndDrawsTheDistributorsStock() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.CSV);
+
+        var completed =
+                commandApi.ingest(
+                        statementImport.id(),
+                        csv(
+                                "2026-03-01,A1,Statement Release,VINYL,2,15.00",
+                                "2026-03-01,A1,statement release ,VINYL,1,15.00",
+                                "2026-03-02,A2,Statement Release,VINYL,3,14.00",
+                                "2026-03-03,A3,Statement Release,VINYL,1,15.00",
+                                "2026-03-04,A4,Statement Release,VINYL,4,15.00"));
+
+        assertThat(completed.status()).isEqualTo(StatementImportStatus.COMPLETED);
+        assertThat(completed.rowsCommitted()).isEqualTo(5);
+        assertThat(completed.salesRegistered()).isEqualTo(4);
+        assertThat(completed.salesRejected()).isZero();
+
+        var sales = salesOfDistributor();
+        assertThat(sales).hasSize(4);
+        assertThat(sales).filteredOn(sale -> sale.lineItems().size() == 2).hasSize(1);
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(productionRunId, distributorId))
+                .isEqualTo(50 - 11);
+    }
+
+    @Test
+    void ingest_rejectsOnlyTheSalesWithABadRow() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.CSV);
+
+        var completed =
+                commandApi.ingest(
+                        statementImport.id(),
+                        csv(
+                                "2026-03-01,A1,Statement Release,VINYL,1,15.00",
+                                "2026-03-02,A2,Statement Release,VINYL,1,15.00",
+                                "2026-03-02,A2,No Such Release,VINYL,1,15.00",
+                                "2026-03-03,A3,Statement Release,VINYL,500,15.00",
+                                "2026-03-04,A4,Statement Release,VINYL,1,15.00"));
+
+        assertThat(completed.salesRegistered()).isEqualTo(2);
+        assertThat(completed.salesRejected()).isEqualTo(2);
+        assertThat(queryApi.getRejections(statementImport.id()))
+                .extracting(StatementRejection::rowNumber)
+                .containsExactly(2L, 4L);
+        assertThat(queryApi.getRejections(statementImport.id()).getFirst().error())
+                .startsWith("Row 3:");
+        assertThat(salesOfDistributor()).hasSize(2);
+    }
+
+    @Test
+    void ingest_readsNdjson() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.NDJSON);
+
+        var completed =
+                commandApi.ingest(
+                        statementImport.id(),
+                        content(
+                                "{\"sale_date\":\"2026-03-01\",\"reference\":\"N1\","
+                                        + "\"release_id\":"
+                                        + releaseId
+                                        + ",\"format\":\"VINYL\",\"quantity\":2,"
+                                        + "\"unit_price\":15.00}\n"
+                                        + "not json\n"));
+
+        assertThat(completed.salesRegistered()).isEqualTo(1);
+        assertThat(completed.salesRejected()).isEqualTo(1);
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(productionRunId, distributorId))
+                .isEqualTo(48);
+    }
+
+    /**
+     * The upload breaks off in the eighth sale. The chunks before it are in; sending the whole
+     * statement again registers the rest and none of the first six twice.
+     */
+    @Test
+    void ingest_resumesFromTheCheckpointAfterTheUploadBreaksOff() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.CSV);
+        String statement = HEADER + rows(8);
+        int breakAt = statement.indexOf("2026-03-08");
+
+        assertThatThrownBy(
+                        () ->
+                                commandApi.ingest(
+                                        statementImport.id(),
+                                        new BreakingInputStream(bytes(statement), breakAt + 5)))
+                .isInstanceOf(UncheckedIOException.class);
+
+        var brokenOff = queryApi.findById(statementImport.id()).orElseThrow();
+        assertThat(brokenOff.status()).isEqualTo(StatementImportStatus.RUNNING);
+        assertThat(brokenOff.rowsCommitted()).isEqualTo(6);
+        assertThat(salesOfDistributor()).hasSize(6);
+
+        var completed = commandApi.ingest(statementImport.id(), content(statement));
+
+        assertThat(completed.rowsCommitted()).isEqualTo(8);
+        assertThat(completed.salesRegistered()).isEqualTo(8);
+        assertThat(salesOfDistributor()).hasSize(8);
+        assertThat(inventoryMovementQueryApi.getCurrentInventory(productionRunId, distributorId))
+                .isEqualTo(42);
+    }
+
+    @Test
+    void ingest_refusesContentForACompletedImport() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.CSV);
+        commandApi.ingest(statementImport.id(), csv(rows(1).strip()));
+
+        assertThatThrownBy(() -> commandApi.ingest(statementImport.id(), csv(rows(1).strip())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(salesOfDistributor()).hasSize(1);
+    }
+
+    @Test
+    void ingest_failsTheImportWhenARequiredColumnIsMissing() {
+        var statementImport = commandApi.create(labelId, distributorId, StatementFormat.CSV);
+
+        assertThatThrownBy(
+                        () ->
+                                commandApi.ingest(
+                                        statementImport.id(),
+                                        content("sale_date,release,format,quantity\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        var failed = queryApi.findById(statementImport.id()).orElseThrow();
+        assertThat(failed.status()).isEqualTo(StatementImportStatus.FAILED);
+        assertThat(failed.lastError()).contains("unit_price");
+    }
+
+    private List<Sale> salesOfDistributor() {
+        return saleQueryApi
+                .getSalesForDistributor(
+                        distributorId, SaleCursor.START, SaleQueryApi.MAX_PAGE_SIZE)
+                .sales();
+    }
+
+    private static String rows(int count) {
+        var rows = new StringBuilder();
+        for (int day = 1; day <= count; day++) {
+            rows.append(
+                    "2026-03-0%d,R%d,Statement Release,VINYL,1,15.00\n".formatted(day, day));
+        }
+        return rows.toString();
+    }
+
+    private static InputStream csv(String... rows) {
+        return content(HEADER + String.join("\n", rows) + "\n");
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hands out a few bytes per read, as a network upload does, then fails as a dropped connection
+     * would.
+     */
+    private static final class BreakingInputStream extends InputStream {
+
+        private final byte[] content;
+        private final int breakAt;
+        private int position;
+
+        BreakingInputStream(byte[] content, int breakAt) {
+            this.content = content;
+            this.breakAt = breakAt;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (position >= breakAt) {
+                throw new IOException("Connection reset");
+            }
+            int count = Math.min(Math.min(length, 16), breakAt - position);
+            System.arraycopy(content, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
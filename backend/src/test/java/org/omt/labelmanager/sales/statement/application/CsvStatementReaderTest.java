@@ -0,0 +1,84 @@
+package org.omt.labelmanager.sales.statement.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvStatementReaderTest {
+
+    private static final String HEADER = "sale_date,reference,release,format,quantity,unit_price\n";
+
+    @Test
+    void next_readsQuotedFieldsWithCommasAndDoubledQuotes() throws IOException {
+        var rows = readAll(HEADER + "2026-03-01,A1,\"Songs, Vol. \"\"2\"\"\",VINYL,1,15.00\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().field(StatementRowMapper.RELEASE))
+                .isEqualTo("Songs, Vol. \"2\"");
+    }
+
+    @Test
+    void next_keepsALineBreakInsideAQuotedField() throws IOException {
+        var rows = readAll(HEADER + "2026-03-01,A1,\"Two\nLines\",VINYL,1,15.00\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().field(StatementRowMapper.RELEASE)).isEqualTo("Two\nLines");
+    }
+
+    /** Row numbers skip blank lines, so a resumed upload lines up however the file was saved. */
+    @Test
+    void next_skipsBlankLinesWithoutNumberingThem() throws IOException {
+        var rows =
+                readAll(
+                        HEADER
+                                + "\n2026-03-01,A1,Album,VINYL,1,15.00\r\n"
+                                + "\r\n"
+                                + "2026-03-01,A2,Album,VINYL,2,15.00");
+
+        assertThat(rows).extracting(StatementRow::number).containsExactly(1L, 2L);
+        assertThat(rows.get(1).field(StatementRowMapper.QUANTITY)).isEqualTo("2");
+    }
+
+    @Test
+    void next_ignoresAByteOrderMarkAndHeaderCase() throws IOException {
+        var rows =
+                readAll(
+                        "\uFEFFSale_Date,Release,FORMAT,Quantity,Unit_Price\n"
+                                + "2026-03-01,Album,VINYL,1,15.00\n");
+
+        assertThat(rows.getFirst().field(StatementRowMapper.SALE_DATE)).isEqualTo("2026-03-01");
+    }
+
+    @Test
+    void next_reportsARowWithTheWrongNumberOfFieldsAsAProblem() throws IOException {
+        var rows = readAll(HEADER + "2026-03-01,A1,Album,VINYL\n2026-03-01,A2,Album,VINYL,1,15\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).problem()).contains("4 fields");
+        assertThat(rows.get(1).problem()).isNull();
+    }
+
+    @Test
+    void next_refusesAHeaderWithoutARequiredColumn() {
+        assertThatThrownBy(() -> readAll("sale_date,release,format,quantity\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unit_price");
+    }
+
+    private static List<StatementRow> readAll(String csv) throws IOException {
+        List<StatementRow> rows = new ArrayList<>();
+        try (var reader = new CsvStatementReader(new BufferedReader(new StringReader(csv)))) {
+            StatementRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
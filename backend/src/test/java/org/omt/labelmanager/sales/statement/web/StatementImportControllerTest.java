@@ -0,0 +1,154 @@
+package org.omt.labelmanager.sales.statement.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.omt.labelmanager.identity.api.user.AppUserDetails;
+import org.omt.labelmanager.sales.statement.api.StatementImportCommandApi;
+import org.omt.labelmanager.sales.statement.api.StatementImportQueryApi;
+import org.omt.labelmanager.sales.statement.domain.StatementFormat;
+import org.omt.labelmanager.sales.statement.domain.StatementImport;
+import org.omt.labelmanager.sales.statement.domain.StatementImportStatus;
+import org.omt.labelmanager.sales.statement.domain.StatementRejection;
+import org.omt.labelmanager.test.TestSecurityConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(StatementImportController.class)
+@Import(TestSecurityConfig.class)
+class StatementImportControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private StatementImportCommandApi commandApi;
+
+    @MockitoBean private StatementImportQueryApi queryApi;
+
+    private final AppUserDetails testUser =
+            new AppUserDetails(1L, "test@example.com", "password", "Test User");
+
+    private static final Long LABEL_ID = 1L;
+    private static final Long OTHER_LABEL_ID = 2L;
+    private static final Long IMPORT_ID = 42L;
+    private static final Long DISTRIBUTOR_ID = 5L;
+
+    private static final String IMPORT_PATH = "/api/labels/{labelId}/statement-imports/{importId}";
+
+    @Test
+    void createImport_returnsCreatedWithThePendingImport() throws Exception {
+        when(commandApi.create(LABEL_ID, DISTRIBUTOR_ID, StatementFormat.CSV))
+                .thenReturn(statementImport(LABEL_ID, StatementImportStatus.PENDING));
+
+        mockMvc.perform(
+                        post("/api/labels/{labelId}/statement-imports", LABEL_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType(APPLICATION_JSON)
+                                .content("{\"distributorId\":5,\"format\":\"CSV\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(IMPORT_ID))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void createImport_returnsNotFound_whenTheDistributorIsNotTheLabels() throws Exception {
+        when(commandApi.create(LABEL_ID, DISTRIBUTOR_ID, StatementFormat.CSV))
+                .thenThrow(
+                        new EntityNotFoundException("Distributor 5 does not belong to label 1"));
+
+        mockMvc.perform(
+                        post("/api/labels/{labelId}/statement-imports", LABEL_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType(APPLICATION_JSON)
+                                .content("{\"distributorId\":5,\"format\":\"CSV\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadContent_streamsTheBodyIntoTheImport() throws Exception {
+        when(queryApi.findById(IMPORT_ID))
+                .thenReturn(
+                        Optional.of(statementImport(LABEL_ID, StatementImportStatus.PENDING)));
+        when(commandApi.ingest(eq(IMPORT_ID), any()))
+                .thenReturn(statementImport(LABEL_ID, StatementImportStatus.COMPLETED));
+
+        mockMvc.perform(
+                        put(IMPORT_PATH + "/content", LABEL_ID, IMPORT_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType("text/csv")
+                                .content("sale_date,release,format,quantity,unit_price\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void uploadContent_returnsNotFound_whenTheImportIsAnotherLabels() throws Exception {
+        when(queryApi.findById(IMPORT_ID))
+                .thenReturn(
+                        Optional.of(
+                                statementImport(OTHER_LABEL_ID, StatementImportStatus.PENDING)));
+
+        mockMvc.perform(
+                        put(IMPORT_PATH + "/content", LABEL_ID, IMPORT_ID)
+                                .with(user(testUser))
+                                .with(csrf())
+                                .contentType("text/csv")
+                                .content("sale_date\n"))
+                .andExpect(status().isNotFound());
+
+        verify(commandApi, never()).ingest(any(), any());
+    }
+
+    @Test
+    void rejections_returnsTheStoredReasons() throws Exception {
+        when(queryApi.findById(IMPORT_ID))
+                .thenReturn(
+                        Optional.of(statementImport(LABEL_ID, StatementImportStatus.COMPLETED)));
+        when(queryApi.getRejections(IMPORT_ID))
+                .thenReturn(List.of(new StatementRejection(3, "Row 3: no quantity given")));
+
+        mockMvc.perform(
+                        get(IMPORT_PATH + "/rejections", LABEL_ID, IMPORT_ID)
+                                .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rowNumber").value(3))
+                .andExpect(jsonPath("$[0].error").value("Row 3: no quantity given"));
+    }
+
+    private static StatementImport statementImport(Long labelId, StatementImportStatus status) {
+        Instant now = Instant.now();
+        return new StatementImport(
+                IMPORT_ID,
+                labelId,
+                DISTRIBUTOR_ID,
+                StatementFormat.CSV,
+                status,
+                0,
+                0,
+                0,
+                null,
+                now,
+                now);
+    }
+}
@@ -0,0 +1,32 @@
+package org.omt.labelmanager.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares, so a test can pin how many queries a read costs.
+ *
+ * <p>Registered for the test profile in {@code application-test.yaml}. Hibernate instantiates it
+ * itself, so the count is static. It covers everything that goes through Hibernate — derived,
+ * JPQL and native repository queries alike — but not {@code JdbcTemplate}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicLong statements = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        statements.incrementAndGet();
+        return sql;
+    }
+
+    /** Runs the call and reports how many statements it issued, along with its result. */
+    public static <T> Counted<T> count(Supplier<T> call) {
+        long before = statements.get();
+        T result = call.get();
+        return new Counted<>(result, statements.get() - before);
+    }
+
+    public record Counted<T>(T result, long statements) {}
+}